@@ -24,10 +24,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Properties;
 
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.TemplateGenerator;
 
 /**
  * 
@@ -117,4 +121,56 @@ public abstract class AbstractBuilderMojo extends AbstractMojo
         }
         return upToDate;
     }
+
+    /**
+     * Run the jobs of the generator, and record the generated files in the
+     * cache.
+     * 
+     * @param force log the errors and continue, instead of failing on the
+     * first file that could not be generated.
+     */
+    protected void generateFiles(TemplateGenerator generator, boolean force,
+            Properties cachedInfo, long lastModifiedMetadata) throws MojoExecutionException
+    {
+        List jobs;
+        try
+        {
+            jobs = generator.generate();
+        }
+        catch (BuildException e)
+        {
+            throw new MojoExecutionException("Error generating files", e);
+        }
+        
+        for (Iterator it = jobs.iterator(); it.hasNext();)
+        {
+            TemplateGenerator.Job job = (TemplateGenerator.Job) it.next();
+            Exception e = job.getException();
+            if (e != null)
+            {
+                String message = "Error merging velocity templates: " + e.getMessage();
+                if (force)
+                {
+                    getLog().error(message);
+                }
+                else
+                {
+                    //Stop execution throwing exception
+                    throw new MojoExecutionException(message, e);
+                }
+            }
+            else
+            {
+                if (!job.isWritten())
+                {
+                    getLog().debug("File unchanged: " + job.getOutputFile());
+                }
+                if (isCachingEnabled())
+                {
+                    cachedInfo.put(job.getOutputFile().getAbsolutePath(),
+                            Long.toString(lastModifiedMetadata));
+                }
+            }
+        }
+    }
 }
@@ -18,12 +18,7 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -36,7 +31,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.TreeMap;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
@@ -55,6 +50,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.trinidad.parse.FacesC
 import org.apache.myfaces.buildtools.maven2.plugin.builder.trinidad.parse.FacesConfigParser;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.trinidad.util.XIncludeFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildState;
 import org.apache.myfaces.buildtools.maven2.plugin.tagdoc.TagdocContentMojo.URLCreationFactory;
 import org.codehaus.plexus.util.StringUtils;
 import org.xml.sax.SAXException;
@@ -332,6 +328,41 @@ public class BuildMetaDataMojo extends AbstractMojo
      */
     private String noCache;
     
+    /**
+     * File where the content digest of every input of the last execution is
+     * stored (source files, input model, dependency metadata and the goal
+     * configuration). When all inputs are byte-identical to the previous
+     * execution, the model is not built again. Entries are relative to the
+     * source directories, so the state remains valid after a clean checkout
+     * or when the workspace is moved.
+     * 
+     * @since 1.0.14
+     * @parameter expression="${project.build.directory}/myfaces-builder-plugin-buildstate"
+     */
+    private File buildStateFile;
+    
+    /**
+     * File where the model items extracted from each class are stored, so
+     * that the next execution only has to parse the source files that changed
+     * (and the classes inheriting from them). It is only used when caching is
+     * enabled and no includes, excludes or maven-faces-plugin metadata are
+     * configured.
+     * 
+     * @since 1.0.14
+     * @parameter expression="${project.build.directory}/myfaces-builder-plugin-classes"
+     */
+    private File classFragmentCacheFile;
+    
+    /**
+     * Number of threads used to parse the java source files. Zero means one
+     * thread per available processor. The generated model does not depend on
+     * this value.
+     * 
+     * @since 1.0.14
+     * @parameter
+     */
+    private int parseThreads;
+    
     private File localResource;
     
     private FacesConfigBean _facesConfig;
@@ -389,6 +420,16 @@ public class BuildMetaDataMojo extends AbstractMojo
         parameters.setCompositeComponentLibraries(compositeComponentLibraries);
         
         parameters.setCompositeComponentFileExtensions(compositeComponentFileExtensions);
+        parameters.setParseThreads(parseThreads);
+        
+        if (StringUtils.isNotEmpty(includes)) 
+        {
+            parameters.setIncludes(includes);
+        }
+        if (StringUtils.isNotEmpty(excludes))
+        {
+            parameters.setExcludes(excludes);
+        }
         
         //Trinidad maven faces plugin integration
         if (isReadMavenFacesPluginMetadata())
@@ -403,51 +444,37 @@ public class BuildMetaDataMojo extends AbstractMojo
         
         //2. Check if is required to refresh model
         
-        if (!isReadMavenFacesPluginMetadata() && isCachingEnabled() && cacheFile != null)
+        File metadataFile = new File(targetDirectory, outputFile);
+        
+        BuildState buildState = null;
+        if (!isReadMavenFacesPluginMetadata() && isCachingEnabled() && buildStateFile != null)
         {
-            final Properties p = new Properties();
-            try
+            buildState = collectBuildState(parameters);
+            if (buildState.isUpToDate() && metadataFile.exists())
             {
-                if (cacheFile.exists())
-                {
-                    p.load(new BufferedInputStream(new FileInputStream(cacheFile)));
-                }
-
-                SourceVisitorChecker jsvc = new SourceVisitorChecker(p);
-                if (inputFile != null && inputFile.exists())
-                {
-                    jsvc.processSource(inputFile);
-                }
-                
-                IOUtils.visitSources(parameters,  jsvc);
-                
-                if (jsvc.isUpToDate())
-                {
-                    //Model is up to date, no need to create it again.
-                    getLog().info("model is up to date");
-                    return;
-                }
-            }
-            catch (FileNotFoundException e)
-            {
-                throw new MojoExecutionException("cannot read cacheFile:"+cacheFile.getAbsolutePath());
-            }
-            catch (IOException e)
-            {
-                throw new MojoExecutionException("cannot read cacheFile:"+cacheFile.getAbsolutePath());
+                //Model is up to date, no need to create it again.
+                getLog().info("model is up to date");
+                return;
             }
         }
         
+        if (buildState != null && classFragmentCacheFile != null
+                && StringUtils.isEmpty(includes) && StringUtils.isEmpty(excludes))
+        {
+            parameters.setClassFragmentCacheFile(classFragmentCacheFile);
+        }
+        
         List models = IOUtils.getModelsFromArtifacts(project); 
         models = sortModels(models);
 
         Model model = new Model();
+        List mergedModels = new ArrayList(models.size() + 1);
 
         if (inputFile != null)
         {
             // An explicitly-specified input model takes precedence
             Model fileModel = IOUtils.loadModel(inputFile);
-            model.merge(fileModel);
+            mergedModels.add(fileModel);
         }
         
         
@@ -457,99 +484,147 @@ public class BuildMetaDataMojo extends AbstractMojo
             
             if ((dependencyModelIds == null) || dependencyModelIds.contains(artifactModel.getModelId()))
             {
-                model.merge(artifactModel);
+                mergedModels.add(artifactModel);
             }
         }
+        model.merge(mergedModels);
         
         buildModel(model, project, parameters);
         
         resolveReplacePackage(model);
         
-        File metadataFile = new File(targetDirectory, outputFile);
-        
         IOUtils.saveModel(model, metadataFile);
+        ModelSnapshot.invalidate(metadataFile);
         
         validateComponents(model);
         
-        final Properties p = new Properties();
+        // The other goals of this plugin compare their outputs against the
+        // cacheFile, so a new model must invalidate it.
+        BuildState.invalidate(cacheFile);
         
-        if (!isReadMavenFacesPluginMetadata() && isCachingEnabled() && cacheFile != null)
+        if (buildState != null)
         {
-            p.put(outputFile, Long.toString(metadataFile.lastModified()));
-            if (inputFile != null && inputFile.exists())
+            try
             {
-                p.put(outputFile, Long.toString(inputFile.lastModified()));
+                buildState.store(buildStateFile);
             }
-        }
-        
-        IOUtils.visitSources(parameters, new IOUtils.SourceVisitor()
-        {
-            public void processSource(File file) throws IOException
+            catch (IOException e)
             {
-                p.put(file.getAbsolutePath(), Long.toString(file.lastModified()));                 
+                throw new MojoExecutionException("Error during saving build state information", e);
             }
-        });
-        
-        if (cacheFile.exists())
-        {
-            cacheFile.delete();
         }
-        if (!isReadMavenFacesPluginMetadata() && isCachingEnabled() && cacheFile != null)
+    }
+    
+    protected boolean isCachingEnabled()
+    {
+        return (!Boolean.valueOf(noCache)) && cacheFile != null;
+    }
+    
+    /**
+     * Record the content digest of every input of this goal: the goal
+     * configuration, the explicit input model, the metadata of each
+     * dependency, every source file and every composite component file.
+     */
+    private BuildState collectBuildState(ModelParams parameters)
+            throws MojoExecutionException
+    {
+        BuildState state = BuildState.load(buildStateFile);
+        try
         {
-            try
+            state.putValue("config", getConfigurationKey());
+            
+            if (inputFile != null && inputFile.exists())
             {
-                p.store(new BufferedOutputStream(new FileOutputStream(cacheFile)), "Created: "+ Long.toString(System.currentTimeMillis()));
+                state.putFile("input:" + inputFile.getName(), inputFile);
             }
-            catch (IOException e)
+            
+            Map dependencies = IOUtils.getMetadataDigestsFromArtifacts(project);
+            for (Iterator it = dependencies.entrySet().iterator(); it.hasNext();)
             {
-                throw new MojoExecutionException("Error during saving cache information", e);
+                Map.Entry entry = (Map.Entry) it.next();
+                state.put("dependency:" + entry.getKey(), (String) entry.getValue());
             }
+            
+            IOUtils.visitSources(parameters, new SourceStateVisitor(state, parameters.getSourceDirs()));
+            
+            collectCompositeComponentState(state);
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("cannot read build inputs", e);
         }
+        return state;
     }
     
-    protected boolean isCachingEnabled()
+    private String getConfigurationKey()
     {
-        return (!Boolean.valueOf(noCache)) && cacheFile != null;
+        StringBuffer sb = new StringBuffer();
+        sb.append(modelId).append('|');
+        sb.append(outputFile).append('|');
+        sb.append(replacePackagePrefixTagFrom).append('|');
+        sb.append(replacePackagePrefixTagTo).append('|');
+        sb.append(orderModelIds).append('|');
+        sb.append(dependencyModelIds).append('|');
+        sb.append(includes).append('|');
+        sb.append(excludes).append('|');
+        sb.append(compositeComponentLibraries == null ? null : new TreeMap(compositeComponentLibraries)).append('|');
+        sb.append(compositeComponentFileExtensions);
+        return sb.toString();
     }
     
-    private class SourceVisitorChecker implements SourceVisitor
+    private void collectCompositeComponentState(BuildState state) throws IOException
     {
-        private Properties cachedInfo;
-        
-        private boolean upToDate;
-        
-        public SourceVisitorChecker(Properties p)
+        if (compositeComponentDirectory == null || compositeComponentLibraries == null
+                || !compositeComponentDirectory.isDirectory())
         {
-            cachedInfo = p;
-            upToDate = true;
+            return;
         }
-
-        public void processSource(File file) throws IOException
+        String[] fileExtensions = compositeComponentFileExtensions != null ?
+                compositeComponentFileExtensions.split(" ") : new String[]{".xhtml"};
+        for (Iterator it = compositeComponentLibraries.values().iterator(); it.hasNext();)
         {
-            if (!upToDate)
+            String libraryName = (String) it.next();
+            File[] files = new File(compositeComponentDirectory, libraryName).listFiles();
+            if (files == null)
             {
-                return;
+                continue;
             }
-            String lastModifiedString = cachedInfo.getProperty(file.getAbsolutePath());
-            if (lastModifiedString != null)
+            for (int i = 0; i < files.length; i++)
             {
-                Long lastModified = Long.valueOf(lastModifiedString);
-                if (lastModified != null && file.lastModified() > lastModified.longValue())
+                for (int j = 0; j < fileExtensions.length; j++)
                 {
-                    upToDate = false;
+                    if (files[i].getName().endsWith(fileExtensions[j]))
+                    {
+                        state.putFile("composite:" + libraryName + '/' + files[i].getName(), files[i]);
+                        break;
+                    }
                 }
             }
-            else
-            {
-                upToDate = false;
-            }
         }
+    }
+    
+    /**
+     * Records the digest of each visited source file, keyed by its path
+     * relative to the source directory it belongs to.
+     */
+    private static class SourceStateVisitor implements SourceVisitor
+    {
+        private BuildState state;
+        
+        private List sourceDirs;
         
-        public boolean isUpToDate()
+        public SourceStateVisitor(BuildState state, List sourceDirs)
+        {
+            this.state = state;
+            this.sourceDirs = sourceDirs;
+        }
+
+        public void processSource(File file) throws IOException
         {
-            return upToDate;
+            state.putFile("source:" + IOUtils.getSourceRelativeName(file, sourceDirs), file);
         }
     }
+    
     /**
      * Order the models as specified by the modelIdOrder property.
      * <p>
@@ -638,14 +713,6 @@ public class BuildMetaDataMojo extends AbstractMojo
         {
             QdoxModelBuilder builder = new QdoxModelBuilder();
             model.setModelId(modelId);
-            if (StringUtils.isNotEmpty(includes)) 
-            {
-                parameters.setIncludes(includes);
-            }
-            if (StringUtils.isNotEmpty(excludes))
-            {
-                parameters.setExcludes(excludes);
-            }
             builder.buildModel(model, parameters);            
             return model;
         }
@@ -660,6 +727,8 @@ public class BuildMetaDataMojo extends AbstractMojo
         List resources = project.getBuild().getResources();
         Resource resource = new Resource();
         resource.setDirectory(resourceRoot);
+        // The model snapshots are only used by the goals of this plugin
+        resource.addExclude("**/*" + ModelSnapshot.SNAPSHOT_SUFFIX);
         resources.add(resource);
     }
     
@@ -49,6 +49,12 @@ public class Flattener
     private Model model;
     private Set flattened = new HashSet();
 
+    /**
+     * The items whose parents are being flattened, to detect a class that
+     * inherits from itself.
+     */
+    private Set flattening = new HashSet();
+
     public Flattener(Model model)
     {
         this.model = model;
@@ -61,15 +67,54 @@ public class Flattener
      * data that it inherits from its parents, so that the getter methods return
      * all available metadata, not just the data that was defined directly on
      * that item.
+     * <p>
+     * Each item is flattened once, after its parents, so the data it inherits
+     * is copied from parents that are already complete. Flattening the same
+     * model again does nothing.
+     * </p>
      */
     public void flatten()
     {
+        if (model.isFlattened())
+        {
+            return;
+        }
         flattenComponentProperties();
         flattenValidatorProperties();
         flattenConverterProperties();
         flattenBehaviorProperties();
         flattenTagAttributes();
         flattenFaceletTagAttributes();
+        model.setFlattened(true);
+        flattening.clear();
+    }
+
+    /**
+     * Mark the item as being flattened.
+     * 
+     * @return false if the item is already flattened, or if it is being
+     * flattened, in which case its hierarchy contains a cycle.
+     */
+    private boolean beginFlatten(Object item, String className)
+    {
+        if (flattened.contains(item))
+        {
+            // already done
+            return false;
+        }
+        if (!flattening.add(item))
+        {
+            log.warn("Class " + className + " inherits from itself, "
+                    + "ignoring the inheritance cycle");
+            return false;
+        }
+        return true;
+    }
+
+    private void endFlatten(Object item)
+    {
+        flattening.remove(item);
+        flattened.add(item);
     }
 
     private void flattenComponentProperties()
@@ -82,12 +127,14 @@ public class Flattener
         }
     }
 
-    private void flattenComponent(ComponentMeta component)
+    /**
+     * @return true if the component can be merged into its children.
+     */
+    private boolean flattenComponent(ComponentMeta component)
     {
-        if (flattened.contains(component))
+        if (!beginFlatten(component, component.getClassName()))
         {
-            // already done
-            return;
+            return flattened.contains(component);
         }
         String parentClassName = component.getParentClassName();
         if (parentClassName != null)
@@ -96,8 +143,10 @@ public class Flattener
                     .findComponentByClassName(parentClassName);
             if (parent != null)
             {
-                flattenComponent(parent);
-                component.merge(parent);
+                if (flattenComponent(parent))
+                {
+                    component.merge(parent);
+                }
             }
             else
             {
@@ -110,8 +159,10 @@ public class Flattener
                         "UIComponent");
                 parent = model
                     .findComponentByClassName("jakarta.faces.component.UIComponent");
-                flattenComponent(parent);
-                component.merge(parent);                
+                if (parent != null && flattenComponent(parent))
+                {
+                    component.merge(parent);
+                }
             }
         }
 
@@ -121,11 +172,14 @@ public class Flattener
             String ifaceClassName = (String) i.next();
             ComponentMeta iface = model
                     .findComponentByClassName(ifaceClassName);
-            flattenComponent(iface);
-            component.merge(iface);
+            if (iface != null && flattenComponent(iface))
+            {
+                component.merge(iface);
+            }
         }
 
-        flattened.add(component);
+        endFlatten(component);
+        return true;
     }
     
     private void flattenValidatorProperties()
@@ -138,21 +192,19 @@ public class Flattener
         }
     }
     
-    private void flattenValidator(ValidatorMeta validator)
+    private boolean flattenValidator(ValidatorMeta validator)
     {
-        if (flattened.contains(validator))
+        if (!beginFlatten(validator, validator.getClassName()))
         {
-            // already done
-            return;
+            return flattened.contains(validator);
         }
         String parentClassName = validator.getParentClassName();
         if (parentClassName != null)
         {
             ValidatorMeta parent = model
                     .findValidatorByClassName(parentClassName);
-            if (parent != null)
+            if (parent != null && flattenValidator(parent))
             {
-                flattenValidator(parent);
                 validator.merge(parent);
             }
             else
@@ -163,7 +215,8 @@ public class Flattener
             }
         }
 
-        flattened.add(validator);
+        endFlatten(validator);
+        return true;
     }
 
     private void flattenConverterProperties()
@@ -176,21 +229,19 @@ public class Flattener
         }
     }
     
-    private void flattenConverter(ConverterMeta converter)
+    private boolean flattenConverter(ConverterMeta converter)
     {
-        if (flattened.contains(converter))
+        if (!beginFlatten(converter, converter.getClassName()))
         {
-            // already done
-            return;
+            return flattened.contains(converter);
         }
         String parentClassName = converter.getParentClassName();
         if (parentClassName != null)
         {
             ConverterMeta parent = model
                     .findConverterByClassName(parentClassName);
-            if (parent != null)
+            if (parent != null && flattenConverter(parent))
             {
-                flattenConverter(parent);
                 converter.merge(parent);
             }
             else
@@ -201,7 +252,8 @@ public class Flattener
             }
         }
 
-        flattened.add(converter);
+        endFlatten(converter);
+        return true;
     }
     
     private void flattenTagAttributes()
@@ -323,21 +375,19 @@ public class Flattener
     /**
      * @since 1.0.6
      **/
-    private void flattenBehavior(BehaviorMeta behavior)
+    private boolean flattenBehavior(BehaviorMeta behavior)
     {
-        if (flattened.contains(behavior))
+        if (!beginFlatten(behavior, behavior.getClassName()))
         {
-            // already done
-            return;
+            return flattened.contains(behavior);
         }
         String parentClassName = behavior.getParentClassName();
         if (parentClassName != null)
         {
             BehaviorMeta parent = model
                     .findBehaviorByClassName(parentClassName);
-            if (parent != null)
+            if (parent != null && flattenBehavior(parent))
             {
-                flattenBehavior(parent);
                 behavior.merge(parent);
             }
             else
@@ -348,7 +398,8 @@ public class Flattener
             }
         }
 
-        flattened.add(behavior);
+        endFlatten(behavior);
+        return true;
     }
     
     /**
@@ -360,18 +411,17 @@ public class Flattener
      * @since 1.0.4
      * 
      */
-    private void flattenFaceletTag(FaceletTagMeta faceletTag)
+    private boolean flattenFaceletTag(FaceletTagMeta faceletTag)
     {
-        if (flattened.contains(faceletTag))
-        {
-            // already done
-            return;
-        }
-          
         if (faceletTag.getSourceClassParentClassName() == null)
         {
             //No need to scan
-            return;
+            return true;
+        }
+        
+        if (!beginFlatten(faceletTag, faceletTag.getClassName()))
+        {
+            return flattened.contains(faceletTag);
         }
         
         // In order of precedence
@@ -381,9 +431,8 @@ public class Flattener
         {
             FaceletTagMeta parent = model
                     .findFaceletTagByClassName(parentClassName);
-            if (parent != null)
+            if (parent != null && flattenFaceletTag(parent))
             {
-                flattenFaceletTag(parent);
                 faceletTag.merge(parent);
             }
             else
@@ -506,7 +555,8 @@ public class Flattener
             }
         }
                 
-        flattened.add(faceletTag);
+        endFlatten(faceletTag);
+        return true;
     }
     
     /**
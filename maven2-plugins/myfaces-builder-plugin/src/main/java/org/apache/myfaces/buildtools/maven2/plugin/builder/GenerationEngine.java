@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildState;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MavenPluginConsoleLogSystem;
+import org.apache.velocity.Template;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+
+/**
+ * State shared by the goals that generate classes from the metadata
+ * (make-components, make-validators, make-converters, make-client-behaviors,
+ * make-tags, make-validator-tags and make-converter-tags).
+ * <p>
+ * These goals are usually all executed for the same module, one after the
+ * other. Each of them used to load the metadata, flatten it and create and
+ * initialize its own VelocityEngine. Here the flattened model is kept for
+ * the goals that follow, and so are the engines, with the templates they
+ * have already parsed.
+ * </p>
+ * <p>
+ * The flattened model is shared: the goals only read it. Only the model of
+ * the last metadata file and the engines of the last module and template
+ * directory are kept, so the memory used does not grow with the number of
+ * modules in the reactor.
+ * </p>
+ * <p>
+ * The engines are only handed to the goals of the module that created them,
+ * and a module runs its goals one after the other even in a parallel build,
+ * so the log an engine writes to is always the one of the goal using it.
+ * </p>
+ */
+public class GenerationEngine
+{
+    private static File modelFile;
+
+    private static String modelDigest;
+
+    private static Model model;
+
+    private static MavenProject templateProject;
+
+    private static File templateDirectory;
+
+    /** macro library -> VelocityEngine */
+    private static final Map engines = new HashMap();
+
+    /** macro library -> log system of its VelocityEngine */
+    private static final Map logSystems = new HashMap();
+
+    /**
+     * Return the flattened model of the given metadata file. The model must
+     * not be modified.
+     */
+    public static synchronized Model getFlattenedModel(File mdFile) throws MojoExecutionException
+    {
+        String digest = null;
+        try
+        {
+            if (mdFile.exists())
+            {
+                digest = BuildState.digest(mdFile);
+            }
+        }
+        catch (IOException e)
+        {
+            // let loadModel report the problem
+        }
+        if (digest != null && model != null && mdFile.equals(modelFile) && digest.equals(modelDigest))
+        {
+            return model;
+        }
+
+        Model flattened = ModelSnapshot.loadModel(mdFile);
+        new Flattener(flattened).flatten();
+        modelFile = mdFile;
+        modelDigest = digest;
+        model = digest != null ? flattened : null;
+        return flattened;
+    }
+
+    /**
+     * Return an initialized engine that loads the templates from the given
+     * directory first and then from the classpath, with the given macro
+     * library. The engine logs to the given log, also when it was created
+     * by a previous goal of the same module.
+     */
+    public static synchronized VelocityEngine getVelocityEngine(MavenProject project,
+            File templateSourceDirectory, String macroLibrary, Log log) throws MojoExecutionException
+    {
+        if (project != templateProject || !templateSourceDirectory.equals(templateDirectory))
+        {
+            engines.clear();
+            logSystems.clear();
+            templateProject = project;
+            templateDirectory = templateSourceDirectory;
+        }
+        VelocityEngine velocityEngine = (VelocityEngine) engines.get(macroLibrary);
+        if (velocityEngine != null)
+        {
+            ((MavenPluginConsoleLogSystem) logSystems.get(macroLibrary)).setLogger(log);
+            return velocityEngine;
+        }
+
+        MavenPluginConsoleLogSystem logSystem = new MavenPluginConsoleLogSystem(log);
+        try
+        {
+            velocityEngine = new VelocityEngine();
+            velocityEngine.setProperty( "resource.loader", "file, class" );
+            velocityEngine.setProperty( "file.resource.loader.class",
+                    "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
+            velocityEngine.setProperty( "file.resource.loader.path", templateSourceDirectory.getPath());
+            // keep the parsed templates; changed files are still detected
+            velocityEngine.setProperty( "file.resource.loader.cache", "true");
+            velocityEngine.setProperty( "class.resource.loader.class",
+                    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.RelativeClasspathResourceLoader" );
+            velocityEngine.setProperty( "class.resource.loader.path", "META-INF");
+            velocityEngine.setProperty( "class.resource.loader.cache", "true");
+            velocityEngine.setProperty( "velocimacro.library", macroLibrary);
+            velocityEngine.setProperty( "velocimacro.permissions.allow.inline","true");
+            velocityEngine.setProperty( "velocimacro.permissions.allow.inline.local.scope", "true");
+            velocityEngine.setProperty( "directive.foreach.counter.initial.value","0");
+            velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM, logSystem);
+            velocityEngine.init();
+        }
+        catch (Exception e)
+        {
+            throw new MojoExecutionException("Error creating VelocityEngine", e);
+        }
+        engines.put(macroLibrary, velocityEngine);
+        logSystems.put(macroLibrary, logSystem);
+        return velocityEngine;
+    }
+
+    public static Template getTemplate(VelocityEngine velocityEngine, String name)
+        throws MojoExecutionException
+    {
+        try
+        {
+            return velocityEngine.getTemplate(name);
+        }
+        catch (Exception e)
+        {
+            throw new MojoExecutionException(
+                    "Error merging velocity templates: " + e.getMessage(), e);
+        }
+    }
+}
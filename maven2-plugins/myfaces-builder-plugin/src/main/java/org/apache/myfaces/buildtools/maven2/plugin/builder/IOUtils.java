@@ -18,6 +18,8 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
@@ -29,13 +31,16 @@ import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Writer;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.apache.commons.digester.Digester;
@@ -47,6 +52,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildState;
 import org.codehaus.plexus.components.io.fileselectors.FileInfo;
 import org.codehaus.plexus.components.io.fileselectors.FileSelector;
 import org.codehaus.plexus.components.io.fileselectors.IncludeExcludeFileSelector;
@@ -175,80 +181,69 @@ public class IOUtils
         return existsFile;
     }
     
+    /**
+     * Return the name of a source file relative to the source directory that
+     * contains it, prefixed with the index of that directory in the list, eg
+     * "0:org/apache/Foo.java". Unlike the absolute path, this name does not
+     * change when the project is checked out somewhere else.
+     */
+    public static String getSourceRelativeName(File file, List sourceDirs)
+    {
+        String path = file.getAbsolutePath();
+        for (int i = 0; i < sourceDirs.size(); i++)
+        {
+            String root = new File(sourceDirs.get(i).toString()).getAbsolutePath();
+            if (path.startsWith(root) && path.length() > root.length()
+                    && path.charAt(root.length()) == File.separatorChar)
+            {
+                return Integer.toString(i) + ':' 
+                    + path.substring(root.length() + 1).replace(File.separatorChar, '/');
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * Load the metadata file contained in the given artifact, or return null
+     * if there is none.
+     * <p>
+     * The models are kept in the {@link ModelCache}, so each artifact is
+     * parsed only once per build even if many modules depend on it.
+     */
     public static Model getModelFromArtifact(Artifact artifact) 
         throws MojoExecutionException
     {
-        Model model = null;
         File jarFile = artifact.getFile();
-
-        URLClassLoader archetypeJarLoader;
-
-        InputStream is = null;
         try
         {
-            URL[] urls = new URL[1];
-            urls[0] = jarFile.toURI().toURL();
-            archetypeJarLoader = new URLClassLoader(urls);
-
-            is = getStream(MYFACES_METADATA, archetypeJarLoader);
-
-            if (is != null)
+            byte[] metadata = readMetadata(jarFile);
+            if (metadata == null)
             {
-                Reader r = null;
-                try
-                {
-                    r = new InputStreamReader(is);
-                    model = readModel(r);
-                    r.close();
-                }
-                catch (IOException e)
-                {
-                    throw new MojoExecutionException(
-                            "Error reading myfaces-metadata.xml form "
-                                    + artifact.getFile().getName(), e);
-                }
-                finally
-                {
-                    if (r != null)
-                    {
-                        try
-                        {
-                            r.close();
-                        }
-                        catch (IOException e)
-                        {
-                            //ignore
-                        }
-                    }
-                }
+                return null;
+            }
 
-                System.out.println("Artifact: "
-                        + artifact.getFile().getName()
-                        + " have META-INF/myfaces-metadata.xml");
+            String key = artifact.getGroupId() + ':' + artifact.getArtifactId() + ':'
+                    + artifact.getVersion() + ':' + artifact.getType() + ':'
+                    + StringUtils.defaultString(artifact.getClassifier());
+            String digest = BuildState.digest(new ByteArrayInputStream(metadata));
+            Model model = ModelCache.getModel(key, digest);
+            if (model == null)
+            {
+                model = readModel(new InputStreamReader(new ByteArrayInputStream(metadata)));
+                ModelCache.putModel(key, digest, model);
             }
+
+            System.out.println("Artifact: "
+                    + jarFile.getName()
+                    + " have META-INF/myfaces-metadata.xml");
+            return model;
         }
         catch (IOException e)
         {
             throw new MojoExecutionException(
                     "Error reading myfaces-metadata.xml form "
-                            + artifact.getFile().getName(), e);
-        }
-        finally
-        {
-            if (is != null)
-            {
-                try
-                {
-                    is.close();
-                }
-                catch (IOException ex)
-                {
-                    //ignore
-                }
-            }
+                            + jarFile.getName(), e);
         }
-
-        return model;
     }
 
     /**
@@ -266,96 +261,147 @@ public class IOUtils
 
             Artifact artifact = (Artifact) it.next();
             
-            if ("compile".equals(artifact.getScope())
-                    || "provided".equals(artifact.getScope())
-                    || "system".equals(artifact.getScope()))
+            if (isMetadataScope(artifact))
             {
                 //This is safe since we have all dependencies on the
                 //pom, so they are downloaded first by maven.
-                File jarFile = artifact.getFile();
-
-                URLClassLoader archetypeJarLoader;
-
-                InputStream is = null;
-                try
-                {
-                    URL[] urls = new URL[1];
-                    urls[0] = jarFile.toURL();
-                    archetypeJarLoader = new URLClassLoader(urls);
-
-                    is = getStream(MYFACES_METADATA, archetypeJarLoader);
-
-                    if (is != null)
-                    {
-                        Reader r = null;
-                        try
-                        {
-                            r = new InputStreamReader(is);
-                            Model m = readModel(r);
-                            models.add(m);
-                            r.close();
-                        }
-                        catch (IOException e)
-                        {
-                            throw new MojoExecutionException(
-                                    "Error reading myfaces-metadata.xml form "
-                                            + artifact.getFile().getName(), e);
-                        }
-                        finally
-                        {
-                            if (r != null)
-                            {
-                                try
-                                {
-                                    r.close();
-                                }
-                                catch (IOException e)
-                                {
-                                    //ignore
-                                }
-                            }
-                        }
-
-                        System.out.println("Artifact: "
-                                + artifact.getFile().getName()
-                                + " have META-INF/myfaces-metadata.xml");
-                    }
-                }
-                catch (IOException e)
+                Model m = getModelFromArtifact(artifact);
+                if (m != null)
                 {
-                    throw new MojoExecutionException(
-                            "Error reading myfaces-metadata.xml form "
-                                    + artifact.getFile().getName(), e);
-                }
-                finally
-                {
-                    if (is != null)
-                    {
-                        try
-                        {
-                            is.close();
-                        }
-                        catch (IOException ex)
-                        {
-                            //ignore
-                        }
-                    }
+                    models.add(m);
                 }
             }
         }
         return models;
     }
         
-    private static InputStream getStream( String name,
-            ClassLoader loader )
+    /**
+     * Compute the content digest of the metadata file in every jarfile that
+     * this maven project has a dependency on, without parsing it.
+     * <p>
+     * The returned map is keyed by "groupId:artifactId:type:classifier", so
+     * that it does not depend on the location of the local repository.
+     * Artifacts without a metadata file are not included.
+     */
+    public static Map getMetadataDigestsFromArtifacts(MavenProject project)
+            throws MojoExecutionException
     {
-        if ( loader == null )
+        Map digests = new TreeMap();
+        
+        for (Iterator it = project.getArtifacts().iterator(); it.hasNext();)
         {
-            return Thread.currentThread().getContextClassLoader().getResourceAsStream( name );
+            Artifact artifact = (Artifact) it.next();
+            
+            if (!isMetadataScope(artifact))
+            {
+                continue;
+            }
+            File jarFile = artifact.getFile();
+            if (jarFile == null || !jarFile.exists())
+            {
+                continue;
+            }
+            try
+            {
+                String digest = digestMetadata(jarFile);
+                if (digest != null)
+                {
+                    digests.put(artifact.getGroupId() + ':' + artifact.getArtifactId() + ':'
+                            + artifact.getType() + ':' + StringUtils.defaultString(artifact.getClassifier()),
+                            digest);
+                }
+            }
+            catch (IOException e)
+            {
+                throw new MojoExecutionException(
+                        "Error reading myfaces-metadata.xml form "
+                                + jarFile.getName(), e);
+            }
         }
-        return loader.getResourceAsStream( name );
+        return digests;
     }
     
+    private static boolean isMetadataScope(Artifact artifact)
+    {
+        return "compile".equals(artifact.getScope())
+                || "provided".equals(artifact.getScope())
+                || "system".equals(artifact.getScope());
+    }
+
+    /**
+     * Return the digest of the metadata file contained in the given jarfile
+     * (or classes directory, for reactor projects), or null if there is none.
+     */
+    private static String digestMetadata(File jarFile) throws IOException
+    {
+        byte[] metadata = readMetadata(jarFile);
+        return metadata == null ? null : BuildState.digest(new ByteArrayInputStream(metadata));
+    }
+
+    /**
+     * Return the content of the metadata file contained in the given jarfile
+     * (or classes directory, for reactor projects), or null if there is none.
+     */
+    private static byte[] readMetadata(File jarFile) throws IOException
+    {
+        if (jarFile == null || !jarFile.exists())
+        {
+            return null;
+        }
+        if (jarFile.isDirectory())
+        {
+            File metadata = new File(jarFile, MYFACES_METADATA);
+            if (!metadata.exists())
+            {
+                return null;
+            }
+            InputStream is = new FileInputStream(metadata);
+            try
+            {
+                return readAll(is);
+            }
+            finally
+            {
+                is.close();
+            }
+        }
+
+        ZipFile zip = new ZipFile(jarFile);
+        try
+        {
+            ZipEntry entry = zip.getEntry(MYFACES_METADATA);
+            if (entry == null)
+            {
+                return null;
+            }
+            InputStream is = zip.getInputStream(entry);
+            try
+            {
+                return readAll(is);
+            }
+            finally
+            {
+                is.close();
+            }
+        }
+        finally
+        {
+            zip.close();
+        }
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) != -1)
+        {
+            out.write(buf, 0, n);
+        }
+        return out.toByteArray();
+    }
+        
     /**
      * Read the contents of the model from a provided Reader object.
      */
@@ -363,19 +409,12 @@ public class IOUtils
     {
         try
         {
-            //Digester d = new Digester();
-            SAXParserFactory spf = SAXParserFactory.newInstance();
-            spf.setNamespaceAware(true);
-            // requires JAXP 1.3, in JavaSE 5.0
-            // spf.setXIncludeAware(true);
-            Digester d = new Digester(spf.newSAXParser());
-            d.setNamespaceAware(true);            
-
-            Model.addXmlRules(d);
+            Digester d = getModelDigester();
 
             d.parse(reader);
 
             Model model = (Model) d.getRoot();
+            releaseModelDigester(d);
             return model;
         }
         catch (IOException e)
@@ -393,6 +432,54 @@ public class IOUtils
         }
     }
     
+    /**
+     * Return a digester with the rules of Model.addXmlRules.
+     * <p>
+     * Registering the rules costs more than parsing a small metadata file,
+     * so each thread keeps the digester it used last and reuses it once the
+     * parse has completed. A digester whose parse failed is not reused.
+     * </p>
+     */
+    private static Digester getModelDigester()
+        throws ParserConfigurationException, SAXException
+    {
+        Digester d = (Digester) modelDigester.get();
+        if (d != null)
+        {
+            modelDigester.set(null);
+            d.clear();
+            return d;
+        }
+
+        SAXParser parser;
+        // SAXParserFactory is not required to be thread-safe
+        synchronized (parserFactory)
+        {
+            parser = parserFactory.newSAXParser();
+        }
+        d = new Digester(parser);
+        d.setNamespaceAware(true);
+        Model.addXmlRules(d);
+        return d;
+    }
+
+    private static void releaseModelDigester(Digester d)
+    {
+        d.clear();
+        modelDigester.set(d);
+    }
+
+    private static final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+
+    static
+    {
+        parserFactory.setNamespaceAware(true);
+        // requires JAXP 1.3, in JavaSE 5.0
+        // parserFactory.setXIncludeAware(true);
+    }
+
+    private static final ThreadLocal modelDigester = new ThreadLocal();
+
     public interface SourceVisitor
     {
         public void processSource(File file) throws IOException;
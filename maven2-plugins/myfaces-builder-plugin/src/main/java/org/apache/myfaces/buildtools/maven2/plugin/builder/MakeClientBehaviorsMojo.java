@@ -19,10 +19,7 @@
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -33,18 +30,14 @@ import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MavenPluginConsoleLogSystem;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MyfacesUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.TemplateGenerator;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
-import com.thoughtworks.qdox.JavaDocBuilder;
-
 /**
  * Maven goal to generate Java source code for Behavior classes.
  * 
@@ -169,6 +162,15 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
      */        
     private File mainSourceDirectory2;
 
+    /**
+     * Number of threads used to merge the templates. Zero means one thread
+     * per available processor.
+     * 
+     * @since 1.0.14
+     * @parameter
+     */
+    private int generatorThreads;
+
     /**
      * Execute the Mojo.
      */
@@ -187,8 +189,7 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
                 modelIds.add(project.getArtifactId());
             }
             File mdFile = new File(buildDirectory, metadataFile);
-            Model model = IOUtils.loadModel(mdFile);
-            new Flattener(model).flatten();
+            Model model = GenerationEngine.getFlattenedModel(mdFile);
             
             Properties cacheInfo = new Properties();
             loadCache(cacheInfo);
@@ -218,35 +219,7 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
             getLog().info("Using template from class loader: META-INF/"+_getTemplateName());
         }
                 
-        VelocityEngine velocityEngine = new VelocityEngine();
-                
-        try
-        {
-            velocityEngine.setProperty( "resource.loader", "file, class" );
-            velocityEngine.setProperty( "file.resource.loader.class",
-                    "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
-            velocityEngine.setProperty( "file.resource.loader.path", templateSourceDirectory.getPath());
-            velocityEngine.setProperty( "class.resource.loader.class",
-                    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.RelativeClasspathResourceLoader" );
-            velocityEngine.setProperty( "class.resource.loader.path", "META-INF");            
-            velocityEngine.setProperty( "velocimacro.library", "behaviorClassMacros20.vm");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline","true");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline.local.scope", "true");
-            velocityEngine.setProperty( "directive.foreach.counter.initial.value","0");
-            //velocityEngine.setProperty( RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-            //    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.ConsoleLogSystem" );
-            
-            velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM,
-                    new MavenPluginConsoleLogSystem(this.getLog()));
-
-            velocityEngine.init();
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException("Error creating VelocityEngine", e);
-        }
-        
-        return velocityEngine;
+        return GenerationEngine.getVelocityEngine(project, templateSourceDirectory, "behaviorClassMacros20.vm", getLog());
     }
     
 
@@ -323,25 +296,14 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
             }
         }
 
-        
-        //Init Qdox for extract code 
-        JavaDocBuilder builder = new JavaDocBuilder();
-        
-        List sourceDirs = project.getCompileSourceRoots();
-        
-        // need a File object representing the original source tree
-        for (Iterator i = sourceDirs.iterator(); i.hasNext();)
-        {
-            String srcDir = (String) i.next();
-            builder.addSourceTree(new File(srcDir));
-        }        
-        
-        //Init velocity
         VelocityEngine velocityEngine = initVelocity();
 
         VelocityContext baseContext = new VelocityContext();
         baseContext.put("utils", new MyfacesUtils());
         
+        Template template = GenerationEngine.getTemplate(velocityEngine, _getTemplateName());
+        TemplateGenerator generator = new TemplateGenerator(generatorThreads, null);
+        
         for (Iterator it = model.getBehaviors().iterator(); it.hasNext();)
         {
             BehaviorMeta behavior = (BehaviorMeta) it.next();
@@ -364,26 +326,13 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
                         }
                     }
                     getLog().info("Generating client behavior class:"+behavior.getClassName());
-                    try
-                    {
-                        _generateBehavior(velocityEngine, builder,behavior,baseContext,
-                                cachedInfo, lastModifiedMetadata);
-                    }
-                    catch(MojoExecutionException e)
-                    {
-                        if (force)
-                        {
-                            getLog().error(e.getMessage());
-                        }
-                        else
-                        {
-                            //Stop execution throwing exception
-                            throw e;
-                        }
-                    }
+                    _addBehavior(generator, template, behavior, baseContext);
                 }
             }
         }
+        
+        generateFiles(generator, force, cachedInfo, lastModifiedMetadata);
+        
         if (isCachingEnabled())
         {
             if (tf != null && tf.exists())
@@ -434,56 +383,21 @@ public class MakeClientBehaviorsMojo extends AbstractBuilderMojo
     
     
     /**
-     * Generates a parsed behavior.
+     * Adds the generation of a parsed behavior to the generator.
      * 
      * @param behavior
      *            the parsed behavior metadata
      */
-    private void _generateBehavior(VelocityEngine velocityEngine,
-            JavaDocBuilder builder,
-            BehaviorMeta behavior, VelocityContext baseContext,
-            Properties cachedInfo, long lastModifiedMetadata)
-            throws MojoExecutionException
+    private void _addBehavior(TemplateGenerator generator, Template template,
+            BehaviorMeta behavior, VelocityContext baseContext)
     {
         Context context = new VelocityContext(baseContext);
         context.put("clientBehavior", behavior);
         
-        Writer writer = null;
-        File outFile = null;
-
-        try
-        {
-            outFile = new File(generatedSourceDirectory, StringUtils.replace(
-                    behavior.getClassName(), ".", "/")+".java");
+        File outFile = new File(generatedSourceDirectory, StringUtils.replace(
+                behavior.getClassName(), ".", "/")+".java");
 
-            if ( !outFile.getParentFile().exists() )
-            {
-                outFile.getParentFile().mkdirs();
-            }
-
-            writer = new OutputStreamWriter(new FileOutputStream(outFile));
-
-            Template template = velocityEngine.getTemplate(_getTemplateName());
-                        
-            template.merge(context, writer);
-
-            writer.flush();
-            
-            if (isCachingEnabled())
-            {
-                cachedInfo.put(outFile.getAbsolutePath(), Long.toString(lastModifiedMetadata));
-            }
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException(
-                    "Error merging velocity templates: " + e.getMessage(), e);
-        }
-        finally
-        {
-            IOUtil.close(writer);
-            writer = null;
-        }
+        generator.addJob(behavior, template, context, outFile);
     }
                 
     private String _getTemplateName()
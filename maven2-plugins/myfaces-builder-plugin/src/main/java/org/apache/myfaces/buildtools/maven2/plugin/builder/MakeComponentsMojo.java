@@ -19,11 +19,8 @@
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.io.StringWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -34,14 +31,12 @@ import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MavenPluginConsoleLogSystem;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MyfacesUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.TemplateGenerator;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
 import com.thoughtworks.qdox.JavaDocBuilder;
@@ -204,6 +199,15 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
      */
     private String[] excludes;
 
+    /**
+     * Number of threads used to merge the templates. Zero means one thread
+     * per available processor.
+     * 
+     * @since 1.0.14
+     * @parameter
+     */
+    private int generatorThreads;
+
     /**
      * Execute the Mojo.
      */
@@ -222,8 +226,7 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
                 modelIds.add(project.getArtifactId());
             }
             File mdFile = new File(buildDirectory, metadataFile);
-            Model model = IOUtils.loadModel(mdFile);
-            new Flattener(model).flatten();
+            Model model = GenerationEngine.getFlattenedModel(mdFile);
 
             for(int i = 0; i < excludes.length; i++){
                 String str =  excludes[i];
@@ -266,34 +269,7 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
             getLog().info("Using template from class loader: META-INF/"+_getTemplateName());
         }
                 
-        VelocityEngine velocityEngine = null;
-        try
-        {
-            velocityEngine = new VelocityEngine();
-            velocityEngine.setProperty( "resource.loader", "file, class" );
-            velocityEngine.setProperty( "file.resource.loader.class",
-                    "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
-            velocityEngine.setProperty( "file.resource.loader.path", templateSourceDirectory.getPath());
-            velocityEngine.setProperty( "class.resource.loader.class",
-                    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.RelativeClasspathResourceLoader" );
-            velocityEngine.setProperty( "class.resource.loader.path", "META-INF");            
-            velocityEngine.setProperty( "velocimacro.library", "componentClassMacros11.vm");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline","true");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline.local.scope", "true");
-            velocityEngine.setProperty( "directive.foreach.counter.initial.value","0");
-            //velocityEngine.setProperty( RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-            //    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.ConsoleLogSystem" );
-            
-            velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM,
-                    new MavenPluginConsoleLogSystem(this.getLog()));
-            velocityEngine.init();
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException("Error creating VelocityEngine", e);
-        }
-        
-        return velocityEngine;
+        return GenerationEngine.getVelocityEngine(project, templateSourceDirectory, "componentClassMacros11.vm", getLog());
     }
     
 
@@ -392,6 +368,12 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
         VelocityContext baseContext = new VelocityContext();
         baseContext.put("utils", new MyfacesUtils());
         
+        Template template = GenerationEngine.getTemplate(velocityEngine, _getTemplateName());
+
+        // The contexts are built by this thread, because qdox is not
+        // thread-safe; only the merges run concurrently.
+        TemplateGenerator generator = new TemplateGenerator(generatorThreads, null);
+        
         for (Iterator it = model.getComponents().iterator(); it.hasNext();)
         {
             ComponentMeta component = (ComponentMeta) it.next();
@@ -415,26 +397,13 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
                     }
                     getLog().info("Generating component class:"+component.getClassName());
                     
-                    try 
-                    {
-                        _generateComponent(velocityEngine, builder,component,baseContext,
-                                cachedInfo, lastModifiedMetadata);
-                    }
-                    catch(MojoExecutionException e)
-                    {
-                        if (force)
-                        {
-                            getLog().error(e.getMessage());
-                        }
-                        else
-                        {
-                            //Stop execution throwing exception
-                            throw e;
-                        }
-                    }
+                    _addComponent(generator, template, builder, component, baseContext);
                 }
             }
         }
+        
+        generateFiles(generator, force, cachedInfo, lastModifiedMetadata);
+        
         if (isCachingEnabled())
         {
             if (tf != null && tf.exists())
@@ -531,16 +500,14 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
     
     
     /**
-     * Generates a parsed component.
+     * Adds the generation of a parsed component to the generator.
      * 
      * @param component
      *            the parsed component metadata
      */
-    private void _generateComponent(VelocityEngine velocityEngine,
+    private void _addComponent(TemplateGenerator generator, Template template,
             JavaDocBuilder builder,
-            ComponentMeta component, VelocityContext baseContext,
-            Properties cachedInfo, long lastModifiedMetadata)
-            throws MojoExecutionException
+            ComponentMeta component, VelocityContext baseContext)
     {
         Context context = new VelocityContext(baseContext);
         context.put("component", component);
@@ -555,42 +522,10 @@ public class MakeComponentsMojo extends AbstractBuilderMojo
             }
         }        
         
-        Writer writer = null;
-        File outFile = null;
-
-        try
-        {
-            outFile = new File(generatedSourceDirectory, StringUtils.replace(
-                    component.getClassName(), ".", "/")+".java");
-
-            if ( !outFile.getParentFile().exists() )
-            {
-                outFile.getParentFile().mkdirs();
-            }
-
-            writer = new OutputStreamWriter(new FileOutputStream(outFile));
+        File outFile = new File(generatedSourceDirectory, StringUtils.replace(
+                component.getClassName(), ".", "/")+".java");
 
-            Template template = velocityEngine.getTemplate(_getTemplateName());
-                        
-            template.merge(context, writer);
-
-            writer.flush();
-            
-            if (isCachingEnabled())
-            {
-                cachedInfo.put(outFile.getAbsolutePath(), Long.toString(lastModifiedMetadata));
-            }
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException(
-                    "Error merging velocity templates: " + e.getMessage(), e);
-        }
-        finally
-        {
-            IOUtil.close(writer);
-            writer = null;
-        }
+        generator.addJob(component, template, context, outFile);
     }
         
     /**
@@ -213,7 +213,7 @@ public class MakeConfigMojo extends AbstractBuilderMojo
             // Load the metadata file from an xml file (presumably generated
             // by an earlier execution of the build-metadata goal.
             File mdFile = new File(buildDirectory, metadataFile);
-            Model model = IOUtils.loadModel(mdFile);
+            Model model = ModelSnapshot.loadModel(mdFile);
 
             // Flatten the model so that the template can access every property
             // of each model item directly, even when the property is actually
@@ -22,10 +22,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -37,14 +34,12 @@ import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ConverterMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MavenPluginConsoleLogSystem;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MyfacesUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.TemplateGenerator;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
 /**
@@ -112,6 +107,15 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
      */        
     private File mainSourceDirectory2;
 
+    /**
+     * Number of threads used to merge the templates. Zero means one thread
+     * per available processor.
+     * 
+     * @since 1.0.14
+     * @parameter
+     */
+    private int generatorThreads;
+
     /**
      * The name of the template used to generate converter tag classes. According to the value on 
      * jsfVersion property the default if this property is not set could be tagConverterClass11.vm (1.1) or
@@ -207,8 +211,7 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
                 modelIds.add(project.getArtifactId());
             }
             File mdFile = new File(buildDirectory, metadataFile);
-            Model model = IOUtils.loadModel(mdFile);
-            new Flattener(model).flatten();
+            Model model = GenerationEngine.getFlattenedModel(mdFile);
             
             Properties cacheInfo = new Properties();
             loadCache(cacheInfo);
@@ -239,35 +242,7 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
             getLog().info("Using template from class loader: META-INF/"+_getTemplateTagName());
         }
                 
-        VelocityEngine velocityEngine = new VelocityEngine();
-                
-        try
-        {
-            velocityEngine.setProperty( "resource.loader", "file, class" );
-            velocityEngine.setProperty( "file.resource.loader.class",
-                    "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
-            velocityEngine.setProperty( "file.resource.loader.path", templateSourceDirectory.getPath());
-            velocityEngine.setProperty( "class.resource.loader.class",
-                    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.RelativeClasspathResourceLoader" );
-            velocityEngine.setProperty( "class.resource.loader.path", "META-INF");            
-            velocityEngine.setProperty( "velocimacro.library", "tagClassMacros11.vm");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline","true");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline.local.scope", "true");
-            velocityEngine.setProperty( "directive.foreach.counter.initial.value","0");
-            //velocityEngine.setProperty( RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-            //    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.ConsoleLogSystem" );
-            
-            velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM,
-                    new MavenPluginConsoleLogSystem(this.getLog()));
-                        
-            velocityEngine.init();
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException("Error creating VelocityEngine", e);
-        }
-        
-        return velocityEngine;
+        return GenerationEngine.getVelocityEngine(project, templateSourceDirectory, "tagClassMacros11.vm", getLog());
     }
 
     /**
@@ -345,6 +320,9 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
         VelocityContext baseContext = new VelocityContext();
         baseContext.put("utils", new MyfacesUtils());
         
+        Template template = GenerationEngine.getTemplate(velocityEngine, _getTemplateTagName());
+        TemplateGenerator generator = new TemplateGenerator(generatorThreads, null);
+        
         for (Iterator it = model.getConverters().iterator(); it.hasNext();)
         {
             ConverterMeta converter = (ConverterMeta) it.next();
@@ -367,26 +345,13 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
                         }
                     }
                     getLog().info("Generating tag class:"+converter.getTagClass());
-                    try
-                    {
-                        _generateConverter(velocityEngine, converter,baseContext, 
-                                cachedInfo, lastModifiedMetadata);
-                    }
-                    catch(MojoExecutionException e)
-                    {
-                        if (force)
-                        {
-                            getLog().error(e.getMessage());
-                        }
-                        else
-                        {
-                            //Stop execution throwing exception
-                            throw e;
-                        }
-                    }
+                    _addConverter(generator, template, converter, baseContext);
                 }
             }
         }
+        
+        generateFiles(generator, force, cachedInfo, lastModifiedMetadata);
+        
         if (isCachingEnabled())
         {
             if (tf != null && tf.exists())
@@ -450,55 +415,21 @@ public class MakeConverterTagsMojo extends AbstractBuilderMojo
 
 
     /**
-     * Generates a parsed component.
+     * Adds the generation of a parsed component to the generator.
      * 
      * @param converter
      *            the parsed component metadata
      */
-    private void _generateConverter(VelocityEngine velocityEngine, ConverterMeta converter, VelocityContext baseContext,
-            Properties cachedInfo, long lastModifiedMetadata)
-            throws MojoExecutionException
+    private void _addConverter(TemplateGenerator generator, Template template,
+            ConverterMeta converter, VelocityContext baseContext)
     {
-
         Context context = new VelocityContext(baseContext);
         context.put("converter", converter);
+        
+        File outFile = new File(generatedSourceDirectory, StringUtils.replace(
+                converter.getTagClass(), ".", "/")+".java");
 
-        Writer writer = null;
-        File outFile = null;
-
-        try
-        {
-            outFile = new File(generatedSourceDirectory, StringUtils.replace(
-                    converter.getTagClass(), ".", "/")+".java");
-
-            if ( !outFile.getParentFile().exists() )
-            {
-                outFile.getParentFile().mkdirs();
-            }
-
-            writer = new OutputStreamWriter(new FileOutputStream(outFile));
-
-            Template template = velocityEngine.getTemplate(_getTemplateTagName());
-                        
-            template.merge(context, writer);
-
-            writer.flush();
-            
-            if (isCachingEnabled())
-            {
-                cachedInfo.put(outFile.getAbsolutePath(), Long.toString(lastModifiedMetadata));
-            }
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException(
-                    "Error merging velocity templates: " + e.getMessage(), e);
-        }
-        finally
-        {
-            IOUtil.close(writer);
-            writer = null;
-        }
+        generator.addJob(converter, template, context, outFile);
     }
     
     private String _getTemplateTagName()
@@ -19,10 +19,7 @@
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -33,18 +30,14 @@ import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ConverterMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildException;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MavenPluginConsoleLogSystem;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.MyfacesUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.TemplateGenerator;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
 import org.apache.velocity.context.Context;
-import org.apache.velocity.runtime.RuntimeConstants;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
 
-import com.thoughtworks.qdox.JavaDocBuilder;
-
 /**
  * Maven goal to generate Java source code for Converter classes.
  * 
@@ -183,6 +176,15 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
      */        
     private File mainSourceDirectory2;
 
+    /**
+     * Number of threads used to merge the templates. Zero means one thread
+     * per available processor.
+     * 
+     * @since 1.0.14
+     * @parameter
+     */
+    private int generatorThreads;
+
     /**
      * Execute the Mojo.
      */
@@ -201,8 +203,7 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
                 modelIds.add(project.getArtifactId());
             }
             File mdFile = new File(buildDirectory, metadataFile);
-            Model model = IOUtils.loadModel(mdFile);
-            new Flattener(model).flatten();
+            Model model = GenerationEngine.getFlattenedModel(mdFile);
             
             Properties cacheInfo = new Properties();
             loadCache(cacheInfo);
@@ -232,35 +233,7 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
             getLog().info("Using template from class loader: META-INF/"+_getTemplateName());
         }
                 
-        VelocityEngine velocityEngine = new VelocityEngine();
-                
-        try
-        {
-            velocityEngine.setProperty( "resource.loader", "file, class" );
-            velocityEngine.setProperty( "file.resource.loader.class",
-                    "org.apache.velocity.runtime.resource.loader.FileResourceLoader");
-            velocityEngine.setProperty( "file.resource.loader.path", templateSourceDirectory.getPath());
-            velocityEngine.setProperty( "class.resource.loader.class",
-                    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.RelativeClasspathResourceLoader" );
-            velocityEngine.setProperty( "class.resource.loader.path", "META-INF");            
-            velocityEngine.setProperty( "velocimacro.library", "converterClassMacros11.vm");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline","true");
-            velocityEngine.setProperty( "velocimacro.permissions.allow.inline.local.scope", "true");
-            velocityEngine.setProperty( "directive.foreach.counter.initial.value","0");
-            //velocityEngine.setProperty( RuntimeConstants.RUNTIME_LOG_LOGSYSTEM_CLASS,
-            //    "org.apache.myfaces.buildtools.maven2.plugin.builder.utils.ConsoleLogSystem" );
-            
-            velocityEngine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM,
-                    new MavenPluginConsoleLogSystem(this.getLog()));
-
-            velocityEngine.init();
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException("Error creating VelocityEngine", e);
-        }
-        
-        return velocityEngine;
+        return GenerationEngine.getVelocityEngine(project, templateSourceDirectory, "converterClassMacros11.vm", getLog());
     }
     
 
@@ -337,25 +310,14 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
             }
         }
 
-        
-        //Init Qdox for extract code 
-        JavaDocBuilder builder = new JavaDocBuilder();
-        
-        List sourceDirs = project.getCompileSourceRoots();
-        
-        // need a File object representing the original source tree
-        for (Iterator i = sourceDirs.iterator(); i.hasNext();)
-        {
-            String srcDir = (String) i.next();
-            builder.addSourceTree(new File(srcDir));
-        }        
-        
-        //Init velocity
         VelocityEngine velocityEngine = initVelocity();
 
         VelocityContext baseContext = new VelocityContext();
         baseContext.put("utils", new MyfacesUtils());
         
+        Template template = GenerationEngine.getTemplate(velocityEngine, _getTemplateName());
+        TemplateGenerator generator = new TemplateGenerator(generatorThreads, null);
+        
         for (Iterator it = model.getConverters().iterator(); it.hasNext();)
         {
             ConverterMeta converter = (ConverterMeta) it.next();
@@ -378,26 +340,13 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
                         }
                     }
                     getLog().info("Generating converter class:"+converter.getClassName());
-                    try
-                    {
-                        _generateConverter(velocityEngine, builder,converter,baseContext,
-                                cachedInfo, lastModifiedMetadata);
-                    }
-                    catch(MojoExecutionException e)
-                    {
-                        if (force)
-                        {
-                            getLog().error(e.getMessage());
-                        }
-                        else
-                        {
-                            //Stop execution throwing exception
-                            throw e;
-                        }
-                    }
+                    _addConverter(generator, template, converter, baseContext);
                 }
             }
         }
+        
+        generateFiles(generator, force, cachedInfo, lastModifiedMetadata);
+        
         if (isCachingEnabled())
         {
             if (tf != null && tf.exists())
@@ -441,56 +390,21 @@ public class MakeConvertersMojo extends AbstractBuilderMojo
     
     
     /**
-     * Generates a parsed converter.
+     * Adds the generation of a parsed converter to the generator.
      * 
      * @param converter
      *            the parsed converter metadata
      */
-    private void _generateConverter(VelocityEngine velocityEngine,
-            JavaDocBuilder builder,
-            ConverterMeta converter, VelocityContext baseContext,
-            Properties cachedInfo, long lastModifiedMetadata)
-            throws MojoExecutionException
+    private void _addConverter(TemplateGenerator generator, Template template,
+            ConverterMeta converter, VelocityContext baseContext)
     {
         Context context = new VelocityContext(baseContext);
         context.put("converter", converter);
         
-        Writer writer = null;
-        File outFile = null;
-
-        try
-        {
-            outFile = new File(generatedSourceDirectory, StringUtils.replace(
-                    converter.getClassName(), ".", "/")+".java");
+        File outFile = new File(generatedSourceDirectory, StringUtils.replace(
+                converter.getClassName(), ".", "/")+".java");
 
-            if ( !outFile.getParentFile().exists() )
-            {
-                outFile.getParentFile().mkdirs();
-            }
-
-            writer = new OutputStreamWriter(new FileOutputStream(outFile));
-
-            Template template = velocityEngine.getTemplate(_getTemplateName());
-                        
-            template.merge(context, writer);
-
-            writer.flush();
-            
-            if (isCachingEnabled())
-            {
-                cachedInfo.put(outFile.getAbsolutePath(), Long.toString(lastModifiedMetadata));
-            }
-        }
-        catch (Exception e)
-        {
-            throw new MojoExecutionException(
-                    "Error merging velocity templates: " + e.getMessage(), e);
-        }
-        finally
-        {
-            IOUtil.close(writer);
-            writer = null;
-        }
+        generator.addJob(converter, template, context, outFile);
     }
                 
     private String _getTemplateName()
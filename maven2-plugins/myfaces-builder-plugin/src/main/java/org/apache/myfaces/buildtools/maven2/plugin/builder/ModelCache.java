@@ -0,0 +1,160 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+
+/**
+ * Models loaded during this build, shared by all the executions of the
+ * goals of this plugin in the reactor.
+ * <p>
+ * Without it, every module of a reactor parses again the metadata of the
+ * same dependencies (myfaces-api, tomahawk...), and every goal the metadata
+ * of its own module. Entries are keyed by the artifact coordinates (or the
+ * file name) plus the digest of the metadata, so a changed file is never
+ * served from the cache.
+ * </p>
+ * <p>
+ * Models are mutable and the goals do modify them (for example when they
+ * are flattened or merged), so the cache keeps the serialized form of each
+ * model and every lookup returns a new copy. The total size of the cached
+ * data is bounded; the least recently used entries are evicted first.
+ * </p>
+ */
+public class ModelCache
+{
+    /**
+     * Maximum size of the serialized models kept in memory, in bytes.
+     */
+    private static final long MAX_SIZE = 64L * 1024 * 1024;
+
+    private static final Log log = LogFactory.getLog(ModelCache.class);
+
+    /** key -> Entry, in access order */
+    private static final Map entries = new LinkedHashMap(16, 0.75f, true);
+
+    private static long size;
+
+    /**
+     * Return a copy of the model stored under the given key, or null if
+     * there is none or it was stored for another digest.
+     */
+    public static Model getModel(String key, String digest)
+    {
+        Entry entry;
+        synchronized (entries)
+        {
+            entry = (Entry) entries.get(key);
+        }
+        if (entry == null || !entry.digest.equals(digest))
+        {
+            return null;
+        }
+        try
+        {
+            return ModelSnapshot.deserialize(entry.data);
+        }
+        catch (Exception e)
+        {
+            log.debug("Discarding cached model " + key + ": " + e);
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Store a copy of the given model. Changes made to the model after this
+     * call are not seen by the cache.
+     */
+    public static void putModel(String key, String digest, Model model)
+    {
+        try
+        {
+            putModel(key, digest, ModelSnapshot.serialize(model));
+        }
+        catch (IOException e)
+        {
+            log.debug("Unable to cache model " + key + ": " + e);
+        }
+    }
+
+    /**
+     * Store an already serialized model.
+     */
+    static void putModel(String key, String digest, byte[] data)
+    {
+        synchronized (entries)
+        {
+            remove(key);
+            if (data.length > MAX_SIZE)
+            {
+                return;
+            }
+            entries.put(key, new Entry(digest, data));
+            size += data.length;
+            for (Iterator it = entries.values().iterator(); size > MAX_SIZE && it.hasNext();)
+            {
+                Entry eldest = (Entry) it.next();
+                it.remove();
+                size -= eldest.data.length;
+            }
+        }
+    }
+
+    public static void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    private static void remove(String key)
+    {
+        synchronized (entries)
+        {
+            Entry old = (Entry) entries.remove(key);
+            if (old != null)
+            {
+                size -= old.data.length;
+            }
+        }
+    }
+
+    private static class Entry
+    {
+        private final String digest;
+
+        private final byte[] data;
+
+        Entry(String digest, byte[] data)
+        {
+            this.digest = digest;
+            this.data = data;
+        }
+    }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +39,10 @@ public class ModelParams
     private String compositeComponentFileExtensions;
     
     private FacesConfigBean facesConfigBean;
+    
+    private File classFragmentCacheFile;
+    
+    private int parseThreads;
 
     public ModelParams()
     {
@@ -98,4 +103,20 @@ public class ModelParams
             String compositeComponentFileExtensions) {
         this.compositeComponentFileExtensions = compositeComponentFileExtensions;
     }
+    public File getClassFragmentCacheFile()
+    {
+        return classFragmentCacheFile;
+    }
+    public void setClassFragmentCacheFile(File classFragmentCacheFile)
+    {
+        this.classFragmentCacheFile = classFragmentCacheFile;
+    }
+    public int getParseThreads()
+    {
+        return parseThreads;
+    }
+    public void setParseThreads(int parseThreads)
+    {
+        this.parseThreads = parseThreads;
+    }
 }
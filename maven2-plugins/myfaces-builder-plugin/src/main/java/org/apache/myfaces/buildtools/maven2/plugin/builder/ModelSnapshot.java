@@ -0,0 +1,286 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildState;
+
+/**
+ * Binary snapshot of a metadata file, stored next to it.
+ * <p>
+ * Reading myfaces-metadata.xml requires building a Digester with all the
+ * rules of the model and parsing the xml, and every goal of this plugin does
+ * that again. The first goal that loads a metadata file writes the loaded
+ * Model as a serialized object graph (with duplicated strings shared), and
+ * the following goals read that instead.
+ * </p>
+ * <p>
+ * The loaded models are also kept in the {@link ModelCache}, so the goals
+ * executed later in the same build do not even have to read the snapshot.
+ * </p>
+ * <p>
+ * The snapshot starts with a format version and the digest of the xml file
+ * it was created from, so it is ignored when the xml file changes. The model
+ * classes do not declare a serialVersionUID, so a snapshot written by another
+ * version of this plugin cannot be read either; in all these cases the xml
+ * file is loaded and the snapshot written again.
+ * </p>
+ */
+public class ModelSnapshot
+{
+    /**
+     * Suffix added to the name of the xml file to get the snapshot file.
+     */
+    public static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x4d464d44;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Log log = LogFactory.getLog(ModelSnapshot.class);
+
+    /**
+     * Load a metadata file, using its snapshot when it is up to date.
+     */
+    public static Model loadModel(File xmlFile) throws MojoExecutionException
+    {
+        File snapshotFile = getSnapshotFile(xmlFile);
+        String digest = null;
+        try
+        {
+            if (xmlFile.exists())
+            {
+                digest = BuildState.digest(xmlFile);
+            }
+        }
+        catch (IOException e)
+        {
+            // let loadModel report the problem
+        }
+        if (digest == null)
+        {
+            return IOUtils.loadModel(xmlFile);
+        }
+
+        String key = "file:" + xmlFile.getAbsolutePath();
+        Model model = ModelCache.getModel(key, digest);
+        if (model != null)
+        {
+            return model;
+        }
+
+        if (snapshotFile.exists())
+        {
+            byte[] data = readSnapshot(snapshotFile, digest);
+            if (data != null)
+            {
+                try
+                {
+                    model = deserialize(data);
+                    ModelCache.putModel(key, digest, data);
+                    return model;
+                }
+                catch (Exception e)
+                {
+                    // Outdated or corrupt snapshot, just load the xml
+                    log.debug("Ignoring model snapshot " + snapshotFile + ": " + e);
+                }
+            }
+        }
+
+        model = IOUtils.loadModel(xmlFile);
+        try
+        {
+            byte[] data = serialize(model);
+            writeSnapshot(data, snapshotFile, digest);
+            ModelCache.putModel(key, digest, data);
+        }
+        catch (IOException e)
+        {
+            // The snapshot is only an optimization
+            log.warn("Unable to write model snapshot " + snapshotFile + ": " + e);
+        }
+        return model;
+    }
+
+    public static File getSnapshotFile(File xmlFile)
+    {
+        return new File(xmlFile.getPath() + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Remove the snapshot of the given metadata file, if any.
+     */
+    public static void invalidate(File xmlFile)
+    {
+        File snapshotFile = getSnapshotFile(xmlFile);
+        if (snapshotFile.exists())
+        {
+            snapshotFile.delete();
+        }
+    }
+
+    /**
+     * Serialize a model. Each distinct string is written only once.
+     */
+    static byte[] serialize(Model model) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        ObjectOutputStream out = new InterningObjectOutputStream(bytes);
+        out.writeObject(model);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    static Model deserialize(byte[] data) throws IOException, ClassNotFoundException
+    {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data));
+        try
+        {
+            return (Model) in.readObject();
+        }
+        finally
+        {
+            close(in);
+        }
+    }
+
+    /**
+     * Return the serialized model stored in the snapshot, or null if the
+     * snapshot was not created from an xml file with the given digest.
+     */
+    private static byte[] readSnapshot(File snapshotFile, String digest)
+    {
+        DataInputStream in = null;
+        try
+        {
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshotFile)));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !digest.equals(in.readUTF()))
+            {
+                return null;
+            }
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            return data;
+        }
+        catch (IOException e)
+        {
+            log.debug("Ignoring model snapshot " + snapshotFile + ": " + e);
+            return null;
+        }
+        finally
+        {
+            close(in);
+        }
+    }
+
+    private static void writeSnapshot(byte[] data, File snapshotFile, String digest)
+        throws IOException
+    {
+        // Write to a temporary file first, so that a concurrent reader never
+        // sees a partially written snapshot.
+        File tmpFile = new File(snapshotFile.getPath() + ".tmp" + SNAPSHOT_SUFFIX);
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile)));
+        try
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(digest);
+            out.writeInt(data.length);
+            out.write(data);
+            out.close();
+            out = null;
+        }
+        finally
+        {
+            close(out);
+        }
+        snapshotFile.delete();
+        if (!tmpFile.renameTo(snapshotFile))
+        {
+            tmpFile.delete();
+        }
+    }
+
+    private static void close(Closeable c)
+    {
+        if (c != null)
+        {
+            try
+            {
+                c.close();
+            }
+            catch (IOException e)
+            {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Writes each distinct string only once: equal strings are replaced by
+     * the first instance seen, which the stream then writes as a reference.
+     */
+    private static class InterningObjectOutputStream extends ObjectOutputStream
+    {
+        private final Map strings = new HashMap();
+
+        public InterningObjectOutputStream(OutputStream out) throws IOException
+        {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        protected Object replaceObject(Object obj) throws IOException
+        {
+            if (obj instanceof String)
+            {
+                Object shared = strings.get(obj);
+                if (shared != null)
+                {
+                    return shared;
+                }
+                strings.put(obj, obj);
+            }
+            return obj;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The java source files found in a set of source directories, by name
+ * relative to their source directory (for example "org/foo/Bar.java").
+ * <p>
+ * The index is filled while the source directories are scanned, so that
+ * checking whether a class has a source file does not need to probe the
+ * file system in every source directory. When the scan did not see every
+ * java file (because includes or excludes were configured), a name that is
+ * not in the index is still looked up on disk.
+ * </p>
+ */
+public class SourceIndex
+{
+    private final List sourceDirs;
+
+    private final String[] roots;
+
+    private final Set names = new HashSet();
+
+    private boolean complete;
+
+    /**
+     * @param complete true if all the java files of the source directories
+     * will be added to this index.
+     */
+    public SourceIndex(List sourceDirs, boolean complete)
+    {
+        this.sourceDirs = sourceDirs;
+        this.complete = complete;
+        roots = new String[sourceDirs.size()];
+        for (int i = 0; i < roots.length; i++)
+        {
+            roots[i] = new File(sourceDirs.get(i).toString()).getAbsolutePath();
+        }
+    }
+
+    /**
+     * Create an index for the sources visited with the given parameters.
+     */
+    public static SourceIndex create(ModelParams parameters)
+    {
+        boolean filtered = (parameters.getIncludes() != null && parameters.getIncludes().length() > 0)
+            || (parameters.getExcludes() != null && parameters.getExcludes().length() > 0);
+        return new SourceIndex(parameters.getSourceDirs(), !filtered);
+    }
+
+    /**
+     * Add a file found in one of the source directories.
+     */
+    public void add(File file)
+    {
+        String path = file.getAbsolutePath();
+        for (int i = 0; i < roots.length; i++)
+        {
+            String root = roots[i];
+            if (path.startsWith(root) && path.length() > root.length()
+                    && path.charAt(root.length()) == File.separatorChar)
+            {
+                names.add(path.substring(root.length() + 1).replace(File.separatorChar, '/'));
+                return;
+            }
+        }
+        // Not below a source directory as given, so names cannot be
+        // trusted to be missing any more.
+        complete = false;
+    }
+
+    /**
+     * Return true if the given file exists in one of the source directories.
+     *
+     * @param filename the name of the file, relative to the source directory
+     * and with '/' as separator.
+     */
+    public boolean exists(String filename)
+    {
+        if (names.contains(filename))
+        {
+            return true;
+        }
+        // Only java files are scanned
+        if (complete && filename.endsWith(".java"))
+        {
+            return false;
+        }
+        return IOUtils.existsSourceFile(filename, sourceDirs);
+    }
+
+    public List getSourceDirs()
+    {
+        return sourceDirs;
+    }
+}
@@ -281,7 +281,7 @@ public class BehaviorMeta extends ViewEntityMeta implements PropertyHolder
 
     //THIS METHODS ARE USED FOR VELOCITY TO GET DATA AND GENERATE CLASSES
     
-    private List _propertyTagList = null; 
+    private transient List _propertyTagList = null; 
     
     public Collection getPropertyTagList()
     {
@@ -302,7 +302,7 @@ public class BehaviorMeta extends ViewEntityMeta implements PropertyHolder
         return _propertyTagList;
     }
 
-    private List _propertyBehaviorList = null; 
+    private transient List _propertyBehaviorList = null; 
 
     public Collection getPropertyBehaviorList()
     {
@@ -18,6 +18,7 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -54,7 +55,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
  * any classes in the hierarchy that are not annotated, as they are not relevant
  * for the purposes of metadata inheritance.
  */
-public class ClassMeta
+public class ClassMeta implements Serializable
 {
     private String _xmlElementName;
 
@@ -615,7 +615,7 @@ public class ComponentMeta extends ViewEntityMeta implements
         return _facets.values();
     }
     
-    private List _propertyTagList = null; 
+    private transient List _propertyTagList = null; 
     
     public Collection getPropertyTagList()
     {
@@ -636,7 +636,7 @@ public class ComponentMeta extends ViewEntityMeta implements
         return _propertyTagList;
     }
     
-    private List _propertyComponentList = null; 
+    private transient List _propertyComponentList = null; 
     
     public Collection getPropertyComponentList()
     {
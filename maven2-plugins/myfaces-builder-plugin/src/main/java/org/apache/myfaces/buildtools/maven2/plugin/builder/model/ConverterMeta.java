@@ -360,7 +360,7 @@ public class ConverterMeta extends ViewEntityMeta implements PropertyHolder
     // on the tag class. This is a subset of the properties available on
     // this component itself, and depends upon what the parent class
     // of the generated tag already supports.
-    private List _propertyTagList = null; 
+    private transient List _propertyTagList = null; 
     
     public Collection getPropertyTagList()
     {
@@ -381,7 +381,7 @@ public class ConverterMeta extends ViewEntityMeta implements PropertyHolder
         return _propertyTagList;
     }
 
-    private List _propertyConverterList = null; 
+    private transient List _propertyConverterList = null; 
 
     /**
      * 
@@ -18,6 +18,8 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder.model;
 
+import java.io.Serializable;
+
 import org.apache.commons.digester.Digester;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
 
@@ -25,7 +27,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
  * FacetBean is a Java representation of the faces-config component or
  * renderer facet XML element.
  */
-public class FacetMeta
+public class FacetMeta implements Serializable
 {
     private String _longDescription;
     private String _description;
@@ -18,12 +18,13 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder.model;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.apache.commons.digester.Digester;
@@ -32,7 +33,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
 /**
  * Stores info about all of the JSF artifacts in the system being processed.
  */
-public class Model
+public class Model implements Serializable
 {
 
     private List _components = new ArrayList(100);
@@ -45,22 +46,26 @@ public class Model
     private List _faceletFunctions = new ArrayList(100);
     private List _webConfigs = new ArrayList(10);
 
-    private Map _componentsByClass = new TreeMap();
-    private Map _convertersByClass = new TreeMap();
-    private Map _behaviorsByClass = new TreeMap();
-    private Map _validatorsByClass = new TreeMap();
-    private Map _renderKitsById = new TreeMap();
-    private Map _tagsByClass =  new TreeMap();
-    private Map _faceletTagsByClass =  new TreeMap();
-    private Map _componentsByTagClass = new TreeMap();
-    private Map _faceletTagsByName = new TreeMap();
-    private Map _faceletFunctionsByName = new TreeMap();
-    private Map _webConfigsByModelId = new TreeMap();
+    // Lookup indexes, only used for finding entities by key (never
+    // iterated), so a hash map is enough.
+    private Map _componentsByClass = new HashMap();
+    private Map _convertersByClass = new HashMap();
+    private Map _behaviorsByClass = new HashMap();
+    private Map _validatorsByClass = new HashMap();
+    private Map _renderKitsById = new HashMap();
+    private Map _tagsByClass = new HashMap();
+    private Map _faceletTagsByClass = new HashMap();
+    private Map _componentsByTagClass = new HashMap();
+    private Map _faceletTagsByName = new HashMap();
+    private Map _faceletFunctionsByName = new HashMap();
+    private Map _webConfigsByModelId = new HashMap();
     
-    private Map _componentsByType = new TreeMap();
+    private Map _componentsByType = new HashMap();
     
     private String _modelId;
 
+    private boolean _flattened;
+
     /**
      * Write this model out as xml.
      * <p>
@@ -156,6 +161,48 @@ public class Model
         FaceletFunctionMeta.addXmlRules(digester, prefix);
     }
     
+    /**
+     * Merge several models at once. The models are processed in the given
+     * order, so when an entity is present in more than one model the one
+     * of the first model (or the one already in this model) takes
+     * precedence, exactly as calling {@link #merge(Model)} for each of them.
+     * 
+     * @param others a list of Model instances
+     */
+    public void merge(List others)
+    {
+        int components = _components.size();
+        int converters = _converters.size();
+        int validators = _validators.size();
+        int behaviors = _behaviors.size();
+        int tags = _tags.size();
+        int faceletTags = _faceletTags.size();
+        int faceletFunctions = _faceletFunctions.size();
+        for (Iterator it = others.iterator(); it.hasNext();)
+        {
+            Model other = (Model) it.next();
+            components += other._components.size();
+            converters += other._converters.size();
+            validators += other._validators.size();
+            behaviors += other._behaviors.size();
+            tags += other._tags.size();
+            faceletTags += other._faceletTags.size();
+            faceletFunctions += other._faceletFunctions.size();
+        }
+        ((ArrayList) _components).ensureCapacity(components);
+        ((ArrayList) _converters).ensureCapacity(converters);
+        ((ArrayList) _validators).ensureCapacity(validators);
+        ((ArrayList) _behaviors).ensureCapacity(behaviors);
+        ((ArrayList) _tags).ensureCapacity(tags);
+        ((ArrayList) _faceletTags).ensureCapacity(faceletTags);
+        ((ArrayList) _faceletFunctions).ensureCapacity(faceletFunctions);
+
+        for (Iterator it = others.iterator(); it.hasNext();)
+        {
+            merge((Model) it.next());
+        }
+    }
+
     /**
      * Adds all components from the other model to this model, because
      * only this info is necessary from construct a full model of 
@@ -609,6 +656,20 @@ public class Model
     {
         return _modelId;
     }
+
+    /**
+     * Return true if the inherited data has already been copied into each
+     * item of this model by a Flattener.
+     */
+    public boolean isFlattened()
+    {
+        return _flattened;
+    }
+
+    public void setFlattened(boolean flattened)
+    {
+        _flattened = flattened;
+    }
     
     //THIS METHODS ARE USED FOR VELOCITY TO GET DATA AND GENERATE CLASSES
     
@@ -18,6 +18,8 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder.model;
 
+import java.io.Serializable;
+
 import org.apache.commons.digester.Digester;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
 
@@ -27,7 +29,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
  * <p>
  * This metadata defines the attributes of JSP tags, among other things.
  */
-public class PropertyMeta
+public class PropertyMeta implements Serializable
 {
     private String _name;
     private String _className;
@@ -18,6 +18,7 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.builder.model;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -29,7 +30,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.io.XmlWriter;
 /**
  * Store metadata about a JSF RenderKit.
  */
-public class RenderKitMeta
+public class RenderKitMeta implements Serializable
 {
     private String _className;
 
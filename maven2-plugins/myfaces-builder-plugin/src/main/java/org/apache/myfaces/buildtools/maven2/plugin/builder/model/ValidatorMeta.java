@@ -341,7 +341,7 @@ public class ValidatorMeta extends ViewEntityMeta implements PropertyHolder
     // on the tag class. This is a subset of the properties available on
     // this component itself, and depends upon what the parent class
     // of the generated tag already supports.
-    private List _propertyTagList = null; 
+    private transient List _propertyTagList = null; 
     
     public Collection getPropertyTagList()
     {
@@ -362,7 +362,7 @@ public class ValidatorMeta extends ViewEntityMeta implements PropertyHolder
         return _propertyTagList;
     }
 
-    private List _propertyValidatorList = null; 
+    private transient List _propertyValidatorList = null; 
 
     public Collection getPropertyValidatorList()
     {
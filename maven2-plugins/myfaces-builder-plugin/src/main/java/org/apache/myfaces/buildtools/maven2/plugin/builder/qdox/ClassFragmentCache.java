@@ -0,0 +1,840 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.qdox;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.IOUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ClassMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ClientBehaviorRendererMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ConverterMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.FaceletFunctionMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.FaceletTagMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.RenderKitMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.RendererMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.TagMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ValidatorMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.WebConfigMeta;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.WebConfigParamMeta;
+
+/**
+ * Remembers, for every class processed by the QdoxModelBuilder, which
+ * source file declared it, its direct ancestry and the model items
+ * ("fragments") that the parsing strategies created for it.
+ * <p>
+ * The index is stored as a properties file, and the fragments themselves
+ * as a regular metadata xml file next to it. On the next build only the
+ * classes declared in changed source files (and the classes that inherit
+ * from them) have to be parsed again; the fragments of every other class
+ * are spliced back into the model in the same order a full scan would
+ * have added them.
+ * </p>
+ */
+public class ClassFragmentCache
+{
+    private static final String CONFIG = "config";
+    private static final String DIGEST = "digest.";
+    private static final String CLASSES = "classes.";
+    private static final String SUPER = "super.";
+    private static final String INTERFACES = "interfaces.";
+    private static final String SOURCE = "source.";
+    private static final String ENTITIES = "entities.";
+
+    static final String COMPONENT = "component";
+    static final String CONVERTER = "converter";
+    static final String VALIDATOR = "validator";
+    static final String BEHAVIOR = "behavior";
+    static final String TAG = "tag";
+    static final String FACELET_TAG = "faceletTag";
+    static final String FACELET_FUNCTION = "faceletFunction";
+    static final String WEB_CONFIG_PARAM = "webConfigParam";
+    static final String RENDER_KIT = "renderKit";
+    static final String RENDERER = "renderer";
+    static final String CLIENT_BEHAVIOR_RENDERER = "clientBehaviorRenderer";
+
+    private final String configKey;
+
+    /** source file key -> content digest */
+    private final Map fileDigests = new TreeMap();
+
+    /** source file key -> List of the names of the classes it declares */
+    private final Map fileClasses = new TreeMap();
+
+    /** class name -> superclass name */
+    private final Map superClasses = new HashMap();
+
+    /** class name -> List of implemented interface names */
+    private final Map interfaces = new HashMap();
+
+    /** class name -> source file key */
+    private final Map classSources = new HashMap();
+
+    /** class name -> List of Fragment */
+    private final Map classFragments = new HashMap();
+
+    public ClassFragmentCache(String configKey)
+    {
+        this.configKey = configKey;
+    }
+
+    /**
+     * A model item created while parsing one class.
+     */
+    static class Fragment
+    {
+        private final String kind;
+        private final String renderKitId;
+        private final Object entity;
+
+        Fragment(String kind, String renderKitId, Object entity)
+        {
+            this.kind = kind;
+            this.renderKitId = renderKitId;
+            this.entity = entity;
+        }
+
+        String getKind()
+        {
+            return kind;
+        }
+
+        String getRenderKitId()
+        {
+            return renderKitId;
+        }
+
+        Object getEntity()
+        {
+            return entity;
+        }
+
+        String getKey()
+        {
+            if (RENDERER.equals(kind))
+            {
+                RendererMeta r = (RendererMeta) entity;
+                return kind + ':' + renderKitId + '|' + r.getComponentFamily() + '|' + r.getRendererType();
+            }
+            else if (CLIENT_BEHAVIOR_RENDERER.equals(kind))
+            {
+                return kind + ':' + renderKitId + '|' + ((ClientBehaviorRendererMeta) entity).getRendererType();
+            }
+            else if (RENDER_KIT.equals(kind))
+            {
+                return kind + ':' + renderKitId;
+            }
+            else if (FACELET_FUNCTION.equals(kind))
+            {
+                return kind + ':' + ((FaceletFunctionMeta) entity).getName();
+            }
+            else if (WEB_CONFIG_PARAM.equals(kind))
+            {
+                return kind + ':' + ((WebConfigParamMeta) entity).getName();
+            }
+            return kind + ':' + ((ClassMeta) entity).getClassName();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Loading and saving
+    // ------------------------------------------------------------------
+
+    /**
+     * Load the cache written by a previous build. Returns null when there
+     * is no usable cache, ie when it does not exist, cannot be read or was
+     * created with a different configuration.
+     */
+    public static ClassFragmentCache load(File indexFile, String configKey)
+    {
+        File fragmentFile = getFragmentFile(indexFile);
+        if (!indexFile.exists() || !fragmentFile.exists())
+        {
+            return null;
+        }
+        Properties p = new Properties();
+        InputStream is = null;
+        try
+        {
+            is = new BufferedInputStream(new FileInputStream(indexFile));
+            p.load(is);
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        finally
+        {
+            if (is != null)
+            {
+                try
+                {
+                    is.close();
+                }
+                catch (IOException e)
+                {
+                    // ignore
+                }
+            }
+        }
+        if (!configKey.equals(p.getProperty(CONFIG)))
+        {
+            return null;
+        }
+
+        Model fragments;
+        try
+        {
+            fragments = IOUtils.loadModel(fragmentFile);
+        }
+        catch (MojoExecutionException e)
+        {
+            return null;
+        }
+
+        ClassFragmentCache cache = new ClassFragmentCache(configKey);
+        for (Iterator it = p.entrySet().iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            String key = (String) entry.getKey();
+            String value = (String) entry.getValue();
+            if (key.startsWith(DIGEST))
+            {
+                cache.fileDigests.put(key.substring(DIGEST.length()), value);
+            }
+            else if (key.startsWith(CLASSES))
+            {
+                cache.fileClasses.put(key.substring(CLASSES.length()), split(value));
+            }
+            else if (key.startsWith(SUPER))
+            {
+                cache.superClasses.put(key.substring(SUPER.length()), value);
+            }
+            else if (key.startsWith(INTERFACES))
+            {
+                cache.interfaces.put(key.substring(INTERFACES.length()), split(value));
+            }
+            else if (key.startsWith(SOURCE))
+            {
+                cache.classSources.put(key.substring(SOURCE.length()), value);
+            }
+        }
+        for (Iterator it = p.entrySet().iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            String key = (String) entry.getKey();
+            if (key.startsWith(ENTITIES))
+            {
+                List keys = split((String) entry.getValue());
+                List list = new ArrayList(keys.size());
+                for (Iterator it2 = keys.iterator(); it2.hasNext();)
+                {
+                    Fragment f = resolveFragment(fragments, (String) it2.next());
+                    if (f == null)
+                    {
+                        // index and fragment file are out of sync
+                        return null;
+                    }
+                    list.add(f);
+                }
+                cache.classFragments.put(key.substring(ENTITIES.length()), list);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Save this cache. Only the classes listed in the given processing order
+     * are kept, so entries of classes that no longer exist are dropped.
+     */
+    public void store(File indexFile, String modelId, List processedClassNames)
+        throws MojoExecutionException
+    {
+        Properties p = new Properties();
+        p.setProperty(CONFIG, configKey);
+        for (Iterator it = fileDigests.entrySet().iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            p.setProperty(DIGEST + entry.getKey(), (String) entry.getValue());
+        }
+        for (Iterator it = fileClasses.entrySet().iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            p.setProperty(CLASSES + entry.getKey(), join((List) entry.getValue()));
+        }
+
+        Model fragments = new Model();
+        fragments.setModelId(modelId);
+        for (Iterator it = processedClassNames.iterator(); it.hasNext();)
+        {
+            String name = (String) it.next();
+            String superClass = (String) superClasses.get(name);
+            if (superClass != null)
+            {
+                p.setProperty(SUPER + name, superClass);
+            }
+            List ifaces = (List) interfaces.get(name);
+            if (ifaces != null && !ifaces.isEmpty())
+            {
+                p.setProperty(INTERFACES + name, join(ifaces));
+            }
+            String source = (String) classSources.get(name);
+            if (source != null)
+            {
+                p.setProperty(SOURCE + name, source);
+            }
+            List list = (List) classFragments.get(name);
+            if (list != null && !list.isEmpty())
+            {
+                List keys = new ArrayList(list.size());
+                for (Iterator it2 = list.iterator(); it2.hasNext();)
+                {
+                    Fragment f = (Fragment) it2.next();
+                    keys.add(f.getKey());
+                    addFragment(fragments, f);
+                }
+                p.setProperty(ENTITIES + name, join(keys));
+            }
+        }
+
+        IOUtils.saveModel(fragments, getFragmentFile(indexFile));
+
+        OutputStream os = null;
+        try
+        {
+            os = new BufferedOutputStream(new FileOutputStream(indexFile));
+            p.store(os, null);
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Error during saving class fragment cache", e);
+        }
+        finally
+        {
+            if (os != null)
+            {
+                try
+                {
+                    os.close();
+                }
+                catch (IOException e)
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    public static void invalidate(File indexFile)
+    {
+        indexFile.delete();
+        getFragmentFile(indexFile).delete();
+    }
+
+    private static File getFragmentFile(File indexFile)
+    {
+        return new File(indexFile.getPath() + ".xml");
+    }
+
+    // ------------------------------------------------------------------
+    // Accessors
+    // ------------------------------------------------------------------
+
+    public Map getFileDigests()
+    {
+        return fileDigests;
+    }
+
+    public List getFileClasses(String fileKey)
+    {
+        List list = (List) fileClasses.get(fileKey);
+        return list == null ? Collections.EMPTY_LIST : list;
+    }
+
+    public void setFileClasses(String fileKey, List classNames)
+    {
+        fileClasses.put(fileKey, classNames);
+    }
+
+    public String getClassSource(String className)
+    {
+        return (String) classSources.get(className);
+    }
+
+    public boolean containsClass(String className)
+    {
+        return superClasses.containsKey(className) || interfaces.containsKey(className)
+            || classSources.containsKey(className) || classFragments.containsKey(className);
+    }
+
+    public String getSuperClass(String className)
+    {
+        return (String) superClasses.get(className);
+    }
+
+    public List getInterfaces(String className)
+    {
+        List list = (List) interfaces.get(className);
+        return list == null ? Collections.EMPTY_LIST : list;
+    }
+
+    public List getFragments(String className)
+    {
+        List list = (List) classFragments.get(className);
+        return list == null ? Collections.EMPTY_LIST : list;
+    }
+
+    /**
+     * Record the ancestry, source file and fragments of a class.
+     */
+    public void putClass(String className, String superClass, List interfaceNames,
+            String source, List fragments)
+    {
+        if (superClass != null)
+        {
+            superClasses.put(className, superClass);
+        }
+        interfaces.put(className, interfaceNames);
+        if (source != null)
+        {
+            classSources.put(className, source);
+        }
+        classFragments.put(className, fragments);
+    }
+
+    /**
+     * Return the names of the superclasses of the given class, nearest first.
+     */
+    public List getSuperClassChain(String className)
+    {
+        List chain = new ArrayList();
+        Set seen = new HashSet();
+        String curr = getSuperClass(className);
+        while (curr != null && seen.add(curr))
+        {
+            chain.add(curr);
+            curr = getSuperClass(curr);
+        }
+        return chain;
+    }
+
+    /**
+     * Add to the given set every class that directly or indirectly extends
+     * or implements one of the classes already in the set.
+     */
+    public void addDescendants(Set classNames)
+    {
+        Map children = new HashMap();
+        addChildren(children, superClasses.entrySet());
+        for (Iterator it = interfaces.entrySet().iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            for (Iterator it2 = ((List) entry.getValue()).iterator(); it2.hasNext();)
+            {
+                addChild(children, (String) it2.next(), (String) entry.getKey());
+            }
+        }
+
+        List pending = new ArrayList(classNames);
+        while (!pending.isEmpty())
+        {
+            String name = (String) pending.remove(pending.size() - 1);
+            List list = (List) children.get(name);
+            if (list != null)
+            {
+                for (Iterator it = list.iterator(); it.hasNext();)
+                {
+                    String child = (String) it.next();
+                    if (classNames.add(child))
+                    {
+                        pending.add(child);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addChildren(Map children, Set entries)
+    {
+        for (Iterator it = entries.iterator(); it.hasNext();)
+        {
+            Map.Entry entry = (Map.Entry) it.next();
+            addChild(children, (String) entry.getValue(), (String) entry.getKey());
+        }
+    }
+
+    private static void addChild(Map children, String parent, String child)
+    {
+        List list = (List) children.get(parent);
+        if (list == null)
+        {
+            list = new ArrayList();
+            children.put(parent, list);
+        }
+        list.add(child);
+    }
+
+    // ------------------------------------------------------------------
+    // Recording and replaying fragments
+    // ------------------------------------------------------------------
+
+    /**
+     * Take a snapshot of the model, so that the items a parsing pass adds
+     * to it can later be found by {@link #collectFragments(Model, Object)}.
+     */
+    public static Object snapshot(Model model)
+    {
+        Map snapshot = new HashMap();
+        snapshot.put(COMPONENT, new Integer(model.getComponents().size()));
+        snapshot.put(CONVERTER, new Integer(model.getConverters().size()));
+        snapshot.put(VALIDATOR, new Integer(model.getValidators().size()));
+        snapshot.put(BEHAVIOR, new Integer(model.getBehaviors().size()));
+        snapshot.put(TAG, new Integer(model.getTags().size()));
+        snapshot.put(FACELET_TAG, new Integer(model.getFaceletTags().size()));
+        snapshot.put(FACELET_FUNCTION, new Integer(model.getFaceletFunctions().size()));
+
+        Map known = new IdentityHashMap();
+        for (Iterator it = model.renderKits(); it.hasNext();)
+        {
+            RenderKitMeta kit = (RenderKitMeta) it.next();
+            known.put(kit, kit.getClassName());
+            putAll(known, kit.getRenderers());
+            putAll(known, kit.getClientBehaviorRenderers());
+        }
+        WebConfigMeta webConfig = model.findWebConfigsByModelId(model.getModelId());
+        if (webConfig != null)
+        {
+            known.put(webConfig, null);
+            putAll(known, webConfig.getWebConfigParametersList());
+        }
+        snapshot.put(RENDER_KIT, known);
+        return snapshot;
+    }
+
+    private static void putAll(Map known, java.util.Collection values)
+    {
+        for (Iterator it = values.iterator(); it.hasNext();)
+        {
+            known.put(it.next(), null);
+        }
+    }
+
+    /**
+     * Return the list of Fragment objects for all the items added to the
+     * model since the given snapshot was taken.
+     */
+    public static List collectFragments(Model model, Object snapshotObject)
+    {
+        Map snapshot = (Map) snapshotObject;
+        List fragments = new ArrayList();
+        collectNew(fragments, COMPONENT, model.getComponents(), snapshot);
+        collectNew(fragments, CONVERTER, model.getConverters(), snapshot);
+        collectNew(fragments, VALIDATOR, model.getValidators(), snapshot);
+        collectNew(fragments, BEHAVIOR, model.getBehaviors(), snapshot);
+        collectNew(fragments, TAG, model.getTags(), snapshot);
+        collectNew(fragments, FACELET_TAG, model.getFaceletTags(), snapshot);
+        collectNew(fragments, FACELET_FUNCTION, model.getFaceletFunctions(), snapshot);
+
+        Map known = (Map) snapshot.get(RENDER_KIT);
+        for (Iterator it = model.renderKits(); it.hasNext();)
+        {
+            RenderKitMeta kit = (RenderKitMeta) it.next();
+            String className = kit.getClassName();
+            if (className != null && (!known.containsKey(kit) || !className.equals(known.get(kit))))
+            {
+                fragments.add(new Fragment(RENDER_KIT, kit.getRenderKitId(), kit));
+            }
+            for (Iterator it2 = kit.getRenderers().iterator(); it2.hasNext();)
+            {
+                Object renderer = it2.next();
+                if (!known.containsKey(renderer))
+                {
+                    fragments.add(new Fragment(RENDERER, kit.getRenderKitId(), renderer));
+                }
+            }
+            for (Iterator it2 = kit.getClientBehaviorRenderers().iterator(); it2.hasNext();)
+            {
+                Object renderer = it2.next();
+                if (!known.containsKey(renderer))
+                {
+                    fragments.add(new Fragment(CLIENT_BEHAVIOR_RENDERER, kit.getRenderKitId(), renderer));
+                }
+            }
+        }
+        WebConfigMeta webConfig = model.findWebConfigsByModelId(model.getModelId());
+        if (webConfig != null)
+        {
+            for (Iterator it = webConfig.getWebConfigParametersList().iterator(); it.hasNext();)
+            {
+                Object param = it.next();
+                if (!known.containsKey(param))
+                {
+                    fragments.add(new Fragment(WEB_CONFIG_PARAM, null, param));
+                }
+            }
+        }
+        return fragments;
+    }
+
+    private static void collectNew(List fragments, String kind, List items, Map snapshot)
+    {
+        int size = ((Integer) snapshot.get(kind)).intValue();
+        for (int i = size; i < items.size(); i++)
+        {
+            fragments.add(new Fragment(kind, null, items.get(i)));
+        }
+    }
+
+    /**
+     * Add the items of a class processed in a previous build to the model,
+     * exactly as the parsing strategies would have done.
+     */
+    public static void replayFragments(Model model, List fragments)
+    {
+        for (Iterator it = fragments.iterator(); it.hasNext();)
+        {
+            Fragment f = (Fragment) it.next();
+            Object entity = f.getEntity();
+            // The data below is set again by the post-processing done by
+            // the QdoxModelBuilder, so clear what the previous build stored.
+            if (entity instanceof ComponentMeta)
+            {
+                ((ComponentMeta) entity).setGeneratedComponentClass(null);
+                ((ComponentMeta) entity).setGeneratedTagClass(null);
+            }
+            else if (entity instanceof ConverterMeta)
+            {
+                ((ConverterMeta) entity).setGeneratedComponentClass(null);
+                ((ConverterMeta) entity).setGeneratedTagClass(null);
+            }
+            else if (entity instanceof ValidatorMeta)
+            {
+                ((ValidatorMeta) entity).setGeneratedComponentClass(null);
+                ((ValidatorMeta) entity).setGeneratedTagClass(null);
+            }
+            else if (entity instanceof BehaviorMeta)
+            {
+                ((BehaviorMeta) entity).setGeneratedComponentClass(null);
+            }
+            if (entity instanceof ClassMeta && !RENDERER.equals(f.getKind())
+                    && !CLIENT_BEHAVIOR_RENDERER.equals(f.getKind()))
+            {
+                ((ClassMeta) entity).setParentClassName(null);
+            }
+            addFragment(model, f);
+        }
+    }
+
+    private static void addFragment(Model model, Fragment f)
+    {
+        String kind = f.getKind();
+        Object entity = f.getEntity();
+        if (COMPONENT.equals(kind))
+        {
+            model.addComponent((ComponentMeta) entity);
+        }
+        else if (CONVERTER.equals(kind))
+        {
+            model.addConverter((ConverterMeta) entity);
+        }
+        else if (VALIDATOR.equals(kind))
+        {
+            model.addValidator((ValidatorMeta) entity);
+        }
+        else if (BEHAVIOR.equals(kind))
+        {
+            model.addBehavior((BehaviorMeta) entity);
+        }
+        else if (TAG.equals(kind))
+        {
+            model.addTag((TagMeta) entity);
+        }
+        else if (FACELET_TAG.equals(kind))
+        {
+            model.addFaceletTag((FaceletTagMeta) entity);
+        }
+        else if (FACELET_FUNCTION.equals(kind))
+        {
+            model.addFaceletFunction((FaceletFunctionMeta) entity);
+        }
+        else if (WEB_CONFIG_PARAM.equals(kind))
+        {
+            WebConfigMeta webConfig = model.findWebConfigsByModelId(model.getModelId());
+            if (webConfig == null)
+            {
+                webConfig = new WebConfigMeta();
+                webConfig.setModelId(model.getModelId());
+                model.addWebConfig(webConfig);
+            }
+            webConfig.addWebConfigParam((WebConfigParamMeta) entity);
+        }
+        else if (RENDER_KIT.equals(kind))
+        {
+            getRenderKit(model, f.getRenderKitId()).setClassName(
+                    ((RenderKitMeta) entity).getClassName());
+        }
+        else if (RENDERER.equals(kind))
+        {
+            getRenderKit(model, f.getRenderKitId()).addRenderer((RendererMeta) entity);
+        }
+        else if (CLIENT_BEHAVIOR_RENDERER.equals(kind))
+        {
+            getRenderKit(model, f.getRenderKitId()).addClientBehaviorRenderer(
+                    (ClientBehaviorRendererMeta) entity);
+        }
+    }
+
+    private static RenderKitMeta getRenderKit(Model model, String renderKitId)
+    {
+        RenderKitMeta renderKit = model.findRenderKitById(renderKitId);
+        if (renderKit == null)
+        {
+            renderKit = new RenderKitMeta();
+            renderKit.setRenderKitId(renderKitId);
+            model.addRenderKit(renderKit);
+        }
+        return renderKit;
+    }
+
+    /**
+     * Find the item identified by the given key in a loaded fragment file.
+     */
+    private static Fragment resolveFragment(Model fragments, String key)
+    {
+        int idx = key.indexOf(':');
+        if (idx == -1)
+        {
+            return null;
+        }
+        String kind = key.substring(0, idx);
+        String id = key.substring(idx + 1);
+        Object entity = null;
+        String renderKitId = null;
+        if (COMPONENT.equals(kind))
+        {
+            entity = fragments.findComponentByClassName(id);
+        }
+        else if (CONVERTER.equals(kind))
+        {
+            entity = fragments.findConverterByClassName(id);
+        }
+        else if (VALIDATOR.equals(kind))
+        {
+            entity = fragments.findValidatorByClassName(id);
+        }
+        else if (BEHAVIOR.equals(kind))
+        {
+            entity = fragments.findBehaviorByClassName(id);
+        }
+        else if (TAG.equals(kind))
+        {
+            entity = fragments.findTagByClassName(id);
+        }
+        else if (FACELET_TAG.equals(kind))
+        {
+            entity = fragments.findFaceletTagByClassName(id);
+        }
+        else if (FACELET_FUNCTION.equals(kind))
+        {
+            entity = fragments.findFaceletFunctionByName(id);
+        }
+        else if (WEB_CONFIG_PARAM.equals(kind))
+        {
+            WebConfigMeta webConfig = fragments.findWebConfigsByModelId(fragments.getModelId());
+            entity = webConfig == null ? null : webConfig.getWebConfigParam(id);
+        }
+        else
+        {
+            String[] parts = StringUtils.splitPreserveAllTokens(id, '|');
+            renderKitId = parts[0];
+            RenderKitMeta kit = fragments.findRenderKitById(renderKitId);
+            if (kit == null)
+            {
+                return null;
+            }
+            if (RENDER_KIT.equals(kind))
+            {
+                entity = kit;
+            }
+            else if (RENDERER.equals(kind) && parts.length == 3)
+            {
+                entity = kit.findRenderer(decodeNull(parts[1]), decodeNull(parts[2]));
+            }
+            else if (CLIENT_BEHAVIOR_RENDERER.equals(kind) && parts.length == 2)
+            {
+                for (Iterator it = kit.getClientBehaviorRenderers().iterator(); it.hasNext();)
+                {
+                    ClientBehaviorRendererMeta r = (ClientBehaviorRendererMeta) it.next();
+                    if (StringUtils.equals(r.getRendererType(), decodeNull(parts[1])))
+                    {
+                        entity = r;
+                        break;
+                    }
+                }
+            }
+        }
+        return entity == null ? null : new Fragment(kind, renderKitId, entity);
+    }
+
+    private static String decodeNull(String value)
+    {
+        return "null".equals(value) ? null : value;
+    }
+
+    private static List split(String value)
+    {
+        List list = new ArrayList();
+        if (value != null && value.length() > 0)
+        {
+            String[] parts = StringUtils.split(value, ',');
+            for (int i = 0; i < parts.length; i++)
+            {
+                list.add(parts[i]);
+            }
+        }
+        return list;
+    }
+
+    private static String join(List values)
+    {
+        return StringUtils.join(values.iterator(), ',');
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.IOUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.SourceIndex;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ClassMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
@@ -323,6 +324,88 @@ public class QdoxHelper
         }
     }
     
+    /**
+     * Same as initComponentAncestry, but walks a list of superclass names
+     * (nearest first) instead of the qdox JavaClass objects. This is used
+     * when the class was not parsed again in an incremental build.
+     */
+    public static void initComponentAncestry(List superClassNames, Model model, ClassMeta modelItem)
+    {
+        for (Iterator it = superClassNames.iterator(); it.hasNext();)
+        {
+            ComponentMeta parent = model.findComponentByClassName((String) it.next());
+            if (parent != null)
+            {
+                modelItem.setParentClassName(parent.getClassName());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Same as initValidatorAncestry, but walks a list of superclass names.
+     */
+    public static void initValidatorAncestry(List superClassNames, Model model, ClassMeta modelItem)
+    {
+        for (Iterator it = superClassNames.iterator(); it.hasNext();)
+        {
+            ValidatorMeta parent = model.findValidatorByClassName((String) it.next());
+            if (parent != null)
+            {
+                modelItem.setParentClassName(parent.getClassName());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Same as initConverterAncestry, but walks a list of superclass names.
+     */
+    public static void initConverterAncestry(List superClassNames, Model model, ClassMeta modelItem)
+    {
+        for (Iterator it = superClassNames.iterator(); it.hasNext();)
+        {
+            ConverterMeta parent = model.findConverterByClassName((String) it.next());
+            if (parent != null)
+            {
+                modelItem.setParentClassName(parent.getClassName());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Same as initBehaviorAncestry, but walks a list of superclass names.
+     */
+    public static void initBehaviorAncestry(List superClassNames, Model model, ClassMeta modelItem)
+    {
+        for (Iterator it = superClassNames.iterator(); it.hasNext();)
+        {
+            BehaviorMeta parent = model.findBehaviorByClassName((String) it.next());
+            if (parent != null)
+            {
+                modelItem.setParentClassName(parent.getClassName());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Same as initFaceletTagHandlerAncestry, but walks a list of superclass names.
+     */
+    public static void initFaceletTagHandlerAncestry(List superClassNames, Model model, ClassMeta modelItem)
+    {
+        for (Iterator it = superClassNames.iterator(); it.hasNext();)
+        {
+            FaceletTagMeta parent = model.findFaceletTagByClassName((String) it.next());
+            if (parent != null)
+            {
+                modelItem.setParentClassName(parent.getClassName());
+                break;
+            }
+        }
+    }
+
     public static String evaluateParameterInitializationExpression(String value)
     {
         if (value.charAt(0) == '"' && value.charAt(value.length()-1) == '"' && value.indexOf('+') == -1)
@@ -488,6 +571,20 @@ public class QdoxHelper
         String tagClassFile = StringUtils.replace(tagClassName,".","/")+".java";
         return !IOUtils.existsSourceFile(tagClassFile, sourceDirs);
     }
+
+    /**
+     * Same as {@link #isTagClassMissing(String, List)}, using an index of the
+     * source files.
+     */
+    public static boolean isTagClassMissing(String tagClassName, SourceIndex sourceIndex)
+    {
+        if (tagClassName == null)
+        {
+            return false;
+        }
+        String tagClassFile = StringUtils.replace(tagClassName,".","/")+".java";
+        return !sourceIndex.exists(tagClassFile);
+    }
     
     private static class SourceFileInfo implements FileInfo
     {
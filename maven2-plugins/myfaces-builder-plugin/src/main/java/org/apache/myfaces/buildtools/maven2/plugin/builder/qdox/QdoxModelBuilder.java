@@ -20,11 +20,17 @@ package org.apache.myfaces.buildtools.maven2.plugin.builder.qdox;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
@@ -33,6 +39,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.IOUtils;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.ModelBuilder;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.ModelParams;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.SourceIndex;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ConverterMeta;
@@ -53,6 +60,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.builder.qdox.parse.RendererPa
 import org.apache.myfaces.buildtools.maven2.plugin.builder.qdox.parse.ValidatorParsingStrategy;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.qdox.parse.WebConfigParamParsingStrategy;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.trinidad.TrinidadMavenFacesPluginModelBuilder;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.utils.BuildState;
 
 import com.thoughtworks.qdox.JavaDocBuilder;
 import com.thoughtworks.qdox.model.JavaClass;
@@ -69,6 +77,12 @@ public class QdoxModelBuilder implements ModelBuilder
 {
     private final Log log = LogFactory.getLog(QdoxModelBuilder.class);
     
+    /**
+     * Changed whenever the content of the class fragment cache changes in
+     * an incompatible way.
+     */
+    private static final String CACHE_VERSION = "1";
+    
     /**
      * Scan the source tree for doc-annotations, and build Model objects
      * containing info extracted from the doc-annotation attributes and
@@ -83,18 +97,35 @@ public class QdoxModelBuilder implements ModelBuilder
             throw new MojoExecutionException("Model must have id set");
         }
         
-        final JavaDocBuilder builder = new JavaDocBuilder();
-        IOUtils.visitSources(parameters, new IOUtils.SourceVisitor()
+        if (parameters.getClassFragmentCacheFile() != null)
         {
-            public void processSource(File file) throws IOException
+            buildModelIncremental(model, parameters);
+        }
+        else
+        {
+            final List files = new ArrayList();
+            final SourceIndex sourceIndex = SourceIndex.create(parameters);
+            IOUtils.visitSources(parameters, new IOUtils.SourceVisitor()
+            {
+                public void processSource(File file) throws IOException
+                {
+                    files.add(file);
+                    sourceIndex.add(file);
+                }
+                
+            });
+            JavaClass[] classes;
+            try
             {
-                builder.addSource(file);
+                classes = new QdoxSourceParser(parameters.getParseThreads()).parse(files);
             }
-            
-        });
-        JavaClass[] classes = builder.getClasses();
-
-        buildModel(model, parameters.getSourceDirs(), classes);
+            catch (IOException e)
+            {
+                throw new MojoExecutionException("Error while parsing source files", e);
+            }
+    
+            buildModel(model, sourceIndex, classes);
+        }
         CompositeComponentModelBuilder qccmb = new CompositeComponentModelBuilder();
         qccmb.buildModel(model, parameters);
         TrinidadMavenFacesPluginModelBuilder tmfpmb = new TrinidadMavenFacesPluginModelBuilder();
@@ -104,7 +135,12 @@ public class QdoxModelBuilder implements ModelBuilder
     protected void buildModel(Model model, List sourceDirs, JavaClass[] classes)
         throws MojoExecutionException
     {
-        String currModelId = model.getModelId();
+        buildModel(model, new SourceIndex(sourceDirs, false), classes);
+    }
+
+    protected void buildModel(Model model, SourceIndex sourceIndex, JavaClass[] classes)
+        throws MojoExecutionException
+    {
         // Sort the class array so that they are processed in a
         // predictable order, regardless of how the source scanning
         // returned them.
@@ -115,6 +151,263 @@ public class QdoxModelBuilder implements ModelBuilder
             JavaClass clazz = classes[i];
             processClass(processedClasses, clazz, model);
         }
+        postProcessModel(model, sourceIndex, processedClasses, null);
+    }
+
+    /**
+     * Same as a full scan, but only the classes declared in source files
+     * whose content changed since the previous build (plus the classes that
+     * extend or implement them) are parsed. The model items of every other
+     * class are taken from the class fragment cache, in the same order a
+     * full scan would have added them.
+     */
+    private void buildModelIncremental(Model model, ModelParams parameters)
+        throws MojoExecutionException
+    {
+        final List sourceDirs = parameters.getSourceDirs();
+        File cacheFile = parameters.getClassFragmentCacheFile();
+
+        final Map sourceFiles = new TreeMap();
+        final Map digests = new TreeMap();
+        final SourceIndex sourceIndex = SourceIndex.create(parameters);
+        IOUtils.visitSources(parameters, new IOUtils.SourceVisitor()
+        {
+            public void processSource(File file) throws IOException
+            {
+                sourceIndex.add(file);
+                String key = IOUtils.getSourceRelativeName(file, sourceDirs);
+                sourceFiles.put(key, file);
+                digests.put(key, BuildState.digest(file));
+            }
+        });
+
+        String configKey = getConfigurationKey(model, sourceDirs);
+        ClassFragmentCache previous = ClassFragmentCache.load(cacheFile, configKey);
+        ClassFragmentCache cache = new ClassFragmentCache(configKey);
+        cache.getFileDigests().putAll(digests);
+
+        JavaDocBuilder builder = new JavaDocBuilder();
+        JavaClass[] classes = null;
+        Set parsedFiles = new HashSet();
+        Set affected = new HashSet();
+        try
+        {
+            if (previous == null)
+            {
+                log.info("no usable class fragment cache, parsing all source files");
+                parsedFiles.addAll(sourceFiles.keySet());
+                classes = new QdoxSourceParser(parameters.getParseThreads()).parse(
+                        new ArrayList(sourceFiles.values()));
+            }
+            else
+            {
+                // Unchanged ancestors of the parsed classes are loaded on
+                // demand from the source folders.
+                for (Iterator it = sourceDirs.iterator(); it.hasNext();)
+                {
+                    builder.getClassLibrary().addSourceFolder(new File(it.next().toString()));
+                }
+                Map previousDigests = previous.getFileDigests();
+                for (Iterator it = sourceFiles.entrySet().iterator(); it.hasNext();)
+                {
+                    Map.Entry entry = (Map.Entry) it.next();
+                    String key = (String) entry.getKey();
+                    if (!digests.get(key).equals(previousDigests.get(key)))
+                    {
+                        builder.addSource((File) entry.getValue());
+                        parsedFiles.add(key);
+                        affected.addAll(previous.getFileClasses(key));
+                    }
+                }
+                for (Iterator it = previousDigests.keySet().iterator(); it.hasNext();)
+                {
+                    String key = (String) it.next();
+                    if (!sourceFiles.containsKey(key))
+                    {
+                        affected.addAll(previous.getFileClasses(key));
+                    }
+                }
+                JavaClass[] changed = builder.getClasses();
+                for (int i = 0; i < changed.length; ++i)
+                {
+                    affected.add(changed[i].getFullyQualifiedName());
+                }
+                previous.addDescendants(affected);
+                for (Iterator it = affected.iterator(); it.hasNext();)
+                {
+                    String key = previous.getClassSource((String) it.next());
+                    if (key != null && sourceFiles.containsKey(key) && parsedFiles.add(key))
+                    {
+                        builder.addSource((File) sourceFiles.get(key));
+                    }
+                }
+                log.info("parsing " + parsedFiles.size() + " of " + sourceFiles.size()
+                        + " source files");
+            }
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Error while parsing source files", e);
+        }
+
+        // Find the classes declared by each source file: from the parser
+        // when the file was parsed, otherwise from the previous build.
+        Map javaClasses = new HashMap();
+        if (classes == null)
+        {
+            classes = builder.getClasses();
+        }
+        for (int i = 0; i < classes.length; ++i)
+        {
+            JavaClass clazz = classes[i];
+            String key = getSourceKey(clazz, sourceDirs);
+            if (key != null && parsedFiles.contains(key))
+            {
+                javaClasses.put(clazz.getFullyQualifiedName(), clazz);
+            }
+        }
+        List rootNames = new ArrayList();
+        for (Iterator it = sourceFiles.keySet().iterator(); it.hasNext();)
+        {
+            String key = (String) it.next();
+            List names;
+            if (parsedFiles.contains(key))
+            {
+                names = new ArrayList();
+                for (int i = 0; i < classes.length; ++i)
+                {
+                    if (key.equals(getSourceKey(classes[i], sourceDirs)))
+                    {
+                        names.add(classes[i].getFullyQualifiedName());
+                    }
+                }
+                Collections.sort(names);
+            }
+            else
+            {
+                names = previous.getFileClasses(key);
+            }
+            cache.setFileClasses(key, names);
+            rootNames.addAll(names);
+        }
+        Collections.sort(rootNames);
+
+        List processedNames = new ArrayList();
+        Set processed = new HashSet();
+        for (Iterator it = rootNames.iterator(); it.hasNext();)
+        {
+            String name = (String) it.next();
+            processClass(processed, processedNames, name, (JavaClass) javaClasses.get(name),
+                    previous, affected, cache, model, sourceDirs);
+        }
+
+        postProcessModel(model, sourceIndex, null, cache);
+
+        cache.store(cacheFile, model.getModelId(), processedNames);
+    }
+
+    /**
+     * Incremental version of processClass: a class is parsed when it is new
+     * or affected by a change, otherwise its cached model items are replayed.
+     */
+    private void processClass(Set processed, List processedNames, String name,
+            JavaClass clazz, ClassFragmentCache previous, Set affected,
+            ClassFragmentCache cache, Model model, List sourceDirs)
+        throws MojoExecutionException
+    {
+        if (!processed.add(name))
+        {
+            return;
+        }
+        boolean parse = clazz != null
+            && (previous == null || affected.contains(name) || !previous.containsClass(name));
+        if (parse)
+        {
+            JavaClass parentClazz = clazz.getSuperJavaClass();
+            if (parentClazz != null)
+            {
+                processClass(processed, processedNames, parentClazz.getFullyQualifiedName(),
+                        parentClazz, previous, affected, cache, model, sourceDirs);
+            }
+            JavaClass[] interfaces = clazz.getImplementedInterfaces();
+            List interfaceNames = new ArrayList(interfaces.length);
+            for (int i = 0; i < interfaces.length; ++i)
+            {
+                interfaceNames.add(interfaces[i].getFullyQualifiedName());
+                processClass(processed, processedNames, interfaces[i].getFullyQualifiedName(),
+                        interfaces[i], previous, affected, cache, model, sourceDirs);
+            }
+            processedNames.add(name);
+            log.info("processed class:" + name);
+
+            Object snapshot = ClassFragmentCache.snapshot(model);
+            createParsingContext().parseClass(clazz, model);
+            cache.putClass(name,
+                    parentClazz == null ? null : parentClazz.getFullyQualifiedName(),
+                    interfaceNames, getSourceKey(clazz, sourceDirs),
+                    ClassFragmentCache.collectFragments(model, snapshot));
+        }
+        else if (previous != null && previous.containsClass(name) && !affected.contains(name))
+        {
+            String superClass = previous.getSuperClass(name);
+            if (superClass != null)
+            {
+                processClass(processed, processedNames, superClass, null,
+                        previous, affected, cache, model, sourceDirs);
+            }
+            List interfaceNames = previous.getInterfaces(name);
+            for (Iterator it = interfaceNames.iterator(); it.hasNext();)
+            {
+                processClass(processed, processedNames, (String) it.next(), null,
+                        previous, affected, cache, model, sourceDirs);
+            }
+            processedNames.add(name);
+            log.info("processed class:" + name);
+
+            List fragments = previous.getFragments(name);
+            ClassFragmentCache.replayFragments(model, fragments);
+            cache.putClass(name, superClass, interfaceNames,
+                    previous.getClassSource(name), fragments);
+        }
+    }
+
+    private static String getSourceKey(JavaClass clazz, List sourceDirs)
+    {
+        // Classes loaded from the classpath have no source url
+        if (clazz.getSource() == null || clazz.getSource().getURL() == null)
+        {
+            return null;
+        }
+        return IOUtils.getSourceRelativeName(clazz.getSource().getFile(), sourceDirs);
+    }
+
+    /**
+     * The cached model items are only valid when the model the classes were
+     * parsed against (ie the items inherited from other projects) is the same.
+     */
+    private static String getConfigurationKey(Model model, List sourceDirs)
+        throws MojoExecutionException
+    {
+        StringWriter writer = new StringWriter();
+        writer.write(CACHE_VERSION);
+        writer.write('|');
+        writer.write(model.getModelId());
+        writer.write('|');
+        writer.write(Integer.toString(sourceDirs.size()));
+        writer.write('|');
+        IOUtils.writeModel(model, writer);
+        return BuildState.digest(writer.toString());
+    }
+
+    /**
+     * Post-process the items added to the model in this run. The ancestry
+     * of each item is resolved from the given JavaClass map, or from the
+     * class fragment cache when it is not null.
+     */
+    private void postProcessModel(Model model, SourceIndex sourceIndex, Map processedClasses,
+            ClassFragmentCache ancestry)
+    {
+        String currModelId = model.getModelId();
         // Post-process the list of components which we added in this run.
         // Note that model has all the inherited components in it too, so
         // we need to skip them.
@@ -129,18 +422,26 @@ public class QdoxModelBuilder implements ModelBuilder
             {
                 continue;
             }
-            QdoxHelper.initComponentAncestry(processedClasses, model, component);
+            if (ancestry != null)
+            {
+                QdoxHelper.initComponentAncestry(
+                        ancestry.getSuperClassChain(component.getSourceClassName()), model, component);
+            }
+            else
+            {
+                QdoxHelper.initComponentAncestry(processedClasses, model, component);
+            }
 
             //Check if the component class Java file exists in the source dirs
             String classname = component.getClassName();
             String classfile = StringUtils.replace(classname,".","/")+".java";
-            if (!IOUtils.existsSourceFile(classfile, sourceDirs))
+            if (!sourceIndex.exists(classfile))
             {
                 component.setGeneratedComponentClass(Boolean.TRUE);
             }
 
             // Check if the tag class Java file exists in the source dirs
-            if (QdoxHelper.isTagClassMissing(component.getTagClass(), sourceDirs))
+            if (QdoxHelper.isTagClassMissing(component.getTagClass(), sourceIndex))
             {
                 component.setGeneratedTagClass(Boolean.TRUE);
             }
@@ -154,17 +455,25 @@ public class QdoxModelBuilder implements ModelBuilder
             {
                 continue;
             }
-            QdoxHelper.initConverterAncestry(processedClasses, model, converter);
+            if (ancestry != null)
+            {
+                QdoxHelper.initConverterAncestry(
+                        ancestry.getSuperClassChain(converter.getSourceClassName()), model, converter);
+            }
+            else
+            {
+                QdoxHelper.initConverterAncestry(processedClasses, model, converter);
+            }
 
             //Check if the converter class file exists
-            if (!IOUtils.existsSourceFile(StringUtils.replace(
-                    converter.getClassName(),".","/")+".java", sourceDirs))
+            if (!sourceIndex.exists(StringUtils.replace(
+                    converter.getClassName(),".","/")+".java"))
             {
                 converter.setGeneratedComponentClass(Boolean.TRUE);
             }
 
             // Check if the tag class Java file exists in the source dirs
-            if (QdoxHelper.isTagClassMissing(converter.getTagClass(), sourceDirs))
+            if (QdoxHelper.isTagClassMissing(converter.getTagClass(), sourceIndex))
             {
                 converter.setGeneratedTagClass(Boolean.TRUE);
             }
@@ -178,17 +487,25 @@ public class QdoxModelBuilder implements ModelBuilder
             {
                 continue;
             }
-            QdoxHelper.initValidatorAncestry(processedClasses, model, validator);
+            if (ancestry != null)
+            {
+                QdoxHelper.initValidatorAncestry(
+                        ancestry.getSuperClassChain(validator.getSourceClassName()), model, validator);
+            }
+            else
+            {
+                QdoxHelper.initValidatorAncestry(processedClasses, model, validator);
+            }
             
             //Check if the validator class file exists
-            if (!IOUtils.existsSourceFile(StringUtils.replace(
-                    validator.getClassName(),".","/")+".java", sourceDirs))
+            if (!sourceIndex.exists(StringUtils.replace(
+                    validator.getClassName(),".","/")+".java"))
             {
                 validator.setGeneratedComponentClass(Boolean.TRUE);
             }
 
             // Check if the tag class Java file exists in the source dirs
-            if (QdoxHelper.isTagClassMissing(validator.getTagClass(), sourceDirs))
+            if (QdoxHelper.isTagClassMissing(validator.getTagClass(), sourceIndex))
             {
                 validator.setGeneratedTagClass(Boolean.TRUE);
             }
@@ -202,11 +519,19 @@ public class QdoxModelBuilder implements ModelBuilder
             {
                 continue;
             }
-            QdoxHelper.initBehaviorAncestry(processedClasses, model, behavior);
+            if (ancestry != null)
+            {
+                QdoxHelper.initBehaviorAncestry(
+                        ancestry.getSuperClassChain(behavior.getSourceClassName()), model, behavior);
+            }
+            else
+            {
+                QdoxHelper.initBehaviorAncestry(processedClasses, model, behavior);
+            }
             
             //Check if the behavior class file exists
-            if (!IOUtils.existsSourceFile(StringUtils.replace(
-                    behavior.getClassName(),".","/")+".java", sourceDirs))
+            if (!sourceIndex.exists(StringUtils.replace(
+                    behavior.getClassName(),".","/")+".java"))
             {
                 behavior.setGeneratedComponentClass(Boolean.TRUE);
             }
@@ -226,7 +551,15 @@ public class QdoxModelBuilder implements ModelBuilder
             {
                 continue;
             }
-            QdoxHelper.initFaceletTagHandlerAncestry(processedClasses, model, tag);            
+            if (ancestry != null)
+            {
+                QdoxHelper.initFaceletTagHandlerAncestry(
+                        ancestry.getSuperClassChain(tag.getSourceClassName()), model, tag);
+            }
+            else
+            {
+                QdoxHelper.initFaceletTagHandlerAncestry(processedClasses, model, tag);
+            }            
         }
     }
 
@@ -257,6 +590,11 @@ public class QdoxModelBuilder implements ModelBuilder
         processedClasses.put(clazz.getFullyQualifiedName(), clazz);
         log.info("processed class:" + clazz.getFullyQualifiedName());
         
+        createParsingContext().parseClass(clazz, model);
+    }
+
+    private ParsingContext createParsingContext()
+    {
         ParsingContext context = new ParsingContext();
         
         context.addStrategy(new BehaviorParsingStrategy());
@@ -272,6 +610,6 @@ public class QdoxModelBuilder implements ModelBuilder
         context.addStrategy(new WebConfigParamParsingStrategy());
         context.addStrategy(new FaceletFunctionParsingStrategy());
         
-        context.parseClass(clazz, model);
+        return context;
     }
 }
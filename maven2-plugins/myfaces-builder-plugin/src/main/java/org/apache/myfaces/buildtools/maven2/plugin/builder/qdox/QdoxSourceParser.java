@@ -0,0 +1,201 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.qdox;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.thoughtworks.qdox.JavaDocBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import com.thoughtworks.qdox.model.JavaSource;
+
+/**
+ * Parses a set of java source files with several threads.
+ * <p>
+ * A JavaDocBuilder is not thread-safe, so each thread parses its share of
+ * the files into its own builder. Once all files are parsed, every builder
+ * is told about the classes parsed by the others, so that types are resolved
+ * exactly as if all files had been added to a single builder. Type resolution
+ * in qdox is lazy, so nothing is resolved before that point.
+ * </p>
+ * <p>
+ * Only the parsing runs concurrently. The classes returned are processed
+ * afterwards by a single thread, because resolving a type may still parse
+ * or register classes in one of the builders.
+ * </p>
+ */
+public class QdoxSourceParser
+{
+    private final int threads;
+
+    /**
+     * @param threads the number of parsing threads; zero or less means one
+     * thread per available processor.
+     */
+    public QdoxSourceParser(int threads)
+    {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Parse the given files and return the classes they declare, including
+     * nested classes. This is the same set a single builder would return from
+     * getClasses(), but the order is unspecified.
+     */
+    public JavaClass[] parse(List files) throws IOException
+    {
+        int count = Math.max(1, Math.min(threads, files.size()));
+        List workers = new ArrayList(count);
+        for (int i = 0; i < count; ++i)
+        {
+            workers.add(new Worker());
+        }
+        // Deal the files round-robin, so that each thread gets a mix of
+        // small and large files from every directory.
+        for (int i = 0; i < files.size(); ++i)
+        {
+            ((Worker) workers.get(i % count)).files.add(files.get(i));
+        }
+
+        if (count == 1)
+        {
+            ((Worker) workers.get(0)).call();
+        }
+        else
+        {
+            ExecutorService executor = Executors.newFixedThreadPool(count);
+            try
+            {
+                List futures = executor.invokeAll(workers);
+                for (Iterator it = futures.iterator(); it.hasNext();)
+                {
+                    ((Future) it.next()).get();
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing source files");
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException)
+                {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException)
+                {
+                    throw (RuntimeException) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+            finally
+            {
+                executor.shutdown();
+            }
+        }
+
+        // Merge the classes of all builders into a single registry
+        Map registry = new HashMap();
+        List classes = new ArrayList();
+        for (Iterator it = workers.iterator(); it.hasNext();)
+        {
+            Worker worker = (Worker) it.next();
+            for (Iterator it2 = worker.classes.iterator(); it2.hasNext();)
+            {
+                JavaClass clazz = (JavaClass) it2.next();
+                classes.add(clazz);
+                if (!registry.containsKey(clazz.getFullyQualifiedName()))
+                {
+                    registry.put(clazz.getFullyQualifiedName(), clazz);
+                }
+            }
+        }
+        if (count > 1)
+        {
+            registry = Collections.unmodifiableMap(registry);
+            for (Iterator it = workers.iterator(); it.hasNext();)
+            {
+                Worker worker = (Worker) it.next();
+                for (Iterator it2 = registry.keySet().iterator(); it2.hasNext();)
+                {
+                    worker.builder.getClassLibrary().add((String) it2.next());
+                }
+                worker.builder.registry = registry;
+            }
+        }
+        return (JavaClass[]) classes.toArray(new JavaClass[classes.size()]);
+    }
+
+    private static void addClassesRecursive(JavaClass[] classes, List result)
+    {
+        for (int i = 0; i < classes.length; ++i)
+        {
+            result.add(classes[i]);
+            addClassesRecursive(classes[i].getNestedClasses(), result);
+        }
+    }
+
+    private static class Worker implements Callable
+    {
+        private final RegistryJavaDocBuilder builder = new RegistryJavaDocBuilder();
+
+        private final List files = new ArrayList();
+
+        private final List classes = new ArrayList();
+
+        public Object call() throws IOException
+        {
+            for (Iterator it = files.iterator(); it.hasNext();)
+            {
+                JavaSource source = builder.addSource((File) it.next());
+                addClassesRecursive(source.getClasses(), classes);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A builder that looks up the classes it does not know in the registry
+     * of all parsed classes, before trying the classpath or creating an
+     * unknown class.
+     */
+    private static class RegistryJavaDocBuilder extends JavaDocBuilder
+    {
+        private Map registry = Collections.EMPTY_MAP;
+
+        protected JavaClass createBinaryClass(String name)
+        {
+            JavaClass clazz = (JavaClass) registry.get(name);
+            return clazz != null ? clazz : super.createBinaryClass(name);
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Persistent record of the inputs used by the last execution of a goal.
+ * <p>
+ * Each input (a source file, an input model, the metadata of a dependency,
+ * the goal configuration...) is stored under a caller-chosen key together
+ * with a digest of its content. Keys should not contain absolute paths, so
+ * that the state survives a fresh checkout or a relocated workspace. Unlike
+ * a file timestamp, a content digest does not change when a file is merely
+ * touched.
+ * </p>
+ * <p>
+ * Usage: load the previous state, put every current input, then check
+ * {@link #isUpToDate()}. If the goal has to run, call {@link #store(File)}
+ * once the outputs have been written.
+ * </p>
+ */
+public class BuildState
+{
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Properties previous;
+
+    private final Properties current;
+
+    public BuildState()
+    {
+        this(new Properties());
+    }
+
+    private BuildState(Properties previous)
+    {
+        this.previous = previous;
+        this.current = new Properties();
+    }
+
+    /**
+     * Load the state saved by a previous execution. If the file does not
+     * exist (or cannot be read) an empty state is returned, which is never
+     * up to date.
+     */
+    public static BuildState load(File stateFile)
+    {
+        Properties p = new Properties();
+        if (stateFile != null && stateFile.exists())
+        {
+            InputStream is = null;
+            try
+            {
+                is = new BufferedInputStream(new FileInputStream(stateFile));
+                p.load(is);
+            }
+            catch (IOException e)
+            {
+                // A corrupt state file just means "rebuild"
+                p.clear();
+            }
+            finally
+            {
+                close(is);
+            }
+        }
+        return new BuildState(p);
+    }
+
+    /**
+     * Record the content digest of the given file under the given key.
+     */
+    public void putFile(String key, File file) throws IOException
+    {
+        put(key, digest(file));
+    }
+
+    /**
+     * Record the content digest of the given stream under the given key.
+     * The stream is consumed but not closed.
+     */
+    public void putStream(String key, InputStream is) throws IOException
+    {
+        put(key, digest(is));
+    }
+
+    /**
+     * Record the digest of an arbitrary string value (for example the
+     * goal configuration) under the given key.
+     */
+    public void putValue(String key, String value)
+    {
+        put(key, digest(value == null ? "" : value));
+    }
+
+    /**
+     * Record an already computed digest under the given key.
+     */
+    public void put(String key, String digest)
+    {
+        current.setProperty(key, digest);
+    }
+
+    public String get(String key)
+    {
+        return current.getProperty(key);
+    }
+
+    public String getPrevious(String key)
+    {
+        return previous.getProperty(key);
+    }
+
+    /**
+     * Return true if every input recorded in this execution is identical
+     * to the previous execution, and no input was added or removed.
+     */
+    public boolean isUpToDate()
+    {
+        return !previous.isEmpty() && previous.equals(current);
+    }
+
+    /**
+     * Save the inputs recorded in this execution.
+     */
+    public void store(File stateFile) throws IOException
+    {
+        stateFile.getParentFile().mkdirs();
+        OutputStream os = new BufferedOutputStream(new FileOutputStream(stateFile));
+        try
+        {
+            current.store(os, null);
+        }
+        finally
+        {
+            close(os);
+        }
+    }
+
+    /**
+     * Discard the state file, so the next execution rebuilds everything.
+     */
+    public static void invalidate(File stateFile)
+    {
+        if (stateFile != null && stateFile.exists())
+        {
+            stateFile.delete();
+        }
+    }
+
+    public static String digest(File file) throws IOException
+    {
+        InputStream is = new FileInputStream(file);
+        try
+        {
+            return digest(is);
+        }
+        finally
+        {
+            close(is);
+        }
+    }
+
+    public static String digest(InputStream is) throws IOException
+    {
+        MessageDigest md = newDigest();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) != -1)
+        {
+            md.update(buf, 0, n);
+        }
+        return toHex(md.digest());
+    }
+
+    public static String digest(String value)
+    {
+        try
+        {
+            return toHex(newDigest().digest(value.getBytes("UTF-8")));
+        }
+        catch (UnsupportedEncodingException e)
+        {
+            throw new BuildException("UTF-8 not supported", e);
+        }
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new BuildException("Digest algorithm not available: " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    private static String toHex(byte[] bytes)
+    {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            out[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(out);
+    }
+
+    private static void close(Closeable c)
+    {
+        if (c != null)
+        {
+            try
+            {
+                c.close();
+            }
+            catch (IOException e)
+            {
+                // ignore
+            }
+        }
+    }
+}
@@ -25,7 +25,7 @@ import org.apache.velocity.runtime.log.LogChute;
 public class MavenPluginConsoleLogSystem implements LogChute
 {
 
-    final Log log;
+    volatile Log log;
     
     public MavenPluginConsoleLogSystem(Log l)
     {
@@ -36,6 +36,15 @@ public class MavenPluginConsoleLogSystem implements LogChute
     {
         return log;
     }
+
+    /**
+     * Send the messages to another log, for an engine that outlives the
+     * goal that created it.
+     */
+    public void setLogger(Log l)
+    {
+        log = l;
+    }
     
     public void init(RuntimeServices runtimeservices) throws Exception
     {
@@ -0,0 +1,271 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.velocity.Template;
+import org.apache.velocity.context.Context;
+
+/**
+ * Merges velocity templates into files with several threads.
+ * <p>
+ * A velocity Template can be merged concurrently as long as each merge uses
+ * its own Context, so the caller gets the template from the engine once and
+ * adds a job with a new context for every file to generate. Everything that
+ * is not thread-safe (qdox lookups for example) must be done while building
+ * the contexts, before calling {@link #generate()}.
+ * </p>
+ * <p>
+ * Each file is rendered in memory and only written when its content differs
+ * from the existing file. An unchanged file keeps its timestamp, so the
+ * compiler plugin and the IDEs do not consider it modified.
+ * </p>
+ */
+public class TemplateGenerator
+{
+    private final int threads;
+
+    private final String encoding;
+
+    private final List jobs = new ArrayList();
+
+    /**
+     * @param threads the number of threads; zero or less means one thread per
+     * available processor.
+     * @param encoding the encoding of the generated files, or null to use the
+     * platform encoding.
+     */
+    public TemplateGenerator(int threads, String encoding)
+    {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.encoding = encoding;
+    }
+
+    /**
+     * Add a file to generate.
+     *
+     * @param source an object identifying the job for the caller, for
+     * example the metadata the file is generated from.
+     */
+    public Job addJob(Object source, Template template, Context context, File outFile)
+    {
+        Job job = new Job(source, template, context, outFile);
+        jobs.add(job);
+        return job;
+    }
+
+    public List getJobs()
+    {
+        return jobs;
+    }
+
+    /**
+     * Generate all the files added so far, and return the jobs in the order
+     * they were added. A job that failed does not stop the others; the caller
+     * checks {@link Job#getException()}.
+     */
+    public List generate() throws BuildException
+    {
+        int count = Math.max(1, Math.min(threads, jobs.size()));
+        if (count == 1)
+        {
+            for (Iterator it = jobs.iterator(); it.hasNext();)
+            {
+                ((Job) it.next()).call();
+            }
+            return jobs;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try
+        {
+            List futures = executor.invokeAll(jobs);
+            for (Iterator it = futures.iterator(); it.hasNext();)
+            {
+                ((Future) it.next()).get();
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new BuildException("Interrupted while generating files");
+        }
+        catch (ExecutionException e)
+        {
+            // Job.call() keeps its exceptions, so this can only be an Error
+            Throwable cause = e.getCause();
+            if (cause instanceof Error)
+            {
+                throw (Error) cause;
+            }
+            throw new BuildException("Error generating files", (Exception) cause);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        return jobs;
+    }
+
+    /**
+     * Write the given bytes to a file, unless the file already has exactly
+     * this content.
+     *
+     * @return true if the file was written.
+     */
+    public static boolean writeIfChanged(File file, byte[] content) throws IOException
+    {
+        if (file.exists() && file.length() == content.length && hasContent(file, content))
+        {
+            return false;
+        }
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists())
+        {
+            parent.mkdirs();
+        }
+        OutputStream out = new FileOutputStream(file);
+        try
+        {
+            out.write(content);
+        }
+        finally
+        {
+            out.close();
+        }
+        return true;
+    }
+
+    private static boolean hasContent(File file, byte[] content) throws IOException
+    {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try
+        {
+            byte[] buffer = new byte[8192];
+            int offset = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0)
+            {
+                if (offset + read > content.length)
+                {
+                    return false;
+                }
+                for (int i = 0; i < read; ++i)
+                {
+                    if (buffer[i] != content[offset + i])
+                    {
+                        return false;
+                    }
+                }
+                offset += read;
+            }
+            return offset == content.length;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * A file to generate.
+     */
+    public class Job implements Callable
+    {
+        private final Object source;
+
+        private final Template template;
+
+        private final Context context;
+
+        private final File outFile;
+
+        private boolean written;
+
+        private Exception exception;
+
+        Job(Object source, Template template, Context context, File outFile)
+        {
+            this.source = source;
+            this.template = template;
+            this.context = context;
+            this.outFile = outFile;
+        }
+
+        public Object call()
+        {
+            try
+            {
+                StringWriter writer = new StringWriter(16 * 1024);
+                template.merge(context, writer);
+                String text = writer.toString();
+                byte[] content = encoding == null ? text.getBytes() : text.getBytes(encoding);
+                written = writeIfChanged(outFile, content);
+            }
+            catch (Exception e)
+            {
+                exception = e;
+            }
+            return null;
+        }
+
+        public Object getSource()
+        {
+            return source;
+        }
+
+        public File getOutputFile()
+        {
+            return outFile;
+        }
+
+        /**
+         * Return true if the file was written, false if it was up to date or
+         * the job failed.
+         */
+        public boolean isWritten()
+        {
+            return written;
+        }
+
+        /**
+         * Return the exception thrown while generating the file, or null.
+         */
+        public Exception getException()
+        {
+            return exception;
+        }
+    }
+}
@@ -48,7 +48,7 @@ import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.MavenReportException;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.Flattener;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.IOUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.ModelSnapshot;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ClassMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
@@ -213,7 +213,7 @@ public class TagdocContentMojo extends AbstractMojo
         
         try
         {
-            _model = IOUtils.loadModel(new File(buildDirectory,
+            _model = ModelSnapshot.loadModel(new File(buildDirectory,
                     metadataFile));
             new Flattener(_model).flatten();            
             _generateTagDocs();
@@ -35,7 +35,7 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.reporting.AbstractMavenReport;
 import org.apache.maven.reporting.MavenReportException;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.Flattener;
-import org.apache.myfaces.buildtools.maven2.plugin.builder.IOUtils;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.ModelSnapshot;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.BehaviorMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ClassMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
@@ -138,7 +138,7 @@ public class TagdocIndexReport extends AbstractMavenReport
 
         try
         {
-            _model = IOUtils.loadModel(new File(buildDirectory, metadataFile));
+            _model = ModelSnapshot.loadModel(new File(buildDirectory, metadataFile));
             new Flattener(_model).flatten();
             _generateTagDocs();
         }
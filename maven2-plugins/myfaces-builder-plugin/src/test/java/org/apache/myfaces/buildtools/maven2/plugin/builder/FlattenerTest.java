@@ -29,7 +29,9 @@ import java.io.StringWriter;
 
 import junit.framework.TestCase;
 
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.ComponentMeta;
 import org.apache.myfaces.buildtools.maven2.plugin.builder.model.Model;
+import org.apache.myfaces.buildtools.maven2.plugin.builder.model.PropertyMeta;
 
 /**
  * Test flattening of a model.
@@ -98,6 +100,41 @@ public class FlattenerTest extends TestCase
         is2.close();
     }
 
+    /**
+     * Check that a component inheriting from itself does not make the
+     * flattener loop, and that flattening twice does not change the model.
+     */
+    public void testCycle() throws Exception
+    {
+        Model model = new Model();
+        ComponentMeta a = newComponent("A", "B", "foo");
+        ComponentMeta b = newComponent("B", "A", "bar");
+        model.addComponent(a);
+        model.addComponent(b);
+
+        new Flattener(model).flatten();
+        assertTrue(model.isFlattened());
+        assertNotNull(a.getProperty("bar"));
+        assertEquals(2, a.getPropertyList().size());
+        assertEquals(1, b.getPropertyList().size());
+
+        new Flattener(model).flatten();
+        assertEquals(2, a.getPropertyList().size());
+    }
+
+    private ComponentMeta newComponent(String className, String parentClassName,
+            String propertyName)
+    {
+        ComponentMeta component = new ComponentMeta();
+        component.setClassName(className);
+        component.setParentClassName(parentClassName);
+        PropertyMeta property = new PropertyMeta();
+        property.setName(propertyName);
+        property.setClassName("java.lang.String");
+        component.addProperty(property);
+        return component;
+    }
+
     /**
      * Read the contents of an input stream into a string.
      */
@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.apache.velocity.app.VelocityEngine;
+
+/**
+ * Tests that a shared engine logs to the log of the goal using it.
+ */
+public class GenerationEngineTest extends TestCase
+{
+    public void testLogOfLaterGoal() throws Exception
+    {
+        File dir = new File("target/generationengine-test");
+        dir.mkdirs();
+
+        MavenProject project = new MavenProject(new Model());
+        List first = new ArrayList();
+        List second = new ArrayList();
+        VelocityEngine engine = GenerationEngine.getVelocityEngine(project, dir,
+                "componentClassMacros11.vm", new WarnLog(first));
+        assertSame(engine, GenerationEngine.getVelocityEngine(project, dir,
+                "componentClassMacros11.vm", new WarnLog(second)));
+
+        first.clear();
+        engine.getLog().warn("second goal");
+        assertTrue(first.isEmpty());
+        assertEquals(1, second.size());
+        assertEquals("second goal", second.get(0));
+    }
+
+    public void testOtherModule() throws Exception
+    {
+        File dir = new File("target/generationengine-test");
+        dir.mkdirs();
+
+        List first = new ArrayList();
+        List second = new ArrayList();
+        VelocityEngine engine = GenerationEngine.getVelocityEngine(
+                new MavenProject(new Model()), dir,
+                "componentClassMacros11.vm", new WarnLog(first));
+        VelocityEngine other = GenerationEngine.getVelocityEngine(
+                new MavenProject(new Model()), dir,
+                "componentClassMacros11.vm", new WarnLog(second));
+        assertNotSame(engine, other);
+
+        // the engine still used by the first module keeps its log
+        first.clear();
+        second.clear();
+        engine.getLog().warn("first module");
+        other.getLog().warn("second module");
+        assertEquals(1, first.size());
+        assertEquals("first module", first.get(0));
+        assertEquals(1, second.size());
+        assertEquals("second module", second.get(0));
+    }
+
+    private static class WarnLog extends SystemStreamLog
+    {
+        private final List messages;
+
+        public WarnLog(List messages)
+        {
+            this.messages = messages;
+        }
+
+        public void warn(CharSequence content)
+        {
+            messages.add(content.toString());
+        }
+    }
+}
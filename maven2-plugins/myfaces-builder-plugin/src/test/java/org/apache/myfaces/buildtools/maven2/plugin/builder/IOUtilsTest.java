@@ -19,6 +19,7 @@
 package org.apache.myfaces.buildtools.maven2.plugin.builder;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,6 +27,8 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 
@@ -62,6 +65,111 @@ public class IOUtilsTest extends TestCase
         compareData(srcReader, dstReader);
     }
 
+    /**
+     * Load the complex "goodfile.xml" through a model snapshot: the first
+     * load writes the snapshot, the second one reads it, and both must save
+     * as the original xml.
+     */
+    public void testSnapshot() throws Exception
+    {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+
+        InputStream is = classLoader
+                .getResourceAsStream("builder/complex/goodfile.xml");
+        String src = readAll(is);
+        is.close();
+
+        File xmlFile = new File("target/snapshot-ioutils.xml");
+        writeAll(xmlFile.getPath(), src);
+        File snapshotFile = ModelSnapshot.getSnapshotFile(xmlFile);
+        snapshotFile.delete();
+
+        Model model = ModelSnapshot.loadModel(xmlFile);
+        assertTrue(snapshotFile.exists());
+        compareData(new StringReader(src), new StringReader(toXml(model)));
+
+        model = ModelSnapshot.loadModel(xmlFile);
+        compareData(new StringReader(src), new StringReader(toXml(model)));
+
+        // a snapshot of another xml content is ignored
+        writeAll(xmlFile.getPath(), src.replaceAll("ComponentBase", "ComponentBase2"));
+        model = ModelSnapshot.loadModel(xmlFile);
+        assertTrue(toXml(model).indexOf("ComponentBase2") != -1);
+    }
+
+    /**
+     * The model cache returns independent copies, and only for the digest
+     * the model was stored with.
+     */
+    public void testModelCache() throws Exception
+    {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        InputStream is = classLoader
+                .getResourceAsStream("builder/complex/goodfile.xml");
+        String src = readAll(is);
+        is.close();
+        Model model = IOUtils.readModel(new StringReader(src));
+
+        ModelCache.clear();
+        ModelCache.putModel("test:complex", "1", model);
+        model.setModelId("changed");
+
+        Model copy = ModelCache.getModel("test:complex", "1");
+        assertNotNull(copy);
+        assertNotSame(model, copy);
+        compareData(new StringReader(src), new StringReader(toXml(copy)));
+        copy.getComponents().clear();
+        assertFalse(ModelCache.getModel("test:complex", "1").getComponents().isEmpty());
+
+        assertNull(ModelCache.getModel("test:complex", "2"));
+        assertNull(ModelCache.getModel("test:other", "1"));
+        ModelCache.clear();
+    }
+
+    /**
+     * Check that the source index gives the same answers as probing the
+     * source directories.
+     */
+    public void testSourceIndex() throws Exception
+    {
+        File dir1 = new File("target/sourceindex-test/src1");
+        File dir2 = new File("target/sourceindex-test/src2");
+        new File(dir1, "org/foo").mkdirs();
+        dir2.mkdirs();
+        writeAll(new File(dir1, "org/foo/Bar.java").getPath(), "package org.foo; class Bar {}");
+        writeAll(new File(dir2, "Baz.java").getPath(), "class Baz {}");
+
+        List sourceDirs = new ArrayList();
+        sourceDirs.add(dir1.getPath());
+        sourceDirs.add(dir2.getPath());
+        ModelParams parameters = new ModelParams();
+        parameters.setSourceDirs(sourceDirs);
+        final SourceIndex index = SourceIndex.create(parameters);
+        IOUtils.visitSources(parameters, new IOUtils.SourceVisitor()
+        {
+            public void processSource(File file) throws IOException
+            {
+                index.add(file);
+            }
+        });
+
+        String[] names = {"org/foo/Bar.java", "Baz.java", "org/foo/Baz.java", "Bar.java"};
+        for (int i = 0; i < names.length; i++)
+        {
+            assertEquals(names[i], IOUtils.existsSourceFile(names[i], sourceDirs),
+                    index.exists(names[i]));
+        }
+        assertTrue(index.exists("org/foo/Bar.java"));
+        assertFalse(index.exists("org/foo/Baz.java"));
+    }
+
+    private String toXml(Model model) throws Exception
+    {
+        StringWriter dstWriter = new StringWriter();
+        IOUtils.writeModel(model, dstWriter);
+        return dstWriter.toString();
+    }
+
     /**
      * Read the contents of an input stream into a string.
      */
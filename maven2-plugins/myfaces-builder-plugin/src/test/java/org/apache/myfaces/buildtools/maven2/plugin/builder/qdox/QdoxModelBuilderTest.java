@@ -20,10 +20,14 @@ package org.apache.myfaces.buildtools.maven2.plugin.builder.qdox;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.net.URL;
@@ -228,6 +232,113 @@ public class QdoxModelBuilderTest extends TestCase
         compareData(outfile, "builder/complex/goodfile.xml");
     }
 
+    /**
+     * Parse the generation and complex source trees with several threads:
+     * the model must be identical to the one built by a single thread.
+     */
+    public void testParallelParsing() throws Exception
+    {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        URL sourceUrl = classLoader
+                .getResource("builder/generation/testpkg/ComponentBase.java");
+        File baseDir = new File(sourceUrl.getFile()).getParentFile().getParentFile();
+        File outfile = new File("target/generation-parallel-out.xml");
+        buildParallel(baseDir, outfile);
+        compareData(outfile, "builder/generation/goodfile.xml");
+
+        sourceUrl = classLoader.getResource("builder/complex/ComponentBase.java");
+        baseDir = new File(sourceUrl.getFile()).getParentFile();
+        outfile = new File("target/complex-parallel-out.xml");
+        buildParallel(baseDir, outfile);
+        compareData(outfile, "builder/complex/goodfile.xml");
+    }
+
+    private void buildParallel(File baseDir, File outfile) throws Exception
+    {
+        List sourceDirs = new ArrayList();
+        sourceDirs.add(baseDir.getAbsolutePath());
+        Model model = new Model();
+        model.setModelId("test");
+        ModelParams parameters = new ModelParams();
+        parameters.setSourceDirs(sourceDirs);
+        parameters.setParseThreads(3);
+        new QdoxModelBuilder().buildModel(model, parameters);
+        IOUtils.saveModel(model, outfile);
+    }
+
+    /**
+     * Build the complex source tree with the class fragment cache enabled,
+     * change one file and build again: the incremental build must produce
+     * exactly the same model as a full scan.
+     */
+    public void testComplexIncremental() throws Exception
+    {
+        ClassLoader classLoader = this.getClass().getClassLoader();
+        URL sourceUrl = classLoader
+                .getResource("builder/complex/ComponentBase.java");
+        File srcDir = new File(sourceUrl.getFile()).getParentFile();
+        File parentDir = new File("target/complex-incremental");
+        parentDir.mkdirs();
+        String[] names = srcDir.list();
+        for (int i = 0; i < names.length; ++i)
+        {
+            if (names[i].endsWith(".java"))
+            {
+                copyFile(new File(srcDir, names[i]), new File(parentDir, names[i]));
+            }
+        }
+        List sourceDirs = new ArrayList();
+        sourceDirs.add(parentDir.getAbsolutePath());
+        File cacheFile = new File("target/complex-incremental-cache");
+        ClassFragmentCache.invalidate(cacheFile);
+
+        File outfile = new File("target/complex-incremental-out.xml");
+        buildIncremental(sourceDirs, cacheFile, outfile);
+        compareData(outfile, "builder/complex/goodfile.xml");
+
+        // nothing changed
+        buildIncremental(sourceDirs, cacheFile, outfile);
+        compareData(outfile, "builder/complex/goodfile.xml");
+
+        // a change in a base class forces its subclasses to be parsed again
+        FileWriter fw = new FileWriter(new File(parentDir, "ComponentBase.java"), true);
+        fw.write("\n// changed\n");
+        fw.close();
+        buildIncremental(sourceDirs, cacheFile, outfile);
+        compareData(outfile, "builder/complex/goodfile.xml");
+    }
+
+    private void buildIncremental(List sourceDirs, File cacheFile, File outfile) throws Exception
+    {
+        Model model = new Model();
+        model.setModelId("test");
+        ModelParams parameters = new ModelParams();
+        parameters.setSourceDirs(sourceDirs);
+        parameters.setClassFragmentCacheFile(cacheFile);
+        new QdoxModelBuilder().buildModel(model, parameters);
+        IOUtils.saveModel(model, outfile);
+    }
+
+    private void copyFile(File src, File dst) throws IOException
+    {
+        InputStream is = new FileInputStream(src);
+        OutputStream os = new FileOutputStream(dst);
+        try
+        {
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = is.read(buf)) != -1)
+            {
+                os.write(buf, 0, n);
+            }
+        }
+        finally
+        {
+            is.close();
+            os.close();
+        }
+    }
+
     /**
      * Compare the contents of two Reader objects line-by-line.
      */
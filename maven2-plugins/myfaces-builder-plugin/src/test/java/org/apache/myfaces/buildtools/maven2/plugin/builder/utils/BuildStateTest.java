@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.utils;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import junit.framework.TestCase;
+
+/**
+ * Tests that the build state detects content changes but ignores timestamps.
+ */
+public class BuildStateTest extends TestCase
+{
+    public void testContentDigest() throws Exception
+    {
+        File dir = new File("target/buildstate-test");
+        dir.mkdirs();
+        File source = new File(dir, "Foo.java");
+        File stateFile = new File(dir, "state");
+        stateFile.delete();
+
+        writeAll(source, "public class Foo {}");
+
+        BuildState state = BuildState.load(stateFile);
+        state.putFile("source:0:Foo.java", source);
+        assertFalse("empty state is never up to date", state.isUpToDate());
+        state.store(stateFile);
+
+        // Touching the file must not invalidate the state
+        source.setLastModified(source.lastModified() + 10000);
+        state = BuildState.load(stateFile);
+        state.putFile("source:0:Foo.java", source);
+        assertTrue(state.isUpToDate());
+
+        writeAll(source, "public class Foo { int x; }");
+        state = BuildState.load(stateFile);
+        state.putFile("source:0:Foo.java", source);
+        assertFalse(state.isUpToDate());
+
+        // A removed input must invalidate the state too
+        state = BuildState.load(stateFile);
+        assertFalse(state.isUpToDate());
+    }
+
+    private void writeAll(File dstFile, String src) throws Exception
+    {
+        FileWriter fw = new FileWriter(dstFile);
+        fw.write(src);
+        fw.close();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.builder.utils;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.apache.velocity.Template;
+import org.apache.velocity.VelocityContext;
+import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.RuntimeConstants;
+import org.apache.velocity.runtime.log.NullLogChute;
+
+/**
+ * Tests that the generator merges all jobs and leaves unchanged files alone.
+ */
+public class TemplateGeneratorTest extends TestCase
+{
+    public void testGenerate() throws Exception
+    {
+        File dir = new File("target/templategenerator-test");
+        dir.mkdirs();
+        writeAll(new File(dir, "test.vm"), "class $name {}");
+
+        VelocityEngine engine = new VelocityEngine();
+        engine.setProperty("file.resource.loader.path", dir.getPath());
+        engine.setProperty(RuntimeConstants.RUNTIME_LOG_LOGSYSTEM, new NullLogChute());
+        engine.init();
+        Template template = engine.getTemplate("test.vm");
+
+        File outDir = new File(dir, "out");
+        TemplateGenerator generator = new TemplateGenerator(3, "UTF-8");
+        for (int i = 0; i < 10; ++i)
+        {
+            VelocityContext context = new VelocityContext();
+            context.put("name", "Foo" + i);
+            generator.addJob(new Integer(i), template, context, new File(outDir, "Foo" + i + ".java"));
+        }
+        List jobs = generator.generate();
+        assertEquals(10, jobs.size());
+        for (int i = 0; i < 10; ++i)
+        {
+            TemplateGenerator.Job job = (TemplateGenerator.Job) jobs.get(i);
+            assertNull(job.getException());
+            assertEquals(new Integer(i), job.getSource());
+        }
+
+        File foo = new File(outDir, "Foo3.java");
+        assertFalse(TemplateGenerator.writeIfChanged(foo, "class Foo3 {}".getBytes("UTF-8")));
+        assertTrue(TemplateGenerator.writeIfChanged(foo, "class Foo4 {}".getBytes("UTF-8")));
+        assertTrue(TemplateGenerator.writeIfChanged(foo, "class Foo3 { }".getBytes("UTF-8")));
+        assertFalse(TemplateGenerator.writeIfChanged(foo, "class Foo3 { }".getBytes("UTF-8")));
+    }
+
+    private void writeAll(File dstFile, String src) throws Exception
+    {
+        FileWriter fw = new FileWriter(dstFile);
+        fw.write(src);
+        fw.close();
+    }
+}
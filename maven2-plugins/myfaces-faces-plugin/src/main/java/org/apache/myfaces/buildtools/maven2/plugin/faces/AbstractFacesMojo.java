@@ -28,6 +28,7 @@ import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.generator.GeneratorHelper;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.io.PrettyWriter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.FacesConfigBean;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.FacesConfigCache;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.AttributeBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ComponentBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ConverterBean;
@@ -36,6 +37,7 @@ import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ValidatorBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.AttributeFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ComponentFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ConverterFilter;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.util.FileStatCache;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.Util;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.XIncludeFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ValidatorFilter;
@@ -43,7 +45,6 @@ import org.codehaus.plexus.util.FileUtils;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
-import javax.xml.namespace.QName;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.BufferedReader;
@@ -53,7 +54,6 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.net.URLConnection;
 import java.util.*;
 
 abstract public class AbstractFacesMojo extends AbstractMojo
@@ -182,16 +182,27 @@ abstract public class AbstractFacesMojo extends AbstractMojo
     URL[] urls,
     long  lastModified) throws IOException
   {
+    FileStatCache stats = getFileStatCache();
     for (int i=0; i < urls.length; i++)
     {
-      URLConnection conn = urls[i].openConnection();
-      if (conn.getLastModified() > lastModified)
+      if (stats.lastModified(urls[i]) > lastModified)
         return true;
     }
 
     return false;
   }
 
+  /**
+   * Returns the last modified times of the files checked by this goal.
+   * The times are read once per execution of the goal.
+   */
+  protected FileStatCache getFileStatCache()
+  {
+    if (_fileStatCache == null)
+      _fileStatCache = new FileStatCache();
+    return _fileStatCache;
+  }
+
   /**
   * @deprecated call Util.convertStringToLiteral instead
   */
@@ -275,13 +286,51 @@ abstract public class AbstractFacesMojo extends AbstractMojo
     MavenProject project,
     String       resourcePath) throws MojoExecutionException
   {
-    _facesConfig = new FacesConfigBean();
-
     URL[] index = readIndex(project, resourcePath);
+
+    // a new execution sees the files as they are now
+    _fileStatCache = null;
+
+    // The goals of a module all parse the same index, so the parsed
+    // faces config is cached for the goals that follow and the next build
+    FacesConfigCache cache = new FacesConfigCache(facesConfigCacheFile);
+    String key = null;
+    try
+    {
+      key = cache.getKey(index);
+      _facesConfig = cache.get(key);
+    }
+    catch (IOException e)
+    {
+      getLog().debug("Faces config cache not used", e);
+    }
+
+    if (_facesConfig != null)
+    {
+      getLog().debug("Using cached faces config");
+      _facesConfig.performPostProcessing();
+      return;
+    }
+
+    _facesConfig = new FacesConfigBean();
     for (int i=0; i < index.length; i++)
     {
       processIndexEntry(index[i]);
     }
+
+    if (key != null)
+    {
+      try
+      {
+        cache.put(key, _facesConfig);
+      }
+      catch (IOException e)
+      {
+        getLog().warn("Unable to cache faces config: " + e.getMessage());
+      }
+    }
+
+    _facesConfig.performPostProcessing();
   }
 
   protected void processIndexEntry(
@@ -393,23 +442,6 @@ abstract public class AbstractFacesMojo extends AbstractMojo
     }
   }
 
-  static final protected class ComponentTypeFilter extends ComponentFilter
-  {
-    public ComponentTypeFilter(
-      String typePrefix)
-    {
-      _typePrefix = typePrefix;
-    }
-
-    protected boolean accept(
-      ComponentBean component)
-    {
-      String componentType = component.getComponentType();        
-      return (componentType.startsWith(_typePrefix));
-    }
-     private final String _typePrefix;
-  }
-
   static final protected class ComponentClassFilter extends ComponentFilter
   {
     public ComponentClassFilter(
@@ -523,105 +555,6 @@ abstract public class AbstractFacesMojo extends AbstractMojo
     }
   }
 
-  static final protected class ComponentTagLibraryFilter extends ComponentFilter
-  {
-    public ComponentTagLibraryFilter(
-      String namespaceURI)
-    {
-      this(namespaceURI, true);
-    }
-
-    public ComponentTagLibraryFilter(
-      String namespaceURI,
-      boolean requireTagClass)
-    {
-      _namespaceURI = namespaceURI;
-      _requireTagClass = requireTagClass;
-    }
-
-    protected boolean accept(
-      ComponentBean component)
-    {
-      QName tagName = component.getTagName();
-      String tagClass = component.getTagClass();
-
-      // accept if tagClass is present
-      // and if tagName is in the desired namespaceURI
-      return ((!_requireTagClass || (tagClass != null)) &&
-              tagName != null &&
-              _namespaceURI.equals(tagName.getNamespaceURI()));
-    }
-
-    private final String _namespaceURI;
-    private final boolean _requireTagClass;
-  }
-
-  static final protected class ValidatorTagLibraryFilter extends ValidatorFilter
-  {
-    public ValidatorTagLibraryFilter(
-      String namespaceURI)
-    {
-      this(namespaceURI, true);
-    }
-
-    public ValidatorTagLibraryFilter(
-      String namespaceURI,
-      boolean requireTagClass)
-    {
-      _namespaceURI = namespaceURI;
-      _requireTagClass = requireTagClass;
-    }
-
-    protected boolean accept(
-      ValidatorBean validator)
-    {
-      QName tagName = validator.getTagName();
-      String tagClass = validator.getTagClass();
-
-      // accept if tagClass is present
-      // and if tagName is in the desired namespaceURI
-      return ((!_requireTagClass || (tagClass != null)) &&
-              tagName != null &&
-              _namespaceURI.equals(tagName.getNamespaceURI()));
-    }
-
-    private final String _namespaceURI;
-    private final boolean _requireTagClass;
-  }
-
-  static final protected class ConverterTagLibraryFilter extends ConverterFilter
-  {
-    public ConverterTagLibraryFilter(
-      String namespaceURI)
-    {
-      this(namespaceURI, true);
-    }
-
-    public ConverterTagLibraryFilter(
-      String namespaceURI,
-      boolean requireTagClass)
-    {
-      _namespaceURI = namespaceURI;
-      _requireTagClass = requireTagClass;
-    }
-
-    protected boolean accept(
-      ConverterBean converter)
-    {
-      QName tagName = converter.getTagName();
-      String tagClass = converter.getTagClass();
-
-      // accept if tagClass is present
-      // and if tagName is in the desired namespaceURI
-      return ((!_requireTagClass || (tagClass != null)) &&
-              tagName != null &&
-              _namespaceURI.equals(tagName.getNamespaceURI()));
-    }
-
-    private final String _namespaceURI;
-    private final boolean _requireTagClass;
-  }
-
   static protected class VirtualAttributeFilter extends AttributeFilter
   {
     protected boolean accept(
@@ -646,9 +579,18 @@ abstract public class AbstractFacesMojo extends AbstractMojo
    */
   private File localResource;
 
+  /**
+   * The file the parsed faces config is cached in between builds.
+   * The cache is only used while the parsed documents are unchanged.
+   *
+   * @parameter expression="${project.build.directory}/maven-faces-plugin/faces-config.cache"
+   */
+  private File facesConfigCacheFile;
+
 
 
   private FacesConfigBean _facesConfig;
+  private FileStatCache _fileStatCache;
   private String _licenseHeader;
 
   static final private String _AUTO_GENERATE_WARNING =
@@ -19,6 +19,7 @@
 package org.apache.myfaces.buildtools.maven2.plugin.faces;
 
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.project.MavenProject;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.generator.component.ComponentGenerator;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.generator.component.MyFacesComponentGenerator;
@@ -26,17 +27,29 @@ import org.apache.myfaces.buildtools.maven2.plugin.faces.generator.component.Tri
 import org.apache.myfaces.buildtools.maven2.plugin.faces.io.PrettyWriter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ComponentBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.FacesConfigBean;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.util.BufferedLog;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ComponentFilter;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.util.FileStatCache;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.FilteredIterator;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.SourceTemplate;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.Util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @version $Id$
@@ -83,10 +96,8 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
         getLog().warn("Event listener methods will not be generated");
       }
 
-      Iterator components = facesConfig.components();
+      Iterator components = facesConfig.componentsByTypePrefix(typePrefix);
       components = new FilteredIterator(components, new SkipFilter());
-      components = new FilteredIterator(components,
-                                        new ComponentTypeFilter(typePrefix));
 
       // incremental unless forced
       if (!force)
@@ -100,44 +111,193 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
       }
       else
       {
-        int count = 0;
+        List included = new ArrayList();
         while (components.hasNext())
         {
           ComponentBean component = (ComponentBean)components.next();
           if (!component.isComponentClassExcluded()){
-              _generateComponent(component);
-              count++;
+              included.add(component);
           }          
         }
-        getLog().info("Generated " + count + " component(s)");
+
+        _generateComponents(included);
       }
     }
   }
 
   /**
-   * Generates a parsed component.
+   * Generates the parsed components with a pool of threads.  Each thread
+   * has its own generators, logging to a buffer that is written to the
+   * build log in the order of the components once all are generated.
    *
-   * @param component  the parsed component metadata
+   * @param components  the parsed components metadata
    */
-  private void _generateComponent(
-    ComponentBean component) throws MojoExecutionException
+  private void _generateComponents(
+    List components) throws MojoExecutionException
   {
-    ComponentGenerator generator;
+    // read now rather than concurrently from the generating threads
+    getLicenseHeader();
 
-    String fullClassName = component.getComponentClass();
+    final ThreadLocal workers = new ThreadLocal();
+    List tasks = new ArrayList(components.size());
+    for (Iterator it = components.iterator(); it.hasNext(); )
+    {
+      final ComponentBean component = (ComponentBean)it.next();
+      tasks.add(new Callable()
+      {
+        public Object call()
+        {
+          Worker worker = (Worker)workers.get();
+          if (worker == null)
+          {
+            worker = new Worker();
+            workers.set(worker);
+          }
+          return worker.generate(component);
+        }
+      });
+    }
+
+    int threads = (generatorThreads > 0)
+                    ? generatorThreads
+                    : Runtime.getRuntime().availableProcessors();
+    threads = Math.min(threads, tasks.size());
+
+    List results = new ArrayList(tasks.size());
+    if (threads <= 1)
+    {
+      for (Iterator it = tasks.iterator(); it.hasNext(); )
+      {
+        try
+        {
+          results.add(((Callable)it.next()).call());
+        }
+        catch (Exception e)
+        {
+          // Worker.generate() keeps its exceptions
+          throw new IllegalStateException(e.getMessage());
+        }
+      }
+    }
+    else
+    {
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try
+      {
+        List futures = executor.invokeAll(tasks);
+        for (Iterator it = futures.iterator(); it.hasNext(); )
+        {
+          results.add(((Future)it.next()).get());
+        }
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new MojoExecutionException("Interrupted while generating components");
+      }
+      catch (ExecutionException e)
+      {
+        Throwable cause = e.getCause();
+        if (cause instanceof Error)
+          throw (Error)cause;
+        throw (RuntimeException)cause;
+      }
+      finally
+      {
+        executor.shutdown();
+      }
+    }
 
-    if (component.isTrinidadComponent())
+    int written = 0;
+    int unchanged = 0;
+    int failed = 0;
+    for (Iterator it = results.iterator(); it.hasNext(); )
     {
-      generator = new TrinidadComponentGenerator(getLog(), _is12());
+      Result result = (Result)it.next();
+      result.log.replay(getLog());
+      if (result.error instanceof MojoExecutionException)
+        throw (MojoExecutionException)result.error;
+      else if (result.error != null)
+        throw (RuntimeException)result.error;
+
+      if (result.status == _WRITTEN)
+        written++;
+      else if (result.status == _UNCHANGED)
+        unchanged++;
+      else
+        failed++;
     }
-    else 
+
+    if (unchanged > 0)
+      getLog().debug(unchanged + " generated component(s) were up to date");
+    if (failed > 0)
+      getLog().warn(failed + " component(s) could not be generated");
+    getLog().info("Generated " + written + " component(s)");
+  }
+
+  /**
+   * Generates components on one thread.
+   */
+  private class Worker
+  {
+    public Result generate(
+      ComponentBean component)
     {
-      generator = new MyFacesComponentGenerator(getLog(),_is12() );
+      Result result = new Result();
+      try
+      {
+        ComponentGenerator generator = component.isTrinidadComponent()
+                                         ? _trinidadGenerator
+                                         : _myFacesGenerator;
+        result.status = _generateComponent(component, generator, _log);
+      }
+      catch (MojoExecutionException e)
+      {
+        result.error = e;
+      }
+      catch (RuntimeException e)
+      {
+        result.error = e;
+      }
+      result.log = _log.detach();
+      return result;
     }
 
+    private final BufferedLog _log = new BufferedLog(getLog());
+    private final ComponentGenerator _trinidadGenerator =
+      new TrinidadComponentGenerator(_log, _is12());
+    private final ComponentGenerator _myFacesGenerator =
+      new MyFacesComponentGenerator(_log, _is12());
+  }
+
+  static private class Result
+  {
+    public BufferedLog log;
+    public int         status;
+    public Exception   error;
+  }
+
+  /**
+   * Generates a parsed component.
+   *
+   * @param component  the parsed component metadata
+   * @param generator  the generator for this kind of component
+   * @param log        the log of the generating thread
+   *
+   * @return _WRITTEN if the component class was written, _UNCHANGED if
+   *         the existing file already had the generated content, or
+   *         _FAILED if the component could not be generated
+   */
+  private int _generateComponent(
+    ComponentBean      component,
+    ComponentGenerator generator,
+    Log                log) throws MojoExecutionException
+  {
+    String fullClassName = component.getComponentClass();
+
     try
     {
-      getLog().debug("Generating " + fullClassName+", with generator: "+generator.getClass().getName());
+      log.debug("Generating " + fullClassName+", with generator: "+generator.getClass().getName());
 
       String sourcePath = Util.convertClassToSourcePath(fullClassName, ".java");
       File targetFile = new File(generatedSourceDirectory, sourcePath);
@@ -150,7 +310,7 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
 
       if (componentFamily == null)
       {
-        getLog().warn("Missing <component-family> for \"" +
+        log.warn("Missing <component-family> for \"" +
                        fullClassName + "\", generation of this Component is skipped");
       }
       else
@@ -183,7 +343,7 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
         SourceTemplate template = null;
         if (templateFile.exists())
         {
-          getLog().debug("Using template " + templatePath);
+          log.debug("Using template " + templatePath);
           template = new SourceTemplate(templateFile);
           template.substitute(className + "Template", className);
           template.readPreface();
@@ -250,20 +410,58 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
         out.close();
 
         // delay write in case of error
-        // timestamp should not be updated when an error occurs
+        // timestamp should not be updated when an error occurs,
+        // nor when the content did not change
+        String content = sw.toString();
+        if (_hasContent(targetFile, content))
+          return _UNCHANGED;
+
         // delete target file first, because it is readonly
         targetFile.getParentFile().mkdirs();
         targetFile.delete();
         FileWriter fw = new FileWriter(targetFile);
-        StringBuffer buf = sw.getBuffer();
-        fw.write(buf.toString());
+        fw.write(content);
         fw.close();
         targetFile.setReadOnly();
+        return _WRITTEN;
       }
     }
     catch (IOException e)
     {
-      getLog().error("Error generating " + fullClassName, e);
+      log.error("Error generating " + fullClassName, e);
+    }
+
+    return _FAILED;
+  }
+
+  /**
+   * Returns true if the file exists with the specified content, written
+   * with the platform encoding as FileWriter does.
+   */
+  static private boolean _hasContent(
+    File   file,
+    String content) throws IOException
+  {
+    if (!file.exists())
+      return false;
+
+    byte[] bytes = content.getBytes();
+    if (file.length() != bytes.length)
+      return false;
+
+    InputStream in = new BufferedInputStream(new FileInputStream(file));
+    try
+    {
+      for (int i=0; i < bytes.length; i++)
+      {
+        if (in.read() != (bytes[i] & 0xff))
+          return false;
+      }
+      return true;
+    }
+    finally
+    {
+      in.close();
     }
   }
 
@@ -279,9 +477,24 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
       File templateFile = new File(templateSourceDirectory, templatePath);
 
       // accept if templateFile is newer or component has been modified
-      return (templateFile.lastModified() > targetFile.lastModified() ||
-              component.isModifiedSince(targetFile.lastModified()));
+      long targetModified = _stats.lastModified(targetFile);
+      return (_stats.lastModified(templateFile) > targetModified ||
+              component.isModifiedSince(targetModified));
     }
+
+    private final FileStatCache _stats = _getFileStatCache();
+  }
+
+  /**
+   * Returns the stat cache of this execution, with the generated source
+   * and template directories read in one walk each.
+   */
+  private FileStatCache _getFileStatCache()
+  {
+    FileStatCache stats = getFileStatCache();
+    stats.addDirectory(generatedSourceDirectory);
+    stats.addDirectory(templateSourceDirectory);
+    return stats;
   }
 
   private boolean _is12()
@@ -340,4 +553,17 @@ public class GenerateComponentsMojo extends AbstractFacesMojo
    * @parameter
    */
   private String jsfVersion;
+
+  /**
+   * The number of threads generating the components, by default one
+   * per processor.
+   *
+   * @parameter
+   */
+  private int generatorThreads;
+
+  // the outcomes of generating a component
+  static private final int _WRITTEN = 0;
+  static private final int _UNCHANGED = 1;
+  static private final int _FAILED = 2;
 }
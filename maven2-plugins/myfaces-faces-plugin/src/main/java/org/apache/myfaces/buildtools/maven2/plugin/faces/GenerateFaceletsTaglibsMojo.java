@@ -90,15 +90,12 @@ public class GenerateFaceletsTaglibsMojo extends AbstractFacesMojo
         String namespaceURI = (String)entry.getValue();
 
         FacesConfigBean facesConfig = getFacesConfig();
-        Iterator components = facesConfig.components();
+        Iterator components = facesConfig.components(namespaceURI);
         components = new FilteredIterator(components, new SkipFilter());
-        components = new FilteredIterator(components, new ComponentTagLibraryFilter(namespaceURI, false));
 
-        Iterator validators = facesConfig.validators();
-        validators = new FilteredIterator(validators, new ValidatorTagLibraryFilter(namespaceURI, false));
+        Iterator validators = facesConfig.validators(namespaceURI);
 
-        Iterator converters = facesConfig.converters();
-        converters = new FilteredIterator(converters, new ConverterTagLibraryFilter(namespaceURI, false));
+        Iterator converters = facesConfig.converters(namespaceURI);
 
 
         String targetPath = "META-INF/" + shortName + ".taglib.xml";
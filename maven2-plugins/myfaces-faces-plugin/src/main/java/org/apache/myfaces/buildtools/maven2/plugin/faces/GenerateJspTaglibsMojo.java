@@ -35,37 +35,29 @@ import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ComponentBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ConverterBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.FacesConfigBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.MethodSignatureBean;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ObjectBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.PropertyBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.ValidatorBean;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ComponentFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ConverterFilter;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.util.FileStatCache;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.FilteredIterator;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.Util;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.ValidatorFilter;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.util.XIncludeFilter;
 import org.codehaus.plexus.util.FileUtils;
+import org.xml.sax.Attributes;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.sax.SAXSource;
-import javax.xml.transform.stream.StreamResult;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -73,8 +65,13 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -145,15 +142,20 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
         String namespaceURI = (String)entry.getValue();
 
         FacesConfigBean facesConfig = getFacesConfig();
-        Iterator components = facesConfig.components();
+        Iterator components = facesConfig.components(namespaceURI);
         components = new FilteredIterator(components, new SkipFilter());
-        components = new FilteredIterator(components, new ComponentTagLibraryFilter(namespaceURI));
+        components = new FilteredIterator(components, new ComponentTagFilter());
 
-        Iterator validators = facesConfig.validators();
-        validators = new FilteredIterator(validators, new ValidatorTagLibraryFilter(namespaceURI));
+        Iterator validators = facesConfig.validators(namespaceURI);
+        validators = new FilteredIterator(validators, new ValidatorTagFilter());
 
-        Iterator converters = facesConfig.converters();
-        converters = new FilteredIterator(converters, new ConverterTagLibraryFilter(namespaceURI));
+        Iterator converters = facesConfig.converters(namespaceURI);
+        converters = new FilteredIterator(converters, new ConverterTagFilter());
+
+        // the tags are needed for the fingerprint and the descriptor
+        List componentList = _toList(components);
+        List converterList = _toList(converters);
+        List validatorList = _toList(validators);
 
         String targetPath = "META-INF/" + shortName + ".tld";
         File targetFile = new File(generatedResourcesDirectory, targetPath);
@@ -161,122 +163,104 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
         String configPath = "META-INF/" + shortName + "-base.tld";
         File configFile = new File(configSourceDirectory, configPath);
 
-        targetFile.delete();
+        File fingerprintFile = (fingerprintDirectory != null)
+                                 ? new File(fingerprintDirectory, shortName + ".tld.md5")
+                                 : null;
 
-        boolean hasGeneratedTags = (components.hasNext() ||
-                                    converters.hasNext() ||
-                                    validators.hasNext());
+        boolean hasGeneratedTags = (!componentList.isEmpty() ||
+                                    !converterList.isEmpty() ||
+                                    !validatorList.isEmpty());
 
-        if (hasGeneratedTags && configFile.exists())
+        if (hasGeneratedTags)
         {
-          ByteArrayOutputStream out = new ByteArrayOutputStream();
-          XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
-          XMLStreamWriter stream = outputFactory.createXMLStreamWriter(out);
-
-          _writeStartTagLibrary(stream, _XINCLUDE_JSP_TAG_LIBRARY_DTD);
-          // base goes first
-          stream.writeStartElement("xi", "include",
-                                   XIncludeFilter.XINCLUDE_NAMESPACE);
-          stream.writeNamespace("xi", XIncludeFilter.XINCLUDE_NAMESPACE);
-          stream.writeAttribute("href", configFile.toURL().toExternalForm());
-          stream.writeAttribute("xpointer", "/taglib/*");
-          stream.writeEndElement();
-          while (components.hasNext())
+          String fingerprint = _getFingerprint(shortName, namespaceURI, configFile,
+                                               componentList, converterList,
+                                               validatorList);
+          if (!force &&
+              _isUpToDate(targetFile, fingerprintFile, fingerprint,
+                          componentList, converterList, validatorList))
           {
-            ComponentBean component = (ComponentBean)components.next();
-            _writeTag(stream, component);
+            if (getLog().isDebugEnabled())
+              getLog().debug("Tag library descriptor \"" + targetPath +
+                             "\" is up to date");
+            continue;
           }
-          while (converters.hasNext())
-          {
-            ConverterBean converter = (ConverterBean)converters.next();
-            _writeTag(stream, converter);
-          }
-          while (validators.hasNext())
-          {
-            ValidatorBean validator = (ValidatorBean)validators.next();
-            _writeTag(stream, validator);
-          }
-          _writeEndTagLibrary(stream);
-          stream.close();
-
-          InputStream mergedStream = new ByteArrayInputStream(out.toByteArray());
-
-          // expand all the xi:include elements
-          SAXParserFactory saxFactory = SAXParserFactory.newInstance();
-          saxFactory.setNamespaceAware(true);
-          saxFactory.setValidating(false);
-          SAXParser saxParser = saxFactory.newSAXParser();
-          XMLReader mergedReader = saxParser.getXMLReader();
-          mergedReader = new XIncludeFilter(mergedReader, configFile.toURL());
-          // even with validating=false, DTD is still downloaded so that
-          // any entities contained in the document can be expanded.
-          // the following disables that behavior, also saving the time
-          // spent to parse the DTD
-          mergedReader.setEntityResolver(new EntityResolver()
-            {
-              public InputSource resolveEntity(
-                String publicId,
-                String systemId)
-              {
-                return new InputSource(new ByteArrayInputStream(new byte[0]));
-              }
-            });
-          InputSource mergedInput = new InputSource(mergedStream);
-          Source mergedSource = new SAXSource(mergedReader, mergedInput);
 
+          if (fingerprintFile != null)
+            fingerprintFile.delete();
           targetFile.delete();
           targetFile.getParentFile().mkdirs();
-          Result mergedResult = new StreamResult(new FileOutputStream(targetFile));
 
-          TransformerFactory transFactory = TransformerFactory.newInstance();
-          Transformer identity = transFactory.newTransformer();
-          if (!_is12())
+          OutputStream out = new FileOutputStream(targetFile);
+          try
           {
-            identity.setOutputProperty(OutputKeys.DOCTYPE_PUBLIC,
-                                       _JSP_TAG_LIBRARY_DOCTYPE_PUBLIC);
-            identity.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM,
-                                       _JSP_TAG_LIBRARY_DOCTYPE_SYSTEM);
-          }
-
-          identity.transform(mergedSource, mergedResult);
+            XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            XMLStreamWriter stream = outputFactory.createXMLStreamWriter(out);
 
-          targetFile.setReadOnly();
-        }
-        else if (hasGeneratedTags)
-        {
-          targetFile.getParentFile().mkdirs();
-          OutputStream out = new FileOutputStream(targetFile);
-          XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
-          XMLStreamWriter stream = outputFactory.createXMLStreamWriter(out);
+            if (configFile.exists())
+            {
+              _writeStartTagLibrary(stream, _JSP_TAG_LIBRARY_DTD);
+              // base goes first
+              _writeBaseTagLibrary(stream, configFile);
+            }
+            else
+            {
+              _writeStartTagLibrary(stream, _is12() ? "2.1" : "1.2", shortName, namespaceURI);
+            }
 
-          _writeStartTagLibrary(stream, _is12() ? "2.1" : "1.2", shortName, namespaceURI);
-          while (components.hasNext())
-          {
-            ComponentBean component = (ComponentBean)components.next();
-            _writeTag(stream, component);
+            for (Iterator it = componentList.iterator(); it.hasNext(); )
+            {
+              ComponentBean component = (ComponentBean)it.next();
+              _writeTag(stream, component);
+            }
+            for (Iterator it = converterList.iterator(); it.hasNext(); )
+            {
+              ConverterBean converter = (ConverterBean)it.next();
+              _writeTag(stream, converter);
+            }
+            for (Iterator it = validatorList.iterator(); it.hasNext(); )
+            {
+              ValidatorBean validator = (ValidatorBean)it.next();
+              _writeTag(stream, validator);
+            }
+            _writeEndTagLibrary(stream);
+            stream.close();
           }
-          while (converters.hasNext())
+          finally
           {
-            ConverterBean converter = (ConverterBean)converters.next();
-            _writeTag(stream, converter);
+            out.close();
           }
-          while (validators.hasNext())
+
+          if (configFile.exists())
+            targetFile.setReadOnly();
+
+          if (fingerprintFile != null)
           {
-            ValidatorBean validator = (ValidatorBean)validators.next();
-            _writeTag(stream, validator);
+            fingerprintFile.getParentFile().mkdirs();
+            FileUtils.fileWrite(fingerprintFile.getPath(), fingerprint);
           }
-          _writeEndTagLibrary(stream);
-          stream.close();
         }
-        else if (configFile.exists())
+        else
         {
-          // copy if newer
-          if (configFile.lastModified() > targetFile.lastModified())
+          // a descriptor generated by a previous build is replaced
+          boolean wasGenerated = (fingerprintFile != null &&
+                                  fingerprintFile.delete());
+
+          if (configFile.exists())
+          {
+            // copy if newer
+            if (wasGenerated ||
+                configFile.lastModified() > targetFile.lastModified())
+            {
+              targetFile.delete();
+              targetFile.getParentFile().mkdirs();
+              FileUtils.copyFile(configFile, targetFile);
+              targetFile.setReadOnly();
+            }
+          }
+          else
           {
             targetFile.delete();
-            targetFile.getParentFile().mkdirs();
-            FileUtils.copyFile(configFile, targetFile);
-            targetFile.setReadOnly();
           }
         }
       }
@@ -285,22 +269,283 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
     {
       throw new MojoExecutionException("Error generating tag library", e);
     }
-    catch (ParserConfigurationException e)
+    catch (XMLStreamException e)
     {
       throw new MojoExecutionException("Error generating tag library", e);
     }
-    catch (TransformerException e)
+    catch (IOException e)
     {
-      throw new MojoExecutionException("Error generating tag library", e);
+      throw new MojoExecutionException("Error generating tag libraries", e);
     }
-    catch (XMLStreamException e)
+  }
+
+  /**
+   * Writes the content of the base tag library descriptor, with all its
+   * xi:include elements expanded, as if the generated descriptor included
+   * it with &lt;xi:include href="..." xpointer="/taglib/*"/&gt;.
+   */
+  private void _writeBaseTagLibrary(
+    XMLStreamWriter stream,
+    File            configFile) throws IOException, SAXException
+  {
+    URL configURL = configFile.toURL();
+    XIncludeFilter filter = new XIncludeFilter(null, configURL);
+    filter.setContentHandler(new StreamWriterHandler(stream));
+    // even with validating=false, DTD is still downloaded so that
+    // any entities contained in the document can be expanded.
+    // the following disables that behavior, also saving the time
+    // spent to parse the DTD
+    filter.setEntityResolver(new EntityResolver()
+      {
+        public InputSource resolveEntity(
+          String publicId,
+          String systemId)
+        {
+          return new InputSource(new ByteArrayInputStream(new byte[0]));
+        }
+      });
+    // the root of a JSF 1.2 base descriptor is in the javaee namespace,
+    // as the root of the generated descriptor
+    if (_is12())
+      filter.startPrefixMapping("", _JAVAEE_NAMESPACE);
+    filter.include(configURL.toExternalForm(), "/taglib/*");
+  }
+
+  /**
+   * Returns the fingerprint of a tag library descriptor: everything it is
+   * generated from, except the timestamps of the tags.
+   */
+  private String _getFingerprint(
+    String shortName,
+    String namespaceURI,
+    File   configFile,
+    List   components,
+    List   converters,
+    List   validators) throws IOException
+  {
+    StringBuffer sb = new StringBuffer();
+    sb.append(getClass().getName()).append('\n');
+    sb.append(type).append('\n');
+    sb.append(jsfVersion).append('\n');
+    sb.append(project.getVersion()).append('\n');
+    sb.append(disableIdExpressions).append(' ').append(coerceStrings).append('\n');
+    sb.append(shortName).append(' ').append(namespaceURI).append('\n');
+    for (Iterator it = components.iterator(); it.hasNext(); )
     {
-      throw new MojoExecutionException("Error generating tag library", e);
+      ComponentBean component = (ComponentBean)it.next();
+      sb.append(component.getComponentType()).append(' ');
+      sb.append(component.getTagName()).append('\n');
     }
-    catch (IOException e)
+    for (Iterator it = converters.iterator(); it.hasNext(); )
     {
-      throw new MojoExecutionException("Error generating tag libraries", e);
+      ConverterBean converter = (ConverterBean)it.next();
+      sb.append(converter.getConverterId()).append(' ');
+      sb.append(converter.getTagName()).append('\n');
+    }
+    for (Iterator it = validators.iterator(); it.hasNext(); )
+    {
+      ValidatorBean validator = (ValidatorBean)it.next();
+      sb.append(validator.getValidatorId()).append(' ');
+      sb.append(validator.getTagName()).append('\n');
+    }
+
+    MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("MD5");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException(e.getMessage());
+    }
+    digest.update(sb.toString().getBytes("UTF-8"));
+    if (configFile.exists())
+    {
+      InputStream in = new FileInputStream(configFile);
+      try
+      {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0)
+          digest.update(buffer, 0, read);
+      }
+      finally
+      {
+        in.close();
+      }
+    }
+
+    byte[] bytes = digest.digest();
+    StringBuffer hex = new StringBuffer(bytes.length * 2);
+    for (int i=0; i < bytes.length; i++)
+    {
+      hex.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+      hex.append(Character.forDigit(bytes[i] & 0xf, 16));
     }
+    return hex.toString();
+  }
+
+  /**
+   * Returns true if the tag library descriptor was generated with the
+   * same fingerprint and none of its tags changed since.
+   */
+  private boolean _isUpToDate(
+    File   targetFile,
+    File   fingerprintFile,
+    String fingerprint,
+    List   components,
+    List   converters,
+    List   validators) throws IOException
+  {
+    if (fingerprintFile == null ||
+        !fingerprintFile.exists() ||
+        !targetFile.exists())
+      return false;
+
+    long lastModified = targetFile.lastModified();
+    if (_isModifiedSince(components, lastModified) ||
+        _isModifiedSince(converters, lastModified) ||
+        _isModifiedSince(validators, lastModified))
+      return false;
+
+    String previous = FileUtils.fileRead(fingerprintFile.getPath());
+    return fingerprint.equals(previous.trim());
+  }
+
+  static private boolean _isModifiedSince(
+    List beans,
+    long lastModified)
+  {
+    for (Iterator it = beans.iterator(); it.hasNext(); )
+    {
+      ObjectBean bean = (ObjectBean)it.next();
+      if (bean.isModifiedSince(lastModified))
+        return true;
+
+      // the attributes of a component tag include the properties of its
+      // supertypes, which need not have a tag in this tag library
+      if (bean instanceof ComponentBean)
+      {
+        Set visited = new HashSet();
+        ComponentBean supertype = ((ComponentBean)bean).resolveSupertype();
+        while (supertype != null && visited.add(supertype))
+        {
+          if (supertype.isModifiedSince(lastModified))
+            return true;
+          supertype = supertype.resolveSupertype();
+        }
+      }
+    }
+
+    return false;
+  }
+
+  static private List _toList(
+    Iterator iterator)
+  {
+    List list = new ArrayList();
+    while (iterator.hasNext())
+      list.add(iterator.next());
+
+    return list;
+  }
+
+  /**
+   * Writes the SAX events of an expanded document to a stream writer.
+   * Elements and attributes are written with their qualified names, so
+   * the content is copied as it is in the document.
+   */
+  static private class StreamWriterHandler extends DefaultHandler
+  {
+    public StreamWriterHandler(
+      XMLStreamWriter stream)
+    {
+      _stream = stream;
+    }
+
+    public void startElement(
+      String     namespaceURI,
+      String     localName,
+      String     qualifiedName,
+      Attributes attributes) throws SAXException
+    {
+      try
+      {
+        _stream.writeStartElement(_getName(localName, qualifiedName));
+        for (int i=0; i < attributes.getLength(); i++)
+        {
+          _stream.writeAttribute(_getName(attributes.getLocalName(i),
+                                          attributes.getQName(i)),
+                                 attributes.getValue(i));
+        }
+      }
+      catch (XMLStreamException e)
+      {
+        throw new SAXException(e);
+      }
+    }
+
+    public void endElement(
+      String namespaceURI,
+      String localName,
+      String qualifiedName) throws SAXException
+    {
+      try
+      {
+        _stream.writeEndElement();
+      }
+      catch (XMLStreamException e)
+      {
+        throw new SAXException(e);
+      }
+    }
+
+    public void characters(
+      char[] ch,
+      int    start,
+      int    length) throws SAXException
+    {
+      try
+      {
+        _stream.writeCharacters(ch, start, length);
+      }
+      catch (XMLStreamException e)
+      {
+        throw new SAXException(e);
+      }
+    }
+
+    public void ignorableWhitespace(
+      char[] ch,
+      int    start,
+      int    length) throws SAXException
+    {
+      characters(ch, start, length);
+    }
+
+    public void processingInstruction(
+      String target,
+      String data) throws SAXException
+    {
+      try
+      {
+        _stream.writeProcessingInstruction(target, data);
+      }
+      catch (XMLStreamException e)
+      {
+        throw new SAXException(e);
+      }
+    }
+
+    static private String _getName(
+      String localName,
+      String qualifiedName)
+    {
+      return (qualifiedName != null && qualifiedName.length() > 0)
+               ? qualifiedName : localName;
+    }
+
+    private final XMLStreamWriter _stream;
   }
 
   private void _writeStartTagLibrary(
@@ -316,7 +561,7 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
     stream.writeStartElement("taglib");
     if (_is12())
     {
-      stream.writeNamespace("", "http://java.sun.com/xml/ns/javaee");
+      stream.writeNamespace("", _JAVAEE_NAMESPACE);
       stream.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
       stream.writeAttribute("xsi:schemaLocation", "http://java.sun.com/xml/ns/javaee/web-jsptaglibrary_2_1.xsd");
       stream.writeAttribute("version", "2.1");
@@ -950,6 +1195,18 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
     return "1.2".equals(jsfVersion) || "12".equals(jsfVersion);
   }
 
+  /**
+   * Returns the stat cache of this execution, with the generated source
+   * and template directories read in one walk each.
+   */
+  private FileStatCache _getFileStatCache()
+  {
+    FileStatCache stats = getFileStatCache();
+    stats.addDirectory(generatedSourceDirectory);
+    stats.addDirectory(templateSourceDirectory);
+    return stats;
+  }
+
   private boolean _is12()
   {
     return is12();
@@ -967,9 +1224,12 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
       File templateFile = new File(templateSourceDirectory, templatePath);
 
       // accept if templateFile is newer or component has been modified
-      return (templateFile.lastModified() > targetFile.lastModified() ||
-              component.isModifiedSince(targetFile.lastModified()));
+      long targetModified = _stats.lastModified(targetFile);
+      return (_stats.lastModified(templateFile) > targetModified ||
+              component.isModifiedSince(targetModified));
     }
+
+    private final FileStatCache _stats = _getFileStatCache();
   }
 
   private class IfConverterModifiedFilter extends ConverterFilter
@@ -983,10 +1243,13 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
       File targetFile = new File(generatedSourceDirectory, sourcePath);
       File templateFile = new File(templateSourceDirectory, templatePath);
 
-      // accept if templateFile is newer or component has been modified
-      return (templateFile.lastModified() > targetFile.lastModified() ||
-              converter.isModifiedSince(targetFile.lastModified()));
+      // accept if templateFile is newer or converter has been modified
+      long targetModified = _stats.lastModified(targetFile);
+      return (_stats.lastModified(templateFile) > targetModified ||
+              converter.isModifiedSince(targetModified));
     }
+
+    private final FileStatCache _stats = _getFileStatCache();
   }
 
   private class IfValidatorModifiedFilter extends ValidatorFilter
@@ -1000,10 +1263,13 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
       File targetFile = new File(generatedSourceDirectory, sourcePath);
       File templateFile = new File(templateSourceDirectory, templatePath);
 
-      // accept if templateFile is newer or component has been modified
-      return (templateFile.lastModified() > targetFile.lastModified() ||
-              validator.isModifiedSince(targetFile.lastModified()));
+      // accept if templateFile is newer or validator has been modified
+      long targetModified = _stats.lastModified(targetFile);
+      return (_stats.lastModified(templateFile) > targetModified ||
+              validator.isModifiedSince(targetModified));
     }
+
+    private final FileStatCache _stats = _getFileStatCache();
   }
 
   /**
@@ -1060,6 +1326,15 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
    */
   protected boolean force;
 
+  /**
+   * The directory the fingerprints of the generated tag library descriptors
+   * are kept in.  A descriptor is only generated again when its fingerprint
+   * changed or one of its tags was modified.
+   *
+   * @parameter expression="${project.build.directory}/maven-faces-plugin/taglib-fingerprints"
+   */
+  protected File fingerprintDirectory;
+
 
   /**
    * @parameter
@@ -1084,6 +1359,9 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
 
 
 
+  static final private String _JAVAEE_NAMESPACE =
+              "http://java.sun.com/xml/ns/javaee";
+
   static final private String _JSP_TAG_LIBRARY_DOCTYPE_PUBLIC =
               "-//Sun Microsystems, Inc.//DTD JSP Tag Library 1.2//EN";
 
@@ -1095,16 +1373,6 @@ public class GenerateJspTaglibsMojo extends AbstractFacesMojo
     "  \"" + _JSP_TAG_LIBRARY_DOCTYPE_PUBLIC + "\"\n" +
     "  \"" + _JSP_TAG_LIBRARY_DOCTYPE_SYSTEM + "\" >\n";
 
-  static final private String _XINCLUDE_JSP_TAG_LIBRARY_DTD =
-    "<!DOCTYPE taglib PUBLIC\n" +
-    "  \"" + _JSP_TAG_LIBRARY_DOCTYPE_PUBLIC + "\"\n" +
-    "  \"" + _JSP_TAG_LIBRARY_DOCTYPE_SYSTEM + "\" [\n" +
-    "      <!ELEMENT xi:include EMPTY>\n" +
-    "      <!ATTLIST xi:include\n" +
-    "          xmlns:xi CDATA #FIXED  \"" + XIncludeFilter.XINCLUDE_NAMESPACE + "\"\n" +
-    "          href     CDATA #IMPLIED\n" +
-    "          xpointer CDATA #IMPLIED>\n" +
-    "]>\n";
 
   static final private Set _CAN_COERCE = new HashSet();
   static
@@ -23,7 +23,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -33,6 +35,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.FileUtils;
 
 /**
  * @version $Id$
@@ -51,73 +54,42 @@ public class GenerateMasterFacesConfigMojo extends AbstractFacesMojo
     {
       addResourceRoot(project, targetDirectory.getCanonicalPath());
 
-      // Scan for .xrts sources
-      String [] xmlFiles;
-      
-      if (inheritedDirectory != null)
+      // Scan for the faces-config fragments, in both directories with
+      // a single scanner; a fragment of the source directory hides the
+      // inherited one with the same path
+      File[] baseDirs = (inheritedDirectory != null)
+                          ? new File[] { new File(sourceDirectory, sourcePath),
+                                         new File(inheritedDirectory, sourcePath) }
+                          : new File[] { new File(sourceDirectory, sourcePath) };
+
+      DirectoryScanner scanner = new DirectoryScanner();
+      scanner.addDefaultExcludes();
+      scanner.setIncludes(new String[] { "**/*.xml" });
+      if (excludes != null)
       {
-          HashSet set = new HashSet();
-         
-          DirectoryScanner scanner = new DirectoryScanner();
-          scanner.setBasedir(new File(sourceDirectory, sourcePath));
-          scanner.addDefaultExcludes();
-          scanner.setIncludes(new String[] { "**/*.xml" });
-          if (excludes != null)
-          {
-              scanner.setExcludes(excludes);
-          }
-          scanner.scan();
-          
-          String [] sourceFiles = scanner.getIncludedFiles();
-          
-          for (int i = 0; i < sourceFiles.length;i++)
-          {
-              set.add(sourceFiles[i]);
-          }
-          
-          scanner.setBasedir(new File(inheritedDirectory,sourcePath));
-          scanner.scan();
-          
-          sourceFiles = scanner.getIncludedFiles();
-          for (int i = 0; i < sourceFiles.length;i++)
-          {
-              set.add(sourceFiles[i]);
-          }          
-                    
-          Object [] result = set.toArray();
-          xmlFiles = new String[result.length];
-          for (int i = 0; i < result.length; i++)
-          {
-              xmlFiles[i] = (String) result[i];
-          }
-      }
-      else
-      {
-          DirectoryScanner scanner = new DirectoryScanner();
-          scanner.setBasedir(new File(sourceDirectory, sourcePath));
-          scanner.addDefaultExcludes();
-          scanner.setIncludes(new String[] { "**/*.xml" });
-          if (excludes != null)
-          {
-              scanner.setExcludes(excludes);
-          }
-          scanner.scan();
-          
-          xmlFiles = scanner.getIncludedFiles();
+        scanner.setExcludes(excludes);
       }
 
-      
-
-      long lastModified = 0L;
-      for (int i=0; i < xmlFiles.length; i++)
+      Map fragments = new TreeMap();
+      for (int i=0; i < baseDirs.length; i++)
       {
-        lastModified = Math.max(lastModified,
-                                new File(xmlFiles[i]).lastModified());
+        scanner.setBasedir(baseDirs[i]);
+        scanner.scan();
+
+        String[] sourceFiles = scanner.getIncludedFiles();
+        for (int j=0; j < sourceFiles.length; j++)
+        {
+          if (!fragments.containsKey(sourceFiles[j]))
+            fragments.put(sourceFiles[j], new File(baseDirs[i], sourceFiles[j]));
+        }
       }
 
+      String[] xmlFiles = (String[])fragments.keySet().toArray(new String[fragments.size()]);
+
       File targetFile = new File(targetDirectory, targetPath);
+      String buildState = _getBuildState(fragments);
 
-      if (!force && targetFile.lastModified() > lastModified)
+      if (!force && _isUpToDate(targetFile, buildState))
       {
         getLog().info("Nothing to generate - " + targetPath + " is up to date");
       }
@@ -125,6 +97,8 @@ public class GenerateMasterFacesConfigMojo extends AbstractFacesMojo
       {
         getLog().info("Generating " + targetPath);
 
+        if (buildStateFile != null)
+          buildStateFile.delete();
         targetFile.delete();
         targetFile.getParentFile().mkdirs();
 
@@ -155,6 +129,12 @@ public class GenerateMasterFacesConfigMojo extends AbstractFacesMojo
         writer.close();
 
         targetFile.setReadOnly();
+
+        if (buildStateFile != null)
+        {
+          buildStateFile.getParentFile().mkdirs();
+          FileUtils.fileWrite(buildStateFile.getPath(), buildState);
+        }
       }
     }
     catch (XMLStreamException e)
@@ -167,6 +147,42 @@ public class GenerateMasterFacesConfigMojo extends AbstractFacesMojo
     }
   }
 
+  /**
+   * Returns the build state of the master faces-config: the fragments it
+   * includes, with the file and the timestamp of each of them.
+   */
+  private String _getBuildState(
+    Map fragments)
+  {
+    StringBuffer sb = new StringBuffer();
+    for (Iterator it = fragments.entrySet().iterator(); it.hasNext(); )
+    {
+      Map.Entry entry = (Map.Entry)it.next();
+      File file = (File)entry.getValue();
+      sb.append(entry.getKey()).append('\t');
+      sb.append(file.getAbsolutePath()).append('\t');
+      sb.append(file.lastModified()).append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Returns true if the master faces-config was generated from the same
+   * fragments, none of which changed since.
+   */
+  private boolean _isUpToDate(
+    File   targetFile,
+    String buildState) throws IOException
+  {
+    if (buildStateFile == null ||
+        !buildStateFile.exists() ||
+        !targetFile.exists())
+      return false;
+
+    String previous = FileUtils.fileRead(buildStateFile.getPath());
+    return buildState.equals(previous);
+  }
+
   /**
    * @parameter expression="${project}"
    * @readonly
@@ -211,4 +227,13 @@ public class GenerateMasterFacesConfigMojo extends AbstractFacesMojo
    * @parameter
    */
   private boolean force;
+
+  /**
+   * The file the fragments included by the generated master faces-config
+   * are recorded in.  The master faces-config is only generated again when
+   * the set of fragments or one of the fragments changed.
+   *
+   * @parameter expression="${project.build.directory}/maven-faces-plugin/master-faces-config.state"
+   */
+  private File buildStateFile;
 }
@@ -108,6 +108,10 @@ public class AbstractTagBean extends ObjectBean {
       QName tagName)
   {
     _tagName = tagName;
+
+    FacesConfigBean owner = getOwner();
+    if (owner != null)
+      owner.clearPostProcessing();
   }
 
 
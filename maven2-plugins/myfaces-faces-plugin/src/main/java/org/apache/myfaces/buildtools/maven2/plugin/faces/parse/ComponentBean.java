@@ -22,9 +22,15 @@ import org.apache.myfaces.buildtools.maven2.plugin.faces.util.CompoundIterator;
 
 import javax.xml.namespace.QName;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 
 /**
@@ -119,6 +125,7 @@ public class ComponentBean extends ObjectBean
     String componentFamily)
   {
     _componentFamily = componentFamily;
+    _invalidate();
   }
 
   /**
@@ -151,6 +158,7 @@ public class ComponentBean extends ObjectBean
     String componentClass)
   {
     _componentClass = componentClass;
+    _invalidate();
   }
 
   /**
@@ -214,6 +222,7 @@ public class ComponentBean extends ObjectBean
     String tagClass)
   {
     _tagClass = tagClass;
+    _invalidate();
   }
 
   /**
@@ -260,6 +269,7 @@ public class ComponentBean extends ObjectBean
     String tagSuperclass)
   {
     _tagSuperclass = tagSuperclass;
+    _invalidate();
   }
 
   /**
@@ -312,6 +322,7 @@ public class ComponentBean extends ObjectBean
     QName tagName)
   {
     _tagName = tagName;
+    _invalidate();
   }
 
   /**
@@ -344,6 +355,7 @@ public class ComponentBean extends ObjectBean
     String componentSupertype)
   {
     _componentSupertype = componentSupertype;
+    _invalidate();
   }
 
   /**
@@ -365,6 +377,7 @@ public class ComponentBean extends ObjectBean
     String componentSuperclass)
   {
     _componentSuperclass = componentSuperclass;
+    _invalidate();
   }
 
   /**
@@ -386,6 +399,7 @@ public class ComponentBean extends ObjectBean
     String rendererType)
   {
     _rendererType = rendererType;
+    _invalidate();
   }
 
   /**
@@ -405,6 +419,9 @@ public class ComponentBean extends ObjectBean
    */
   public String getDefaultRendererType()
   {
+    if (_resolved != null)
+      return _resolved.defaultRendererType;
+
     ComponentBean parent = resolveSupertype();
     return (parent != null) ? parent.findRendererType() : null;
   }
@@ -417,6 +434,7 @@ public class ComponentBean extends ObjectBean
   public void setImplementationType(String implementationType)
   {
     _implementationType = implementationType;
+    _invalidate();
   }
 
 
@@ -429,6 +447,7 @@ public class ComponentBean extends ObjectBean
     PropertyBean property)
   {
     _properties.put(property.getPropertyName(), property);
+    _invalidate();
   }
 
   /**
@@ -451,6 +470,9 @@ public class ComponentBean extends ObjectBean
     String propertyName,
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return (PropertyBean)_resolved.propertyIndex.get(propertyName);
+
     PropertyBean prop = findProperty(propertyName);
     if (prop == null && flatten)
     {
@@ -484,6 +506,9 @@ public class ComponentBean extends ObjectBean
   public boolean hasProperties(
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return !_resolved.properties.isEmpty();
+
     boolean hasProperties = !_properties.isEmpty();
 
     if (!hasProperties && flatten)
@@ -518,6 +543,9 @@ public class ComponentBean extends ObjectBean
   public Iterator properties(
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return _resolved.properties.iterator();
+
     Iterator properties = properties();
     if (flatten)
     {
@@ -546,6 +574,7 @@ public class ComponentBean extends ObjectBean
     FacetBean facet)
   {
     _facets.put(facet.getFacetName(), facet);
+    _invalidate();
   }
 
   /**
@@ -564,6 +593,9 @@ public class ComponentBean extends ObjectBean
     String facetName,
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return (FacetBean)_resolved.facetIndex.get(facetName);
+
     FacetBean facet = findFacet(facetName);
     if (facet == null && flatten)
     {
@@ -596,6 +628,9 @@ public class ComponentBean extends ObjectBean
   public boolean hasFacets(
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return !_resolved.facets.isEmpty();
+
     boolean hasFacets = !_facets.isEmpty();
 
     if (!hasFacets && flatten)
@@ -630,6 +665,9 @@ public class ComponentBean extends ObjectBean
   public Iterator facets(
    boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return _resolved.facets.iterator();
+
     Iterator facets = facets();
     if (flatten)
     {
@@ -783,6 +821,7 @@ public class ComponentBean extends ObjectBean
     else
     {
       _events.put(eventRef.getEventType(), eventRef);
+      _invalidate();
     }
   }
 
@@ -807,6 +846,9 @@ public class ComponentBean extends ObjectBean
   public boolean hasEvents(
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return !_resolved.events.isEmpty();
+
     boolean hasEvents = !_events.isEmpty();
 
     if (!hasEvents && flatten)
@@ -834,6 +876,9 @@ public class ComponentBean extends ObjectBean
     String eventName,
     boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return (EventBean)_resolved.eventIndex.get(eventName);
+
     EventBean event = findEvent(eventName);
     if (event == null && flatten)
     {
@@ -868,6 +913,9 @@ public class ComponentBean extends ObjectBean
   public Iterator events(
    boolean flatten)
   {
+    if (flatten && _resolved != null)
+      return _resolved.events.iterator();
+
     Iterator events = events();
     if (flatten)
     {
@@ -886,6 +934,9 @@ public class ComponentBean extends ObjectBean
    */
   public String findComponentFamily()
   {
+    if (_resolved != null)
+      return _resolved.componentFamily;
+
     if (_componentFamily != null)
       return _componentFamily;
 
@@ -901,6 +952,9 @@ public class ComponentBean extends ObjectBean
    */
   public ComponentBean findBehavioralComponent()
   {
+    if (_resolved != null)
+      return _resolved.behavioralComponent;
+
     if (_componentFamily != null)
       return this;
 
@@ -916,6 +970,9 @@ public class ComponentBean extends ObjectBean
    */
   public String findRendererType()
   {
+    if (_resolved != null)
+      return _resolved.rendererType;
+
     if (_rendererType != null)
       return _rendererType;
 
@@ -932,6 +989,9 @@ public class ComponentBean extends ObjectBean
    */
   public String findComponentSuperclass()
   {
+    if (_resolved != null)
+      return _resolved.componentSuperclass;
+
     if (_componentSuperclass != null)
       return _componentSuperclass;
 
@@ -949,6 +1009,9 @@ public class ComponentBean extends ObjectBean
    */
   public String findJspTagSuperclass()
   {
+    if (_resolved != null)
+      return _resolved.jspTagSuperclass;
+
     if (_tagSuperclass != null)
       return _tagSuperclass;
 
@@ -965,6 +1028,9 @@ public class ComponentBean extends ObjectBean
    */
   public ComponentBean resolveSupertype()
   {
+    if (_resolved != null)
+      return _resolved.supertype;
+
     if (_componentSupertype == null)
       return null;
 
@@ -977,6 +1043,9 @@ public class ComponentBean extends ObjectBean
    */
   public boolean isTrinidadComponent()
   {
+    if (_resolved != null)
+      return _resolved.trinidadComponent;
+
     String implementationType = getImplementationType();
     if (implementationType != null)
       return "trinidad".equals(implementationType);
@@ -1005,6 +1074,9 @@ public class ComponentBean extends ObjectBean
    */
   protected String findComponentClass()
   {
+    if (_resolved != null)
+      return _resolved.componentClass;
+
     if (_componentClass != null)
       return _componentClass;
 
@@ -1020,6 +1092,9 @@ public class ComponentBean extends ObjectBean
    */
   protected String findJspTagClass()
   {
+    if (_resolved != null)
+      return _resolved.jspTagClass;
+
     if (_tagClass != null)
       return _tagClass;
 
@@ -1027,6 +1102,168 @@ public class ComponentBean extends ObjectBean
     return (parent != null) ? parent.findJspTagClass() : null;
   }
 
+  /**
+   * Resolves the component supertypes and keeps the inherited values and
+   * the flattened properties, facets and events of this component, so that
+   * the lookups above no longer walk the supertype chain.  Called by
+   * FacesConfigBean.performPostProcessing() once the faces config is
+   * complete; modifying the component or its owner afterwards drops the
+   * resolved values again.  A cyclic supertype chain is reported, and the
+   * component that closes the cycle is resolved without its supertype.
+   */
+  void performPostProcessing()
+  {
+    _resolve(new HashSet());
+  }
+
+  /**
+   * Drops the values resolved by performPostProcessing().
+   */
+  void clearPostProcessing()
+  {
+    _resolved = null;
+  }
+
+  private Resolved _resolve(
+    Set resolving)
+  {
+    if (_resolved != null)
+      return _resolved;
+
+    resolving.add(this);
+
+    // the values are taken from the resolved supertype rather than from
+    // the lookups above, which would walk a cyclic supertype chain forever
+    ComponentBean parent = resolveSupertype();
+    Resolved inherited = null;
+    if (parent != null)
+    {
+      if (resolving.contains(parent))
+      {
+        _LOG.warning("Ignoring cyclic component supertype \"" +
+                     _componentSupertype + "\" in component \"" +
+                     _componentType + "\"");
+        parent = null;
+      }
+      else
+      {
+        inherited = parent._resolve(resolving);
+      }
+    }
+
+    Resolved resolved = new Resolved();
+    resolved.supertype = parent;
+
+    if (_componentFamily != null)
+    {
+      resolved.componentFamily = _componentFamily;
+      resolved.behavioralComponent = this;
+    }
+    else if (inherited != null)
+    {
+      resolved.componentFamily = inherited.componentFamily;
+      resolved.behavioralComponent = inherited.behavioralComponent;
+    }
+    else
+    {
+      resolved.behavioralComponent = this;
+    }
+
+    if (inherited != null)
+      resolved.defaultRendererType = inherited.rendererType;
+    resolved.rendererType = (_rendererType != null)
+                              ? _rendererType : resolved.defaultRendererType;
+    resolved.componentClass = (_componentClass != null || inherited == null)
+                                ? _componentClass : inherited.componentClass;
+    resolved.jspTagClass = (_tagClass != null || inherited == null)
+                             ? _tagClass : inherited.jspTagClass;
+
+    if (_implementationType != null)
+      resolved.trinidadComponent = "trinidad".equals(_implementationType);
+    else if (parent != null)
+      resolved.trinidadComponent =
+        _TRINIDAD_COMPONENT_BASE.equals(parent.getComponentClass()) ||
+        inherited.trinidadComponent;
+
+    if (_componentSuperclass != null)
+      resolved.componentSuperclass = _componentSuperclass;
+    else if (inherited != null)
+      resolved.componentSuperclass = inherited.componentClass;
+    else
+      resolved.componentSuperclass = resolved.trinidadComponent
+                             ? _TRINIDAD_COMPONENT_BASE : _JSF_COMPONENT_BASE;
+
+    if (_tagSuperclass != null)
+      resolved.jspTagSuperclass = _tagSuperclass;
+    else if (inherited != null)
+      resolved.jspTagSuperclass = inherited.jspTagClass;
+    else
+      resolved.jspTagSuperclass = resolved.trinidadComponent
+                             ? _TRINIDAD_COMPONENT_TAG : _JSF_COMPONENT_TAG;
+
+    // inherited properties come first, inherited facets and events last
+    List properties = new ArrayList();
+    List facets = new ArrayList(_facets.values());
+    List events = new ArrayList(_events.values());
+    if (inherited != null)
+    {
+      properties.addAll(inherited.properties);
+      facets.addAll(inherited.facets);
+      events.addAll(inherited.events);
+    }
+    properties.addAll(_properties.values());
+    resolved.properties = Collections.unmodifiableList(properties);
+    resolved.facets = Collections.unmodifiableList(facets);
+    resolved.events = Collections.unmodifiableList(events);
+
+    // the component's own entries hide the inherited ones
+    resolved.propertyIndex = new HashMap();
+    resolved.facetIndex = new HashMap();
+    resolved.eventIndex = new HashMap();
+    if (inherited != null)
+    {
+      resolved.propertyIndex.putAll(inherited.propertyIndex);
+      resolved.facetIndex.putAll(inherited.facetIndex);
+      resolved.eventIndex.putAll(inherited.eventIndex);
+    }
+    resolved.propertyIndex.putAll(_properties);
+    resolved.facetIndex.putAll(_facets);
+    resolved.eventIndex.putAll(_events);
+
+    _resolved = resolved;
+    return resolved;
+  }
+
+  private void _invalidate()
+  {
+    FacesConfigBean owner = getOwner();
+    if (owner != null)
+      owner.clearPostProcessing();
+  }
+
+  /**
+   * The values of a component that depend on its supertypes.
+   */
+  static private class Resolved
+  {
+    public ComponentBean supertype;
+    public String        componentFamily;
+    public ComponentBean behavioralComponent;
+    public String        rendererType;
+    public String        defaultRendererType;
+    public String        componentClass;
+    public String        jspTagClass;
+    public String        componentSuperclass;
+    public String        jspTagSuperclass;
+    public boolean       trinidadComponent;
+    public List          properties;
+    public List          facets;
+    public List          events;
+    public Map           propertyIndex;
+    public Map           facetIndex;
+    public Map           eventIndex;
+  }
+
   /**
    * Attaches the component and all event references.
    *
@@ -1111,6 +1348,7 @@ public class ComponentBean extends ObjectBean
   private int     _componentClassModifiers;
   private int     _tagClassModifiers;
   private String[] _unsupportedAgents = new String[0];
+  private transient Resolved _resolved;
 
   static private final String _TRINIDAD_COMPONENT_BASE =
                          "org.apache.myfaces.trinidad.component.UIXComponentBase";
@@ -19,9 +19,16 @@
 package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.TreeMap;
+
+import javax.xml.namespace.QName;
 import java.util.logging.Logger;
 
 /**
@@ -39,7 +46,10 @@ public class FacesConfigBean extends ObjectBean
   {
     converter.attach(this);
     if (converter.hasConverterId())
+    {
       _converters.put(converter.getConverterId(), converter);
+      clearPostProcessing();
+    }
   }
 
   /**
@@ -75,6 +85,19 @@ public class FacesConfigBean extends ObjectBean
     return _converters.values().iterator();
   }
 
+  /**
+   * Returns an iterator for the converters with a tag in a namespace.
+   *
+   * @param namespaceURI  the namespace of the tags
+   *
+   * @return  the converter iterator
+   */
+  public Iterator converters(
+    String namespaceURI)
+  {
+    return _tagsInNamespace(_converterTags, _converters, namespaceURI);
+  }
+
   /**
    * Adds a validator to this faces config document.
    *
@@ -85,7 +108,10 @@ public class FacesConfigBean extends ObjectBean
   {
     validator.attach(this);
     if (validator.hasValidatorId())
+    {
       _validators.put(validator.getValidatorId(), validator);
+      clearPostProcessing();
+    }
   }
 
   /**
@@ -121,6 +147,19 @@ public class FacesConfigBean extends ObjectBean
     return _validators.values().iterator();
   }
 
+  /**
+   * Returns an iterator for the validators with a tag in a namespace.
+   *
+   * @param namespaceURI  the namespace of the tags
+   *
+   * @return  the validator iterator
+   */
+  public Iterator validators(
+    String namespaceURI)
+  {
+    return _tagsInNamespace(_validatorTags, _validators, namespaceURI);
+  }
+
   /**
    * Adds a component to this faces config document.
    *
@@ -134,6 +173,7 @@ public class FacesConfigBean extends ObjectBean
     {
       component.attach(this);
       _components.put(component.getComponentType(), component);
+      clearPostProcessing();
     }
   }
 
@@ -148,6 +188,93 @@ public class FacesConfigBean extends ObjectBean
     return (ComponentBean)_components.get(componentType);
   }
 
+  /**
+   * Resolves the supertypes of all the components once the faces config
+   * is complete, so that the inherited values and the flattened
+   * properties, facets and events of a component are looked up directly
+   * instead of walking its supertype chain on every call.
+   */
+  public void performPostProcessing()
+  {
+    clearPostProcessing();
+    for (Iterator it = components(); it.hasNext(); )
+    {
+      ComponentBean component = (ComponentBean)it.next();
+      component.performPostProcessing();
+    }
+
+    _componentTags = _indexByNamespace(components());
+    _converterTags = _indexByNamespace(converters());
+    _validatorTags = _indexByNamespace(validators());
+    _postProcessed = true;
+  }
+
+  /**
+   * Drops the values resolved by performPostProcessing(), when a
+   * component was added or modified.
+   */
+  void clearPostProcessing()
+  {
+    if (!_postProcessed)
+      return;
+
+    _postProcessed = false;
+    _componentTags = null;
+    _converterTags = null;
+    _validatorTags = null;
+    for (Iterator it = components(); it.hasNext(); )
+    {
+      ComponentBean component = (ComponentBean)it.next();
+      component.clearPostProcessing();
+    }
+  }
+
+  /**
+   * Indexes beans by the namespace of their tag, keeping the order of
+   * the beans.  Beans without a tag are left out.
+   */
+  static private Map _indexByNamespace(
+    Iterator beans)
+  {
+    Map index = new HashMap();
+    while (beans.hasNext())
+    {
+      Object bean = beans.next();
+      QName tagName = (bean instanceof ComponentBean)
+                        ? ((ComponentBean)bean).getTagName()
+                        : ((AbstractTagBean)bean).getTagName();
+      if (tagName == null)
+        continue;
+
+      List list = (List)index.get(tagName.getNamespaceURI());
+      if (list == null)
+      {
+        list = new ArrayList();
+        index.put(tagName.getNamespaceURI(), list);
+      }
+      list.add(bean);
+    }
+    return index;
+  }
+
+  /**
+   * Returns the beans with a tag in a namespace, from the index built by
+   * performPostProcessing(), or by scanning all the beans when the faces
+   * config was not post processed.
+   */
+  static private Iterator _tagsInNamespace(
+    Map    index,
+    Map    beans,
+    String namespaceURI)
+  {
+    if (index == null)
+      index = _indexByNamespace(beans.values().iterator());
+
+    List list = (List)index.get(namespaceURI);
+    return (list != null) ? list.iterator()
+                          : Collections.EMPTY_LIST.iterator();
+  }
+
   /**
    * Returns true if this faces config has any components.
    *
@@ -170,6 +297,43 @@ public class FacesConfigBean extends ObjectBean
     return _components.values().iterator();
   }
 
+  /**
+   * Returns an iterator for the components with a tag in a namespace.
+   *
+   * @param namespaceURI  the namespace of the tags
+   *
+   * @return  the component iterator
+   */
+  public Iterator components(
+    String namespaceURI)
+  {
+    return _tagsInNamespace(_componentTags, _components, namespaceURI);
+  }
+
+  /**
+   * Returns an iterator for the components whose component type starts
+   * with a prefix.  The components are kept sorted by type, so only the
+   * matching ones are visited.
+   *
+   * @param typePrefix  the component type prefix
+   *
+   * @return  the component iterator
+   */
+  public Iterator componentsByTypePrefix(
+    String typePrefix)
+  {
+    List components = new ArrayList();
+    Iterator entries = _components.tailMap(typePrefix).entrySet().iterator();
+    while (entries.hasNext())
+    {
+      Map.Entry entry = (Map.Entry)entries.next();
+      if (!((String)entry.getKey()).startsWith(typePrefix))
+        break;
+      components.add(entry.getValue());
+    }
+    return components.iterator();
+  }
+
   /**
    * Adds an event to this faces config document.
    *
@@ -304,12 +468,41 @@ public class FacesConfigBean extends ObjectBean
     return _cur;
   }
 
+  /**
+   * Records a resource included by one of the parsed documents.
+   *
+   * @param resource  the included resource
+   */
+  public void addIncludedResource(
+    URL resource)
+  {
+    if (!_includedResources.contains(resource))
+      _includedResources.add(resource);
+  }
+
+  /**
+   * Returns the resources included by the parsed documents, in the order
+   * they were first included.
+   *
+   * @return  the list of included resource URLs
+   */
+  public List getIncludedResources()
+  {
+    return Collections.unmodifiableList(_includedResources);
+  }
+
   private Map _converters = new TreeMap();
   private Map _validators = new TreeMap();
-  private Map _components = new TreeMap();
+  private SortedMap _components = new TreeMap();
   private Map _events = new TreeMap();
   private Map _renderKits = new TreeMap();
-  private URL _currentResource = null;
+  private List _includedResources = new ArrayList();
+  private transient URL _currentResource = null;
+  private transient boolean _postProcessed;
+  // beans by tag namespace, built by performPostProcessing()
+  private transient Map _componentTags;
+  private transient Map _converterTags;
+  private transient Map _validatorTags;
 
   static private final Logger _LOG = Logger.getLogger(FacesConfigBean.class.getName());
 }
@@ -0,0 +1,379 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FacesConfigCache keeps parsed faces config beans, so that the goals
+ * of a module that all process the same index parse the XML only once.
+ * <p>
+ * A cached faces config is keyed by the URLs and the content of the index
+ * entries it was parsed from, and is only used while the resources included
+ * by those entries are unchanged as well.  It is kept in memory for the
+ * rest of the Maven session and, when a cache file is given, on disk for
+ * the next build.  The beans are kept serialized, so each lookup returns
+ * a new copy that the caller is free to modify.
+ */
+public class FacesConfigCache
+{
+  /**
+   * Creates a new FacesConfigCache.
+   *
+   * @param cacheFile  the file to keep the cache in between builds,
+   *                   or null to only cache in memory
+   */
+  public FacesConfigCache(
+    File cacheFile)
+  {
+    _cacheFile = cacheFile;
+  }
+
+  /**
+   * Returns the key of a faces config parsed from the specified index.
+   *
+   * @param index  the index entries
+   *
+   * @return  the cache key
+   */
+  public String getKey(
+    URL[] index) throws IOException
+  {
+    MessageDigest digest = _createDigest();
+    for (int i=0; i < index.length; i++)
+    {
+      digest.update(index[i].toExternalForm().getBytes("UTF-8"));
+      digest.update((byte)0);
+      _update(digest, index[i]);
+      digest.update((byte)0);
+    }
+    return _toHex(digest.digest());
+  }
+
+  /**
+   * Returns a copy of the faces config cached for the specified key,
+   * or null if there is none or it is out of date.
+   *
+   * @param key  the cache key, see getKey
+   */
+  public FacesConfigBean get(
+    String key) throws IOException
+  {
+    Entry entry;
+    synchronized (_ENTRIES)
+    {
+      entry = (Entry)_ENTRIES.get(key);
+    }
+
+    if (entry == null)
+    {
+      entry = _readEntry(key);
+      if (entry == null)
+        return null;
+    }
+
+    if (!entry.isUpToDate())
+    {
+      synchronized (_ENTRIES)
+      {
+        _ENTRIES.remove(key);
+      }
+      return null;
+    }
+
+    FacesConfigBean facesConfig = entry.getFacesConfig();
+    if (facesConfig == null)
+      return null;
+
+    synchronized (_ENTRIES)
+    {
+      _ENTRIES.put(key, entry);
+    }
+    return facesConfig;
+  }
+
+  /**
+   * Caches a parsed faces config.  The faces config is copied, so the
+   * caller can keep modifying it.
+   *
+   * @param key          the cache key, see getKey
+   * @param facesConfig  the parsed faces config
+   */
+  public void put(
+    String          key,
+    FacesConfigBean facesConfig) throws IOException
+  {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(facesConfig);
+    out.close();
+
+    List includes = facesConfig.getIncludedResources();
+    String[] includedURLs = new String[includes.size()];
+    String[] includedDigests = new String[includedURLs.length];
+    for (int i=0; i < includedURLs.length; i++)
+    {
+      URL include = (URL)includes.get(i);
+      includedURLs[i] = include.toExternalForm();
+      includedDigests[i] = _digest(include);
+    }
+
+    Entry entry = new Entry(includedURLs, includedDigests, bytes.toByteArray());
+    synchronized (_ENTRIES)
+    {
+      _ENTRIES.put(key, entry);
+    }
+
+    if (_cacheFile != null)
+      _writeEntry(key, entry);
+  }
+
+  /**
+   * Forgets all the faces configs cached in memory.
+   */
+  static public void clear()
+  {
+    synchronized (_ENTRIES)
+    {
+      _ENTRIES.clear();
+    }
+  }
+
+  private Entry _readEntry(
+    String key)
+  {
+    if (_cacheFile == null || !_cacheFile.isFile())
+      return null;
+
+    try
+    {
+      DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(_cacheFile)));
+      try
+      {
+        if (in.readInt() != _MAGIC ||
+            in.readInt() != _VERSION ||
+            !key.equals(in.readUTF()))
+          return null;
+
+        int count = in.readInt();
+        String[] includedURLs = new String[count];
+        String[] includedDigests = new String[count];
+        for (int i=0; i < count; i++)
+        {
+          includedURLs[i] = in.readUTF();
+          includedDigests[i] = in.readUTF();
+        }
+
+        byte[] data = new byte[in.readInt()];
+        in.readFully(data);
+        return new Entry(includedURLs, includedDigests, data);
+      }
+      finally
+      {
+        in.close();
+      }
+    }
+    catch (IOException e)
+    {
+      // an unreadable cache is simply not used
+      return null;
+    }
+  }
+
+  private void _writeEntry(
+    String key,
+    Entry  entry) throws IOException
+  {
+    File parent = _cacheFile.getParentFile();
+    if (parent != null && !parent.exists())
+      parent.mkdirs();
+
+    DataOutputStream out = new DataOutputStream(
+      new BufferedOutputStream(new FileOutputStream(_cacheFile)));
+    try
+    {
+      out.writeInt(_MAGIC);
+      out.writeInt(_VERSION);
+      out.writeUTF(key);
+      out.writeInt(entry._includedURLs.length);
+      for (int i=0; i < entry._includedURLs.length; i++)
+      {
+        out.writeUTF(entry._includedURLs[i]);
+        out.writeUTF(entry._includedDigests[i]);
+      }
+      out.writeInt(entry._data.length);
+      out.write(entry._data);
+    }
+    finally
+    {
+      out.close();
+    }
+  }
+
+  static private String _digest(
+    URL url) throws IOException
+  {
+    MessageDigest digest = _createDigest();
+    _update(digest, url);
+    return _toHex(digest.digest());
+  }
+
+  static private void _update(
+    MessageDigest digest,
+    URL           url) throws IOException
+  {
+    InputStream in = url.openStream();
+    try
+    {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = in.read(buffer)) > 0)
+        digest.update(buffer, 0, read);
+    }
+    finally
+    {
+      in.close();
+    }
+  }
+
+  static private MessageDigest _createDigest()
+  {
+    try
+    {
+      return MessageDigest.getInstance("MD5");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      // every Java platform provides MD5
+      throw new IllegalStateException(e.getMessage());
+    }
+  }
+
+  static private String _toHex(
+    byte[] bytes)
+  {
+    StringBuffer sb = new StringBuffer(bytes.length * 2);
+    for (int i=0; i < bytes.length; i++)
+    {
+      sb.append(Character.forDigit((bytes[i] >> 4) & 0xf, 16));
+      sb.append(Character.forDigit(bytes[i] & 0xf, 16));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A serialized faces config, with the resources its documents included.
+   */
+  static private class Entry
+  {
+    public Entry(
+      String[] includedURLs,
+      String[] includedDigests,
+      byte[]   data)
+    {
+      _includedURLs = includedURLs;
+      _includedDigests = includedDigests;
+      _data = data;
+    }
+
+    public boolean isUpToDate()
+    {
+      for (int i=0; i < _includedURLs.length; i++)
+      {
+        try
+        {
+          URL include = new URL(_includedURLs[i]);
+          if (!_includedDigests[i].equals(_digest(include)))
+            return false;
+        }
+        catch (IOException e)
+        {
+          return false;
+        }
+      }
+
+      return true;
+    }
+
+    public FacesConfigBean getFacesConfig()
+    {
+      try
+      {
+        ObjectInputStream in =
+          new ObjectInputStream(new ByteArrayInputStream(_data))
+          {
+            protected Class resolveClass(
+              ObjectStreamClass desc) throws IOException, ClassNotFoundException
+            {
+              return Class.forName(desc.getName(), false,
+                                   FacesConfigCache.class.getClassLoader());
+            }
+          };
+        return (FacesConfigBean)in.readObject();
+      }
+      catch (Exception e)
+      {
+        // written by another version of the beans: parse again
+        return null;
+      }
+    }
+
+    private final String[] _includedURLs;
+    private final String[] _includedDigests;
+    private final byte[]   _data;
+  }
+
+  private final File _cacheFile;
+
+  // Only the most recent configs are kept, one per module of the reactor
+  // that is currently being built is enough
+  static private final int _MAX_ENTRIES = 8;
+
+  static private final Map _ENTRIES = new LinkedHashMap(16, 0.75f, true)
+  {
+    protected boolean removeEldestEntry(
+      Map.Entry eldest)
+    {
+      return size() > _MAX_ENTRIES;
+    }
+  };
+
+  static private final int _MAGIC = 0x46434643;
+  static private final int _VERSION = 1;
+}
@@ -27,11 +27,13 @@ import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.LinkedList;
 
 public class FacesConfigParser
 {
@@ -52,11 +54,12 @@ public class FacesConfigParser
         // this current value as their own last-modified
         owner.touch(lastModified);
 
-        Digester digester = createDigester();
+        Digester digester = _acquireDigester();
         digester.push(url);
         digester.push(owner);
         digester.parse(is);
         is.close();
+        _releaseDigester(digester);
       }
     }
     catch (IOException e)
@@ -74,14 +77,72 @@ public class FacesConfigParser
   }
 
 
+  /**
+   * Returns a digester with the rules of createDigester().  Registering
+   * the rules is much more expensive than parsing a typical document, so
+   * the digesters of this thread are reused once a parse has completed.
+   */
+  private Digester _acquireDigester()
+    throws ParserConfigurationException, SAXException
+  {
+    // Only reuse digesters whose rules are known
+    if (getClass() != FacesConfigParser.class)
+      return createDigester();
+
+    Digester digester = _poll(_FREE_DIGESTERS);
+    return (digester != null) ? digester : createDigester();
+  }
+
+  private void _releaseDigester(
+    Digester digester)
+  {
+    if (getClass() == FacesConfigParser.class)
+      _offer(_FREE_DIGESTERS, digester);
+  }
+
+  /**
+   * Returns a digester from the pool of this thread, or null if there is
+   * none.  A pool holds more than one digester when includes are nested.
+   * Digesters are only returned to the pool after a successful parse, as
+   * a failed parse can leave them in any state.
+   */
+  static private Digester _poll(
+    ThreadLocal pool)
+  {
+    LinkedList free = (LinkedList)pool.get();
+    if (free == null || free.isEmpty())
+      return null;
+
+    Digester digester = (Digester)free.removeLast();
+    digester.clear();
+    return digester;
+  }
+
+  static private void _offer(
+    ThreadLocal pool,
+    Digester    digester)
+  {
+    LinkedList free = (LinkedList)pool.get();
+    if (free == null)
+    {
+      free = new LinkedList();
+      pool.set(free);
+    }
+
+    digester.clear();
+    free.addLast(digester);
+  }
+
   static protected Digester createEmptyDigester()
     throws ParserConfigurationException, SAXException
   {
-    SAXParserFactory spf = SAXParserFactory.newInstance();
-    spf.setNamespaceAware(true);
-    // requires JAXP 1.3, in JavaSE 5.0
-    // spf.setXIncludeAware(true);
-    Digester digester = new Digester(spf.newSAXParser());
+    // SAXParserFactory is not required to be thread-safe
+    SAXParser parser;
+    synchronized (_PARSER_FACTORY)
+    {
+      parser = _PARSER_FACTORY.newSAXParser();
+    }
+    Digester digester = new Digester(parser);
     digester.setNamespaceAware(true);
     
     return digester;
@@ -408,18 +469,58 @@ public class FacesConfigParser
       URL master = (URL)digester.getRoot();
       URL included = new URL(master, href);
 
-      Digester includedDigester = createEmptyDigester();
-      addComponentDigesterRules(includedDigester, false);
+      // The included resources of the owner are part of the cache key
+      FacesConfigBean owner = _findOwner(digester);
+      if (owner != null)
+        owner.addIncludedResource(included);
+
+      Digester includedDigester = _poll(_FREE_INCLUDE_DIGESTERS);
+      if (includedDigester == null)
+      {
+        includedDigester = createEmptyDigester();
+        addComponentDigesterRules(includedDigester, false);
+      }
       includedDigester.push(included);
+      if (owner != null)
+        includedDigester.push(owner);
       includedDigester.push(digester.peek());
 
       URLConnection conn = included.openConnection();
       InputStream is = conn.getInputStream();
       includedDigester.parse(is);
       is.close();
+      _offer(_FREE_INCLUDE_DIGESTERS, includedDigester);
 
       // We don't really want the included object - but return it anyway
       return included;
     }
+
+    static private FacesConfigBean _findOwner(
+      Digester digester)
+    {
+      for (int i=0; i < digester.getCount(); i++)
+      {
+        Object o = digester.peek(i);
+        if (o instanceof FacesConfigBean)
+          return (FacesConfigBean)o;
+      }
+
+      return null;
+    }
   }
+
+  static private final SAXParserFactory _PARSER_FACTORY;
+
+  static
+  {
+    _PARSER_FACTORY = SAXParserFactory.newInstance();
+    _PARSER_FACTORY.setNamespaceAware(true);
+    // requires JAXP 1.3, in JavaSE 5.0
+    // _PARSER_FACTORY.setXIncludeAware(true);
+  }
+
+  // Free digesters of the current thread, with all the rules of
+  // createDigester() or only the component rules for included documents
+  static private final ThreadLocal _FREE_DIGESTERS = new ThreadLocal();
+  static private final ThreadLocal _FREE_INCLUDE_DIGESTERS = new ThreadLocal();
 }
@@ -18,10 +18,15 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
 
+import java.io.Serializable;
+
 /**
  * ObjectBean is the base class for all parsed beans.
+ * <p>
+ * Beans are serializable so that a parsed faces config can be cached
+ * (see FacesConfigCache).
  */
-public class ObjectBean
+public class ObjectBean implements Serializable
 {
   /**
    * Creates a new ObjectBean.
@@ -0,0 +1,241 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A Log that keeps its messages until they are replayed to another Log.
+ *
+ * Work done concurrently logs to its own BufferedLog, and the messages
+ * are replayed in a fixed order afterwards, so the build output does not
+ * depend on the scheduling of the threads.
+ */
+public class BufferedLog implements Log
+{
+  /**
+   * Creates a new BufferedLog.
+   *
+   * @param log  the log that decides which levels are enabled
+   */
+  public BufferedLog(
+    Log log)
+  {
+    _log = log;
+  }
+
+  /**
+   * Returns the messages logged so far in a new BufferedLog, and forgets
+   * them.
+   */
+  public BufferedLog detach()
+  {
+    BufferedLog detached = new BufferedLog(_log);
+    detached._entries.addAll(_entries);
+    _entries.clear();
+    return detached;
+  }
+
+  /**
+   * Replays the messages to the specified log, in the order they were
+   * logged.
+   *
+   * @param log  the log to replay the messages to
+   */
+  public void replay(
+    Log log)
+  {
+    for (Iterator it = _entries.iterator(); it.hasNext(); )
+    {
+      // call the variant that was called on this log, as some logs do
+      // not accept a null message or error
+      Entry entry = (Entry)it.next();
+      switch (entry.level)
+      {
+        case _DEBUG:
+          if (entry.error == null)
+            log.debug(entry.message);
+          else if (entry.message == null)
+            log.debug(entry.error);
+          else
+            log.debug(entry.message, entry.error);
+          break;
+        case _INFO:
+          if (entry.error == null)
+            log.info(entry.message);
+          else if (entry.message == null)
+            log.info(entry.error);
+          else
+            log.info(entry.message, entry.error);
+          break;
+        case _WARN:
+          if (entry.error == null)
+            log.warn(entry.message);
+          else if (entry.message == null)
+            log.warn(entry.error);
+          else
+            log.warn(entry.message, entry.error);
+          break;
+        default:
+          if (entry.error == null)
+            log.error(entry.message);
+          else if (entry.message == null)
+            log.error(entry.error);
+          else
+            log.error(entry.message, entry.error);
+          break;
+      }
+    }
+  }
+
+  public boolean isDebugEnabled()
+  {
+    return _log.isDebugEnabled();
+  }
+
+  public void debug(
+    CharSequence content)
+  {
+    _add(_DEBUG, content, null);
+  }
+
+  public void debug(
+    CharSequence content,
+    Throwable    error)
+  {
+    _add(_DEBUG, content, error);
+  }
+
+  public void debug(
+    Throwable error)
+  {
+    _add(_DEBUG, null, error);
+  }
+
+  public boolean isInfoEnabled()
+  {
+    return _log.isInfoEnabled();
+  }
+
+  public void info(
+    CharSequence content)
+  {
+    _add(_INFO, content, null);
+  }
+
+  public void info(
+    CharSequence content,
+    Throwable    error)
+  {
+    _add(_INFO, content, error);
+  }
+
+  public void info(
+    Throwable error)
+  {
+    _add(_INFO, null, error);
+  }
+
+  public boolean isWarnEnabled()
+  {
+    return _log.isWarnEnabled();
+  }
+
+  public void warn(
+    CharSequence content)
+  {
+    _add(_WARN, content, null);
+  }
+
+  public void warn(
+    CharSequence content,
+    Throwable    error)
+  {
+    _add(_WARN, content, error);
+  }
+
+  public void warn(
+    Throwable error)
+  {
+    _add(_WARN, null, error);
+  }
+
+  public boolean isErrorEnabled()
+  {
+    return _log.isErrorEnabled();
+  }
+
+  public void error(
+    CharSequence content)
+  {
+    _add(_ERROR, content, null);
+  }
+
+  public void error(
+    CharSequence content,
+    Throwable    error)
+  {
+    _add(_ERROR, content, error);
+  }
+
+  public void error(
+    Throwable error)
+  {
+    _add(_ERROR, null, error);
+  }
+
+  private void _add(
+    int          level,
+    CharSequence content,
+    Throwable    error)
+  {
+    // messages are often built from mutable buffers
+    String message = (content != null) ? content.toString() : null;
+    _entries.add(new Entry(level, message, error));
+  }
+
+  static private class Entry
+  {
+    public Entry(
+      int       level,
+      String    message,
+      Throwable error)
+    {
+      this.level = level;
+      this.message = message;
+      this.error = error;
+    }
+
+    public final int       level;
+    public final String    message;
+    public final Throwable error;
+  }
+
+  private final Log  _log;
+  private final List _entries = new ArrayList();
+
+  static private final int _DEBUG = 0;
+  static private final int _INFO = 1;
+  static private final int _WARN = 2;
+  static private final int _ERROR = 3;
+}
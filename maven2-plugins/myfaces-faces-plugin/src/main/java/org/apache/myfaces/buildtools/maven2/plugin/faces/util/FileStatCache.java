@@ -0,0 +1,198 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FileStatCache remembers the last modified times of files for the
+ * execution of a goal, so that the up-to-date checks of every bean do not
+ * each ask the file system again.
+ * <p>
+ * The files of the directories added with addDirectory() are all read with
+ * a single walk of the directory, the first time one of them is asked for;
+ * a file that the walk did not find does not exist.  Other files, and the
+ * files and jars behind URLs, are asked for once and remembered.
+ * <p>
+ * Files written after they were first asked for are not noticed, so a
+ * cache should only live as long as the checks that use it.
+ */
+public class FileStatCache
+{
+  /**
+   * Adds a directory whose files are all read with one walk.
+   *
+   * @param directory  the directory
+   */
+  public synchronized void addDirectory(
+    File directory)
+  {
+    String path = directory.getAbsolutePath();
+    for (Iterator it = _directories.iterator(); it.hasNext(); )
+    {
+      if (((Directory)it.next()).path.equals(path))
+        return;
+    }
+    _directories.add(new Directory(path));
+  }
+
+  /**
+   * Returns the last modified time of a file.
+   *
+   * @param file  the file
+   *
+   * @return  the last modified time, or 0 if the file does not exist
+   */
+  public synchronized long lastModified(
+    File file)
+  {
+    String path = file.getAbsolutePath();
+    for (Iterator it = _directories.iterator(); it.hasNext(); )
+    {
+      Directory directory = (Directory)it.next();
+      if (directory.contains(path))
+        return directory.lastModified(path);
+    }
+
+    Long lastModified = (Long)_files.get(path);
+    if (lastModified == null)
+    {
+      lastModified = new Long(file.lastModified());
+      _files.put(path, lastModified);
+    }
+    return lastModified.longValue();
+  }
+
+  /**
+   * Returns the last modified time of the document behind a URL.  For an
+   * entry of a jar this is the time of the jar file, as the URL connection
+   * reports it, but the jar is not opened to find it.
+   *
+   * @param url  the URL
+   *
+   * @return  the last modified time, or 0 if it is not known
+   */
+  public synchronized long lastModified(
+    URL url) throws IOException
+  {
+    if ("jar".equals(url.getProtocol()))
+    {
+      String spec = url.getFile();
+      int separator = spec.indexOf("!/");
+      if (separator != -1)
+        url = new URL(spec.substring(0, separator));
+    }
+
+    if ("file".equals(url.getProtocol()))
+    {
+      File file = _toFile(url);
+      if (file != null)
+        return lastModified(file);
+    }
+
+    String key = url.toExternalForm();
+    Long lastModified = (Long)_urls.get(key);
+    if (lastModified == null)
+    {
+      URLConnection conn = url.openConnection();
+      lastModified = new Long(conn.getLastModified());
+      _urls.put(key, lastModified);
+    }
+    return lastModified.longValue();
+  }
+
+  static private File _toFile(
+    URL url)
+  {
+    try
+    {
+      return new File(url.toURI());
+    }
+    catch (Exception e)
+    {
+      // not a plain file URL
+      return null;
+    }
+  }
+
+  /**
+   * A directory read in one walk.
+   */
+  static private class Directory
+  {
+    public Directory(
+      String path)
+    {
+      this.path = path;
+      _prefix = path.endsWith(File.separator) ? path : path + File.separator;
+    }
+
+    public boolean contains(
+      String filePath)
+    {
+      return filePath.startsWith(_prefix);
+    }
+
+    public long lastModified(
+      String filePath)
+    {
+      if (_files == null)
+      {
+        _files = new HashMap();
+        _walk(new File(path));
+      }
+
+      Long lastModified = (Long)_files.get(filePath);
+      return (lastModified != null) ? lastModified.longValue() : 0L;
+    }
+
+    private void _walk(
+      File directory)
+    {
+      File[] children = directory.listFiles();
+      if (children == null)
+        return;
+
+      for (int i=0; i < children.length; i++)
+      {
+        File child = children[i];
+        if (child.isDirectory())
+          _walk(child);
+        else
+          _files.put(child.getAbsolutePath(), new Long(child.lastModified()));
+      }
+    }
+
+    public final String path;
+    private final String _prefix;
+    private Map _files;
+  }
+
+  private final List _directories = new ArrayList();
+  private final Map _files = new HashMap();
+  private final Map _urls = new HashMap();
+}
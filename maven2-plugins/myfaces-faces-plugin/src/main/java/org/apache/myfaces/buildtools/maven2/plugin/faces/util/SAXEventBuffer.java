@@ -0,0 +1,277 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.LocatorImpl;
+
+/**
+ * A ContentHandler that records the SAX events of a document, so that
+ * they can be replayed to other ContentHandlers without parsing the
+ * document again.
+ * <p>
+ * The events are kept in compact arrays: one opcode per event, the
+ * strings and attributes of the events in an argument array, and all the
+ * character data in a single char array.  Once recorded, a buffer is not
+ * modified any more and can be replayed by several threads at once.
+ */
+public final class SAXEventBuffer implements ContentHandler
+{
+  /**
+   * Replays the recorded events to a ContentHandler.
+   *
+   * @param handler  the handler to send the events to
+   */
+  public void replay(
+    ContentHandler handler) throws SAXException
+  {
+    int arg = 0;
+    int chars = 0;
+    for (int i=0; i < _opCount; i++)
+    {
+      switch (_ops[i])
+      {
+        case _SET_DOCUMENT_LOCATOR:
+          handler.setDocumentLocator((Locator)_args[arg++]);
+          break;
+        case _START_DOCUMENT:
+          handler.startDocument();
+          break;
+        case _END_DOCUMENT:
+          handler.endDocument();
+          break;
+        case _START_PREFIX_MAPPING:
+          handler.startPrefixMapping((String)_args[arg], (String)_args[arg + 1]);
+          arg += 2;
+          break;
+        case _END_PREFIX_MAPPING:
+          handler.endPrefixMapping((String)_args[arg++]);
+          break;
+        case _START_ELEMENT:
+          handler.startElement((String)_args[arg], (String)_args[arg + 1],
+                               (String)_args[arg + 2], (Attributes)_args[arg + 3]);
+          arg += 4;
+          break;
+        case _END_ELEMENT:
+          handler.endElement((String)_args[arg], (String)_args[arg + 1],
+                             (String)_args[arg + 2]);
+          arg += 3;
+          break;
+        case _CHARACTERS:
+        {
+          int length = ((Integer)_args[arg++]).intValue();
+          handler.characters(_chars, chars, length);
+          chars += length;
+          break;
+        }
+        case _IGNORABLE_WHITESPACE:
+        {
+          int length = ((Integer)_args[arg++]).intValue();
+          handler.ignorableWhitespace(_chars, chars, length);
+          chars += length;
+          break;
+        }
+        case _PROCESSING_INSTRUCTION:
+          handler.processingInstruction((String)_args[arg], (String)_args[arg + 1]);
+          arg += 2;
+          break;
+        default:
+          handler.skippedEntity((String)_args[arg++]);
+          break;
+      }
+    }
+  }
+
+  public void setDocumentLocator(
+    Locator locator)
+  {
+    // only the identity of the document is kept, not the positions
+    _add(_SET_DOCUMENT_LOCATOR);
+    _addArg(new LocatorImpl(locator));
+  }
+
+  public void startDocument()
+  {
+    _add(_START_DOCUMENT);
+  }
+
+  public void endDocument()
+  {
+    _add(_END_DOCUMENT);
+  }
+
+  public void startPrefixMapping(
+    String prefix,
+    String namespaceURI)
+  {
+    _add(_START_PREFIX_MAPPING);
+    _addArg(prefix);
+    _addArg(namespaceURI);
+  }
+
+  public void endPrefixMapping(
+    String prefix)
+  {
+    _add(_END_PREFIX_MAPPING);
+    _addArg(prefix);
+  }
+
+  public void startElement(
+    String     namespaceURI,
+    String     localName,
+    String     qualifiedName,
+    Attributes attributes)
+  {
+    _add(_START_ELEMENT);
+    _addArg(namespaceURI);
+    _addArg(localName);
+    _addArg(qualifiedName);
+    // the parser reuses its attributes
+    _addArg((attributes.getLength() > 0) ? new AttributesImpl(attributes)
+                                         : _NO_ATTRIBUTES);
+  }
+
+  public void endElement(
+    String namespaceURI,
+    String localName,
+    String qualifiedName)
+  {
+    _add(_END_ELEMENT);
+    _addArg(namespaceURI);
+    _addArg(localName);
+    _addArg(qualifiedName);
+  }
+
+  public void characters(
+    char[] ch,
+    int    start,
+    int    length)
+  {
+    _add(_CHARACTERS);
+    _addChars(ch, start, length);
+  }
+
+  public void ignorableWhitespace(
+    char[] ch,
+    int    start,
+    int    length)
+  {
+    _add(_IGNORABLE_WHITESPACE);
+    _addChars(ch, start, length);
+  }
+
+  public void processingInstruction(
+    String target,
+    String data)
+  {
+    _add(_PROCESSING_INSTRUCTION);
+    _addArg(target);
+    _addArg(data);
+  }
+
+  public void skippedEntity(
+    String name)
+  {
+    _add(_SKIPPED_ENTITY);
+    _addArg(name);
+  }
+
+  /**
+   * Releases the space reserved for events that were never recorded.
+   */
+  public void trim()
+  {
+    byte[] ops = new byte[_opCount];
+    System.arraycopy(_ops, 0, ops, 0, _opCount);
+    _ops = ops;
+
+    Object[] args = new Object[_argCount];
+    System.arraycopy(_args, 0, args, 0, _argCount);
+    _args = args;
+
+    char[] chars = new char[_charCount];
+    System.arraycopy(_chars, 0, chars, 0, _charCount);
+    _chars = chars;
+  }
+
+  private void _add(
+    byte op)
+  {
+    if (_opCount == _ops.length)
+    {
+      byte[] ops = new byte[_opCount * 2];
+      System.arraycopy(_ops, 0, ops, 0, _opCount);
+      _ops = ops;
+    }
+    _ops[_opCount++] = op;
+  }
+
+  private void _addArg(
+    Object arg)
+  {
+    if (_argCount == _args.length)
+    {
+      Object[] args = new Object[_argCount * 2];
+      System.arraycopy(_args, 0, args, 0, _argCount);
+      _args = args;
+    }
+    _args[_argCount++] = arg;
+  }
+
+  private void _addChars(
+    char[] ch,
+    int    start,
+    int    length)
+  {
+    if (_charCount + length > _chars.length)
+    {
+      char[] chars = new char[Math.max(_chars.length * 2, _charCount + length)];
+      System.arraycopy(_chars, 0, chars, 0, _charCount);
+      _chars = chars;
+    }
+    System.arraycopy(ch, start, _chars, _charCount, length);
+    _charCount += length;
+    _addArg(new Integer(length));
+  }
+
+  private byte[]   _ops = new byte[256];
+  private int      _opCount;
+  private Object[] _args = new Object[512];
+  private int      _argCount;
+  private char[]   _chars = new char[2048];
+  private int      _charCount;
+
+  static private final Attributes _NO_ATTRIBUTES = new AttributesImpl();
+
+  static private final byte _SET_DOCUMENT_LOCATOR = 0;
+  static private final byte _START_DOCUMENT = 1;
+  static private final byte _END_DOCUMENT = 2;
+  static private final byte _START_PREFIX_MAPPING = 3;
+  static private final byte _END_PREFIX_MAPPING = 4;
+  static private final byte _START_ELEMENT = 5;
+  static private final byte _END_ELEMENT = 6;
+  static private final byte _CHARACTERS = 7;
+  static private final byte _IGNORABLE_WHITESPACE = 8;
+  static private final byte _PROCESSING_INSTRUCTION = 9;
+  static private final byte _SKIPPED_ENTITY = 10;
+}
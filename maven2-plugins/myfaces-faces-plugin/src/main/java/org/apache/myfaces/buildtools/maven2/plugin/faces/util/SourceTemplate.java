@@ -87,15 +87,21 @@ public class SourceTemplate
 
   public void writeContent(Writer out) throws IOException
   {
+    Substitutions substitutions = new Substitutions(_substitutions);
     while (true)
     {
-      String line = _reader.readLine();
-      if (line == null)
+      int length = _readLine();
+      if (length < 0)
         throw new EOFException("File " + _file + " ended prematurely");
 
-      if (line.trim().startsWith(_IGNORE_PREFIX)){
-          if (line.trim().startsWith(_IGNORE_PREFIX2)){
-              String method = line.trim().substring(_IGNORE_PREFIX2.length()).trim();
+      int start = 0;
+      while (start < length && _line[start] <= ' ')
+        start++;
+
+      if (_startsWith(start, length, _IGNORE_PREFIX)){
+          if (_startsWith(start, length, _IGNORE_PREFIX2)){
+              String method = new String(_line, start, length - start).trim();
+              method = method.substring(_IGNORE_PREFIX2.length()).trim();
               if (method.length() > 0 ){
                   _ignoreMethods.add(method);
               }
@@ -103,11 +109,10 @@ public class SourceTemplate
           continue;
       }
 
-      if (line.equals("}"))
+      if (length == 1 && _line[0] == '}')
         break;
 
-      line = _substitute(line);
-      out.write(line);
+      substitutions.write(out, _line, length);
       out.write("\n");
     }
   }
@@ -117,33 +122,180 @@ public class SourceTemplate
     _reader.close();
   }
 
-  private String _substitute(String in)
+  /**
+   * Reads the next line into the line buffer, without its terminator,
+   * as BufferedReader.readLine() would.
+   *
+   * @return the length of the line, or -1 at the end of the file
+   */
+  private int _readLine() throws IOException
   {
-    Iterator keys = _substitutions.keySet().iterator();
-    while (keys.hasNext())
+    int length = 0;
+    while (true)
     {
-      String key = (String) keys.next();
-      String value = (String) _substitutions.get(key);
-      in = _substitute(in, key, value);
+      int c = _reader.read();
+      if (c < 0)
+        return (length == 0) ? -1 : length;
+
+      if (c == '\n')
+        return length;
+
+      if (c == '\r')
+      {
+        _reader.mark(1);
+        if (_reader.read() != '\n')
+          _reader.reset();
+        return length;
+      }
+
+      if (length == _line.length)
+      {
+        char[] line = new char[length * 2];
+        System.arraycopy(_line, 0, line, 0, length);
+        _line = line;
+      }
+      _line[length++] = (char)c;
     }
+  }
 
-    return in;
+  private boolean _startsWith(int start, int length, String prefix)
+  {
+    int count = prefix.length();
+    if (length - start < count)
+      return false;
+
+    for (int i=0; i < count; i++)
+    {
+      if (_line[start + i] != prefix.charAt(i))
+        return false;
+    }
+
+    return true;
   }
 
-  static private String _substitute(String in, String from, String to)
+  /**
+   * Replaces all the substitution keys of a line in a single pass.
+   * Keys are looked up by their first character; at each position the
+   * longest key that matches is replaced, and the replacement text is
+   * not searched again.
+   */
+  static private class Substitutions
   {
-    int index = in.indexOf(from);
-    if (index < 0)
-      return in;
-
-    StringBuffer buffer = new StringBuffer(in.length() +
-                                           to.length() - from.length());
-    buffer.append(in.substring(0, index));
-    buffer.append(to);
-    String suffix = in.substring(index + from.length());
-    buffer.append(_substitute(suffix, from, to));
-
-    return buffer.toString();
+    public Substitutions(Map substitutions)
+    {
+      // sort by first character, longest key first
+      List keys = new ArrayList(substitutions.keySet());
+      Collections.sort(keys, new Comparator()
+      {
+        public int compare(Object o1, Object o2)
+        {
+          String s1 = (String)o1;
+          String s2 = (String)o2;
+          if (s1.length() == 0 || s2.length() == 0)
+            return s1.length() - s2.length();
+          if (s1.charAt(0) != s2.charAt(0))
+            return s1.charAt(0) - s2.charAt(0);
+          return s2.length() - s1.length();
+        }
+      });
+
+      // an empty key would match everywhere; it never matched before
+      while (!keys.isEmpty() && ((String)keys.get(0)).length() == 0)
+        keys.remove(0);
+
+      int count = keys.size();
+      _keys = new char[count][];
+      _values = new String[count];
+      _firstChars = new char[count];
+      for (int i=0; i < count; i++)
+      {
+        String key = (String)keys.get(i);
+        _keys[i] = key.toCharArray();
+        _values[i] = (String)substitutions.get(key);
+        _firstChars[i] = key.charAt(0);
+      }
+    }
+
+    public void write(Writer out, char[] line, int length) throws IOException
+    {
+      int copied = 0;
+      int i = 0;
+      while (i < length)
+      {
+        int match = _match(line, i, length);
+        if (match < 0)
+        {
+          i++;
+          continue;
+        }
+
+        if (i > copied)
+          out.write(line, copied, i - copied);
+        out.write(_values[match]);
+        i += _keys[match].length;
+        copied = i;
+      }
+
+      if (length > copied)
+        out.write(line, copied, length - copied);
+    }
+
+    /**
+     * Returns the index of the longest key at the position, or -1.
+     */
+    private int _match(char[] line, int offset, int length)
+    {
+      int first = _findFirst(line[offset]);
+      if (first < 0)
+        return -1;
+
+      for (int k = first; k < _keys.length && _firstChars[k] == line[offset]; k++)
+      {
+        char[] key = _keys[k];
+        if (key.length > length - offset)
+          continue;
+
+        int j = 1;
+        while (j < key.length && key[j] == line[offset + j])
+          j++;
+
+        if (j == key.length)
+          return k;
+      }
+
+      return -1;
+    }
+
+    /**
+     * Returns the index of the first key starting with the character,
+     * or -1 if there is none.
+     */
+    private int _findFirst(char c)
+    {
+      int low = 0;
+      int high = _firstChars.length - 1;
+      int found = -1;
+      while (low <= high)
+      {
+        int mid = (low + high) >>> 1;
+        if (_firstChars[mid] < c)
+        {
+          low = mid + 1;
+        }
+        else
+        {
+          if (_firstChars[mid] == c)
+            found = mid;
+          high = mid - 1;
+        }
+      }
+
+      return found;
+    }
+
+    private final char[][] _keys;
+    private final String[] _values;
+    private final char[]   _firstChars;
   }
 
     public Collection getIgnoreMethods() {
@@ -157,6 +309,7 @@ public class SourceTemplate
   private Set            _implements = new HashSet();
   private Map            _substitutions = new HashMap();
   private Set            _ignoreMethods = new HashSet();
+  private char[]         _line = new char[256];
 
   // Magic syntax indicating "please ignore this line"
   static private final String _IGNORE_PREFIX = "/**/";
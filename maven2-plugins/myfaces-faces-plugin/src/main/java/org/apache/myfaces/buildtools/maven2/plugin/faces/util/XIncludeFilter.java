@@ -18,11 +18,16 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.net.URLConnection;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Stack;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -30,6 +35,7 @@ import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
@@ -122,6 +128,17 @@ public final class XIncludeFilter extends XMLFilterImpl
       super.endDocument();
   }
 
+  /**
+   * Includes a document as if an xi:include element with the given
+   * href and xpointer attributes was parsed.
+   */
+  public void include(
+    String href,
+    String xpointer) throws SAXException
+  {
+    doXInclude(href, xpointer);
+  }
+
   private void doXInclude(
     String href,
     String xpointer) throws SAXException
@@ -130,23 +147,20 @@ public final class XIncludeFilter extends XMLFilterImpl
 
     try
     {
-      SAXParserFactory saxFactory = SAXParserFactory.newInstance();
-      SAXParser saxParser = saxFactory.newSAXParser();
-      XMLReader reader = saxParser.getXMLReader();
+      SAXEventBuffer fragment = getFragment(target);
+
+      ContentHandler handler = this;
       if (xpointer != null)
       {
-        // pass all parsed SAX events through XPointerFilter
-        reader = new XPointerFilter(reader, namespaces, xpointer);
+        // pass all replayed SAX events through XPointerFilter
+        XPointerFilter filter = new XPointerFilter(null, namespaces, xpointer);
+        filter.setContentHandler(this);
+        handler = filter;
       }
-      // pass all selected XPointer SAX events to XIncludeFilter
-      reader.setContentHandler(this);
-      reader.setEntityResolver(this);
-      reader.setErrorHandler(this);
-      reader.setDTDHandler(this);
 
       // push on new base URL in case of nested xi:include
       bases.push(target);
-      reader.parse(new InputSource(target.openStream()));
+      fragment.replay(handler);
       bases.pop();
     }
     catch (ParserConfigurationException e)
@@ -161,6 +175,83 @@ public final class XIncludeFilter extends XMLFilterImpl
     }
   }
 
+  /**
+   * Returns the SAX events of an included document.  Each document is only
+   * parsed once as long as it is not modified, however often and by however
+   * many filters it is included; the xpointer and the nested xi:include
+   * elements are applied when the events are replayed.
+   */
+  private SAXEventBuffer getFragment(
+    URL target) throws IOException, SAXException, ParserConfigurationException
+  {
+    String key = target.toExternalForm();
+    long stamp = getStamp(target);
+
+    if (stamp != 0L)
+    {
+      synchronized (FRAGMENTS)
+      {
+        Fragment fragment = (Fragment) FRAGMENTS.get(key);
+        if (fragment != null && fragment.stamp == stamp)
+          return fragment.events;
+      }
+    }
+
+    SAXParser saxParser;
+    synchronized (PARSER_FACTORY)
+    {
+      saxParser = PARSER_FACTORY.newSAXParser();
+    }
+    XMLReader reader = saxParser.getXMLReader();
+    SAXEventBuffer events = new SAXEventBuffer();
+    reader.setContentHandler(events);
+    reader.setEntityResolver(this);
+    reader.setErrorHandler(this);
+    reader.setDTDHandler(this);
+
+    InputStream in = target.openStream();
+    try
+    {
+      reader.parse(new InputSource(in));
+    }
+    finally
+    {
+      in.close();
+    }
+    events.trim();
+
+    if (stamp != 0L)
+    {
+      synchronized (FRAGMENTS)
+      {
+        FRAGMENTS.put(key, new Fragment(stamp, events));
+      }
+    }
+
+    return events;
+  }
+
+  /**
+   * Returns a value that changes when the document is modified, or 0
+   * if it cannot be told.
+   */
+  private static long getStamp(
+    URL url) throws IOException
+  {
+    if ("file".equals(url.getProtocol()))
+    {
+      File file = new File(url.getPath());
+      if (!file.exists())
+        return 0L;
+
+      return file.lastModified() * 31 + file.length();
+    }
+
+    URLConnection connection = url.openConnection();
+    connection.setUseCaches(false);
+    return connection.getLastModified();
+  }
+
   private URL resolveURL(
     String href) throws SAXException
   {
@@ -177,10 +268,46 @@ public final class XIncludeFilter extends XMLFilterImpl
     }
   }
 
+  private static final class Fragment
+  {
+    public Fragment(
+      long           stamp,
+      SAXEventBuffer events)
+    {
+      this.stamp = stamp;
+      this.events = events;
+    }
+
+    public final long           stamp;
+    public final SAXEventBuffer events;
+  }
+
   private int depth = 0;
 
   private Stack bases = new Stack();
   private Stack locators = new Stack();
   private NamespaceSupport namespaces = new NamespaceSupport();
+
+  // the xpointers match the elements of the fragments by namespace and
+  // local name, which a parser only reports when it is namespace aware
+  private static final SAXParserFactory PARSER_FACTORY = SAXParserFactory.newInstance();
+
+  static
+  {
+    PARSER_FACTORY.setNamespaceAware(true);
+  }
+
+  // the fragments are shared by all the goals of the build; only the
+  // most recently included ones are kept
+  private static final int MAX_FRAGMENTS = 256;
+
+  private static final Map FRAGMENTS = new LinkedHashMap(16, 0.75f, true)
+  {
+    protected boolean removeEldestEntry(
+      Map.Entry eldest)
+    {
+      return size() > MAX_FRAGMENTS;
+    }
+  };
 }
 
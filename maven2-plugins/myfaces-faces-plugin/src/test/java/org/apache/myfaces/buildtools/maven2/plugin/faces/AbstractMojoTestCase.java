@@ -51,6 +51,7 @@ abstract public class AbstractMojoTestCase extends TestCase
     String name) throws MojoExecutionException
   {
     Model model = new Model();
+    model.setVersion("1.0.0-SNAPSHOT");
     Build build = new Build();
     build.setOutputDirectory("target/test-build-output");
     model.setBuild(build);
@@ -64,8 +65,7 @@ abstract public class AbstractMojoTestCase extends TestCase
   {
     try
     {
-      Class mojoClass = mojo.getClass();
-      Field field = mojoClass.getDeclaredField(name);
+      Field field = _getField(mojo.getClass(), name);
       field.setAccessible(true);
       field.set(mojo, value);
     }
@@ -131,4 +131,23 @@ abstract public class AbstractMojoTestCase extends TestCase
                                        "\"" + name + "\"", e);
     }
   }
+
+  // the field may be declared by a superclass of the mojo
+  static private Field _getField(
+    Class  mojoClass,
+    String name) throws NoSuchFieldException
+  {
+    for (Class c = mojoClass; c != null; c = c.getSuperclass())
+    {
+      try
+      {
+        return c.getDeclaredField(name);
+      }
+      catch (NoSuchFieldException e)
+      {
+        // try the superclass
+      }
+    }
+    throw new NoSuchFieldException(name);
+  }
 }
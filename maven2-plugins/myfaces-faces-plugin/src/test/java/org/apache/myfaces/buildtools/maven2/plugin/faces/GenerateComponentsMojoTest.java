@@ -19,10 +19,13 @@
 package org.apache.myfaces.buildtools.maven2.plugin.faces;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.maven.plugin.Mojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.AbstractMojoTestCase;
 import org.apache.myfaces.buildtools.maven2.plugin.faces.GenerateComponentsMojo;
 
@@ -110,6 +113,43 @@ public class GenerateComponentsMojoTest extends AbstractMojoTestCase
     // TODO: verify identity content with trinidad Faces example
   }
 
+  public void testGeneratedCount() throws MojoExecutionException, MojoFailureException
+  {
+    File targetFile = new File(_genSrcDir,
+                               "org/apache/myfaces/trinidad/component/UIXCommand.java");
+    targetFile.delete();
+
+    List messages = new ArrayList();
+    _mojo.setLog(new InfoLog(messages));
+    _mojo.execute();
+    assertTrue(messages.toString(),
+               messages.contains("Generated 1 component(s)"));
+
+    // the unchanged component is not reported as generated again
+    messages.clear();
+    _mojo.execute();
+    assertTrue(messages.toString(),
+               messages.contains("Generated 0 component(s)"));
+  }
+
+  static private class InfoLog extends SystemStreamLog
+  {
+    public InfoLog(
+      List messages)
+    {
+      _messages = messages;
+    }
+
+    public void info(
+      CharSequence content)
+    {
+      _messages.add(content.toString());
+      super.info(content);
+    }
+
+    private final List _messages;
+  }
+
   private Mojo _mojo;
   private File _genSrcDir;
 }
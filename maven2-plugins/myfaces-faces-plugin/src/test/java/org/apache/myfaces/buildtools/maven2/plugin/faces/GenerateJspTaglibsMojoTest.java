@@ -0,0 +1,320 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.myfaces.buildtools.maven2.plugin.faces.parse.FacesConfigCache;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+public class GenerateJspTaglibsMojoTest extends AbstractMojoTestCase
+{
+  /**
+   * Creates a new GenerateJspTaglibsMojoTest.
+   *
+   * @param testName  the test to execute
+   */
+  public GenerateJspTaglibsMojoTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp() throws MojoExecutionException, IOException
+  {
+    Mojo mojo = new GenerateJspTaglibsMojo();
+    File outputDir = new File("target/mojo-test-output/taglibs");
+    File confDir = new File(outputDir, "conf");
+    File resourcesDir = new File(outputDir, "resources");
+
+    FileUtils.deleteDirectory(outputDir);
+
+    // the metadata is copied, so that the tests can modify it
+    File indexDir = new File(outputDir, "index");
+    for (int i=0; i < _INDEX_FILES.length; i++)
+    {
+      File indexFile = new File(indexDir, _INDEX_FILES[i]);
+      indexFile.getParentFile().mkdirs();
+      FileUtils.copyFile(new File(_INDEX_DIR, _INDEX_FILES[i]), indexFile);
+    }
+
+    Map taglibs = new HashMap();
+    taglibs.put("af", "http://myfaces.apache.org/trinidad");
+
+    setMojoProject(mojo, "project");
+    setMojoField(mojo, "taglibs", taglibs);
+    setMojoField(mojo, "localResource", new File(indexDir, "testTaglib.lst"));
+    setMojoField(mojo, "configSourceDirectory", confDir);
+    setMojoField(mojo, "templateSourceDirectory",
+                        new File("src/test/java-templates"));
+    setMojoField(mojo, "generatedSourceDirectory", new File(outputDir, "java"));
+    setMojoField(mojo, "generatedResourcesDirectory", resourcesDir);
+    setMojoField(mojo, "fingerprintDirectory", new File(outputDir, "fingerprints"));
+    setMojoField(mojo, "packageContains", "org");
+    setMojoField(mojo, "type", "trinidad");
+
+    _mojo = mojo;
+    _indexDir = indexDir;
+    _baseFile = new File(confDir, "META-INF/af-base.tld");
+    _targetFile = new File(resourcesDir, "META-INF/af.tld");
+    _fingerprintFile = new File(outputDir, "fingerprints/af.tld.md5");
+  }
+
+  public void tearDown()
+  {
+    _mojo = null;
+    _indexDir = null;
+    _baseFile = null;
+    _targetFile = null;
+    _fingerprintFile = null;
+  }
+
+  public void testUnchangedTagLibrary() throws Exception
+  {
+    _mojo.execute();
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>tagged</name>") != -1);
+    assertTrue(_fingerprintFile.exists());
+
+    long lastModified = _markTarget();
+    _mojo.execute();
+    assertEquals(lastModified, _targetFile.lastModified());
+    assertEquals(tld, FileUtils.fileRead(_targetFile.getPath()));
+  }
+
+  public void testModifiedTag() throws Exception
+  {
+    _mojo.execute();
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>label</name>") != -1);
+
+    long lastModified = _markTarget();
+    _modifyIndexFile("components/trinidad/faces/Tagged.xml",
+                     "<property-name>label</property-name>",
+                     "<property-name>caption</property-name>",
+                     lastModified);
+    _mojo.execute();
+
+    tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>caption</name>") != -1);
+    assertTrue(tld, tld.indexOf("<name>label</name>") == -1);
+  }
+
+  public void testModifiedSupertype() throws Exception
+  {
+    // the supertype has no tag, but its properties are tag attributes
+    _mojo.execute();
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>styleClass</name>") != -1);
+
+    long lastModified = _markTarget();
+    _modifyIndexFile("components/trinidad/faces/TaggedBase.xml",
+                     "<property-name>styleClass</property-name>",
+                     "<property-name>inlineStyle</property-name>",
+                     lastModified);
+    _mojo.execute();
+
+    tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>inlineStyle</name>") != -1);
+    assertTrue(tld, tld.indexOf("<name>styleClass</name>") == -1);
+  }
+
+  public void testModifiedBaseTagLibrary() throws Exception
+  {
+    _writeBase("<taglib>\n" +
+               "  <tag>\n" +
+               "    <name>baseTag</name>\n" +
+               "  </tag>\n" +
+               "</taglib>\n");
+    _mojo.execute();
+
+    long lastModified = _markTarget();
+    _writeBase("<taglib>\n" +
+               "  <tag>\n" +
+               "    <name>otherTag</name>\n" +
+               "  </tag>\n" +
+               "</taglib>\n");
+    _mojo.execute();
+
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>otherTag</name>") != -1);
+    assertTrue(tld, tld.indexOf("<name>baseTag</name>") == -1);
+    assertTrue(lastModified != _targetFile.lastModified());
+  }
+
+  public void testDeletedFingerprint() throws Exception
+  {
+    _mojo.execute();
+
+    long lastModified = _markTarget();
+    assertTrue(_fingerprintFile.delete());
+    _mojo.execute();
+
+    assertTrue(lastModified != _targetFile.lastModified());
+    assertTrue(_fingerprintFile.exists());
+  }
+
+  public void testBaseTagLibrary() throws Exception
+  {
+    _writeBase("<!DOCTYPE taglib PUBLIC " +
+                 "\"-//Sun Microsystems, Inc.//DTD JSP Tag Library 1.2//EN\" " +
+                 "\"http://java.sun.com/dtd/web-jsptaglibrary_1_2.dtd\">\n" +
+               "<taglib>\n" +
+               "  <tlib-version>1.0</tlib-version>\n" +
+               "  <short-name>af</short-name>\n" +
+               "  <tag>\n" +
+               "    <name>baseTag</name>\n" +
+               "    <tag-class>org.example.BaseTag</tag-class>\n" +
+               "  </tag>\n" +
+               "</taglib>\n");
+    _mojo.execute();
+
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<short-name>af</short-name>") != -1);
+    assertTrue(tld, tld.indexOf("<name>baseTag</name>") != -1);
+    assertTrue(tld, tld.indexOf("<tag-class>org.example.BaseTag</tag-class>") != -1);
+    assertTrue(tld, tld.indexOf("<name>tagged</name>") != -1);
+    assertTrue(tld, tld.indexOf("<name>baseTag</name>") <
+                    tld.indexOf("<name>tagged</name>"));
+  }
+
+  public void testBaseTagLibrary12() throws Exception
+  {
+    setMojoField(_mojo, "jsfVersion", "1.2");
+    _writeBase("<taglib xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"2.1\">\n" +
+               "  <tlib-version>1.0</tlib-version>\n" +
+               "  <short-name>af</short-name>\n" +
+               "  <tag>\n" +
+               "    <name>baseTag</name>\n" +
+               "    <tag-class>org.example.BaseTag</tag-class>\n" +
+               "  </tag>\n" +
+               "</taglib>\n");
+    _mojo.execute();
+
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>baseTag</name>") != -1);
+    assertTrue(tld, tld.indexOf("<tag-class>org.example.BaseTag</tag-class>") != -1);
+    assertTrue(tld, tld.indexOf("<name>tagged</name>") != -1);
+  }
+
+  public void testCopyBaseTagLibrary() throws Exception
+  {
+    // no generated tags in this namespace, so the base is copied
+    Map taglibs = new HashMap();
+    taglibs.put("af", "http://myfaces.apache.org/none");
+    setMojoField(_mojo, "taglibs", taglibs);
+
+    String base = "<taglib>\n" +
+                  "  <short-name>af</short-name>\n" +
+                  "</taglib>\n";
+    _writeBase(base);
+    _mojo.execute();
+    assertEquals("<?xml version=\"1.0\"?>\n" + base,
+                 FileUtils.fileRead(_targetFile.getPath()));
+
+    // an up to date copy is left alone
+    long lastModified = _baseFile.lastModified() + 60000L;
+    _targetFile.setLastModified(lastModified);
+    _mojo.execute();
+    assertEquals(lastModified, _targetFile.lastModified());
+
+    // a newer base is copied again
+    String newBase = "<taglib>\n" +
+                     "  <short-name>af</short-name>\n" +
+                     "  <uri>http://myfaces.apache.org/none</uri>\n" +
+                     "</taglib>\n";
+    _writeBase(newBase);
+    _baseFile.setLastModified(lastModified + 60000L);
+    _mojo.execute();
+    assertEquals("<?xml version=\"1.0\"?>\n" + newBase,
+                 FileUtils.fileRead(_targetFile.getPath()));
+  }
+
+  public void testCorruptFacesConfigCache() throws Exception
+  {
+    // the faces config is parsed again instead
+    File cacheFile = new File(_indexDir, "faces-config.cache");
+    FileUtils.fileWrite(cacheFile.getPath(), "not a cache file");
+    setMojoField(_mojo, "facesConfigCacheFile", cacheFile);
+    FacesConfigCache.clear();
+    _mojo.execute();
+
+    String tld = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(tld, tld.indexOf("<name>tagged</name>") != -1);
+    assertTrue(cacheFile.length() > "not a cache file".length());
+  }
+
+  /**
+   * Gives the generated descriptor a timestamp it cannot get from being
+   * written again, after all the metadata it was generated from.
+   */
+  private long _markTarget()
+  {
+    long lastModified = (System.currentTimeMillis() / 1000L + 60L) * 1000L;
+    assertTrue(_targetFile.setLastModified(lastModified));
+    return lastModified;
+  }
+
+  /**
+   * Modifies a copied metadata file, making it newer than the timestamp.
+   */
+  private void _modifyIndexFile(
+    String path,
+    String oldText,
+    String newText,
+    long   lastModified) throws IOException
+  {
+    File indexFile = new File(_indexDir, path);
+    String content = FileUtils.fileRead(indexFile.getPath());
+    assertTrue(content.indexOf(oldText) != -1);
+    FileUtils.fileWrite(indexFile.getPath(),
+                        StringUtils.replace(content, oldText, newText));
+    assertTrue(indexFile.setLastModified(lastModified + 60000L));
+  }
+
+  private void _writeBase(
+    String content) throws IOException
+  {
+    _baseFile.getParentFile().mkdirs();
+    FileUtils.fileWrite(_baseFile.getPath(), "<?xml version=\"1.0\"?>\n" + content);
+  }
+
+  private Mojo _mojo;
+  private File _indexDir;
+  private File _baseFile;
+  private File _targetFile;
+  private File _fingerprintFile;
+
+  static private final File _INDEX_DIR =
+    new File("src/test/resources/META-INF/maven-faces-plugin");
+
+  static private final String[] _INDEX_FILES =
+    new String[]
+    {
+      "testTaglib.lst",
+      "components/trinidad/faces/Tagged.xml",
+      "components/trinidad/faces/TaggedBase.xml",
+    };
+}
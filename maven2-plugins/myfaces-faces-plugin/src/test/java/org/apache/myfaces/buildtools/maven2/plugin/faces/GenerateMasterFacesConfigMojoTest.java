@@ -0,0 +1,201 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+public class GenerateMasterFacesConfigMojoTest extends AbstractMojoTestCase
+{
+  /**
+   * Creates a new GenerateMasterFacesConfigMojoTest.
+   *
+   * @param testName  the test to execute
+   */
+  public GenerateMasterFacesConfigMojoTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp() throws MojoExecutionException, IOException
+  {
+    Mojo mojo = new GenerateMasterFacesConfigMojo();
+    File outputDir = new File("target/mojo-test-output/master");
+    FileUtils.deleteDirectory(outputDir);
+
+    File sourceDir = new File(outputDir, "source");
+    File inheritedDir = new File(outputDir, "inherited");
+    File targetDir = new File(outputDir, "target");
+
+    setMojoProject(mojo, "project");
+    setMojoField(mojo, "sourcePath", _SOURCE_PATH);
+    setMojoField(mojo, "sourceDirectory", sourceDir);
+    setMojoField(mojo, "inheritedDirectory", inheritedDir);
+    setMojoField(mojo, "targetDirectory", targetDir);
+    setMojoField(mojo, "buildStateFile", new File(outputDir, "master-faces-config.state"));
+
+    _messages = new ArrayList();
+    mojo.setLog(new InfoLog(_messages));
+
+    _mojo = mojo;
+    _sourceDir = sourceDir;
+    _inheritedDir = inheritedDir;
+    _targetFile = new File(targetDir, "META-INF/maven-faces-plugin/faces-config.xml");
+
+    _writeFragment(_sourceDir, "components/Command.xml");
+    _writeFragment(_inheritedDir, "components/Input.xml");
+  }
+
+  public void tearDown()
+  {
+    _mojo = null;
+    _messages = null;
+    _sourceDir = null;
+    _inheritedDir = null;
+    _targetFile = null;
+  }
+
+  public void testUnchanged() throws Exception
+  {
+    _mojo.execute();
+    String master = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(master, master.indexOf("href=\"components/Command.xml\"") != -1);
+    assertTrue(master, master.indexOf("href=\"components/Input.xml\"") != -1);
+
+    long lastModified = _markTarget();
+    _mojo.execute();
+    _assertUpToDate(lastModified);
+  }
+
+  public void testModifiedFragment() throws Exception
+  {
+    _mojo.execute();
+
+    long lastModified = _markTarget();
+    File fragment = new File(_inheritedDir, _SOURCE_PATH + "/components/Input.xml");
+    assertTrue(fragment.setLastModified(fragment.lastModified() + 2000L));
+    _mojo.execute();
+    _assertGenerated(lastModified);
+  }
+
+  public void testAddedFragment() throws Exception
+  {
+    _mojo.execute();
+
+    long lastModified = _markTarget();
+    _writeFragment(_sourceDir, "components/Output.xml");
+    _mojo.execute();
+    _assertGenerated(lastModified);
+
+    String master = FileUtils.fileRead(_targetFile.getPath());
+    assertTrue(master, master.indexOf("href=\"components/Output.xml\"") != -1);
+  }
+
+  public void testOverriddenFragment() throws Exception
+  {
+    _mojo.execute();
+
+    // the same path in the source directory hides the inherited fragment
+    long lastModified = _markTarget();
+    File fragment = _writeFragment(_sourceDir, "components/Input.xml");
+    File inherited = new File(_inheritedDir, _SOURCE_PATH + "/components/Input.xml");
+    assertTrue(fragment.setLastModified(inherited.lastModified()));
+    _mojo.execute();
+    _assertGenerated(lastModified);
+
+    lastModified = _markTarget();
+    _mojo.execute();
+    _assertUpToDate(lastModified);
+  }
+
+  private void _assertUpToDate(
+    long lastModified)
+  {
+    assertTrue(_messages.toString(),
+               _messages.contains("Nothing to generate - " + _TARGET_PATH +
+                                  " is up to date"));
+    assertEquals(lastModified, _targetFile.lastModified());
+  }
+
+  private void _assertGenerated(
+    long lastModified)
+  {
+    assertTrue(_messages.toString(),
+               _messages.contains("Generating " + _TARGET_PATH));
+    assertTrue(lastModified != _targetFile.lastModified());
+  }
+
+  /**
+   * Gives the master faces-config a timestamp it cannot get from being
+   * written again, and forgets the messages so far.
+   */
+  private long _markTarget()
+  {
+    long lastModified = (System.currentTimeMillis() / 1000L + 60L) * 1000L;
+    assertTrue(_targetFile.setLastModified(lastModified));
+    _messages.clear();
+    return lastModified;
+  }
+
+  static private File _writeFragment(
+    File   directory,
+    String path) throws IOException
+  {
+    File fragment = new File(directory, _SOURCE_PATH + "/" + path);
+    fragment.getParentFile().mkdirs();
+    FileUtils.fileWrite(fragment.getPath(),
+                        "<faces-config xmlns=\"http://java.sun.com/xml/ns/javaee\"/>\n");
+    return fragment;
+  }
+
+  static private class InfoLog extends SystemStreamLog
+  {
+    public InfoLog(
+      List messages)
+    {
+      _messages = messages;
+    }
+
+    public void info(
+      CharSequence content)
+    {
+      _messages.add(content.toString());
+      super.info(content);
+    }
+
+    private final List _messages;
+  }
+
+  private Mojo _mojo;
+  private List _messages;
+  private File _sourceDir;
+  private File _inheritedDir;
+  private File _targetFile;
+
+  static private final String _SOURCE_PATH = "META-INF/maven-faces-plugin";
+  static private final String _TARGET_PATH = "META-INF/maven-faces-plugin/faces-config.xml";
+}
@@ -0,0 +1,275 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import junit.framework.TestCase;
+
+public class ComponentBeanTest extends TestCase
+{
+  /**
+   * Creates a new ComponentBeanTest.
+   *
+   * @param testName  the test to execute
+   */
+  public ComponentBeanTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp()
+  {
+    FacesConfigBean facesConfig = new FacesConfigBean();
+
+    ComponentBean base = _addComponent(facesConfig, _BASE, null);
+    base.setComponentFamily("org.apache.myfaces.trinidad.Base");
+    base.setComponentClass("org.apache.myfaces.trinidad.component.UIXComponentBase");
+    base.setTagClass("org.apache.myfaces.trinidad.webapp.UIXComponentTag");
+    base.setRendererType("org.apache.myfaces.trinidad.Base");
+    _addProperty(base, "id");
+    _addProperty(base, "rendered");
+    _addFacet(base, "header");
+    _addEvent(base, "javax.faces.event.FacesEvent");
+
+    ComponentBean command = _addComponent(facesConfig, _COMMAND, _BASE);
+    command.setComponentClass("org.apache.myfaces.trinidad.component.UIXCommand");
+    _addProperty(command, "rendered");
+    _addProperty(command, "immediate");
+    _addEvent(command, "javax.faces.event.ActionEvent");
+
+    ComponentBean link = _addComponent(facesConfig, _LINK, _COMMAND);
+    link.setRendererType("org.apache.myfaces.trinidad.Link");
+    _addProperty(link, "text");
+    _addFacet(link, "icon");
+
+    _facesConfig = facesConfig;
+  }
+
+  public void tearDown()
+  {
+    _facesConfig = null;
+  }
+
+  public void testResolvedMatchesWalk()
+  {
+    List expected = _walkAll();
+    _facesConfig.performPostProcessing();
+    assertEquals(expected, _walkAll());
+  }
+
+  public void testSupertypeChange()
+  {
+    _facesConfig.performPostProcessing();
+    ComponentBean link = _facesConfig.findComponent(_LINK);
+    assertNull(link.findProperty("disabled", true));
+
+    // changing the base drops the resolved view of the subtypes
+    ComponentBean base = _facesConfig.findComponent(_BASE);
+    PropertyBean disabled = _addProperty(base, "disabled");
+    base.setComponentFamily("org.apache.myfaces.trinidad.Changed");
+    assertSame(disabled, link.findProperty("disabled", true));
+    assertEquals("org.apache.myfaces.trinidad.Changed",
+                 link.findComponentFamily());
+
+    List expected = _walkAll();
+    _facesConfig.performPostProcessing();
+    assertEquals(expected, _walkAll());
+    assertSame(disabled, link.findProperty("disabled", true));
+
+    // moving the link under the base skips the command
+    link.setComponentSupertype(_BASE);
+    assertNull(link.findProperty("immediate", true));
+    expected = _walkAll();
+    _facesConfig.performPostProcessing();
+    assertEquals(expected, _walkAll());
+  }
+
+  public void testCyclicSupertype()
+  {
+    ComponentBean base = _facesConfig.findComponent(_BASE);
+    base.setComponentSupertype(_LINK);
+
+    List warnings = new ArrayList();
+    Logger logger = Logger.getLogger(ComponentBean.class.getName());
+    Handler handler = new WarningHandler(warnings);
+    logger.addHandler(handler);
+    try
+    {
+      _facesConfig.performPostProcessing();
+    }
+    finally
+    {
+      logger.removeHandler(handler);
+    }
+
+    assertEquals(warnings.toString(), 1, warnings.size());
+    assertTrue((String)warnings.get(0),
+               ((String)warnings.get(0)).indexOf("cyclic") >= 0);
+
+    // the cycle is broken at one component, leaving a single chain
+    int roots = 0;
+    for (Iterator it = _facesConfig.components(); it.hasNext(); )
+    {
+      ComponentBean component = (ComponentBean)it.next();
+      if (component.resolveSupertype() == null)
+        roots++;
+
+      List facets = _toNames(component.facets(true));
+      for (Iterator own = component.facets(); own.hasNext(); )
+        assertTrue(facets.contains(((FacetBean)own.next()).getFacetName()));
+      assertTrue(_toList(component.properties(true)).size() <= 6);
+      assertTrue(_toList(component.events(true)).size() <= 2);
+      component.findComponentFamily();
+      component.findComponentSuperclass();
+    }
+    assertEquals(1, roots);
+  }
+
+  // the values of all the components, looked up through their accessors
+  private List _walkAll()
+  {
+    List values = new ArrayList();
+    for (Iterator it = _facesConfig.components(); it.hasNext(); )
+    {
+      ComponentBean component = (ComponentBean)it.next();
+      values.add(component.getComponentType());
+      values.add(component.resolveSupertype());
+      values.add(component.findComponentFamily());
+      values.add(component.findBehavioralComponent());
+      values.add(component.findRendererType());
+      values.add(component.getDefaultRendererType());
+      values.add(component.findComponentClass());
+      values.add(component.findJspTagClass());
+      values.add(component.findComponentSuperclass());
+      values.add(component.findJspTagSuperclass());
+      values.add(Boolean.valueOf(component.isTrinidadComponent()));
+      values.add(Boolean.valueOf(component.hasProperties(true)));
+      values.add(Boolean.valueOf(component.hasFacets(true)));
+      values.add(Boolean.valueOf(component.hasEvents(true)));
+      values.add(_toList(component.properties(true)));
+      values.add(_toList(component.facets(true)));
+      values.add(_toList(component.events(true)));
+
+      String[] names = new String[] { "id", "rendered", "immediate",
+                                      "text", "disabled", "header", "icon" };
+      for (int i=0; i < names.length; i++)
+      {
+        values.add(component.findProperty(names[i], true));
+        values.add(component.findFacet(names[i], true));
+      }
+    }
+    return values;
+  }
+
+  static private List _toList(
+    Iterator iterator)
+  {
+    List list = new ArrayList();
+    while (iterator.hasNext())
+      list.add(iterator.next());
+    return list;
+  }
+
+  static private List _toNames(
+    Iterator facets)
+  {
+    List names = new ArrayList();
+    while (facets.hasNext())
+      names.add(((FacetBean)facets.next()).getFacetName());
+    return names;
+  }
+
+  static private ComponentBean _addComponent(
+    FacesConfigBean facesConfig,
+    String          componentType,
+    String          componentSupertype)
+  {
+    ComponentBean component = new ComponentBean();
+    component.setComponentType(componentType);
+    component.setComponentSupertype(componentSupertype);
+    facesConfig.addComponent(component);
+    return component;
+  }
+
+  static private PropertyBean _addProperty(
+    ComponentBean component,
+    String        propertyName)
+  {
+    PropertyBean property = new PropertyBean();
+    property.setPropertyName(propertyName);
+    component.addProperty(property);
+    return property;
+  }
+
+  static private void _addFacet(
+    ComponentBean component,
+    String        facetName)
+  {
+    FacetBean facet = new FacetBean();
+    facet.setFacetName(facetName);
+    component.addFacet(facet);
+  }
+
+  static private void _addEvent(
+    ComponentBean component,
+    String        eventType)
+  {
+    EventRefBean event = new EventRefBean();
+    event.setEventType(eventType);
+    component.addEvent(event);
+  }
+
+  static private class WarningHandler extends Handler
+  {
+    public WarningHandler(
+      List warnings)
+    {
+      _warnings = warnings;
+    }
+
+    public void publish(
+      LogRecord record)
+    {
+      _warnings.add(record.getMessage());
+    }
+
+    public void flush()
+    {
+    }
+
+    public void close()
+    {
+    }
+
+    private final List _warnings;
+  }
+
+  private FacesConfigBean _facesConfig;
+
+  static private final String _BASE = "org.apache.myfaces.trinidad.Base";
+  static private final String _COMMAND = "org.apache.myfaces.trinidad.Command";
+  static private final String _LINK = "org.apache.myfaces.trinidad.Link";
+}
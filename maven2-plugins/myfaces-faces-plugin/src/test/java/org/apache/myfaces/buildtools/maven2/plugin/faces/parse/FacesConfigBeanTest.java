@@ -0,0 +1,230 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import junit.framework.TestCase;
+
+public class FacesConfigBeanTest extends TestCase
+{
+  /**
+   * Creates a new FacesConfigBeanTest.
+   *
+   * @param testName  the test to execute
+   */
+  public FacesConfigBeanTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp()
+  {
+    FacesConfigBean facesConfig = new FacesConfigBean();
+    _addComponent(facesConfig, "org.apache.myfaces.trinidad.Command", _AF, "command");
+    _addComponent(facesConfig, "org.apache.myfaces.trinidad.CommandBase", null, null);
+    _addComponent(facesConfig, "org.apache.myfaces.trinidad.Input", _AF, "input");
+    _addComponent(facesConfig, "org.apache.myfaces.trinidadx.Chart", _AFX, "chart");
+    _addComponent(facesConfig, "org.apache.myfaces.trinidadinternal.Frame", _AFX, "frame");
+    _addComponent(facesConfig, "javax.faces.Input", _H, "inputText");
+
+    _addConverter(facesConfig, "org.apache.myfaces.trinidad.Color", _AF, "convertColor");
+    _addConverter(facesConfig, "org.apache.myfaces.trinidad.Number", _AFX, "convertNumber");
+    _addConverter(facesConfig, "org.apache.myfaces.trinidad.Plain", null, null);
+
+    _addValidator(facesConfig, "org.apache.myfaces.trinidad.Length", _AF, "validateLength");
+    _addValidator(facesConfig, "org.apache.myfaces.trinidad.Regexp", _AF, "validateRegExp");
+    _addValidator(facesConfig, "org.apache.myfaces.trinidad.Range", _H, "validateRange");
+
+    _facesConfig = facesConfig;
+  }
+
+  public void tearDown()
+  {
+    _facesConfig = null;
+  }
+
+  public void testNamespacesWithoutPostProcessing()
+  {
+    _assertNamespaces();
+  }
+
+  public void testNamespacesAfterPostProcessing()
+  {
+    _facesConfig.performPostProcessing();
+    _assertNamespaces();
+  }
+
+  public void testNamespacesAfterClearPostProcessing()
+  {
+    _facesConfig.performPostProcessing();
+    _facesConfig.clearPostProcessing();
+    _assertNamespaces();
+  }
+
+  public void testNamespacesAfterChanges()
+  {
+    _facesConfig.performPostProcessing();
+    _assertNamespaces();
+
+    // moving tags between namespaces drops the indexes
+    _facesConfig.findComponent("org.apache.myfaces.trinidad.Input")
+                .setTagName(new QName(_AFX, "input"));
+    _facesConfig.findConverter("org.apache.myfaces.trinidad.Plain")
+                .setTagName(new QName(_H, "convertPlain"));
+    _facesConfig.findValidator("org.apache.myfaces.trinidad.Length")
+                .setTagName(null);
+    _assertNamespaces();
+
+    _facesConfig.performPostProcessing();
+    _addComponent(_facesConfig, "org.apache.myfaces.trinidad.Output", _AF, "output");
+    _assertNamespaces();
+
+    _facesConfig.performPostProcessing();
+    _assertNamespaces();
+  }
+
+  public void testTypePrefix()
+  {
+    _assertTypePrefixes();
+    _facesConfig.performPostProcessing();
+    _assertTypePrefixes();
+    _facesConfig.clearPostProcessing();
+    _assertTypePrefixes();
+  }
+
+  private void _assertNamespaces()
+  {
+    String[] namespaces = new String[] { _AF, _AFX, _H, "http://example.org/none" };
+    for (int i=0; i < namespaces.length; i++)
+    {
+      String namespaceURI = namespaces[i];
+      assertEquals(namespaceURI,
+                   _walkNamespace(_facesConfig.components(), namespaceURI),
+                   _toSet(_facesConfig.components(namespaceURI)));
+      assertEquals(namespaceURI,
+                   _walkNamespace(_facesConfig.converters(), namespaceURI),
+                   _toSet(_facesConfig.converters(namespaceURI)));
+      assertEquals(namespaceURI,
+                   _walkNamespace(_facesConfig.validators(), namespaceURI),
+                   _toSet(_facesConfig.validators(namespaceURI)));
+    }
+  }
+
+  private void _assertTypePrefixes()
+  {
+    String[] prefixes = new String[] { "org.apache.myfaces.trinidad",
+                                       "org.apache.myfaces.trinidad.",
+                                       "org.apache.myfaces.trinidad.Input",
+                                       "org.apache",
+                                       "javax",
+                                       "",
+                                       "zzz" };
+    for (int i=0; i < prefixes.length; i++)
+    {
+      String typePrefix = prefixes[i];
+      Set expected = new HashSet();
+      for (Iterator it = _facesConfig.components(); it.hasNext(); )
+      {
+        ComponentBean component = (ComponentBean)it.next();
+        if (component.getComponentType().startsWith(typePrefix))
+          expected.add(component);
+      }
+      assertEquals(typePrefix, expected,
+                   _toSet(_facesConfig.componentsByTypePrefix(typePrefix)));
+    }
+  }
+
+  // the walk the taglib goals did before the namespace indexes
+  static private Set _walkNamespace(
+    Iterator beans,
+    String   namespaceURI)
+  {
+    Set result = new HashSet();
+    while (beans.hasNext())
+    {
+      Object bean = beans.next();
+      QName tagName = (bean instanceof ComponentBean)
+                        ? ((ComponentBean)bean).getTagName()
+                        : ((AbstractTagBean)bean).getTagName();
+      if (tagName != null && namespaceURI.equals(tagName.getNamespaceURI()))
+        result.add(bean);
+    }
+    return result;
+  }
+
+  static private Set _toSet(
+    Iterator beans)
+  {
+    Set result = new HashSet();
+    while (beans.hasNext())
+      result.add(beans.next());
+    return result;
+  }
+
+  static private void _addComponent(
+    FacesConfigBean facesConfig,
+    String          componentType,
+    String          namespaceURI,
+    String          tagName)
+  {
+    ComponentBean component = new ComponentBean();
+    component.setComponentType(componentType);
+    if (tagName != null)
+      component.setTagName(new QName(namespaceURI, tagName));
+    facesConfig.addComponent(component);
+  }
+
+  static private void _addConverter(
+    FacesConfigBean facesConfig,
+    String          converterId,
+    String          namespaceURI,
+    String          tagName)
+  {
+    ConverterBean converter = new ConverterBean();
+    converter.setConverterId(converterId);
+    if (tagName != null)
+      converter.setTagName(new QName(namespaceURI, tagName));
+    facesConfig.addConverter(converter);
+  }
+
+  static private void _addValidator(
+    FacesConfigBean facesConfig,
+    String          validatorId,
+    String          namespaceURI,
+    String          tagName)
+  {
+    ValidatorBean validator = new ValidatorBean();
+    validator.setValidatorId(validatorId);
+    if (tagName != null)
+      validator.setTagName(new QName(namespaceURI, tagName));
+    facesConfig.addValidator(validator);
+  }
+
+  private FacesConfigBean _facesConfig;
+
+  static private final String _AF = "http://myfaces.apache.org/trinidad";
+  static private final String _AFX = "http://myfaces.apache.org/trinidad/extra";
+  static private final String _H = "http://java.sun.com/jsf/html";
+}
@@ -0,0 +1,286 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.parse;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.codehaus.plexus.util.FileUtils;
+
+public class FacesConfigCacheTest extends TestCase
+{
+  /**
+   * Creates a new FacesConfigCacheTest.
+   *
+   * @param testName  the test to execute
+   */
+  public FacesConfigCacheTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp() throws IOException
+  {
+    File directory = new File("target/faces-config-cache-test/" + getName());
+    FileUtils.deleteDirectory(directory);
+    directory.mkdirs();
+
+    _componentFile = new File(directory, "Component.xml");
+    _includedFile = new File(directory, "Included.xml");
+    _cacheFile = new File(directory, "faces-config.cache");
+    _writeComponent("org.example.Cached");
+    _writeIncluded("included");
+
+    FacesConfigCache.clear();
+  }
+
+  public void tearDown()
+  {
+    FacesConfigCache.clear();
+    _componentFile = null;
+    _includedFile = null;
+    _cacheFile = null;
+  }
+
+  public void testSeparateCopies() throws Exception
+  {
+    FacesConfigCache cache = new FacesConfigCache(null);
+    URL[] index = _getIndex();
+    String key = cache.getKey(index);
+    FacesConfigBean facesConfig = _parse(index);
+    cache.put(key, facesConfig);
+
+    // the cached copy does not see later changes
+    _addComponent(facesConfig, "org.example.Added");
+
+    FacesConfigBean first = cache.get(key);
+    FacesConfigBean second = cache.get(key);
+    assertNotNull(first);
+    assertNotNull(second);
+    assertNotSame(first, second);
+    assertNotSame(facesConfig, first);
+    assertNull(first.findComponent("org.example.Added"));
+
+    _addComponent(first, "org.example.Other");
+    assertNull(second.findComponent("org.example.Other"));
+
+    ComponentBean component = second.findComponent("org.example.Cached");
+    assertNotNull(component);
+    assertNotNull(component.findProperty("included"));
+    assertNotSame(component, first.findComponent("org.example.Cached"));
+  }
+
+  public void testIndexEntryChangesKey() throws Exception
+  {
+    FacesConfigCache cache = new FacesConfigCache(null);
+    URL[] index = _getIndex();
+    String key = cache.getKey(index);
+    assertEquals(key, cache.getKey(index));
+
+    _writeComponent("org.example.Changed");
+    String changedKey = cache.getKey(index);
+    assertFalse(key.equals(changedKey));
+
+    cache.put(key, _parse(index));
+    assertNull(cache.get(changedKey));
+  }
+
+  public void testIncludedResourceChanged() throws Exception
+  {
+    FacesConfigCache cache = new FacesConfigCache(null);
+    URL[] index = _getIndex();
+    String key = cache.getKey(index);
+    FacesConfigBean facesConfig = _parse(index);
+    assertEquals(1, facesConfig.getIncludedResources().size());
+    cache.put(key, facesConfig);
+    assertNotNull(cache.get(key));
+
+    // the index entry is unchanged, so only the included digest tells
+    _writeIncluded("changed");
+    assertEquals(key, cache.getKey(index));
+    assertNull(cache.get(key));
+  }
+
+  public void testCacheFile() throws Exception
+  {
+    URL[] index = _getIndex();
+    FacesConfigCache cache = new FacesConfigCache(_cacheFile);
+    String key = cache.getKey(index);
+    cache.put(key, _parse(index));
+    assertTrue(_cacheFile.isFile());
+
+    // the next build only has the cache file
+    FacesConfigCache.clear();
+    assertNull(new FacesConfigCache(null).get(key));
+
+    FacesConfigBean facesConfig = new FacesConfigCache(_cacheFile).get(key);
+    assertNotNull(facesConfig);
+    ComponentBean component = facesConfig.findComponent("org.example.Cached");
+    assertNotNull(component);
+    assertNotNull(component.findProperty("included"));
+
+    // an included resource changed since the cache file was written
+    FacesConfigCache.clear();
+    _writeIncluded("changed");
+    assertNull(new FacesConfigCache(_cacheFile).get(key));
+  }
+
+  public void testCorruptCacheFile() throws Exception
+  {
+    URL[] index = _getIndex();
+    FacesConfigCache cache = new FacesConfigCache(_cacheFile);
+    String key = cache.getKey(index);
+
+    FileUtils.fileWrite(_cacheFile.getPath(), "not a cache file");
+    assertNull(cache.get(key));
+
+    // a truncated cache file
+    cache.put(key, _parse(index));
+    FacesConfigCache.clear();
+    RandomAccessFile file = new RandomAccessFile(_cacheFile, "rw");
+    try
+    {
+      file.setLength(file.length() / 2);
+    }
+    finally
+    {
+      file.close();
+    }
+    assertNull(cache.get(key));
+
+    // serialized beans that cannot be read
+    cache.put(key, _parse(index));
+    FacesConfigCache.clear();
+    file = new RandomAccessFile(_cacheFile, "rw");
+    try
+    {
+      long length = file.length();
+      file.seek(length - 64);
+      file.write(new byte[64]);
+    }
+    finally
+    {
+      file.close();
+    }
+    assertNull(cache.get(key));
+
+    // the faces config is parsed again and replaces the cache file
+    cache.put(key, _parse(index));
+    FacesConfigCache.clear();
+    assertNotNull(cache.get(key));
+  }
+
+  public void testOldCacheFile() throws Exception
+  {
+    URL[] index = _getIndex();
+    FacesConfigCache cache = new FacesConfigCache(_cacheFile);
+    String key = cache.getKey(index);
+
+    DataOutputStream out = new DataOutputStream(new FileOutputStream(_cacheFile));
+    try
+    {
+      out.writeInt(0x46434643);
+      out.writeInt(0);
+      out.writeUTF(key);
+      out.writeInt(0);
+      out.writeInt(0);
+    }
+    finally
+    {
+      out.close();
+    }
+    assertNull(cache.get(key));
+  }
+
+  private URL[] _getIndex() throws IOException
+  {
+    return new URL[] { _componentFile.toURL() };
+  }
+
+  static private FacesConfigBean _parse(
+    URL[] index) throws MojoExecutionException
+  {
+    FacesConfigBean facesConfig = new FacesConfigBean();
+    for (int i=0; i < index.length; i++)
+    {
+      URL old = facesConfig.setCurrentResource(index[i]);
+      try
+      {
+        new FacesConfigParser().merge(facesConfig, index[i]);
+      }
+      finally
+      {
+        facesConfig.setCurrentResource(old);
+      }
+    }
+    return facesConfig;
+  }
+
+  static private void _addComponent(
+    FacesConfigBean facesConfig,
+    String          componentType)
+  {
+    ComponentBean component = new ComponentBean();
+    component.setComponentType(componentType);
+    facesConfig.addComponent(component);
+  }
+
+  private void _writeComponent(
+    String componentType) throws IOException
+  {
+    FileUtils.fileWrite(_componentFile.getPath(),
+      "<?xml version=\"1.0\"?>\n" +
+      "<faces-config xmlns=\"http://java.sun.com/xml/ns/javaee\"\n" +
+      "              xmlns:xi=\"http://www.w3.org/2001/XInclude\">\n" +
+      "  <component>\n" +
+      "    <component-type>" + componentType + "</component-type>\n" +
+      "    <component-class>org.example.UICached</component-class>\n" +
+      "    <xi:include href=\"" + _includedFile.getName() + "\"\n" +
+      "                xpointer=\"/faces-config/component/*\"/>\n" +
+      "  </component>\n" +
+      "</faces-config>\n");
+  }
+
+  private void _writeIncluded(
+    String propertyName) throws IOException
+  {
+    FileUtils.fileWrite(_includedFile.getPath(),
+      "<?xml version=\"1.0\"?>\n" +
+      "<faces-config xmlns=\"http://java.sun.com/xml/ns/javaee\">\n" +
+      "  <component>\n" +
+      "    <property>\n" +
+      "      <property-name>" + propertyName + "</property-name>\n" +
+      "      <property-class>java.lang.String</property-class>\n" +
+      "    </property>\n" +
+      "  </component>\n" +
+      "</faces-config>\n");
+  }
+
+  private File _componentFile;
+  private File _includedFile;
+  private File _cacheFile;
+}
@@ -0,0 +1,168 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+public class FileStatCacheTest extends TestCase
+{
+  /**
+   * Creates a new FileStatCacheTest.
+   *
+   * @param testName  the test to execute
+   */
+  public FileStatCacheTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp() throws IOException
+  {
+    File directory = new File("target/file-stat-cache-test/" + getName());
+    FileUtils.deleteDirectory(directory);
+    directory.mkdirs();
+    _directory = directory;
+  }
+
+  public void tearDown()
+  {
+    _directory = null;
+  }
+
+  public void testWalkedDirectory() throws IOException
+  {
+    File file = _writeFile("sub/Walked.java", _TIME);
+
+    FileStatCache stats = new FileStatCache();
+    stats.addDirectory(_directory);
+    assertEquals(_TIME, stats.lastModified(file));
+    assertEquals(_TIME, stats.lastModified(file.toURL()));
+
+    // a file the walk did not find does not exist
+    File missing = new File(_directory, "sub/Missing.java");
+    assertEquals(0L, stats.lastModified(missing));
+    _writeFile("sub/Missing.java", _TIME);
+    assertEquals(0L, stats.lastModified(missing));
+
+    // a file outside the directories is asked for once
+    File outside = new File(_directory.getParentFile(), getName() + ".txt");
+    FileUtils.fileWrite(outside.getPath(), "outside");
+    assertTrue(outside.setLastModified(_TIME));
+    assertEquals(_TIME, stats.lastModified(outside));
+    assertTrue(outside.setLastModified(_TIME + 2000L));
+    assertEquals(_TIME, stats.lastModified(outside));
+    outside.delete();
+  }
+
+  public void testAddDirectoryTwice() throws IOException
+  {
+    File file = _writeFile("Walked.java", _TIME);
+
+    FileStatCache stats = new FileStatCache();
+    stats.addDirectory(_directory);
+    assertEquals(_TIME, stats.lastModified(file));
+
+    // adding the directory again keeps the walk already done
+    assertTrue(file.setLastModified(_TIME + 2000L));
+    File added = _writeFile("Added.java", _TIME);
+    stats.addDirectory(_directory);
+    stats.addDirectory(new File(_directory.getPath()));
+    assertEquals(_TIME, stats.lastModified(file));
+    assertEquals(0L, stats.lastModified(added));
+  }
+
+  public void testJarEntry() throws IOException
+  {
+    File jarFile = new File(_directory, "test.jar");
+    JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile));
+    try
+    {
+      out.putNextEntry(new ZipEntry("META-INF/faces-config.xml"));
+      out.write("<faces-config/>".getBytes("UTF-8"));
+      out.closeEntry();
+    }
+    finally
+    {
+      out.close();
+    }
+    assertTrue(jarFile.setLastModified(_TIME));
+
+    FileStatCache stats = new FileStatCache();
+    URL entry = new URL("jar:" + jarFile.toURL() + "!/META-INF/faces-config.xml");
+    assertEquals(_TIME, stats.lastModified(entry));
+    assertEquals(_TIME, stats.lastModified(jarFile));
+  }
+
+  public void testOtherURL() throws IOException
+  {
+    final int[] connections = new int[1];
+    URLStreamHandler handler = new URLStreamHandler()
+    {
+      protected URLConnection openConnection(
+        URL url)
+      {
+        connections[0]++;
+        return new URLConnection(url)
+        {
+          public void connect()
+          {
+          }
+
+          public long getLastModified()
+          {
+            return _TIME;
+          }
+        };
+      }
+    };
+    URL url = new URL(null, "test://example.org/faces-config.xml", handler);
+
+    FileStatCache stats = new FileStatCache();
+    assertEquals(_TIME, stats.lastModified(url));
+    assertEquals(_TIME, stats.lastModified(url));
+    assertEquals(1, connections[0]);
+  }
+
+  private File _writeFile(
+    String path,
+    long   lastModified) throws IOException
+  {
+    File file = new File(_directory, path);
+    file.getParentFile().mkdirs();
+    FileUtils.fileWrite(file.getPath(), path);
+    assertTrue(file.setLastModified(lastModified));
+    return file;
+  }
+
+  private File _directory;
+
+  static private final long _TIME = 1200000000000L;
+}
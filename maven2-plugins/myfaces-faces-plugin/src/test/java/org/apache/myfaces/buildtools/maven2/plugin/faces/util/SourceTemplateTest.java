@@ -0,0 +1,171 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+public class SourceTemplateTest extends TestCase
+{
+  /**
+   * Creates a new SourceTemplateTest.
+   *
+   * @param testName  the test to execute
+   */
+  public SourceTemplateTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp()
+  {
+    File directory = new File("target/source-template-test");
+    directory.mkdirs();
+    _templateFile = new File(directory, getName() + "Template.java");
+  }
+
+  public void tearDown()
+  {
+    _templateFile.delete();
+    _templateFile = null;
+  }
+
+  public void testSingleKey() throws IOException
+  {
+    String content = "  UIXCommandTemplate() {}\n" +
+                     "  UIXCommandTemplate t = new UIXCommandTemplate\n" +
+                     "UIXCommandTemplate\n" +
+                     "  UIXCommandTemplat\n";
+    String expected = "  UIXCommand() {}\n" +
+                      "  UIXCommand t = new UIXCommand\n" +
+                      "UIXCommand\n" +
+                      "  UIXCommandTemplat\n";
+    assertEquals(expected,
+                 _writeContent(content, new String[] { "UIXCommandTemplate",
+                                                       "UIXCommand" }));
+  }
+
+  public void testPrefixSharingKeys() throws IOException
+  {
+    String[] substitutions = new String[] { "Foo",    "A",
+                                            "FooBar", "B",
+                                            "Fo",     "C" };
+
+    // the longest key wins at each position
+    assertEquals("BA A ABa C\n",
+                 _writeContent("FooBarFoo Foo FooBa Fo\n", substitutions));
+  }
+
+  public void testOverlappingKeys() throws IOException
+  {
+    String[] substitutions = new String[] { "abc", "1",
+                                            "bcd", "2" };
+
+    // the leftmost key wins, and the rest is searched after it
+    assertEquals("1d x2 12\n",
+                 _writeContent("abcd xbcd abcbcd\n", substitutions));
+  }
+
+  public void testReplacementNotSearched() throws IOException
+  {
+    String[] substitutions = new String[] { "X", "Y",
+                                            "Y", "ZX" };
+    assertEquals("YZX ZXY\n",
+                 _writeContent("XY YX\n", substitutions));
+  }
+
+  public void testKeyAtEndOfLine() throws IOException
+  {
+    String[] substitutions = new String[] { "Foo",    "A",
+                                            "FooBar", "B" };
+    assertEquals("x A\n" +
+                 "x B\n" +
+                 "x ABa\n" +
+                 "x Fo\n" +
+                 "A\n",
+                 _writeContent("x Foo\r\n" +
+                               "x FooBar\r" +
+                               "x FooBa\n" +
+                               "x Fo\n" +
+                               "Foo\n", substitutions));
+  }
+
+  public void testIgnoredLines() throws IOException
+  {
+    SourceTemplate template = _createTemplate("  /**/ Foo\n" +
+                                              "  /**/// getFoo\n" +
+                                              "  Foo\n");
+    template.substitute("Foo", "Bar");
+    assertEquals("  Bar\n", _writeContent(template));
+    assertEquals(1, template.getIgnoreMethods().size());
+    assertTrue(template.getIgnoreMethods().contains("getFoo"));
+  }
+
+  private String _writeContent(
+    String   content,
+    String[] substitutions) throws IOException
+  {
+    SourceTemplate template = _createTemplate(content);
+    for (int i=0; i < substitutions.length; i += 2)
+      template.substitute(substitutions[i], substitutions[i + 1]);
+    return _writeContent(template);
+  }
+
+  private String _writeContent(
+    SourceTemplate template) throws IOException
+  {
+    StringWriter out = new StringWriter();
+    template.readPreface();
+    try
+    {
+      template.writeContent(out);
+    }
+    finally
+    {
+      template.close();
+    }
+    return out.toString();
+  }
+
+  private SourceTemplate _createTemplate(
+    String content) throws IOException
+  {
+    FileWriter out = new FileWriter(_templateFile);
+    try
+    {
+      out.write("package org.example;\n");
+      out.write("public class Template\n");
+      out.write("{\n");
+      out.write(content);
+      out.write("}\n");
+    }
+    finally
+    {
+      out.close();
+    }
+    return new SourceTemplate(_templateFile);
+  }
+
+  private File _templateFile;
+}
@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.faces.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class XIncludeFilterTest extends TestCase
+{
+  /**
+   * Creates a new XIncludeFilterTest.
+   *
+   * @param testName  the test to execute
+   */
+  public XIncludeFilterTest(
+    String testName)
+  {
+    super(testName);
+  }
+
+  public void setUp() throws IOException
+  {
+    File directory = new File("target/xinclude-test");
+    directory.mkdirs();
+
+    // the fragments are cached across tests by URL
+    File fragmentFile = new File(directory, getName() + ".xml");
+    fragmentFile.delete();
+    _writeFragment(fragmentFile, "<a><x/></a><b><y/></b>");
+
+    _fragmentFile = fragmentFile;
+    _parsed = 0;
+  }
+
+  public void tearDown()
+  {
+    _fragmentFile.delete();
+    _fragmentFile = null;
+  }
+
+  public void testRepeatedInclude() throws IOException, SAXException
+  {
+    List first = _include("/root/*");
+    assertEquals("[a, a.x, b, b.y]", first.toString());
+    assertEquals(1, _parsed);
+
+    // the second include replays the events parsed by the first one
+    assertEquals(first, _include("/root/*"));
+    assertEquals(1, _parsed);
+  }
+
+  public void testModifiedInclude() throws IOException, SAXException
+  {
+    assertEquals("[x]", _include("/root/a/*").toString());
+    assertEquals(1, _parsed);
+
+    long lastModified = _fragmentFile.lastModified();
+    _writeFragment(_fragmentFile, "<a><z/><zz/></a>");
+    _fragmentFile.setLastModified(lastModified + 2000);
+
+    assertEquals("[z, zz]", _include("/root/a/*").toString());
+    assertEquals(2, _parsed);
+  }
+
+  public void testXPointers() throws IOException, SAXException
+  {
+    assertEquals("[x]", _include("/root/a/*").toString());
+    assertEquals("[y]", _include("/root/b/*").toString());
+    assertEquals("[a, a.x, b, b.y]",
+                 _include("/root/*").toString());
+
+    // all from one parse of the document
+    assertEquals(1, _parsed);
+  }
+
+  /**
+   * Includes the fragment document, returning the included elements,
+   * below the top level as parent.child pairs.
+   */
+  private List _include(
+    String xpointer) throws IOException, SAXException
+  {
+    final List elements = new ArrayList();
+    XIncludeFilter filter = new XIncludeFilter(null, _fragmentFile.toURL());
+    filter.setContentHandler(new DefaultHandler()
+    {
+      public void startElement(
+        String     namespaceURI,
+        String     localName,
+        String     qualifiedName,
+        Attributes attributes)
+      {
+        if (_parents.isEmpty())
+          elements.add(localName);
+        else
+          elements.add(_parents.get(_parents.size() - 1) + "." + localName);
+        _parents.add(localName);
+      }
+
+      public void endElement(
+        String namespaceURI,
+        String localName,
+        String qualifiedName)
+      {
+        _parents.remove(_parents.size() - 1);
+      }
+
+      private final List _parents = new ArrayList();
+    });
+
+    // the document type is resolved each time the document is parsed
+    filter.setEntityResolver(new EntityResolver()
+    {
+      public InputSource resolveEntity(
+        String publicId,
+        String systemId)
+      {
+        _parsed++;
+        return new InputSource(new ByteArrayInputStream(new byte[0]));
+      }
+    });
+
+    filter.include(_fragmentFile.getName(), xpointer);
+    return elements;
+  }
+
+  static private void _writeFragment(
+    File   file,
+    String content) throws IOException
+  {
+    FileWriter out = new FileWriter(file);
+    try
+    {
+      out.write("<?xml version=\"1.0\"?>\n");
+      out.write("<!DOCTYPE root SYSTEM \"fragment.dtd\">\n");
+      out.write("<root>" + content + "</root>\n");
+    }
+    finally
+    {
+      out.close();
+    }
+  }
+
+  private File _fragmentFile;
+  private int  _parsed;
+}
@@ -68,14 +68,11 @@ public class ObfuscateJavascriptMojo
 
       targetDirectory.mkdirs();
 
-      for (File sourceRoot: sourceDirectory)
-      {
-//        File sourceDirectory = new File(sourceRoot, sourcePath);
-        if (sourceRoot.exists())
-        {
-          _obfuscator.process(sourceRoot, targetDirectory);
-        }
-      }
+      // the scripts of all the source roots share one pool of threads
+      int threads = (obfuscateThreads > 0)
+                      ? obfuscateThreads
+                      : Runtime.getRuntime().availableProcessors();
+      _obfuscator.process(sourceDirectory, targetDirectory, threads);
     }
     catch (ConfigException e)
     {
@@ -140,5 +137,14 @@ public class ObfuscateJavascriptMojo
    * @required
    */
   private ObfuscatorConfig obfuscatorConfig;
+
+  /**
+   * The number of scripts to obfuscate at the same time. Zero or less
+   * uses one thread per available processor, 1 obfuscates the scripts one
+   * after the other.
+   *
+   * @parameter expression="${obfuscate.threads}" default-value="0"
+   */
+  private int obfuscateThreads;
 }
 
@@ -84,18 +84,25 @@ public class ReduceJavascriptMojo extends AbstractMojo
       {
         File outputDirectory = new File(targetDirectory, optimizeTargetPath);
         outputDirectory.mkdirs();
+        List sourceDirectories = new ArrayList();
         for (Iterator i = compileSourceRoots.iterator(); i.hasNext(); )
         {
           File sourceRoot = (File)i.next();
           File sourceDirectory = new File(sourceRoot, sourcePath);
           if (sourceDirectory.exists())
           {
-            String[] args = { sourceDirectory.getCanonicalPath(),
-                              outputDirectory.getCanonicalPath() };
-            // TODO: incremental check
-            Reducer.main(args);
+            sourceDirectories.add(sourceDirectory.getCanonicalFile());
           }
         }
+
+        // the scripts of all the source roots share one pool of threads
+        int threads = (reduceThreads > 0)
+                        ? reduceThreads
+                        : Runtime.getRuntime().availableProcessors();
+        // TODO: incremental check
+        Reducer reducer = new Reducer();
+        reducer.process((File[])sourceDirectories.toArray(new File[0]),
+                        outputDirectory.getCanonicalFile(), threads);
       }
     }
     catch (IOException e)
@@ -162,4 +169,13 @@ public class ReduceJavascriptMojo extends AbstractMojo
    */
   private String optimizeTargetPath;
 
+  /**
+   * The number of scripts to reduce at the same time. Zero or less uses one
+   * thread per available processor, 1 reduces the scripts one after the
+   * other.
+   *
+   * @parameter expression="${reduce.threads}" default-value="0"
+   */
+  private int reduceThreads;
+
 }
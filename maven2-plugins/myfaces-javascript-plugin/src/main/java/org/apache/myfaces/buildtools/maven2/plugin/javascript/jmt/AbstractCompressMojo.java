@@ -20,14 +20,26 @@ package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.NumberFormat;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang.StringUtils;
 import org.apache.maven.artifact.Artifact;
@@ -45,6 +57,8 @@ import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.Isola
 import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSCompressor;
 import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSCompressorProxy;
 import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSMinCompressor;
+import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSStreamCompressor;
+import org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.YahooUICompressor;
 import org.codehaus.plexus.util.DirectoryScanner;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
@@ -101,6 +115,8 @@ public abstract class AbstractCompressMojo
 
     private static final String HR = StringUtils.rightPad( "", 78, "-" );
 
+    private static final String LINE_SEPARATOR = System.getProperty( "line.separator" );
+
     /**
      * The maven project we are working on.
      * 
@@ -111,12 +127,9 @@ public abstract class AbstractCompressMojo
     MavenProject project;
 
     /**
-     * The available compressors
+     * The built-in compressor
      */
-    private Map compressors = new HashMap();
-    {
-        compressors.put( "jsmin", new JSMinCompressor() );
-    }
+    private static final String JSMIN = "jsmin";
 
     /**
      * Optimization level, from 0 to 9
@@ -171,6 +184,32 @@ public abstract class AbstractCompressMojo
      */
     private String strip;
 
+    /**
+     * Encoding of the scripts. Defaults to the platform encoding.
+     * 
+     * @parameter expression="${project.build.sourceEncoding}"
+     */
+    private String encoding;
+
+    /**
+     * Number of scripts to compress at the same time, each thread using its
+     * own compressor. Zero or less uses one thread per available processor.
+     * Compressors that are not thread safe, such as shrinksafe, always
+     * compress one script at a time.
+     * 
+     * @parameter expression="${jmt.compressThreads}" default-value="0"
+     */
+    private int compressThreads;
+
+    /**
+     * File recording the scripts compressed by the previous builds. A script
+     * is not compressed again while its content and the compression settings
+     * are unchanged and its compressed file is still there.
+     * 
+     * @parameter default-value="${project.build.directory}/jmt/compress.state"
+     */
+    private File buildStateFile;
+
     /**
      * {@inheritDoc}
      * 
@@ -192,7 +231,7 @@ public abstract class AbstractCompressMojo
             scanner.setExcludes( excludes );
         }
         scanner.scan();
-        String[] files = scanner.getIncludedFiles();
+        String[] files = getSources( scanner.getIncludedFiles() );
 
         // if ( !Context.isValidOptimizationLevel( optimizationLevel ) )
         // {
@@ -203,61 +242,176 @@ public abstract class AbstractCompressMojo
         // throw new MojoExecutionException( "languageVersion is invalid" );
         // }
 
-        JSCompressor jscompressor = getCompressor();
+        Class compressorClass = getCompressorClass();
+        Properties buildState = loadBuildState();
 
         logStats( HR );
         getOutputDirectory().mkdirs();
-        long saved = 0;
+        Compression[] compressions = new Compression[files.length];
         for ( int i = 0; i < files.length; i++ )
         {
-            String file = files[i];
-            saved = compress( jscompressor, file );
+            compressions[i] = new Compression( files[i] );
+        }
+        compress( compressions, compressorClass, buildState );
+
+        // log in the order of the scripts, whatever thread compressed them
+        long saved = 0;
+        int upToDate = 0;
+        for ( int i = 0; i < compressions.length; i++ )
+        {
+            Compression compression = compressions[i];
+            if ( compression.upToDate )
+            {
+                upToDate++;
+                continue;
+            }
+            if ( compression.sourceLength == 0 )
+            {
+                getLog().info( compression.in.getName() + " was zero length; not compressed." );
+            }
+            else
+            {
+                String describe =
+                    compression.in.getName() + " (" + INTEGER.format( compression.sourceLength )
+                        + " bytes) ";
+                String title = StringUtils.rightPad( describe, 60, "." );
+                logStats( title + " compressed at " + compression.ratio() + "%" );
+            }
+            saved += compression.saved();
+            buildState.setProperty( compression.compressed.getAbsolutePath(), compression.state );
         }
         logStats( HR );
+        if ( upToDate > 0 )
+        {
+            logStats( INTEGER.format( upToDate ) + " scripts up to date" );
+        }
         logStats( "compression saved " + INTEGER.format( saved ) + " bytes" );
+        saveBuildState( buildState );
     }
 
-    private File stripDebugs( File file )
-        throws MojoExecutionException
+    /**
+     * Scripts compressed next to their source by a previous build are not
+     * sources: compressing them again would add a new script on every build.
+     * 
+     * @return the scripts to compress
+     */
+    private String[] getSources( String[] files )
     {
-        if ( strip == null )
+        if ( getExtension() == null || !getOutputDirectory().equals( getSourceDirectory() ) )
         {
-            return file;
+            return files;
         }
-        try
+        String suffix = "-" + getExtension();
+        List sources = new ArrayList( files.length );
+        for ( int i = 0; i < files.length; i++ )
         {
+            String file = files[i];
+            int ext = file.lastIndexOf( '.' );
+            if ( !file.substring( 0, ext ).endsWith( suffix ) )
+            {
+                sources.add( file );
+            }
+        }
+        return (String[]) sources.toArray( new String[sources.size()] );
+    }
 
-            File stripped = File.createTempFile( "stripped", ".js" );
+    /**
+     * Compresses the scripts on a pool of threads.
+     */
+    private void compress( Compression[] compressions, Class compressorClass,
+                           Properties buildState )
+        throws MojoExecutionException
+    {
+        int threads = compressThreads > 0 ? compressThreads : Runtime.getRuntime().availableProcessors();
+        threads = Math.min( threads, compressions.length );
+        if ( !isThreadSafe( compressorClass ) )
+        {
+            threads = 1;
+        }
+        AtomicInteger next = new AtomicInteger();
+        if ( threads <= 1 )
+        {
+            new Worker( compressions, next, compressorClass, buildState ).call();
+            return;
+        }
 
-            BufferedReader reader = new BufferedReader( new FileReader( file ) );
-            PrintWriter writer = new PrintWriter( stripped );
-            String line;
-            while ( ( line = reader.readLine() ) != null )
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        Throwable failure = null;
+        try
+        {
+            List futures = new ArrayList( threads );
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( new Worker( compressions, next, compressorClass,
+                    buildState ) ) );
+            }
+            for ( int i = 0; i < futures.size(); i++ )
             {
-                if ( !line.trim().startsWith( strip ) )
+                try
                 {
-                    writer.println( line );
+                    ( (Future) futures.get( i ) ).get();
+                }
+                catch ( ExecutionException e )
+                {
+                    // let the other threads finish their script, but not start a new one
+                    next.set( compressions.length );
+                    if ( failure == null )
+                    {
+                        failure = e.getCause();
+                    }
                 }
             }
-            IOUtil.close( reader );
-            IOUtil.close( writer );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while compressing JavaScript", e );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
 
-            FileUtils.copyFile( stripped, file );
-            stripped.delete();
+        if ( failure instanceof MojoExecutionException )
+        {
+            throw (MojoExecutionException) failure;
         }
-        catch ( IOException e )
+        if ( failure != null )
         {
-            throw new MojoExecutionException( "Failed to strip debug code in " + file, e );
+            throw new MojoExecutionException( "Failed to compress JavaScript", failure );
         }
-        return file;
     }
 
-    private JSCompressor getCompressor()
+    private String stripDebugs( String script )
+        throws IOException
+    {
+        if ( strip == null )
+        {
+            return script;
+        }
+        StringBuffer stripped = new StringBuffer( script.length() );
+        BufferedReader reader = new BufferedReader( new StringReader( script ) );
+        String line;
+        while ( ( line = reader.readLine() ) != null )
+        {
+            if ( !line.trim().startsWith( strip ) )
+            {
+                stripped.append( line ).append( LINE_SEPARATOR );
+            }
+        }
+        return stripped.toString();
+    }
+
+    /**
+     * @return the class of the compressor to use, or null for the built-in
+     * JSMin compressor
+     */
+    private Class getCompressorClass()
         throws MojoExecutionException
     {
-        if ( compressors.containsKey( compressor ) )
+        if ( JSMIN.equals( compressor ) )
         {
-            return (JSCompressor) compressors.get( compressor );
+            return null;
         }
 
         // Inspired by the surefire plugin
@@ -308,101 +462,209 @@ public abstract class AbstractCompressMojo
             throw new MojoExecutionException( "Failed to load compressor class"
                 + compressorClassName, e );
         }
+        getLog().info( "Compressing JavaScript using " + compressor );
+        return compressorClass;
+    }
 
-        JSCompressor jscompressor;
+    /**
+     * Separate instances of a thread safe compressor can compress scripts at
+     * the same time. Shrinksafe cannot: it replaces System.out while it runs
+     * and keeps its output file in the static state of the Rhino shell.
+     * Compressors that are not known to be thread safe are treated the same.
+     * 
+     * @return true if the compressor class is thread safe
+     */
+    private boolean isThreadSafe( Class compressorClass )
+    {
+        return compressorClass == null || compressorClass == YahooUICompressor.class;
+    }
+
+    /**
+     * Compressors keep the state of the script they compress, so every
+     * thread creates its own.
+     */
+    private JSCompressor createCompressor( Class compressorClass )
+        throws MojoExecutionException
+    {
+        if ( compressorClass == null )
+        {
+            return new JSMinCompressor();
+        }
         try
         {
-            jscompressor = new JSCompressorProxy( compressorClass.newInstance() );
+            Object instance = compressorClass.newInstance();
+            if ( instance instanceof JSCompressor )
+            {
+                return (JSCompressor) instance;
+            }
+            // only a compressor from an isolated classloader needs the proxy
+            return new JSCompressorProxy( instance );
         }
         catch ( Exception e )
         {
-            getLog().info(
-                "Failed to create a isolated-classloader proxy for " + compressorClassName );
-            throw new MojoExecutionException( "Failed to create a isolated-classloader proxy for "
-                + compressorClassName, e );
+            getLog().info( "Failed to create compressor " + compressorClass.getName() );
+            throw new MojoExecutionException( "Failed to create compressor "
+                + compressorClass.getName(), e );
         }
-        getLog().info( "Compressing JavaScript using " + compressor );
+    }
 
-        compressors.put( compressor, jscompressor );
-        return jscompressor;
+    private Properties loadBuildState()
+    {
+        Properties buildState = new Properties();
+        if ( buildStateFile == null || !buildStateFile.isFile() )
+        {
+            return buildState;
+        }
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( buildStateFile );
+            buildState.load( in );
+        }
+        catch ( IOException e )
+        {
+            // compress everything again
+            getLog().debug( "Failed to read build state " + buildStateFile, e );
+            buildState.clear();
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        return buildState;
     }
 
-    private long compress( JSCompressor jscompressor, String file )
+    private void saveBuildState( Properties buildState )
         throws MojoExecutionException
     {
-        String name = file;
-        if ( getExtension() != null )
+        if ( buildStateFile == null )
         {
-            int ext = file.lastIndexOf( '.' );
-            name = file.substring( 0, ext ) + "-" + getExtension() + file.substring( ext );
+            return;
         }
-        File compressed = new File( getOutputDirectory(), name );
-        compressed.getParentFile().mkdirs();
-        File in = new File( getSourceDirectory(), file );
-        if ( in.equals( compressed ) )
+        buildStateFile.getParentFile().mkdirs();
+        OutputStream out = null;
+        try
         {
-            try
-            {
-                File temp = File.createTempFile( "compress", ".js" );
-                long size = compress( in, temp, jscompressor );
-                FileUtils.copyFile( temp, compressed );
-                temp.delete();
-                return size;
-            }
-            catch ( IOException e )
+            out = new FileOutputStream( buildStateFile );
+            buildState.store( out, "JavaScript compression build state" );
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Failed to write build state " + buildStateFile, e );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * @return the state a compressed script is recorded with: a digest of
+     * its source and of the compression settings, and the length of the
+     * compressed script
+     */
+    private String getState( File in, File compressed )
+        throws MojoExecutionException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new MojoExecutionException( "MD5 is not available", e );
+        }
+        InputStream stream = null;
+        try
+        {
+            String settings = compressor + "," + optimizationLevel + "," + languageVersion + "," + strip;
+            digest.update( settings.getBytes( "UTF-8" ) );
+            stream = new FileInputStream( in );
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = stream.read( buffer ) ) > 0 )
             {
-                throw new MojoExecutionException( "Error creating temp file for compression", e );
+                digest.update( buffer, 0, read );
             }
         }
-        else
+        catch ( IOException e )
         {
-            return compress( in, compressed, jscompressor );
+            throw new MojoExecutionException( "Failed to read JavaScript file " + in, e );
         }
+        finally
+        {
+            IOUtil.close( stream );
+        }
+
+        byte[] bytes = digest.digest();
+        StringBuffer state = new StringBuffer( bytes.length * 2 + 12 );
+        for ( int i = 0; i < bytes.length; i++ )
+        {
+            state.append( Character.forDigit( ( bytes[i] >> 4 ) & 0xf, 16 ) );
+            state.append( Character.forDigit( bytes[i] & 0xf, 16 ) );
+        }
+        state.append( ',' ).append( compressed.length() );
+        return state.toString();
     }
 
-    private long compress( File in, File compressed, JSCompressor jscompressor )
+    /**
+     * Reads the script, strips its debug code and compresses it in memory,
+     * then writes the compressed script once. The source is left unchanged,
+     * unless it is replaced by the compressed script.
+     */
+    private void compress( JSCompressor jscompressor, Compression compression )
         throws MojoExecutionException
     {
-        if ( in.length() > 0 )
+        File in = compression.in;
+        File compressed = compression.compressed;
+        compressed.getParentFile().mkdirs();
+        compression.sourceLength = in.length();
+        try
         {
-            File stripped = stripDebugs( in );
-            try
+            if ( compression.sourceLength == 0 )
             {
-                jscompressor.compress( stripped, compressed, optimizationLevel, languageVersion );
+                FileUtils.fileWrite( compressed, encoding, "" );
             }
-            catch ( CompressionException e )
+            else if ( jscompressor instanceof JSStreamCompressor )
             {
-                throw new MojoExecutionException( "Failed to compress JavaScript file "
-                    + e.getScript(), e );
+                String script = stripDebugs( FileUtils.fileRead( in, encoding ) );
+                StringWriter out = new StringWriter( script.length() );
+                ( (JSStreamCompressor) jscompressor ).compress( new StringReader( script ), out,
+                    optimizationLevel, languageVersion );
+                FileUtils.fileWrite( compressed, encoding, out.toString() );
             }
-            String describe = in.getName() + " (" + INTEGER.format( in.length() ) + " bytes) ";
-            String title = StringUtils.rightPad( describe, 60, "." );
-            logStats( title + " compressed at " + ratio( compressed, in ) + "%" );
-            return in.length() - compressed.length();
-        }
-        else
-        {
-            try
+            else if ( strip == null && !in.equals( compressed ) )
             {
-                compressed.createNewFile();
-                getLog().info( in.getName() + " was zero length; not compressed." );
-                return 0;
+                jscompressor.compress( in, compressed, optimizationLevel, languageVersion );
             }
-            catch ( IOException e )
+            else
             {
-                throw new MojoExecutionException( "Error handling zero length file.", e );
+                // a compressor that only works on files compresses a stripped
+                // copy of the script, as it may open its output before it has
+                // read all of its input
+                String script = stripDebugs( FileUtils.fileRead( in, encoding ) );
+                File stripped = File.createTempFile( "stripped", ".js" );
+                try
+                {
+                    FileUtils.fileWrite( stripped, encoding, script );
+                    jscompressor.compress( stripped, compressed, optimizationLevel, languageVersion );
+                }
+                finally
+                {
+                    stripped.delete();
+                }
             }
         }
-    }
-
-    private long ratio( File compressed, File in )
-    {
-        long length = in.length();
-        if ( length == 0 )
+        catch ( CompressionException e )
         {
-            return 0;
+            throw new MojoExecutionException( "Failed to compress JavaScript file " + in, e );
         }
-        return ( ( ( length - compressed.length() ) * 100 ) / length );
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( "Failed to compress JavaScript file " + in, e );
+        }
+        compression.compressedLength = compressed.length();
     }
 
     private void logStats( String line )
@@ -433,4 +695,102 @@ public abstract class AbstractCompressMojo
     {
         this.localRepository = localRepository;
     }
+
+    /**
+     * A script to compress, and the outcome of its compression.
+     */
+    private class Compression
+    {
+        final File in;
+
+        final File compressed;
+
+        boolean upToDate;
+
+        long sourceLength;
+
+        long compressedLength;
+
+        String state;
+
+        Compression( String file )
+        {
+            String name = file;
+            if ( getExtension() != null )
+            {
+                int ext = file.lastIndexOf( '.' );
+                name = file.substring( 0, ext ) + "-" + getExtension() + file.substring( ext );
+            }
+            compressed = new File( getOutputDirectory(), name );
+            in = new File( getSourceDirectory(), file );
+        }
+
+        long saved()
+        {
+            return sourceLength - compressedLength;
+        }
+
+        long ratio()
+        {
+            if ( sourceLength == 0 )
+            {
+                return 0;
+            }
+            return ( saved() * 100 ) / sourceLength;
+        }
+    }
+
+    /**
+     * Takes the next script to compress until there are none left.
+     */
+    private class Worker
+        implements Callable
+    {
+        private final Compression[] compressions;
+
+        private final AtomicInteger next;
+
+        private final Class compressorClass;
+
+        private final Properties buildState;
+
+        private JSCompressor jscompressor;
+
+        Worker( Compression[] compressions, AtomicInteger next, Class compressorClass,
+                Properties buildState )
+        {
+            this.compressions = compressions;
+            this.next = next;
+            this.compressorClass = compressorClass;
+            this.buildState = buildState;
+        }
+
+        public Object call()
+            throws MojoExecutionException
+        {
+            int i;
+            while ( ( i = next.getAndIncrement() ) < compressions.length )
+            {
+                Compression compression = compressions[i];
+                String key = compression.compressed.getAbsolutePath();
+                if ( compression.compressed.exists() && buildState.containsKey( key )
+                    && buildState.getProperty( key ).equals( getState( compression.in, compression.compressed ) ) )
+                {
+                    compression.upToDate = true;
+                    continue;
+                }
+
+                if ( jscompressor == null )
+                {
+                    jscompressor = createCompressor( compressorClass );
+                }
+                compress( jscompressor, compression );
+
+                // recorded after compression, as compressing in place
+                // rewrites the source
+                compression.state = getState( compression.in, compression.compressed );
+            }
+            return null;
+        }
+    }
 }
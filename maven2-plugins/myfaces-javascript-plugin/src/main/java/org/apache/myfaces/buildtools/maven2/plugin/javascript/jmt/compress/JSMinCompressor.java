@@ -18,14 +18,20 @@
  */
 package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
-import java.io.PushbackInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+
+import org.codehaus.plexus.util.IOUtil;
 
 /**
  * Use the Java version of the JSMin algorithm to compress a set of JS files.
@@ -35,7 +41,7 @@ import java.io.PushbackInputStream;
  * @author <a href="mailto:nicolas@apache.org">nicolas De Loof</a>
  */
 public class JSMinCompressor
-    implements JSCompressor
+    implements JSStreamCompressor
 {
 
     /**
@@ -47,28 +53,108 @@ public class JSMinCompressor
     public void compress( File input, File output, int level, int language )
         throws CompressionException
     {
+        InputStream in = null;
+        OutputStream out = null;
         try
         {
-            new JSMin( new FileInputStream( input ), new FileOutputStream( output ) ).jsmin();
+            // read before writing, as the output may be the input
+            in = new FileInputStream( input );
+            byte[] script = IOUtil.toByteArray( in );
+            out = new FileOutputStream( output );
+            new JSMin( new ByteArrayInputStream( script ), out ).jsmin();
         }
         catch ( Exception e )
         {
             throw new CompressionException( "Failed to create compressed file", e, input );
         }
+        finally
+        {
+            IOUtil.close( in );
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSStreamCompressor#compress(java.io.Reader,
+     * java.io.Writer, int, int)
+     */
+    public void compress( Reader input, Writer output, int level, int language )
+        throws CompressionException
+    {
+        try
+        {
+            new JSMin( input, output ).jsmin();
+        }
+        catch ( Exception e )
+        {
+            throw new CompressionException( "Failed to compress script", e, null );
+        }
     }
 
+    /**
+     * JSMin reads the whole script into a char array and walks it with a
+     * cursor. The minified script is built in a char array as well, and
+     * written with a single call once complete.
+     */
     public static class JSMin {
         private static final int EOF = -1;
 
-        private PushbackInputStream in;
-        private OutputStream out;
+        private Reader reader;
+        private Writer writer;
+
+        private char[] in;
+        private int inLength;
+        private int inPos;
+
+        private char[] out;
+        private int outLength;
 
         private int theA;
         private int theB;
 
-        public JSMin(InputStream in, OutputStream out) {
-            this.in = new PushbackInputStream(in);
-            this.out = out;
+        /**
+         * Bytes are read and written as ISO-8859-1 characters, so that they
+         * go through unchanged whatever the encoding of the script.
+         */
+        public JSMin(InputStream in, OutputStream out) throws IOException {
+            this(new InputStreamReader(in, "ISO-8859-1"), new OutputStreamWriter(out, "ISO-8859-1"));
+        }
+
+        public JSMin(Reader in, Writer out) {
+            this.reader = in;
+            this.writer = out;
+        }
+
+        /**
+         * Reads the whole script, growing the buffer as needed.
+         */
+        private void readScript() throws IOException {
+            in = new char[8192];
+            inLength = 0;
+            int read;
+            while ((read = reader.read(in, inLength, in.length - inLength)) != EOF) {
+                inLength += read;
+                if (inLength == in.length) {
+                    char[] grown = new char[in.length * 2];
+                    System.arraycopy(in, 0, grown, 0, inLength);
+                    in = grown;
+                }
+            }
+            inPos = 0;
+            // the minified script is hardly ever longer than the script
+            out = new char[inLength + 16];
+            outLength = 0;
+        }
+
+        private void write(int c) {
+            if (outLength == out.length) {
+                char[] grown = new char[out.length * 2];
+                System.arraycopy(out, 0, grown, 0, outLength);
+                out = grown;
+            }
+            out[outLength++] = (char) c;
         }
 
         /**
@@ -86,8 +172,8 @@ public class JSMinCompressor
          * the character is a control character, translate it to a space or
          * linefeed.
          */
-        int get() throws IOException {
-            int c = in.read();
+        int get() {
+            int c = inPos < inLength ? in[inPos++] : EOF;
 
             if (c >= ' ' || c == '\n' || c == EOF) {
                 return c;
@@ -105,17 +191,15 @@ public class JSMinCompressor
         /**
          * Get the next character without getting it.
          */
-        int peek() throws IOException {
-            int lookaheadChar = in.read();
-            in.unread(lookaheadChar);
-            return lookaheadChar;
+        int peek() {
+            return inPos < inLength ? in[inPos] : EOF;
         }
 
         /**
          * next -- get the next character, excluding comments. peek() is used to see
          * if a '/' is followed by a '/' or '*'.
          */
-        int next() throws IOException, UnterminatedCommentException {
+        int next() throws UnterminatedCommentException {
             int c = get();
             if (c == '/') {
                 switch (peek()) {
@@ -158,17 +242,17 @@ public class JSMinCompressor
          * preceded by ( or , or =.
          */
 
-        void action(int d) throws IOException, UnterminatedRegExpLiteralException,
+        void action(int d) throws UnterminatedRegExpLiteralException,
                 UnterminatedCommentException, UnterminatedStringLiteralException {
             switch (d) {
             case 1:
-                out.write(theA);
+                write(theA);
             case 2:
                 theA = theB;
 
                 if (theA == '\'' || theA == '"') {
                     for (;;) {
-                        out.write(theA);
+                        write(theA);
                         theA = get();
                         if (theA == theB) {
                             break;
@@ -177,7 +261,7 @@ public class JSMinCompressor
                             throw new UnterminatedStringLiteralException();
                         }
                         if (theA == '\\') {
-                            out.write(theA);
+                            write(theA);
                             theA = get();
                         }
                     }
@@ -190,19 +274,19 @@ public class JSMinCompressor
                                     theA == '&' || theA == '|' || theA == '?' ||
                                     theA == '{' || theA == '}' || theA == ';' ||
                                     theA == '\n')) {
-                    out.write(theA);
-                    out.write(theB);
+                    write(theA);
+                    write(theB);
                     for (;;) {
                         theA = get();
                         if (theA == '/') {
                             break;
                         } else if (theA == '\\') {
-                            out.write(theA);
+                            write(theA);
                             theA = get();
                         } else if (theA <= '\n') {
                             throw new UnterminatedRegExpLiteralException();
                         }
-                        out.write(theA);
+                        write(theA);
                     }
                     theB = next();
                 }
@@ -216,6 +300,7 @@ public class JSMinCompressor
          * Most spaces and linefeeds will be removed.
          */
         public void jsmin() throws IOException, UnterminatedRegExpLiteralException, UnterminatedCommentException, UnterminatedStringLiteralException{
+            readScript();
             theA = '\n';
             action(3);
             while (theA != EOF) {
@@ -281,7 +366,8 @@ public class JSMinCompressor
                     }
                 }
             }
-            out.flush();
+            writer.write(out, 0, outLength);
+            writer.flush();
         }
 
         class UnterminatedCommentException extends Exception {
@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress;
+
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * A JS compression tool that can compress scripts held in memory, without
+ * reading or writing files.
+ */
+public interface JSStreamCompressor
+    extends JSCompressor
+{
+
+    /**
+     * Compress the script read from input into output. Neither stream is
+     * closed.
+     * 
+     * @param input source to get compressed
+     * @param output compressed script
+     * @param level optimization level from 0 to 9, see
+     * {@link JSCompressor#compress(java.io.File, java.io.File, int, int)}
+     * @param language version of JavaScript to be used ("130" for JS 1.3)
+     * @throws CompressionException any error during compression. The
+     * exception has no script, the caller knows which one it is.
+     */
+    void compress( Reader input, Writer output, int level, int language )
+        throws CompressionException;
+}
@@ -19,9 +19,12 @@
 package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 
+import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.mozilla.javascript.ErrorReporter;
 import org.mozilla.javascript.EvaluatorException;
@@ -36,7 +39,7 @@ import com.yahoo.platform.yui.compressor.JavaScriptCompressor;
  * @author <a href="mailto:nicolas@apache.org">nicolas De Loof</a>
  */
 public class YahooUICompressor
-    implements JSCompressor
+    implements JSStreamCompressor
 {
     /**
      * {@inheritDoc}
@@ -48,10 +51,40 @@ public class YahooUICompressor
         throws CompressionException
     {
         FileWriter out = null;
+        try
+        {
+            // read before writing, as the output may be the input
+            String script = FileUtils.fileRead( input );
+            out = new FileWriter( compressed );
+            compress( new StringReader( script ), out, level, language );
+        }
+        catch ( CompressionException e )
+        {
+            throw new CompressionException( e.getMessage(), e.getCause(), input );
+        }
+        catch ( Exception e )
+        {
+            throw new CompressionException( "Failed to create compressed file", e, input );
+        }
+        finally
+        {
+            IOUtil.close( out );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @see org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress.JSStreamCompressor#compress(java.io.Reader,
+     * java.io.Writer, int, int)
+     */
+    public void compress( Reader input, Writer output, int level, int language )
+        throws CompressionException
+    {
         try
         {
             JavaScriptCompressor compressor =
-                new JavaScriptCompressor( new FileReader( input ), new ErrorReporter()
+                new JavaScriptCompressor( input, new ErrorReporter()
                 {
 
                     public void warning( String message, String sourceName, int line,
@@ -94,17 +127,13 @@ public class YahooUICompressor
             boolean preserveAllSemiColons = level < 2;
             boolean preserveStringLiterals = level < 1;
 
-            out = new FileWriter( compressed );
-            compressor.compress( out, linebreakpos, munge, true, preserveAllSemiColons,
+            compressor.compress( output, linebreakpos, munge, true, preserveAllSemiColons,
                 preserveStringLiterals );
+            output.flush();
         }
         catch ( Exception e )
         {
-            throw new CompressionException( "Failed to create compressed file", e, input );
-        }
-        finally
-        {
-            IOUtil.close( out );
+            throw new CompressionException( "Failed to create compressed file", e, null );
         }
     }
 }
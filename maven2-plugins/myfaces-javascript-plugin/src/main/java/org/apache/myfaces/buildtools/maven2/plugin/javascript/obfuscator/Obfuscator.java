@@ -41,27 +41,31 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.Vector;
+import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 
 //~--- classes ----------------------------------------------------------------
 
+/**
+ * Obfuscates and compresses scripts. The filters that keep no state between
+ * scripts are shared, the others are created for every script, and every
+ * thread parses with its own parser, so several scripts can be processed at
+ * the same time.
+ */
 public class Obfuscator
   extends FileProcessor
 {
-  private Vector _filters = new Vector();
-
   private ObfuscatorFilter _keywordsFilter = new SpecialKeywordsFilter();
 
   private ObfuscationFilter _obfuscationFilter = new ObfuscationFilter();
 
-  private OutputGenerator _outputGenerator = new OutputGenerator();
-
   private ObfuscatorConfig _config;
 
-  private JSParser15 _jsParser;
+  // the parser of each thread, reinitialized for every script
+  private ThreadLocal _jsParser = new ThreadLocal();
 
   private boolean _obfuscate;
 
@@ -95,7 +99,7 @@ public class Obfuscator
 
   //~--- methods ------------------------------------------------------------
 
-  private void init(InputSource in)
+  private List init(InputSource in, OutputStream out)
   {
 
     // apply overrides
@@ -108,49 +112,52 @@ public class Obfuscator
       in.skipStripSpecialKeywords()? false: _stripSpecialKeywords;
 
     // setup filters
-    _filters.clear();
+    List filters = new ArrayList();
 
     if (stripSpecialKeywords)
     {
-      _filters.add(_keywordsFilter);
+      filters.add(_keywordsFilter);
     }
 
     if (stripWhitespaces || stripNewLines || stripComments)
     {
-      _filters
+      filters
       .add(new CompressionFilter(stripComments, stripWhitespaces, stripNewLines));
     }
 
     if (obfuscate)
     {
-      _filters.add(_obfuscationFilter);
+      filters.add(_obfuscationFilter);
     }
 
     // make output generator the last filter
-    _filters.add(_outputGenerator);
+    filters.add(new OutputGenerator(out));
+    return filters;
   }
 
-  private void initParser(InputStream in)
+  private JSParser15 initParser(InputStream in)
   {
-    if (_jsParser == null)
+    JSParser15 jsParser = (JSParser15) _jsParser.get();
+    if (jsParser == null)
     {
-      _jsParser = new JSParser15(in);
+      jsParser = new JSParser15(in);
+      _jsParser.set(jsParser);
     }
     else
     {
-      _jsParser.ReInit(in);
+      jsParser.ReInit(in);
     }
+    return jsParser;
   }
 
   public void process(InputSource in, OutputStream out)
     throws ParseException
   {
-    init(in);
-    _outputGenerator.setOutputStream(out);
+    List filters = init(in, out);
 
     AnnotatedToken token = tokenize(in.getInputStream());
 
-    for (Iterator itr = _filters.iterator(); itr.hasNext(); )
+    for (Iterator itr = filters.iterator(); itr.hasNext(); )
     {
       ObfuscatorFilter filter = (ObfuscatorFilter) itr.next();
 
@@ -164,19 +171,31 @@ public class Obfuscator
     if (_obfuscate == true)
     {
       FileInputStream inStream = new FileInputStream(in);
-      FileOutputStream outStream = new FileOutputStream(out);
-      String fileName = in.getName();
-      InputSource inpSource =
-        new InputSource(inStream,
-                          _config.skipObfuscation(fileName),
-                          _config.skipStripComments(fileName),
-                          _config.skipStripWhitespaces(fileName),
-                          _config.skipStripNewlines(fileName),
-                          _config.skipStripSpecialKeywords(fileName));
-
-      process(inpSource, outStream);
-      inStream.close();
-      outStream.close();
+      try
+      {
+        FileOutputStream outStream = new FileOutputStream(out);
+        try
+        {
+          String fileName = in.getName();
+          InputSource inpSource =
+            new InputSource(inStream,
+                              _config.skipObfuscation(fileName),
+                              _config.skipStripComments(fileName),
+                              _config.skipStripWhitespaces(fileName),
+                              _config.skipStripNewlines(fileName),
+                              _config.skipStripSpecialKeywords(fileName));
+
+          process(inpSource, outStream);
+        }
+        finally
+        {
+          outStream.close();
+        }
+      }
+      finally
+      {
+        inStream.close();
+      }
     }
     else
     {
@@ -189,9 +208,7 @@ public class Obfuscator
   private AnnotatedToken tokenize(InputStream in)
     throws ParseException
   {
-    initParser(in);
-
-    return (AnnotatedToken) _jsParser.Program();
+    return (AnnotatedToken) initParser(in).Program();
   }
 }
 
@@ -20,6 +20,17 @@ package org.apache.myfaces.buildtools.maven2.plugin.javascript.uixtools;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This utility class can be used to perform some processing on input files,
@@ -132,6 +143,147 @@ public abstract class FileProcessor
     }
   }
 
+  /**
+   * Collects the files that process() would process, without processing
+   * them. The files of a directory are collected in the order of their
+   * names.
+   * @param in the input file or directory
+   * @param out if the input is a directory, then this must be the output
+   *  directory. Otherwise, this is the output file.
+   * @param files receives the output files, with their input files as
+   *  values. An output file that is already in the map gets the new input
+   *  file, which keeps its position.
+   */
+  protected void collectFiles(File in, File out, Map files)
+  {
+    if (in.isDirectory())
+    {
+      String[] names = in.list(_filter);
+      Arrays.sort(names);
+      for(int i=0, sz=names.length; i<sz; i++)
+      {
+        collectFiles(new File(in, names[i]), new File(out, names[i]), files);
+      }
+    }
+    else if (_dontOverwrite && out.exists())
+    {
+      if (isVerbose) System.out.println("Skipping file:"+in+
+                                        " as destination file:"+out+
+                                        " already exists.");
+    }
+    else
+    {
+      files.put(out, in);
+    }
+  }
+
+  /**
+   * Processes the files of several directories, with a pool of threads.
+   * A file found in more than one directory is processed from the last
+   * one, whose output would have overwritten the others. The errors are
+   * reported in the order of the files, once all the files have been
+   * processed. If this fails fast, the files that are not started yet when
+   * a file fails are not processed.
+   * @param in the input directories
+   * @param out the output directory
+   * @param threads the number of threads. If this is 1 or less, the files
+   *  are processed on the calling thread.
+   * @return true if there were no errors. false otherwise.
+   */
+  public boolean process(File[] in, File out, int threads)
+  {
+    Map files = new LinkedHashMap();
+    for (int i = 0; i < in.length; i++)
+    {
+      if (in[i].exists())
+      {
+        collectFiles(in[i], out, files);
+      }
+    }
+
+    final File[] outFiles = (File[]) files.keySet().toArray(new File[files.size()]);
+    final File[] inFiles = (File[]) files.values().toArray(new File[files.size()]);
+    Exception[] errors = new Exception[outFiles.length];
+    final AtomicBoolean failed = new AtomicBoolean();
+
+    if (threads <= 1 || outFiles.length <= 1)
+    {
+      for (int i = 0; i < outFiles.length; i++)
+      {
+        errors[i] = _processFileSafely(inFiles[i], outFiles[i], failed);
+      }
+    }
+    else
+    {
+      ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(threads, outFiles.length));
+      try
+      {
+        List futures = new ArrayList(outFiles.length);
+        for (int i = 0; i < outFiles.length; i++)
+        {
+          final int file = i;
+          futures.add(executor.submit(new Callable()
+            {
+              public Object call()
+              {
+                return _processFileSafely(inFiles[file], outFiles[file], failed);
+              }
+            }));
+        }
+        for (int i = 0; i < outFiles.length; i++)
+        {
+          errors[i] = (Exception) ((Future) futures.get(i)).get();
+        }
+      }
+      catch (InterruptedException e)
+      {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while processing files");
+      }
+      catch (ExecutionException e)
+      {
+        // only errors get here, such as the TokenMgrError of a parser,
+        // as _processFileSafely() returns the exceptions
+        throw (Error) e.getCause();
+      }
+      finally
+      {
+        executor.shutdown();
+      }
+    }
+
+    boolean success = true;
+    for (int i = 0; i < errors.length; i++)
+    {
+      if (errors[i] != null)
+      {
+        System.out.println("Error processing file:"+inFiles[i]+" to file:"+outFiles[i]);
+        errors[i].printStackTrace();
+        success = false;
+      }
+    }
+    return success;
+  }
+
+  private Exception _processFileSafely(File in, File out, AtomicBoolean failed)
+  {
+    if (_failFast && failed.get()) return null;
+    if (isVerbose) System.out.println("Processing file:"+in+" to file:"+out);
+
+    try
+    {
+      out.getParentFile().mkdirs();
+      processFile(in, out);
+      return null;
+    }
+    catch (Exception e)
+    {
+      failed.set(true);
+      return e;
+    }
+  }
+
   /**
    * Called to process a single file.
    * @param in the input file. This is never a directory.
@@ -33,43 +33,29 @@ public class Filter2 implements TokenReader
   public Filter2(TokenReader in)
   {
     _in = in;
-    Runnable runner = new Runnable()
-      {
-        public void run()
-        {
-          try
-          {
-            //ystem.out.println("Compressor: start:"+Thread.currentThread());
-            _run();
-            //ystem.out.println("Comressor: end:"+Thread.currentThread());
-          }
-          catch (InterruptedException e)
-          {
-            e.printStackTrace();
-          }
-        }
-      };
-    new Thread(runner).start();
   }
 
   /**
+   * Reads tokens from the input reader until at least one renamed token is
+   * available; a whole function is read before any of its tokens.
    * @see TokenReader#read()
    */
   public Token read() throws IOException, InterruptedException
   {
+    for(;_buffer.isEmpty() && !_buffer.isClosed();)
+    {
+      _readToken();
+    }
     return _buffer.read();
   }
 
-  private void _run() throws InterruptedException
+  private void _readToken() throws InterruptedException
   {
     try
     {
       Token cur = _in.read();
-      for(;cur!=null;)
-      {
-        _process(cur);
-        cur = _in.read();
-      }
+      if (cur==null) _buffer.close();
+      else _process(cur);
     }
     catch (IOException e)
     {
@@ -86,14 +72,13 @@ public class Filter2 implements TokenReader
       e.printStackTrace();
       _buffer.write(new IOException());
     }
-    _buffer.close();
   }
 
   /**
    * renames local variable names to short names.
    * First pass. sets a flag if this function uses the JS eval method.
    */
-  private void _process(Token cur) throws InterruptedException
+  private void _process(Token cur)
   {
     if ((cur.code == Token.LEFT_BRACE) && (cur.ch == '{'))
       _openCurly++;
@@ -147,7 +132,7 @@ public class Filter2 implements TokenReader
    * 2nd pass
    * Does the actual renaming
    */
-  private void _process2(Token cur) throws InterruptedException
+  private void _process2(Token cur)
   {
     if ((cur.code == Token.LEFT_BRACE) && (cur.ch == '{'))
       _openCurly++;
@@ -216,7 +201,7 @@ public class Filter2 implements TokenReader
     _buffer.write(cur);
   }
 
-  private void _writeTokens(Vector tokens) throws InterruptedException
+  private void _writeTokens(Vector tokens)
   {
     for(int i=0,sz=tokens.size(); i<sz; i++)
     {
@@ -309,7 +294,7 @@ public class Filter2 implements TokenReader
   private final TokenReader _in;
   private final NameGen _nameGen = new NameGen();
   private final HashMap _localVarMap = new HashMap();
-  private final TokenBuffer _buffer = new TokenBuffer();
+  private final TokenBatch _buffer = new TokenBatch();
   private final Vector _function = new Vector();
 
   private static final int ROOT_MODE =           0;
@@ -76,10 +76,22 @@ public class Reducer extends FileProcessor
     throws IOException, InterruptedException
   {
     BufferedReader reader = new BufferedReader(new FileReader(in));
-    PrintWriter writer =  new PrintWriter(new FileWriter(out));
-    process(reader, writer);
-    writer.close();
-    reader.close();
+    try
+    {
+      PrintWriter writer =  new PrintWriter(new FileWriter(out));
+      try
+      {
+        process(reader, writer);
+      }
+      finally
+      {
+        writer.close();
+      }
+    }
+    finally
+    {
+      reader.close();
+    }
   }
 
   private static void _help()
@@ -0,0 +1,110 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.javascript.uixtools;
+
+import java.io.IOException;
+
+/**
+ * A buffer to hold the Token objects produced by one step of a TokenReader,
+ * such as the tokens of one line. Unlike {@link TokenBuffer}, it is not
+ * thread safe and never blocks: the reader that owns it refills it on the
+ * reading thread whenever it runs empty.
+ * @version $Name:  $ ($Revision$) $Date$
+ */
+public class TokenBatch
+{
+  /**
+   * @return true if all the tokens written to this batch have been read.
+   */
+  public boolean isEmpty()
+  {
+    return (_head == _tail);
+  }
+
+  /**
+   * @return true if no more tokens will be written to this batch.
+   * @see #close()
+   */
+  public boolean isClosed()
+  {
+    return _closed;
+  }
+
+  /**
+   * marks the end of the tokens. The tokens already written can still be
+   * read.
+   */
+  public void close()
+  {
+    _closed = true;
+  }
+
+  /**
+   * @return the next token, or null if this batch is empty.
+   * @exception IOException if the next token is an exception written with
+   *  {@link #write(IOException)}
+   */
+  public Token read() throws IOException
+  {
+    if (isEmpty())
+      return null;
+
+    Token tok = _tokens[_tail];
+    _tokens[_tail++] = null; // allow garbage collect
+    if (isEmpty())
+      _head = _tail = 0;
+
+    if (tok == _EXCEPTION_TOKEN)
+      throw _exception;
+    return tok;
+  }
+
+  /**
+   * @param tok the token to add to the end of this batch
+   */
+  public void write(Token tok)
+  {
+    if (_head == _tokens.length)
+    {
+      Token[] tokens = new Token[_tokens.length * 2];
+      System.arraycopy(_tokens, 0, tokens, 0, _head);
+      _tokens = tokens;
+    }
+    _tokens[_head++] = tok;
+  }
+
+  /**
+   * adds an exception to be thrown by {@link #read()} once the tokens before
+   * it have been read, and closes this batch.
+   */
+  public void write(IOException e)
+  {
+    _exception = e;
+    write(_EXCEPTION_TOKEN);
+    close();
+  }
+
+  private Token[] _tokens = new Token[100];
+  private int _head = 0;
+  private int _tail = 0;
+  private boolean _closed = false;
+  private IOException _exception = null;
+
+  private static final Token _EXCEPTION_TOKEN = new Token(-1, 0);
+}
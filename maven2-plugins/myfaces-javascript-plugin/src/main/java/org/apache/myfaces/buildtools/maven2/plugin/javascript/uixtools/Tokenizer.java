@@ -34,51 +34,37 @@ public class Tokenizer implements TokenReader
   public Tokenizer(BufferedReader in)
   {
     _in = in;
-    Runnable runner = new Runnable()
-      {
-        public void run()
-        {
-          //ystem.out.println("Tokenizer: start:"+Thread.currentThread());
-          _run();
-          //ystem.out.println("Tokenizer: end:"+Thread.currentThread());
-        }
-      };
-    new Thread(runner).start();
   }
 
   /**
-   * reads a Token. blocks until a Token is available.
+   * reads a Token. Reads and tokenizes the next line of the JS file if no
+   * Token is left from the previous one.
    * @return null if the EOF is reached.
    */
   public Token read() throws IOException, InterruptedException
   {
+    for(;_out.isEmpty() && !_out.isClosed();)
+    {
+      _readLine();
+    }
     return _out.read();
   }
 
-  private void _run()
-  {
-    try
-      {
-        _run2();
-      }
-    catch (Exception e)
-      {
-        System.out.println("Exception parsing line:"+_lineNumber);
-        e.printStackTrace();
-      }
-  }
-
-  private void _run2() throws InterruptedException
+  private void _readLine()
   {
     try
     {
-      for(;_fillBuffer();)
+      if (_fillBuffer())
       {
         //ystem.out.println("begin process");
         _processBuffer();
         //ystem.out.println("end process");
       }
-      _out.write(new Token(Token.EOF, _lineNumber));
+      else
+      {
+        _out.write(new Token(Token.EOF, _lineNumber));
+        _out.close();
+      }
     }
     catch (IOException e)
     {
@@ -90,13 +76,9 @@ public class Tokenizer implements TokenReader
       e.printStackTrace();
       _out.write(new IOException("Exception parsing line:"+_lineNumber));
     }
-    finally
-    {
-      _out.close();
-    }
   }
 
-  private void _processBuffer() throws InterruptedException
+  private void _processBuffer()
   {
     _offset = 0;
 
@@ -167,7 +149,7 @@ public class Tokenizer implements TokenReader
       }
   }
 
-  private int _rootMode(char ch, int status) throws InterruptedException
+  private int _rootMode(char ch, int status)
   {
     switch(ch)
       {
@@ -216,7 +198,6 @@ public class Tokenizer implements TokenReader
   }
 
   private int _regularExpMode(char ch, StringBuffer regExp)
-    throws InterruptedException
   {
     switch(ch)
       {
@@ -235,7 +216,7 @@ public class Tokenizer implements TokenReader
   }
 
   private int _quoteMode(char ch, int status, int prev,
-                         StringBuffer quoteString) throws InterruptedException
+                         StringBuffer quoteString)
   {
     if (((ch=='\'') && (status==QUOTE1_MODE)) ||
         ((ch=='\"') && (status==QUOTE2_MODE)))
@@ -255,7 +236,6 @@ public class Tokenizer implements TokenReader
 
   private int _commentMode(char ch, int status,
                            StringBuffer commentString)
-    throws InterruptedException
   {
     if (status==END_COMMENT_MODE)
       {
@@ -289,7 +269,6 @@ public class Tokenizer implements TokenReader
   }
 
   private int _readWordMode(char ch, int status, StringBuffer wordBuffer)
-    throws InterruptedException
   {
     if (_isAlphaNumeric(ch))
       {
@@ -305,18 +284,18 @@ public class Tokenizer implements TokenReader
       }
   }
 
-  private void _writeComment(StringBuffer s) throws InterruptedException
+  private void _writeComment(StringBuffer s)
   {
     _out.write(new Token(Token.COMMENT, _lineNumber, s.toString()));
     s.setLength(0);
   }
 
-  private void _writeControl(char ch) throws InterruptedException
+  private void _writeControl(char ch)
   {
     _out.write(new Token(Token.CONTROL, _lineNumber, ch));
   }
 
-  private void _writeAlphaNumeric(String s) throws InterruptedException
+  private void _writeAlphaNumeric(String s)
   {
     if (Character.isDigit(s.charAt(0)))
       {
@@ -389,7 +368,7 @@ public class Tokenizer implements TokenReader
   private final StringBuffer _str = new StringBuffer();
 
   private final BufferedReader _in;
-  private final TokenBuffer _out = new TokenBuffer();
+  private final TokenBatch _out = new TokenBatch();
 
   /**
    * These are not all the reserved words in JS but are the only ones
@@ -20,8 +20,12 @@ package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt;
 
 import java.io.File;
 import java.io.FilenameFilter;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.maven.plugin.Mojo;
+import org.apache.maven.plugin.logging.SystemStreamLog;
 import org.apache.maven.plugin.testing.AbstractMojoTestCase;
 import org.codehaus.plexus.util.FileUtils;
 
@@ -74,6 +78,60 @@ public class CompressMojoTest
         }
     }
 
+    public void testCompressUnchangedScripts()
+        throws Exception
+    {
+        File target = new File( "target/test-target/compress" );
+        target.mkdirs();
+        FileUtils.cleanDirectory( target );
+        FileUtils.copyDirectory( new File( "src/test/resources/scripts" ), target );
+
+        File testPom = new File( getBasedir(), "/target/test-classes/compress.pom" );
+        Mojo mojo = (Mojo) lookupMojo( "compress", testPom );
+        assertNotNull( "Failed to configure the plugin", mojo );
+        File buildState = new File( "target/test-target/compress.state" );
+        buildState.delete();
+        setVariableValueToObject( mojo, "buildStateFile", buildState );
+        List messages = new ArrayList();
+        mojo.setLog( new InfoLog( messages ) );
+
+        mojo.execute();
+
+        File[] js = getScripts( "./src/test/resources/scripts" );
+        long saved = 0;
+        for ( int i = 0; i < js.length; i++ )
+        {
+            File expected = new File( target, js[i].getName().replace( ".js", "-compressed.js" ) );
+            saved += js[i].length() - expected.length();
+        }
+        NumberFormat integer = NumberFormat.getIntegerInstance();
+        assertTrue( messages.toString(),
+            messages.contains( "compression saved " + integer.format( saved ) + " bytes" ) );
+
+        // a second build finds every script up to date
+        messages.clear();
+        mojo.execute();
+        assertTrue( messages.toString(),
+            messages.contains( integer.format( js.length ) + " scripts up to date" ) );
+        assertTrue( messages.toString(), messages.contains( "compression saved 0 bytes" ) );
+        assertEquals( "compressed scripts were compressed again", js.length * 2,
+            getScripts( target.getPath() ).length );
+
+        // only the edited script is compressed again
+        File edited = new File( target, "slider.js" );
+        FileUtils.fileAppend( edited.getPath(), "var edited = true;" );
+        messages.clear();
+        mojo.execute();
+        assertTrue( messages.toString(),
+            messages.contains( integer.format( js.length - 1 ) + " scripts up to date" ) );
+        for ( int i = 0; i < js.length; i++ )
+        {
+            String name = js[i].getName();
+            assertEquals( name + " compressed", name.equals( edited.getName() ),
+                hasMessageStarting( messages, name + " (" ) );
+        }
+    }
+
     public void testZeroLengthInput()
         throws Exception
     {
@@ -96,6 +154,18 @@ public class CompressMojoTest
         }
     }
 
+    private boolean hasMessageStarting( List messages, String prefix )
+    {
+        for ( int i = 0; i < messages.size(); i++ )
+        {
+            if ( ( (String) messages.get( i ) ).startsWith( prefix ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private File[] getScripts( String path )
     {
         File[] js = new File( path ).listFiles( new FilenameFilter()
@@ -107,4 +177,21 @@ public class CompressMojoTest
         } );
         return js;
     }
+
+    private static class InfoLog
+        extends SystemStreamLog
+    {
+        private final List messages;
+
+        InfoLog( List messages )
+        {
+            this.messages = messages;
+        }
+
+        public void info( CharSequence content )
+        {
+            messages.add( content.toString() );
+            super.info( content );
+        }
+    }
 }
@@ -0,0 +1,68 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+public class JSMinCompressorTest
+    extends TestCase
+{
+    private JSStreamCompressor compressor = new JSMinCompressor();
+
+    /**
+     * Check comments and whitespace are removed, but not from strings and
+     * regular expressions.
+     * 
+     * @throws Exception
+     */
+    public void testCompress()
+        throws Exception
+    {
+        String script =
+            "// comment\r\nvar a = 1 ;\r\nvar re = /x\\/y/g;\r\n/* block */\r\n"
+                + "var s = 'a  b' + \"c // d\";\r\nif ( a ) {\r\n    a++ ;\r\n}\r\n";
+
+        StringWriter compressed = new StringWriter();
+        compressor.compress( new StringReader( script ), compressed, JSCompressor.MAX,
+            JSCompressor.JAVASCRIPT_1_3 );
+
+        assertEquals( "\nvar a=1;var re=/x\\/y/g;var s='a  b'+\"c // d\";if(a){a++;}",
+            compressed.toString() );
+    }
+
+    /**
+     * Check an unterminated comment is reported.
+     */
+    public void testUnterminatedComment()
+    {
+        try
+        {
+            compressor.compress( new StringReader( "var a; /* comment" ), new StringWriter(),
+                JSCompressor.MAX, JSCompressor.JAVASCRIPT_1_3 );
+            fail( "unterminated comment not reported" );
+        }
+        catch ( CompressionException e )
+        {
+            // expected
+        }
+    }
+}
@@ -19,16 +19,20 @@
 package org.apache.myfaces.buildtools.maven2.plugin.javascript.jmt.compress;
 
 import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
 
 import junit.framework.TestCase;
 
+import org.codehaus.plexus.util.FileUtils;
+
 /**
  * @author <a href="mailto:nicolas@apache.org">nicolas De Loof</a>
  */
 public class YahooUICompressorTest
     extends TestCase
 {
-    private JSCompressor compressor = new YahooUICompressor();
+    private JSStreamCompressor compressor = new YahooUICompressor();
 
     /**
      * Check the compressor is invoked as expected.
@@ -46,4 +50,23 @@ public class YahooUICompressorTest
         assertTrue( "expected file not found", output.exists() );
         assertTrue( "no compression occurred", output.length() < input.length() );
     }
+
+    /**
+     * Check a script compressed in memory is compressed as the file is.
+     * 
+     * @throws Exception
+     */
+    public void testCompressStream()
+        throws Exception
+    {
+        File input = new File( "src/test/resources/test.js" );
+        File output = new File( "target/test-out-file.js" );
+        compressor.compress( input, output, JSCompressor.MAX, JSCompressor.JAVASCRIPT_1_3 );
+
+        StringWriter compressed = new StringWriter();
+        compressor.compress( new StringReader( FileUtils.fileRead( input ) ), compressed,
+            JSCompressor.MAX, JSCompressor.JAVASCRIPT_1_3 );
+
+        assertEquals( FileUtils.fileRead( output ), compressed.toString() );
+    }
 }
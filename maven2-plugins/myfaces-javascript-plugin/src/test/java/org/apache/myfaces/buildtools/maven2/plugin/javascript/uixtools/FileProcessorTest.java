@@ -0,0 +1,202 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.javascript.uixtools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+
+public class FileProcessorTest
+    extends TestCase
+{
+    private File root = new File( "target/file-processor-test" );
+
+    private File out = new File( root, "out" );
+
+    protected void setUp()
+        throws Exception
+    {
+        FileUtils.deleteDirectory( root );
+    }
+
+    /**
+     * Check a script found in several roots is processed once, from the last
+     * root.
+     */
+    public void testLastRootWins()
+        throws Exception
+    {
+        File first = createScripts( "first", new String[] { "a.js", "b.js" } );
+        File second = createScripts( "second", new String[] { "b.js", "c.js" } );
+
+        CopyProcessor processor = new CopyProcessor( false, null );
+        assertTrue( processor.process( new File[] { first, second }, out, 4 ) );
+
+        assertEquals( 3, processor.processed.size() );
+        assertEquals( "first/a.js", FileUtils.fileRead( new File( out, "a.js" ) ) );
+        assertEquals( "second/b.js", FileUtils.fileRead( new File( out, "b.js" ) ) );
+        assertEquals( "second/c.js", FileUtils.fileRead( new File( out, "c.js" ) ) );
+    }
+
+    /**
+     * Check the scripts are collected in the order of their names, whatever
+     * the order of the directory listing.
+     */
+    public void testNameOrder()
+        throws Exception
+    {
+        File scripts = createScripts( "scripts", new String[] { "c.js", "a.js", "sub/b.js", "b.js" } );
+
+        Map files = new LinkedHashMap();
+        new CopyProcessor( false, null ).collectFiles( scripts, out, files );
+        assertEquals( Arrays.asList( new File[] { new File( out, "a.js" ), new File( out, "b.js" ),
+            new File( out, "c.js" ), new File( out, "sub/b.js" ) } ), new ArrayList( files.keySet() ) );
+
+        CopyProcessor processor = new CopyProcessor( false, null );
+        assertTrue( processor.process( new File[] { scripts }, out, 1 ) );
+        assertEquals( Arrays.asList( new String[] { "a.js", "b.js", "c.js", "b.js" } ),
+            names( processor.processed ) );
+    }
+
+    /**
+     * Check no file is started after a file failed, when failing fast.
+     */
+    public void testFailFast()
+        throws Exception
+    {
+        File scripts = createScripts( "scripts", new String[] { "a.js", "b.js", "c.js" } );
+
+        CopyProcessor processor = new CopyProcessor( true, "b.js" );
+        assertFalse( processor.process( new File[] { scripts }, out, 1 ) );
+        assertEquals( Arrays.asList( new String[] { "a.js", "b.js" } ), names( processor.processed ) );
+
+        processor = new CopyProcessor( true, "b.js" );
+        assertFalse( processor.process( new File[] { scripts }, out, 2 ) );
+    }
+
+    /**
+     * Check every file is processed after a file failed, when not failing
+     * fast.
+     */
+    public void testFailSlow()
+        throws Exception
+    {
+        File scripts = createScripts( "scripts", new String[] { "a.js", "b.js", "c.js" } );
+
+        CopyProcessor processor = new CopyProcessor( false, "b.js" );
+        assertFalse( processor.process( new File[] { scripts }, out, 2 ) );
+        Collections.sort( processor.processed );
+        assertEquals( Arrays.asList( new String[] { "a.js", "b.js", "c.js" } ), names( processor.processed ) );
+        assertFalse( new File( out, "b.js" ).exists() );
+        assertTrue( new File( out, "c.js" ).exists() );
+    }
+
+    /**
+     * Check every processed file is reported in verbose mode.
+     */
+    public void testVerbose()
+        throws Exception
+    {
+        File scripts = createScripts( "scripts", new String[] { "a.js", "b.js" } );
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream systemOut = System.out;
+        System.setOut( new PrintStream( output, true ) );
+        try
+        {
+            FileProcessor processor = new CopyProcessor( false, null, true );
+            assertTrue( processor.process( new File[] { scripts }, out, 2 ) );
+        }
+        finally
+        {
+            System.setOut( systemOut );
+        }
+
+        String log = output.toString();
+        assertTrue( log, log.indexOf( "Processing file:" + new File( scripts, "a.js" ) ) != -1 );
+        assertTrue( log, log.indexOf( "Processing file:" + new File( scripts, "b.js" ) ) != -1 );
+    }
+
+    private File createScripts( String name, String[] scripts )
+        throws IOException
+    {
+        File dir = new File( root, name );
+        for ( int i = 0; i < scripts.length; i++ )
+        {
+            File script = new File( dir, scripts[i] );
+            script.getParentFile().mkdirs();
+            FileUtils.fileWrite( script.getPath(), name + "/" + scripts[i] );
+        }
+        return dir;
+    }
+
+    private static List names( List files )
+    {
+        List names = new ArrayList( files.size() );
+        for ( int i = 0; i < files.size(); i++ )
+        {
+            names.add( ( (File) files.get( i ) ).getName() );
+        }
+        return names;
+    }
+
+    /**
+     * Copies the scripts, and records the order they are processed in.
+     */
+    private static class CopyProcessor
+        extends FileProcessor
+    {
+        private final String failing;
+
+        final List processed = Collections.synchronizedList( new ArrayList() );
+
+        CopyProcessor( boolean failFast, String failing )
+        {
+            this( failFast, failing, false );
+        }
+
+        CopyProcessor( boolean failFast, String failing, boolean verbose )
+        {
+            super( getExtensionFilter( ".js" ), failFast, true, verbose );
+            this.failing = failing;
+        }
+
+        protected void processFile( File in, File out )
+            throws Exception
+        {
+            processed.add( in );
+            if ( in.getName().equals( failing ) )
+            {
+                throw new IOException( "cannot process " + in );
+            }
+            FileUtils.copyFile( in, out );
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one
+ *  or more contributor license agreements.  See the NOTICE file
+ *  distributed with this work for additional information
+ *  regarding copyright ownership.  The ASF licenses this file
+ *  to you under the Apache License, Version 2.0 (the
+ *  "License"); you may not use this file except in compliance
+ *  with the License.  You may obtain a copy of the License at
+ * 
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+package org.apache.myfaces.buildtools.maven2.plugin.javascript.uixtools;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import junit.framework.TestCase;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.StringUtils;
+
+public class ReducerTest
+    extends TestCase
+{
+    private File scripts = new File( "src/test/resources/scripts" );
+
+    /**
+     * Check the scripts are reduced as the threaded pipeline the Reducer used
+     * to run reduced them.
+     */
+    public void testReduce()
+        throws Exception
+    {
+        assertReduced( new Reducer( true, true ), new File( "src/test/resources/reduced/rename" ) );
+    }
+
+    /**
+     * Check the scripts are reduced without renaming as the threaded pipeline
+     * the Reducer used to run reduced them.
+     */
+    public void testReduceWithoutRenaming()
+        throws Exception
+    {
+        assertReduced( new Reducer( true, false ), new File( "src/test/resources/reduced/norename" ) );
+    }
+
+    /**
+     * Check an I/O error in the middle of a script is thrown by the reducer.
+     */
+    public void testReadError()
+        throws Exception
+    {
+        assertReadError( new Reducer( true, true ) );
+    }
+
+    /**
+     * Check an I/O error in the middle of a script is thrown by the reducer,
+     * without renaming.
+     */
+    public void testReadErrorWithoutRenaming()
+        throws Exception
+    {
+        assertReadError( new Reducer( true, false ) );
+    }
+
+    private void assertReduced( Reducer reducer, File expected )
+        throws Exception
+    {
+        File[] js = scripts.listFiles( new FilenameFilter()
+        {
+            public boolean accept( File dir, String name )
+            {
+                return name.endsWith( ".js" );
+            }
+        } );
+        assertEquals( js.length, expected.list().length );
+        for ( int i = 0; i < js.length; i++ )
+        {
+            StringWriter reduced = new StringWriter();
+            reducer.process( new BufferedReader( new FileReader( js[i] ) ), new PrintWriter( reduced ) );
+            assertEquals( js[i].getName(), read( new File( expected, js[i].getName() ) ),
+                normalize( reduced.toString() ) );
+        }
+    }
+
+    private void assertReadError( final Reducer reducer )
+        throws Exception
+    {
+        String script = FileUtils.fileRead( new File( scripts, "effects.js" ) );
+        final IOException error = new IOException( "disk failure" );
+        final Reader in = new FailingReader( script, script.length() / 2, error );
+        final Throwable[] thrown = new Throwable[1];
+        Thread reducing = new Thread()
+        {
+            public void run()
+            {
+                try
+                {
+                    reducer.process( new BufferedReader( in ), new PrintWriter( new StringWriter() ) );
+                }
+                catch ( Throwable t )
+                {
+                    thrown[0] = t;
+                }
+            }
+        };
+        reducing.start();
+        reducing.join( 10000 );
+
+        assertFalse( "reducer hangs on a read error", reducing.isAlive() );
+        assertSame( error, thrown[0] );
+    }
+
+    private static String read( File file )
+        throws IOException
+    {
+        return normalize( FileUtils.fileRead( file ) );
+    }
+
+    private static String normalize( String script )
+    {
+        return StringUtils.replace( script, "\r\n", "\n" );
+    }
+
+    /**
+     * Reads a script, then fails.
+     */
+    private static class FailingReader
+        extends Reader
+    {
+        private final Reader in;
+
+        private final IOException error;
+
+        private int left;
+
+        FailingReader( String script, int length, IOException error )
+        {
+            this.in = new StringReader( script );
+            this.left = length;
+            this.error = error;
+        }
+
+        public int read( char[] buffer, int offset, int length )
+            throws IOException
+        {
+            if ( left == 0 )
+            {
+                throw error;
+            }
+            int read = in.read( buffer, offset, Math.min( length, left ) );
+            left -= read;
+            return read;
+        }
+
+        public void close()
+            throws IOException
+        {
+            in.close();
+        }
+    }
+}
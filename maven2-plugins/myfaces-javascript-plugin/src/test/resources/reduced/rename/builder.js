@@ -0,0 +1,95 @@
+var Builder={
+NODEMAP:{
+AREA:'map',
+CAPTION:'table',
+COL:'table',
+COLGROUP:'table',
+LEGEND:'fieldset',
+OPTGROUP:'select',
+OPTION:'select',
+PARAM:'object',
+TBODY:'table',
+TD:'table',
+TFOOT:'table',
+TH:'table',
+THEAD:'table',
+TR:'table'
+},
+node:function(a0){
+a0=a0.toUpperCase();
+var a1=this.NODEMAP[a0]||'div';
+var a2=document.createElement(a1);
+try{
+a2.innerHTML="<"+a0+"></"+a0+">";
+}catch(e){}
+var a3=a2.firstChild||null;
+if(a3&&(a3.tagName!=a0))
+a3=a3.getElementsByTagName(a0)[0];
+if(!a3)a3=document.createElement(a0);
+if(!a3)return;
+if(arguments[1])
+if(this._isStringOrNumber(arguments[1])||
+(arguments[1]instanceof Array)){
+this._children(a3,arguments[1]);
+}else{
+var a4=this._attributes(arguments[1]);
+if(a4.length){
+try{
+a2.innerHTML="<"+a0+" "+
+a4+"></"+a0+">";
+}catch(e){}
+a3=a2.firstChild||null;
+if(!a3){
+a3=document.createElement(a0);
+for(attr in arguments[1])
+a3[attr=='class'?'className':attr]=arguments[1][attr];
+}
+if(a3.tagName!=a0)
+a3=a2.getElementsByTagName(a0)[0];
+}
+}
+if(arguments[2])
+this._children(a3,arguments[2]);
+return a3;
+},
+_text:function(a5){
+return document.createTextNode(a5);
+},
+_attributes:function(a6){
+var a7=[];
+for(attribute in a6)
+a7.push((attribute=='className'?'class':attribute)+
+'="'+a6[attribute].toString().escapeHTML()+'"');
+return a7.join(" ");
+},
+_children:function(a8,a9){
+if(typeof a9=='object'){
+a9.flatten().each(function(e){
+if(typeof e=='object')
+a8.appendChild(e)
+else
+if(Builder._isStringOrNumber(e))
+a8.appendChild(Builder._text(e));
+});
+}else
+if(Builder._isStringOrNumber(a9))
+a8.appendChild(Builder._text(a9));
+},
+_isStringOrNumber:function(a10){
+return(typeof a10=='string'||typeof a10=='number');
+},
+dump:function(a11){
+if(typeof a11!='object'&&typeof a11!='function')a11=window;
+var a12=("A ABBR ACRONYM ADDRESS APPLET AREA B BASE BASEFONT BDO BIG BLOCKQUOTE BODY "+
+"BR BUTTON CAPTION CENTER CITE CODE COL COLGROUP DD DEL DFN DIR DIV DL DT EM FIELDSET "+
+"FONT FORM FRAME FRAMESET H1 H2 H3 H4 H5 H6 HEAD HR HTML I IFRAME IMG INPUT INS ISINDEX "+
+"KBD LABEL LEGEND LI LINK MAP MENU META NOFRAMES NOSCRIPT OBJECT OL OPTGROUP OPTION P "+
+"PARAM PRE Q S SAMP SCRIPT SELECT SMALL SPAN STRIKE STRONG STYLE SUB SUP TABLE TBODY TD "+
+"TEXTAREA TFOOT TH THEAD TITLE TR TT U UL VAR").split(/\s+/);
+a12.each(function(tag){
+a11[tag]=function(){
+return Builder.node.apply(Builder,[tag].concat($A(arguments)));
+}
+});
+}
+}
@@ -0,0 +1,666 @@
+if(typeof Effect=='undefined')
+throw("controls.js requires including script.aculo.us' effects.js library");
+var Autocompleter={}
+Autocompleter.Base=function(){};
+Autocompleter.Base.prototype={
+baseInitialize:function(a0,a1,a2){
+this.element=$(a0);
+this.update=$(a1);
+this.hasFocus=false;
+this.changed=false;
+this.active=false;
+this.index=0;
+this.entryCount=0;
+if(this.setOptions)
+this.setOptions(a2);
+else
+this.options=a2||{};
+this.options.paramName=this.options.paramName||this.element.name;
+this.options.tokens=this.options.tokens||[];
+this.options.frequency=this.options.frequency||0.4;
+this.options.minChars=this.options.minChars||1;
+this.options.onShow=this.options.onShow||
+function(a0,a1){
+if(!a1.style.position||a1.style.position=='absolute'){
+a1.style.position='absolute';
+Position.clone(a0,a1,{
+setHeight:false,
+offsetTop:a0.offsetHeight
+});
+}
+Effect.Appear(a1,{duration:0.15});
+};
+this.options.onHide=this.options.onHide||
+function(a0,a1){new Effect.Fade(a1,{duration:0.15})};
+if(typeof(this.options.tokens)=='string')
+this.options.tokens=new Array(this.options.tokens);
+this.observer=null;
+this.element.setAttribute('autocomplete','off');
+Element.hide(this.update);
+Event.observe(this.element,"blur",this.onBlur.bindAsEventListener(this));
+Event.observe(this.element,"keypress",this.onKeyPress.bindAsEventListener(this));
+},
+show:function(){
+if(Element.getStyle(this.update,'display')=='none')this.options.onShow(this.element,this.update);
+if(!this.iefix&&
+(navigator.appVersion.indexOf('MSIE')>0)&&
+(navigator.userAgent.indexOf('Opera')<0)&&
+(Element.getStyle(this.update,'position')=='absolute')){
+new Insertion.After(this.update,
+'<iframe id="'+this.update.id+'_iefix" '+
+'style="display:none;position:absolute;filter:progid:DXImageTransform.Microsoft.Alpha(opacity=0);" '+
+'src="javascript:false;" frameborder="0" scrolling="no"></iframe>');
+this.iefix=$(this.update.id+'_iefix');
+}
+if(this.iefix)setTimeout(this.fixIEOverlapping.bind(this),50);
+},
+fixIEOverlapping:function(){
+Position.clone(this.update,this.iefix,{setTop:(!this.update.style.height)});
+this.iefix.style.zIndex=1;
+this.update.style.zIndex=2;
+Element.show(this.iefix);
+},
+hide:function(){
+this.stopIndicator();
+if(Element.getStyle(this.update,'display')!='none')this.options.onHide(this.element,this.update);
+if(this.iefix)Element.hide(this.iefix);
+},
+startIndicator:function(){
+if(this.options.indicator)Element.show(this.options.indicator);
+},
+stopIndicator:function(){
+if(this.options.indicator)Element.hide(this.options.indicator);
+},
+onKeyPress:function(a3){
+if(this.active)
+switch(a3.keyCode){
+case Event.KEY_TAB:
+case Event.KEY_RETURN:
+this.selectEntry();
+Event.stop(a3);
+case Event.KEY_ESC:
+this.hide();
+this.active=false;
+Event.stop(a3);
+return;
+case Event.KEY_LEFT:
+case Event.KEY_RIGHT:
+return;
+case Event.KEY_UP:
+this.markPrevious();
+this.render();
+if(navigator.appVersion.indexOf('AppleWebKit')>0)Event.stop(a3);
+return;
+case Event.KEY_DOWN:
+this.markNext();
+this.render();
+if(navigator.appVersion.indexOf('AppleWebKit')>0)Event.stop(a3);
+return;
+}
+else
+if(a3.keyCode==Event.KEY_TAB||a3.keyCode==Event.KEY_RETURN||
+(navigator.appVersion.indexOf('AppleWebKit')>0&&a3.keyCode==0))return;
+this.changed=true;
+this.hasFocus=true;
+if(this.observer)clearTimeout(this.observer);
+this.observer=
+setTimeout(this.onObserverEvent.bind(this),this.options.frequency*1000);
+},
+activate:function(){
+this.changed=false;
+this.hasFocus=true;
+this.getUpdatedChoices();
+},
+onHover:function(a4){
+var a5=Event.findElement(a4,'LI');
+if(this.index!=a5.autocompleteIndex)
+{
+this.index=a5.autocompleteIndex;
+this.render();
+}
+Event.stop(a4);
+},
+onClick:function(a6){
+var a7=Event.findElement(a6,'LI');
+this.index=a7.autocompleteIndex;
+this.selectEntry();
+this.hide();
+},
+onBlur:function(a8){
+setTimeout(this.hide.bind(this),250);
+this.hasFocus=false;
+this.active=false;
+},
+render:function(){
+if(this.entryCount>0){
+for(var a9=0;a9<this.entryCount;a9++)
+this.index==a9?
+Element.addClassName(this.getEntry(a9),"selected"):
+Element.removeClassName(this.getEntry(a9),"selected");
+if(this.hasFocus){
+this.show();
+this.active=true;
+}
+}else{
+this.active=false;
+this.hide();
+}
+},
+markPrevious:function(){
+if(this.index>0)this.index--
+else this.index=this.entryCount-1;
+this.getEntry(this.index).scrollIntoView(true);
+},
+markNext:function(){
+if(this.index<this.entryCount-1)this.index++
+else this.index=0;
+this.getEntry(this.index).scrollIntoView(false);
+},
+getEntry:function(a10){
+return this.update.firstChild.childNodes[a10];
+},
+getCurrentEntry:function(){
+return this.getEntry(this.index);
+},
+selectEntry:function(){
+this.active=false;
+this.updateElement(this.getCurrentEntry());
+},
+updateElement:function(a11){
+if(this.options.updateElement){
+this.options.updateElement(a11);
+return;
+}
+var a12='';
+if(this.options.select){
+var a13=document.getElementsByClassName(this.options.select,a11)||[];
+if(a13.length>0)a12=Element.collectTextNodes(a13[0],this.options.select);
+}else
+a12=Element.collectTextNodesIgnoreClass(a11,'informal');
+var a14=this.findLastToken();
+if(a14!=-1){
+var a15=this.element.value.substr(0,a14+1);
+var a16=this.element.value.substr(a14+1).match(/^\s+/);
+if(a16)
+a15+=a16[0];
+this.element.value=a15+a12;
+}else{
+this.element.value=a12;
+}
+this.element.focus();
+if(this.options.afterUpdateElement)
+this.options.afterUpdateElement(this.element,a11);
+},
+updateChoices:function(a17){
+if(!this.changed&&this.hasFocus){
+this.update.innerHTML=a17;
+Element.cleanWhitespace(this.update);
+Element.cleanWhitespace(this.update.firstChild);
+if(this.update.firstChild&&this.update.firstChild.childNodes){
+this.entryCount=
+this.update.firstChild.childNodes.length;
+for(var a18=0;a18<this.entryCount;a18++){
+var a19=this.getEntry(a18);
+a19.autocompleteIndex=a18;
+this.addObservers(a19);
+}
+}else{
+this.entryCount=0;
+}
+this.stopIndicator();
+this.index=0;
+if(this.entryCount==1&&this.options.autoSelect){
+this.selectEntry();
+this.hide();
+}else{
+this.render();
+}
+}
+},
+addObservers:function(a20){
+Event.observe(a20,"mouseover",this.onHover.bindAsEventListener(this));
+Event.observe(a20,"click",this.onClick.bindAsEventListener(this));
+},
+onObserverEvent:function(){
+this.changed=false;
+if(this.getToken().length>=this.options.minChars){
+this.startIndicator();
+this.getUpdatedChoices();
+}else{
+this.active=false;
+this.hide();
+}
+},
+getToken:function(){
+var a21=this.findLastToken();
+if(a21!=-1)
+var a22=this.element.value.substr(a21+1).replace(/^\s+/,'').replace(/\s+$/,'');
+else
+var a22=this.element.value;
+return/\n/.test(a22)?'':a22;
+},
+findLastToken:function(){
+var a23=-1;
+for(var a24=0;a24<this.options.tokens.length;a24++){
+var a25=this.element.value.lastIndexOf(this.options.tokens[a24]);
+if(a25>a23)
+a23=a25;
+}
+return a23;
+}
+}
+Ajax.Autocompleter=Class.create();
+Object.extend(Object.extend(Ajax.Autocompleter.prototype,Autocompleter.Base.prototype),{
+initialize:function(a26,a27,a28,a29){
+this.baseInitialize(a26,a27,a29);
+this.options.asynchronous=true;
+this.options.onComplete=this.onComplete.bind(this);
+this.options.defaultParams=this.options.parameters||null;
+this.url=a28;
+},
+getUpdatedChoices:function(){
+entry=encodeURIComponent(this.options.paramName)+'='+
+encodeURIComponent(this.getToken());
+this.options.parameters=this.options.callback?
+this.options.callback(this.element,entry):entry;
+if(this.options.defaultParams)
+this.options.parameters+='&'+this.options.defaultParams;
+new Ajax.Request(this.url,this.options);
+},
+onComplete:function(a30){
+this.updateChoices(a30.responseText);
+}
+});
+Autocompleter.Local=Class.create();
+Autocompleter.Local.prototype=Object.extend(new Autocompleter.Base(),{
+initialize:function(a31,a32,a33,a34){
+this.baseInitialize(a31,a32,a34);
+this.options.array=a33;
+},
+getUpdatedChoices:function(){
+this.updateChoices(this.options.selector(this));
+},
+setOptions:function(a35){
+this.options=Object.extend({
+choices:10,
+partialSearch:true,
+partialChars:2,
+ignoreCase:true,
+fullSearch:false,
+selector:function(instance){
+var a36=[];
+var a37=[];
+var a38=instance.getToken();
+var a39=0;
+for(var a40=0;a40<instance.options.array.length&&
+a36.length<instance.options.choices;a40++){
+var a41=instance.options.array[a40];
+var a42=instance.options.ignoreCase?
+a41.toLowerCase().indexOf(a38.toLowerCase()):
+a41.indexOf(a38);
+while(a42!=-1){
+if(a42==0&&a41.length!=a38.length){
+a36.push("<li><strong>"+a41.substr(0,a38.length)+"</strong>"+
+a41.substr(a38.length)+"</li>");
+break;
+}else if(a38.length>=instance.options.partialChars&&
+instance.options.partialSearch&&a42!=-1){
+if(instance.options.fullSearch||/\s/.test(a41.substr(a42-1,1))){
+a37.push("<li>"+a41.substr(0,a42)+"<strong>"+
+a41.substr(a42,a38.length)+"</strong>"+a41.substr(
+a42+a38.length)+"</li>");
+break;
+}
+}
+a42=instance.options.ignoreCase?
+a41.toLowerCase().indexOf(a38.toLowerCase(),a42+1):
+a41.indexOf(a38,a42+1);
+}
+}
+if(a37.length)
+a36=a36.concat(a37.slice(0,instance.options.choices-a36.length))
+return"<ul>"+a36.join('')+"</ul>";
+}
+},a35||{});
+}
+});
+Field.scrollFreeActivate=function(a43){
+setTimeout(function(){
+Field.activate(a43);
+},1);
+}
+Ajax.InPlaceEditor=Class.create();
+Ajax.InPlaceEditor.defaultHighlightColor="#FFFF99";
+Ajax.InPlaceEditor.prototype={
+initialize:function(a44,a45,a46){
+this.url=a45;
+this.element=$(a44);
+this.options=Object.extend({
+okButton:true,
+okText:"ok",
+cancelLink:true,
+cancelText:"cancel",
+savingText:"Saving...",
+clickToEditText:"Click to edit",
+okText:"ok",
+rows:1,
+onComplete:function(transport,a44){
+new Effect.Highlight(a44,{startcolor:this.options.highlightcolor});
+},
+onFailure:function(transport){
+alert("Error communicating with the server: "+transport.responseText.stripTags());
+},
+callback:function(form){
+return Form.serialize(form);
+},
+handleLineBreaks:true,
+loadingText:'Loading...',
+savingClassName:'inplaceeditor-saving',
+loadingClassName:'inplaceeditor-loading',
+formClassName:'inplaceeditor-form',
+highlightcolor:Ajax.InPlaceEditor.defaultHighlightColor,
+highlightendcolor:"#FFFFFF",
+externalControl:null,
+submitOnBlur:false,
+ajaxOptions:{},
+evalScripts:false
+},a46||{});
+if(!this.options.formId&&this.element.id){
+this.options.formId=this.element.id+"-inplaceeditor";
+if($(this.options.formId)){
+this.options.formId=null;
+}
+}
+if(this.options.externalControl){
+this.options.externalControl=$(this.options.externalControl);
+}
+this.originalBackground=Element.getStyle(this.element,'background-color');
+if(!this.originalBackground){
+this.originalBackground="transparent";
+}
+this.element.title=this.options.clickToEditText;
+this.onclickListener=this.enterEditMode.bindAsEventListener(this);
+this.mouseoverListener=this.enterHover.bindAsEventListener(this);
+this.mouseoutListener=this.leaveHover.bindAsEventListener(this);
+Event.observe(this.element,'click',this.onclickListener);
+Event.observe(this.element,'mouseover',this.mouseoverListener);
+Event.observe(this.element,'mouseout',this.mouseoutListener);
+if(this.options.externalControl){
+Event.observe(this.options.externalControl,'click',this.onclickListener);
+Event.observe(this.options.externalControl,'mouseover',this.mouseoverListener);
+Event.observe(this.options.externalControl,'mouseout',this.mouseoutListener);
+}
+},
+enterEditMode:function(a47){
+if(this.saving)return;
+if(this.editing)return;
+this.editing=true;
+this.onEnterEditMode();
+if(this.options.externalControl){
+Element.hide(this.options.externalControl);
+}
+Element.hide(this.element);
+this.createForm();
+this.element.parentNode.insertBefore(this.form,this.element);
+if(!this.options.loadTextURL)Field.scrollFreeActivate(this.editField);
+if(a47){
+Event.stop(a47);
+}
+return false;
+},
+createForm:function(){
+this.form=document.createElement("form");
+this.form.id=this.options.formId;
+Element.addClassName(this.form,this.options.formClassName)
+this.form.onsubmit=this.onSubmit.bind(this);
+this.createEditField();
+if(this.options.textarea){
+var a48=document.createElement("br");
+this.form.appendChild(a48);
+}
+if(this.options.okButton){
+okButton=document.createElement("input");
+okButton.type="submit";
+okButton.value=this.options.okText;
+okButton.className='editor_ok_button';
+this.form.appendChild(okButton);
+}
+if(this.options.cancelLink){
+cancelLink=document.createElement("a");
+cancelLink.href="#";
+cancelLink.appendChild(document.createTextNode(this.options.cancelText));
+cancelLink.onclick=this.onclickCancel.bind(this);
+cancelLink.className='editor_cancel';
+this.form.appendChild(cancelLink);
+}
+},
+hasHTMLLineBreaks:function(a49){
+if(!this.options.handleLineBreaks)return false;
+return a49.match(/<br/i)||a49.match(/<p>/i);
+},
+convertHTMLLineBreaks:function(a50){
+return a50.replace(/<br>/gi,"\n").replace(/<br\/>/gi,"\n").replace(/<\/p>/gi,"\n").replace(/<p>/gi,"");
+},
+createEditField:function(){
+var a51;
+if(this.options.loadTextURL){
+a51=this.options.loadingText;
+}else{
+a51=this.getText();
+}
+var a52=this;
+if(this.options.rows==1&&!this.hasHTMLLineBreaks(a51)){
+this.options.textarea=false;
+var a53=document.createElement("input");
+a53.obj=this;
+a53.type="text";
+a53.name="value";
+a53.value=a51;
+a53.style.backgroundColor=this.options.highlightcolor;
+a53.className='editor_field';
+var a54=this.options.size||this.options.cols||0;
+if(a54!=0)a53.size=a54;
+if(this.options.submitOnBlur)
+a53.onblur=this.onSubmit.bind(this);
+this.editField=a53;
+}else{
+this.options.textarea=true;
+var a55=document.createElement("textarea");
+a55.obj=this;
+a55.name="value";
+a55.value=this.convertHTMLLineBreaks(a51);
+a55.rows=this.options.rows;
+a55.cols=this.options.cols||40;
+a55.className='editor_field';
+if(this.options.submitOnBlur)
+a55.onblur=this.onSubmit.bind(this);
+this.editField=a55;
+}
+if(this.options.loadTextURL){
+this.loadExternalText();
+}
+this.form.appendChild(this.editField);
+},
+getText:function(){
+return this.element.innerHTML;
+},
+loadExternalText:function(){
+Element.addClassName(this.form,this.options.loadingClassName);
+this.editField.disabled=true;
+new Ajax.Request(
+this.options.loadTextURL,
+Object.extend({
+asynchronous:true,
+onComplete:this.onLoadedExternalText.bind(this)
+},this.options.ajaxOptions)
+);
+},
+onLoadedExternalText:function(a56){
+Element.removeClassName(this.form,this.options.loadingClassName);
+this.editField.disabled=false;
+this.editField.value=a56.responseText.stripTags();
+Field.scrollFreeActivate(this.editField);
+},
+onclickCancel:function(){
+this.onComplete();
+this.leaveEditMode();
+return false;
+},
+onFailure:function(a57){
+this.options.onFailure(a57);
+if(this.oldInnerHTML){
+this.element.innerHTML=this.oldInnerHTML;
+this.oldInnerHTML=null;
+}
+return false;
+},
+onSubmit:function(){
+var a58=this.form;
+var a59=this.editField.value;
+this.onLoading();
+if(this.options.evalScripts){
+new Ajax.Request(
+this.url,Object.extend({
+parameters:this.options.callback(a58,a59),
+onComplete:this.onComplete.bind(this),
+onFailure:this.onFailure.bind(this),
+asynchronous:true,
+evalScripts:true
+},this.options.ajaxOptions));
+}else{
+new Ajax.Updater(
+{success:this.element,
+failure:null},
+this.url,Object.extend({
+parameters:this.options.callback(a58,a59),
+onComplete:this.onComplete.bind(this),
+onFailure:this.onFailure.bind(this)
+},this.options.ajaxOptions));
+}
+if(arguments.length>1){
+Event.stop(arguments[0]);
+}
+return false;
+},
+onLoading:function(){
+this.saving=true;
+this.removeForm();
+this.leaveHover();
+this.showSaving();
+},
+showSaving:function(){
+this.oldInnerHTML=this.element.innerHTML;
+this.element.innerHTML=this.options.savingText;
+Element.addClassName(this.element,this.options.savingClassName);
+this.element.style.backgroundColor=this.originalBackground;
+Element.show(this.element);
+},
+removeForm:function(){
+if(this.form){
+if(this.form.parentNode)Element.remove(this.form);
+this.form=null;
+}
+},
+enterHover:function(){
+if(this.saving)return;
+this.element.style.backgroundColor=this.options.highlightcolor;
+if(this.effect){
+this.effect.cancel();
+}
+Element.addClassName(this.element,this.options.hoverClassName)
+},
+leaveHover:function(){
+if(this.options.backgroundColor){
+this.element.style.backgroundColor=this.oldBackground;
+}
+Element.removeClassName(this.element,this.options.hoverClassName)
+if(this.saving)return;
+this.effect=new Effect.Highlight(this.element,{
+startcolor:this.options.highlightcolor,
+endcolor:this.options.highlightendcolor,
+restorecolor:this.originalBackground
+});
+},
+leaveEditMode:function(){
+Element.removeClassName(this.element,this.options.savingClassName);
+this.removeForm();
+this.leaveHover();
+this.element.style.backgroundColor=this.originalBackground;
+Element.show(this.element);
+if(this.options.externalControl){
+Element.show(this.options.externalControl);
+}
+this.editing=false;
+this.saving=false;
+this.oldInnerHTML=null;
+this.onLeaveEditMode();
+},
+onComplete:function(a60){
+this.leaveEditMode();
+this.options.onComplete.bind(this)(a60,this.element);
+},
+onEnterEditMode:function(){},
+onLeaveEditMode:function(){},
+dispose:function(){
+if(this.oldInnerHTML){
+this.element.innerHTML=this.oldInnerHTML;
+}
+this.leaveEditMode();
+Event.stopObserving(this.element,'click',this.onclickListener);
+Event.stopObserving(this.element,'mouseover',this.mouseoverListener);
+Event.stopObserving(this.element,'mouseout',this.mouseoutListener);
+if(this.options.externalControl){
+Event.stopObserving(this.options.externalControl,'click',this.onclickListener);
+Event.stopObserving(this.options.externalControl,'mouseover',this.mouseoverListener);
+Event.stopObserving(this.options.externalControl,'mouseout',this.mouseoutListener);
+}
+}
+};
+Ajax.InPlaceCollectionEditor=Class.create();
+Object.extend(Ajax.InPlaceCollectionEditor.prototype,Ajax.InPlaceEditor.prototype);
+Object.extend(Ajax.InPlaceCollectionEditor.prototype,{
+createEditField:function(){
+if(!this.cached_selectTag){
+var a61=document.createElement("select");
+var a62=this.options.collection||[];
+var a63;
+a62.each(function(e,i){
+a63=document.createElement("option");
+a63.value=(e instanceof Array)?e[0]:e;
+if((typeof this.options.value=='undefined')&&
+((e instanceof Array)?this.element.innerHTML==e[1]:e==a63.value))a63.selected=true;
+if(this.options.value==a63.value)a63.selected=true;
+a63.appendChild(document.createTextNode((e instanceof Array)?e[1]:e));
+a61.appendChild(a63);
+}.bind(this));
+this.cached_selectTag=a61;
+}
+this.editField=this.cached_selectTag;
+if(this.options.loadTextURL)this.loadExternalText();
+this.form.appendChild(this.editField);
+this.options.callback=function(form,value){
+return"value="+encodeURIComponent(value);
+}
+}
+});
+Form.Element.DelayedObserver=Class.create();
+Form.Element.DelayedObserver.prototype={
+initialize:function(a64,a65,a66){
+this.delay=a65||0.5;
+this.element=$(a64);
+this.callback=a66;
+this.timer=null;
+this.lastValue=$F(this.element);
+Event.observe(this.element,'keyup',this.delayedListener.bindAsEventListener(this));
+},
+delayedListener:function(a67){
+if(this.lastValue==$F(this.element))return;
+if(this.timer)clearTimeout(this.timer);
+this.timer=setTimeout(this.onTimerEvent.bind(this),this.delay*1000);
+this.lastValue=$F(this.element);
+},
+onTimerEvent:function(){
+this.timer=null;
+this.callback(this.element,$F(this.element));
+}
+};
@@ -0,0 +1,779 @@
+if(typeof Effect=='undefined')
+throw("dragdrop.js requires including script.aculo.us' effects.js library");
+var Droppables={
+drops:[],
+remove:function(a0){
+this.drops=this.drops.reject(function(d){return d.element==$(a0)});
+},
+add:function(a1){
+a1=$(a1);
+var a2=Object.extend({
+greedy:true,
+hoverclass:null,
+tree:false
+},arguments[1]||{});
+if(a2.containment){
+a2._containers=[];
+var a3=a2.containment;
+if((typeof a3=='object')&&
+(a3.constructor==Array)){
+a3.each(function(c){a2._containers.push($(c))});
+}else{
+a2._containers.push($(a3));
+}
+}
+if(a2.accept)a2.accept=[a2.accept].flatten();
+Element.makePositioned(a1);
+a2.element=a1;
+this.drops.push(a2);
+},
+findDeepestChild:function(a4){
+deepest=a4[0];
+for(i=1;i<a4.length;++i)
+if(Element.isParent(a4[i].element,deepest.element))
+deepest=a4[i];
+return deepest;
+},
+isContained:function(a5,a6){
+var a7;
+if(a6.tree){
+a7=a5.treeNode;
+}else{
+a7=a5.parentNode;
+}
+return a6._containers.detect(function(c){return a7==c});
+},
+isAffected:function(a8,a9,a10){
+return(
+(a10.element!=a9)&&
+((!a10._containers)||
+this.isContained(a9,a10))&&
+((!a10.accept)||
+(Element.classNames(a9).detect(
+function(v){return a10.accept.include(v)})))&&
+Position.within(a10.element,a8[0],a8[1]));
+},
+deactivate:function(a11){
+if(a11.hoverclass)
+Element.removeClassName(a11.element,a11.hoverclass);
+this.last_active=null;
+},
+activate:function(a12){
+if(a12.hoverclass)
+Element.addClassName(a12.element,a12.hoverclass);
+this.last_active=a12;
+},
+show:function(a13,a14){
+if(!this.drops.length)return;
+var a15=[];
+if(this.last_active)this.deactivate(this.last_active);
+this.drops.each(function(drop){
+if(Droppables.isAffected(a13,a14,drop))
+a15.push(drop);
+});
+if(a15.length>0){
+drop=Droppables.findDeepestChild(a15);
+Position.within(drop.element,a13[0],a13[1]);
+if(drop.onHover)
+drop.onHover(a14,drop.element,Position.overlap(drop.overlap,drop.element));
+Droppables.activate(drop);
+}
+},
+fire:function(a16,a17){
+if(!this.last_active)return;
+Position.prepare();
+if(this.isAffected([Event.pointerX(a16),Event.pointerY(a16)],a17,this.last_active))
+if(this.last_active.onDrop)
+this.last_active.onDrop(a17,this.last_active.element,a16);
+},
+reset:function(){
+if(this.last_active)
+this.deactivate(this.last_active);
+}
+}
+var Draggables={
+drags:[],
+observers:[],
+register:function(a18){
+if(this.drags.length==0){
+this.eventMouseUp=this.endDrag.bindAsEventListener(this);
+this.eventMouseMove=this.updateDrag.bindAsEventListener(this);
+this.eventKeypress=this.keyPress.bindAsEventListener(this);
+Event.observe(document,"mouseup",this.eventMouseUp);
+Event.observe(document,"mousemove",this.eventMouseMove);
+Event.observe(document,"keypress",this.eventKeypress);
+}
+this.drags.push(a18);
+},
+unregister:function(a19){
+this.drags=this.drags.reject(function(d){return d==a19});
+if(this.drags.length==0){
+Event.stopObserving(document,"mouseup",this.eventMouseUp);
+Event.stopObserving(document,"mousemove",this.eventMouseMove);
+Event.stopObserving(document,"keypress",this.eventKeypress);
+}
+},
+activate:function(a20){
+if(a20.options.delay){
+this._timeout=setTimeout(function(){
+Draggables._timeout=null;
+window.focus();
+Draggables.activeDraggable=a20;
+}.bind(this),a20.options.delay);
+}else{
+window.focus();
+this.activeDraggable=a20;
+}
+},
+deactivate:function(){
+this.activeDraggable=null;
+},
+updateDrag:function(a21){
+if(!this.activeDraggable)return;
+var a22=[Event.pointerX(a21),Event.pointerY(a21)];
+if(this._lastPointer&&(this._lastPointer.inspect()==a22.inspect()))return;
+this._lastPointer=a22;
+this.activeDraggable.updateDrag(a21,a22);
+},
+endDrag:function(a23){
+if(this._timeout){
+clearTimeout(this._timeout);
+this._timeout=null;
+}
+if(!this.activeDraggable)return;
+this._lastPointer=null;
+this.activeDraggable.endDrag(a23);
+this.activeDraggable=null;
+},
+keyPress:function(a24){
+if(this.activeDraggable)
+this.activeDraggable.keyPress(a24);
+},
+addObserver:function(a25){
+this.observers.push(a25);
+this._cacheObserverCallbacks();
+},
+removeObserver:function(a26){
+this.observers=this.observers.reject(function(o){return o.element==a26});
+this._cacheObserverCallbacks();
+},
+notify:function(a27,a28,a29){
+if(this[a27+'Count']>0)
+this.observers.each(function(o){
+if(o[a27])o[a27](a27,a28,a29);
+});
+if(a28.options[a27])a28.options[a27](a28,a29);
+},
+_cacheObserverCallbacks:function(){
+['onStart','onEnd','onDrag'].each(function(eventName){
+Draggables[eventName+'Count']=Draggables.observers.select(
+function(o){return o[eventName];}
+).length;
+});
+}
+}
+var Draggable=Class.create();
+Draggable._dragging={};
+Draggable.prototype={
+initialize:function(a30){
+var a31={
+handle:false,
+reverteffect:function(a30,top_offset,left_offset){
+var a32=Math.sqrt(Math.abs(top_offset^2)+Math.abs(left_offset^2))*0.02;
+new Effect.Move(a30,{x:-left_offset,y:-top_offset,duration:a32,
+queue:{scope:'_draggable',position:'end'}
+});
+},
+endeffect:function(a30){
+var a33=typeof a30._opacity=='number'?a30._opacity:1.0;
+new Effect.Opacity(a30,{duration:0.2,from:0.7,to:a33,
+queue:{scope:'_draggable',position:'end'},
+afterFinish:function(){
+Draggable._dragging[a30]=false
+}
+});
+},
+zindex:1000,
+revert:false,
+scroll:false,
+scrollSensitivity:20,
+scrollSpeed:15,
+snap:false,
+delay:0
+};
+if(arguments[1]&&typeof arguments[1].endeffect=='undefined')
+Object.extend(a31,{
+starteffect:function(a30){
+a30._opacity=Element.getOpacity(a30);
+Draggable._dragging[a30]=true;
+new Effect.Opacity(a30,{duration:0.2,from:a30._opacity,to:0.7});
+}
+});
+var a34=Object.extend(a31,arguments[1]||{});
+this.element=$(a30);
+if(a34.handle&&(typeof a34.handle=='string')){
+var a35=Element.childrenWithClassName(this.element,a34.handle,true);
+if(a35.length>0)this.handle=a35[0];
+}
+if(!this.handle)this.handle=$(a34.handle);
+if(!this.handle)this.handle=this.element;
+if(a34.scroll&&!a34.scroll.scrollTo&&!a34.scroll.outerHTML){
+a34.scroll=$(a34.scroll);
+this._isScrollChild=Element.childOf(this.element,a34.scroll);
+}
+Element.makePositioned(this.element);
+this.delta=this.currentDelta();
+this.options=a34;
+this.dragging=false;
+this.eventMouseDown=this.initDrag.bindAsEventListener(this);
+Event.observe(this.handle,"mousedown",this.eventMouseDown);
+Draggables.register(this);
+},
+destroy:function(){
+Event.stopObserving(this.handle,"mousedown",this.eventMouseDown);
+Draggables.unregister(this);
+},
+currentDelta:function(){
+return([
+parseInt(Element.getStyle(this.element,'left')||'0'),
+parseInt(Element.getStyle(this.element,'top')||'0')]);
+},
+initDrag:function(a36){
+if(typeof Draggable._dragging[this.element]!='undefined'&&
+Draggable._dragging[this.element])return;
+if(Event.isLeftClick(a36)){
+var a37=Event.element(a36);
+if(a37.tagName&&(
+a37.tagName=='INPUT'||
+a37.tagName=='SELECT'||
+a37.tagName=='OPTION'||
+a37.tagName=='BUTTON'||
+a37.tagName=='TEXTAREA'))return;
+var a38=[Event.pointerX(a36),Event.pointerY(a36)];
+var a39=Position.cumulativeOffset(this.element);
+this.offset=[0,1].map(function(i){return(a38[i]-a39[i])});
+Draggables.activate(this);
+Event.stop(a36);
+}
+},
+startDrag:function(a40){
+this.dragging=true;
+if(this.options.zindex){
+this.originalZ=parseInt(Element.getStyle(this.element,'z-index')||0);
+this.element.style.zIndex=this.options.zindex;
+}
+if(this.options.ghosting){
+this._clone=this.element.cloneNode(true);
+Position.absolutize(this.element);
+this.element.parentNode.insertBefore(this._clone,this.element);
+}
+if(this.options.scroll){
+if(this.options.scroll==window){
+var a41=this._getWindowScroll(this.options.scroll);
+this.originalScrollLeft=a41.left;
+this.originalScrollTop=a41.top;
+}else{
+this.originalScrollLeft=this.options.scroll.scrollLeft;
+this.originalScrollTop=this.options.scroll.scrollTop;
+}
+}
+Draggables.notify('onStart',this,a40);
+if(this.options.starteffect)this.options.starteffect(this.element);
+},
+updateDrag:function(a42,a43){
+if(!this.dragging)this.startDrag(a42);
+Position.prepare();
+Droppables.show(a43,this.element);
+Draggables.notify('onDrag',this,a42);
+this.draw(a43);
+if(this.options.change)this.options.change(this);
+if(this.options.scroll){
+this.stopScrolling();
+var a44;
+if(this.options.scroll==window){
+with(this._getWindowScroll(this.options.scroll)){a44=[left,top,left+width,top+height];}
+}else{
+a44=Position.page(this.options.scroll);
+a44[0]+=this.options.scroll.scrollLeft;
+a44[1]+=this.options.scroll.scrollTop;
+a44[0]+=(window.pageXOffset||document.documentElement.scrollLeft||document.body.scrollLeft||0);
+a44[1]+=(window.pageYOffset||document.documentElement.scrollTop||document.body.scrollTop||0);
+a44.push(a44[0]+this.options.scroll.offsetWidth);
+a44.push(a44[1]+this.options.scroll.offsetHeight);
+}
+var a45=[0,0];
+if(a43[0]<(a44[0]+this.options.scrollSensitivity))a45[0]=a43[0]-(a44[0]+this.options.scrollSensitivity);
+if(a43[1]<(a44[1]+this.options.scrollSensitivity))a45[1]=a43[1]-(a44[1]+this.options.scrollSensitivity);
+if(a43[0]>(a44[2]-this.options.scrollSensitivity))a45[0]=a43[0]-(a44[2]-this.options.scrollSensitivity);
+if(a43[1]>(a44[3]-this.options.scrollSensitivity))a45[1]=a43[1]-(a44[3]-this.options.scrollSensitivity);
+this.startScrolling(a45);
+}
+if(navigator.appVersion.indexOf('AppleWebKit')>0)window.scrollBy(0,0);
+Event.stop(a42);
+},
+finishDrag:function(a46,a47){
+this.dragging=false;
+if(this.options.ghosting){
+Position.relativize(this.element);
+Element.remove(this._clone);
+this._clone=null;
+}
+if(a47)Droppables.fire(a46,this.element);
+Draggables.notify('onEnd',this,a46);
+var a48=this.options.revert;
+if(a48&&typeof a48=='function')a48=a48(this.element);
+var a49=this.currentDelta();
+if(a48&&this.options.reverteffect){
+this.options.reverteffect(this.element,
+a49[1]-this.delta[1],a49[0]-this.delta[0]);
+}else{
+this.delta=a49;
+}
+if(this.options.zindex)
+this.element.style.zIndex=this.originalZ;
+if(this.options.endeffect)
+this.options.endeffect(this.element);
+Draggables.deactivate(this);
+Droppables.reset();
+},
+keyPress:function(a50){
+if(a50.keyCode!=Event.KEY_ESC)return;
+this.finishDrag(a50,false);
+Event.stop(a50);
+},
+endDrag:function(a51){
+if(!this.dragging)return;
+this.stopScrolling();
+this.finishDrag(a51,true);
+Event.stop(a51);
+},
+draw:function(a52){
+var a53=Position.cumulativeOffset(this.element);
+if(this.options.ghosting){
+var a54=Position.realOffset(this.element);
+window.status=a54.inspect();
+a53[0]+=a54[0]-Position.deltaX;a53[1]+=a54[1]-Position.deltaY;
+}
+var a55=this.currentDelta();
+a53[0]-=a55[0];a53[1]-=a55[1];
+if(this.options.scroll&&(this.options.scroll!=window&&this._isScrollChild)){
+a53[0]-=this.options.scroll.scrollLeft-this.originalScrollLeft;
+a53[1]-=this.options.scroll.scrollTop-this.originalScrollTop;
+}
+var a56=[0,1].map(function(i){
+return(a52[i]-a53[i]-this.offset[i])
+}.bind(this));
+if(this.options.snap){
+if(typeof this.options.snap=='function'){
+a56=this.options.snap(a56[0],a56[1],this);
+}else{
+if(this.options.snap instanceof Array){
+a56=a56.map(function(v,i){
+return Math.round(v/this.options.snap[i])*this.options.snap[i]}.bind(this))
+}else{
+a56=a56.map(function(v){
+return Math.round(v/this.options.snap)*this.options.snap}.bind(this))
+}
+}}
+var a57=this.element.style;
+if((!this.options.constraint)||(this.options.constraint=='horizontal'))
+a57.left=a56[0]+"px";
+if((!this.options.constraint)||(this.options.constraint=='vertical'))
+a57.top=a56[1]+"px";
+if(a57.visibility=="hidden")a57.visibility="";
+},
+stopScrolling:function(){
+if(this.scrollInterval){
+clearInterval(this.scrollInterval);
+this.scrollInterval=null;
+Draggables._lastScrollPointer=null;
+}
+},
+startScrolling:function(a58){
+if(!(a58[0]||a58[1]))return;
+this.scrollSpeed=[a58[0]*this.options.scrollSpeed,a58[1]*this.options.scrollSpeed];
+this.lastScrolled=new Date();
+this.scrollInterval=setInterval(this.scroll.bind(this),10);
+},
+scroll:function(){
+var a59=new Date();
+var a60=a59-this.lastScrolled;
+this.lastScrolled=a59;
+if(this.options.scroll==window){
+with(this._getWindowScroll(this.options.scroll)){
+if(this.scrollSpeed[0]||this.scrollSpeed[1]){
+var a61=a60/1000;
+this.options.scroll.scrollTo(left+a61*this.scrollSpeed[0],top+a61*this.scrollSpeed[1]);
+}
+}
+}else{
+this.options.scroll.scrollLeft+=this.scrollSpeed[0]*a60/1000;
+this.options.scroll.scrollTop+=this.scrollSpeed[1]*a60/1000;
+}
+Position.prepare();
+Droppables.show(Draggables._lastPointer,this.element);
+Draggables.notify('onDrag',this);
+if(this._isScrollChild){
+Draggables._lastScrollPointer=Draggables._lastScrollPointer||$A(Draggables._lastPointer);
+Draggables._lastScrollPointer[0]+=this.scrollSpeed[0]*a60/1000;
+Draggables._lastScrollPointer[1]+=this.scrollSpeed[1]*a60/1000;
+if(Draggables._lastScrollPointer[0]<0)
+Draggables._lastScrollPointer[0]=0;
+if(Draggables._lastScrollPointer[1]<0)
+Draggables._lastScrollPointer[1]=0;
+this.draw(Draggables._lastScrollPointer);
+}
+if(this.options.change)this.options.change(this);
+},
+_getWindowScroll:function(a62){
+var a63,L,W,H;
+with(a62.document){
+if(a62.document.documentElement&&documentElement.scrollTop){
+a63=documentElement.scrollTop;
+L=documentElement.scrollLeft;
+}else if(a62.document.body){
+a63=body.scrollTop;
+L=body.scrollLeft;
+}
+if(a62.innerWidth){
+W=a62.innerWidth;
+H=a62.innerHeight;
+}else if(a62.document.documentElement&&documentElement.clientWidth){
+W=documentElement.clientWidth;
+H=documentElement.clientHeight;
+}else{
+W=body.offsetWidth;
+H=body.offsetHeight
+}
+}
+return{top:a63,left:L,width:W,height:H};
+}
+}
+var SortableObserver=Class.create();
+SortableObserver.prototype={
+initialize:function(a64,a65){
+this.element=$(a64);
+this.observer=a65;
+this.lastValue=Sortable.serialize(this.element);
+},
+onStart:function(){
+this.lastValue=Sortable.serialize(this.element);
+},
+onEnd:function(){
+Sortable.unmark();
+if(this.lastValue!=Sortable.serialize(this.element))
+this.observer(this.element)
+}
+}
+var Sortable={
+SERIALIZE_RULE:/^[^_\-](?:[A-Za-z0-9\-\_]*)[_](.*)$/,
+sortables:{},
+_findRootElement:function(a66){
+while(a66.tagName!="BODY"){
+if(a66.id&&Sortable.sortables[a66.id])return a66;
+a66=a66.parentNode;
+}
+},
+options:function(a67){
+a67=Sortable._findRootElement($(a67));
+if(!a67)return;
+return Sortable.sortables[a67.id];
+},
+destroy:function(a68){
+var a69=Sortable.options(a68);
+if(a69){
+Draggables.removeObserver(a69.element);
+a69.droppables.each(function(d){Droppables.remove(d)});
+a69.draggables.invoke('destroy');
+delete Sortable.sortables[a69.element.id];
+}
+},
+create:function(a70){
+a70=$(a70);
+var a71=Object.extend({
+a70:a70,
+tag:'li',
+dropOnEmpty:false,
+tree:false,
+treeTag:'ul',
+overlap:'vertical',
+constraint:'vertical',
+containment:a70,
+handle:false,
+only:false,
+delay:0,
+hoverclass:null,
+ghosting:false,
+scroll:false,
+scrollSensitivity:20,
+scrollSpeed:15,
+format:this.SERIALIZE_RULE,
+onChange:Prototype.emptyFunction,
+onUpdate:Prototype.emptyFunction
+},arguments[1]||{});
+this.destroy(a70);
+var a72={
+revert:true,
+scroll:a71.scroll,
+scrollSpeed:a71.scrollSpeed,
+scrollSensitivity:a71.scrollSensitivity,
+delay:a71.delay,
+ghosting:a71.ghosting,
+constraint:a71.constraint,
+handle:a71.handle};
+if(a71.starteffect)
+a72.starteffect=a71.starteffect;
+if(a71.reverteffect)
+a72.reverteffect=a71.reverteffect;
+else
+if(a71.ghosting)a72.reverteffect=function(a70){
+a70.style.top=0;
+a70.style.left=0;
+};
+if(a71.endeffect)
+a72.endeffect=a71.endeffect;
+if(a71.zindex)
+a72.zindex=a71.zindex;
+var a73={
+overlap:a71.overlap,
+containment:a71.containment,
+tree:a71.tree,
+hoverclass:a71.hoverclass,
+onHover:Sortable.onHover
+}
+var a74={
+onHover:Sortable.onEmptyHover,
+overlap:a71.overlap,
+containment:a71.containment,
+hoverclass:a71.hoverclass
+}
+Element.cleanWhitespace(a70);
+a71.draggables=[];
+a71.droppables=[];
+if(a71.dropOnEmpty||a71.tree){
+Droppables.add(a70,a74);
+a71.droppables.push(a70);
+}
+(this.findElements(a70,a71)||[]).each(function(e){
+var a75=a71.handle?
+Element.childrenWithClassName(e,a71.handle)[0]:e;
+a71.draggables.push(
+new Draggable(e,Object.extend(a72,{a75:a75})));
+Droppables.add(e,a73);
+if(a71.tree)e.treeNode=a70;
+a71.droppables.push(e);
+});
+if(a71.tree){
+(Sortable.findTreeElements(a70,a71)||[]).each(function(e){
+Droppables.add(e,a74);
+e.treeNode=a70;
+a71.droppables.push(e);
+});
+}
+this.sortables[a70.id]=a71;
+Draggables.addObserver(new SortableObserver(a70,a71.onUpdate));
+},
+findElements:function(a76,a77){
+return Element.findChildren(
+a76,a77.only,a77.tree?true:false,a77.tag);
+},
+findTreeElements:function(a78,a79){
+return Element.findChildren(
+a78,a79.only,a79.tree?true:false,a79.treeTag);
+},
+onHover:function(a80,a81,a82){
+if(Element.isParent(a81,a80))return;
+if(a82>.33&&a82<.66&&Sortable.options(a81).tree){
+return;
+}else if(a82>0.5){
+Sortable.mark(a81,'before');
+if(a81.previousSibling!=a80){
+var a83=a80.parentNode;
+a80.style.visibility="hidden";
+a81.parentNode.insertBefore(a80,a81);
+if(a81.parentNode!=a83)
+Sortable.options(a83).onChange(a80);
+Sortable.options(a81.parentNode).onChange(a80);
+}
+}else{
+Sortable.mark(a81,'after');
+var a84=a81.nextSibling||null;
+if(a84!=a80){
+var a83=a80.parentNode;
+a80.style.visibility="hidden";
+a81.parentNode.insertBefore(a80,a84);
+if(a81.parentNode!=a83)
+Sortable.options(a83).onChange(a80);
+Sortable.options(a81.parentNode).onChange(a80);
+}
+}
+},
+onEmptyHover:function(a85,a86,a87){
+var a88=a85.parentNode;
+var a89=Sortable.options(a86);
+if(!Element.isParent(a86,a85)){
+var a90;
+var a91=Sortable.findElements(a86,{tag:a89.tag,only:a89.only});
+var a92=null;
+if(a91){
+var a93=Element.offsetSize(a86,a89.overlap)*(1.0-a87);
+for(a90=0;a90<a91.length;a90+=1){
+if(a93-Element.offsetSize(a91[a90],a89.overlap)>=0){
+a93-=Element.offsetSize(a91[a90],a89.overlap);
+}else if(a93-(Element.offsetSize(a91[a90],a89.overlap)/2)>=0){
+a92=a90+1<a91.length?a91[a90+1]:null;
+break;
+}else{
+a92=a91[a90];
+break;
+}
+}
+}
+a86.insertBefore(a85,a92);
+Sortable.options(a88).onChange(a85);
+a89.onChange(a85);
+}
+},
+unmark:function(){
+if(Sortable._marker)Element.hide(Sortable._marker);
+},
+mark:function(a94,a95){
+var a96=Sortable.options(a94.parentNode);
+if(a96&&!a96.ghosting)return;
+if(!Sortable._marker){
+Sortable._marker=$('dropmarker')||document.createElement('DIV');
+Element.hide(Sortable._marker);
+Element.addClassName(Sortable._marker,'dropmarker');
+Sortable._marker.style.position='absolute';
+document.getElementsByTagName("body").item(0).appendChild(Sortable._marker);
+}
+var a97=Position.cumulativeOffset(a94);
+Sortable._marker.style.left=a97[0]+'px';
+Sortable._marker.style.top=a97[1]+'px';
+if(a95=='after')
+if(a96.overlap=='horizontal')
+Sortable._marker.style.left=(a97[0]+a94.clientWidth)+'px';
+else
+Sortable._marker.style.top=(a97[1]+a94.clientHeight)+'px';
+Element.show(Sortable._marker);
+},
+_tree:function(a98,a99,a100){
+var a101=Sortable.findElements(a98,a99)||[];
+for(var a102=0;a102<a101.length;++a102){
+var a103=a101[a102].id.match(a99.format);
+if(!a103)continue;
+var a104={
+id:encodeURIComponent(a103?a103[1]:null),
+a98:a98,
+a100:a100,
+a101:new Array,
+position:a100.children.length,
+container:Sortable._findChildrenElement(a101[a102],a99.treeTag.toUpperCase())
+}
+if(a104.container)
+this._tree(a104.container,a99,a104)
+a100.children.push(a104);
+}
+return a100;
+},
+_findChildrenElement:function(a105,a106){
+if(a105&&a105.hasChildNodes)
+for(var a107=0;a107<a105.childNodes.length;++a107)
+if(a105.childNodes[a107].tagName==a106)
+return a105.childNodes[a107];
+return null;
+},
+tree:function(a108){
+a108=$(a108);
+var a109=this.options(a108);
+var a110=Object.extend({
+tag:a109.tag,
+treeTag:a109.treeTag,
+only:a109.only,
+name:a108.id,
+format:a109.format
+},arguments[1]||{});
+var a111={
+id:null,
+parent:null,
+children:new Array,
+container:a108,
+position:0
+}
+return Sortable._tree(a108,a110,a111);
+},
+_constructIndex:function(a112){
+var a113='';
+do{
+if(a112.id)a113='['+a112.position+']'+a113;
+}while((a112=a112.parent)!=null);
+return a113;
+},
+sequence:function(a114){
+a114=$(a114);
+var a115=Object.extend(this.options(a114),arguments[1]||{});
+return$(this.findElements(a114,a115)||[]).map(function(item){
+return item.id.match(a115.format)?item.id.match(a115.format)[1]:'';
+});
+},
+setSequence:function(a116,a117){
+a116=$(a116);
+var a118=Object.extend(this.options(a116),arguments[2]||{});
+var a119={};
+this.findElements(a116,a118).each(function(n){
+if(n.id.match(a118.format))
+a119[n.id.match(a118.format)[1]]=[n,n.parentNode];
+n.parentNode.removeChild(n);
+});
+a117.each(function(ident){
+var a120=a119[ident];
+if(a120){
+a120[1].appendChild(a120[0]);
+delete a119[ident];
+}
+});
+},
+serialize:function(a121){
+a121=$(a121);
+var a122=Object.extend(Sortable.options(a121),arguments[1]||{});
+var a123=encodeURIComponent(
+(arguments[1]&&arguments[1].name)?arguments[1].name:a121.id);
+if(a122.tree){
+return Sortable.tree(a121,arguments[1]).children.map(function(item){
+return[a123+Sortable._constructIndex(item)+"[id]="+
+encodeURIComponent(item.id)].concat(item.children.map(arguments.callee));
+}).flatten().join('&');
+}else{
+return Sortable.sequence(a121,arguments[1]).map(function(item){
+return a123+"[]="+encodeURIComponent(item);
+}).join('&');
+}
+}
+}
+Element.isParent=function(a124,a125){
+if(!a124.parentNode||a124==a125)return false;
+if(a124.parentNode==a125)return true;
+return Element.isParent(a124.parentNode,a125);
+}
+Element.findChildren=function(a126,a127,a128,a129){
+if(!a126.hasChildNodes())return null;
+a129=a129.toUpperCase();
+if(a127)a127=[a127].flatten();
+var a130=[];
+$A(a126.childNodes).each(function(e){
+if(e.tagName&&e.tagName.toUpperCase()==a129&&
+(!a127||(Element.classNames(e).detect(function(v){return a127.include(v)}))))
+a130.push(e);
+if(a128){
+var a131=Element.findChildren(e,a127,a128,a129);
+if(a131)a130.push(a131);
+}
+});
+return(a130.length>0?a130.flatten():[]);
+}
+Element.offsetSize=function(a132,a133){
+if(a133=='vertical'||a133=='height')
+return a132.offsetHeight;
+else
+return a132.offsetWidth;
+}
@@ -0,0 +1,873 @@
+String.prototype.parseColor=function(){
+var a0='#';
+if(this.slice(0,4)=='rgb('){
+var a1=this.slice(4,this.length-1).split(',');
+var a2=0;do{a0+=parseInt(a1[a2]).toColorPart()}while(++a2<3);
+}else{
+if(this.slice(0,1)=='#'){
+if(this.length==4)for(var a2=1;a2<4;a2++)a0+=(this.charAt(a2)+this.charAt(a2)).toLowerCase();
+if(this.length==7)a0=this.toLowerCase();
+}
+}
+return(a0.length==7?a0:(arguments[0]||this));
+}
+Element.collectTextNodes=function(a3){
+return$A($(a3).childNodes).collect(function(node){
+return(node.nodeType==3?node.nodeValue:
+(node.hasChildNodes()?Element.collectTextNodes(node):''));
+}).flatten().join('');
+}
+Element.collectTextNodesIgnoreClass=function(a4,a5){
+return$A($(a4).childNodes).collect(function(node){
+return(node.nodeType==3?node.nodeValue:
+((node.hasChildNodes()&&!Element.hasClassName(node,a5))?
+Element.collectTextNodesIgnoreClass(node,a5):''));
+}).flatten().join('');
+}
+Element.setContentZoom=function(a6,a7){
+a6=$(a6);
+Element.setStyle(a6,{fontSize:(a7/100)+'em'});
+if(navigator.appVersion.indexOf('AppleWebKit')>0)window.scrollBy(0,0);
+}
+Element.getOpacity=function(a8){
+var a9;
+if(a9=Element.getStyle(a8,'opacity'))
+return parseFloat(a9);
+if(a9=(Element.getStyle(a8,'filter')||'').match(/alpha\(opacity=(.*)\)/))
+if(a9[1])return parseFloat(a9[1])/100;
+return 1.0;
+}
+Element.setOpacity=function(a10,a11){
+a10=$(a10);
+if(a11==1){
+Element.setStyle(a10,{opacity:
+(/Gecko/.test(navigator.userAgent)&&!/Konqueror|Safari|KHTML/.test(navigator.userAgent))?
+0.999999:1.0});
+if(/MSIE/.test(navigator.userAgent)&&!window.opera)
+Element.setStyle(a10,{filter:Element.getStyle(a10,'filter').replace(/alpha\([^\)]*\)/gi,'')});
+}else{
+if(a11<0.00001)a11=0;
+Element.setStyle(a10,{opacity:a11});
+if(/MSIE/.test(navigator.userAgent)&&!window.opera)
+Element.setStyle(a10,
+{filter:Element.getStyle(a10,'filter').replace(/alpha\([^\)]*\)/gi,'')+
+'alpha(opacity='+a11*100+')'});
+}
+}
+Element.getInlineOpacity=function(a12){
+return$(a12).style.opacity||'';
+}
+Element.childrenWithClassName=function(a13,a14,a15){
+var a16=new RegExp("(^|\\s)"+a14+"(\\s|$)");
+var a17=$A($(a13).getElementsByTagName('*'))[a15?'detect':'select'](function(c){
+return(c.className&&c.className.match(a16));
+});
+if(!a17)a17=[];
+return a17;
+}
+Element.forceRerendering=function(a18){
+try{
+a18=$(a18);
+var a19=document.createTextNode(' ');
+a18.appendChild(a19);
+a18.removeChild(a19);
+}catch(e){}
+};
+Array.prototype.call=function(){
+var a20=arguments;
+this.each(function(f){f.apply(this,a20)});
+}
+var Effect={
+_elementDoesNotExistError:{
+name:'ElementDoesNotExistError',
+message:'The specified DOM element does not exist, but is required for this effect to operate'
+},
+tagifyText:function(a21){
+if(typeof Builder=='undefined')
+throw("Effect.tagifyText requires including script.aculo.us' builder.js library");
+var a22='position:relative';
+if(/MSIE/.test(navigator.userAgent)&&!window.opera)a22+=';zoom:1';
+a21=$(a21);
+$A(a21.childNodes).each(function(child){
+if(child.nodeType==3){
+child.nodeValue.toArray().each(function(character){
+a21.insertBefore(
+Builder.node('span',{style:a22},
+character==' '?String.fromCharCode(160):character),
+child);
+});
+Element.remove(child);
+}
+});
+},
+multiple:function(a23,a24){
+var a25;
+if(((typeof a23=='object')||
+(typeof a23=='function'))&&
+(a23.length))
+a25=a23;
+else
+a25=$(a23).childNodes;
+var a26=Object.extend({
+speed:0.1,
+delay:0.0
+},arguments[2]||{});
+var a27=a26.delay;
+$A(a25).each(function(a23,index){
+new a24(a23,Object.extend(a26,{delay:index*a26.speed+a27}));
+});
+},
+PAIRS:{
+'slide':['SlideDown','SlideUp'],
+'blind':['BlindDown','BlindUp'],
+'appear':['Appear','Fade']
+},
+toggle:function(a28,a29){
+a28=$(a28);
+a29=(a29||'appear').toLowerCase();
+var a30=Object.extend({
+queue:{position:'end',scope:(a28.id||'global'),limit:1}
+},arguments[2]||{});
+Effect[a28.visible()?
+Effect.PAIRS[a29][1]:Effect.PAIRS[a29][0]](a28,a30);
+}
+};
+var Effect2=Effect;
+Effect.Transitions={}
+Effect.Transitions.linear=Prototype.K;
+Effect.Transitions.sinoidal=function(a31){
+return(-Math.cos(a31*Math.PI)/2)+0.5;
+}
+Effect.Transitions.reverse=function(a32){
+return 1-a32;
+}
+Effect.Transitions.flicker=function(a33){
+return((-Math.cos(a33*Math.PI)/4)+0.75)+Math.random()/4;
+}
+Effect.Transitions.wobble=function(a34){
+return(-Math.cos(a34*Math.PI*(9*a34))/2)+0.5;
+}
+Effect.Transitions.pulse=function(a35){
+return(Math.floor(a35*10)%2==0?
+(a35*10-Math.floor(a35*10)):1-(a35*10-Math.floor(a35*10)));
+}
+Effect.Transitions.none=function(a36){
+return 0;
+}
+Effect.Transitions.full=function(a37){
+return 1;
+}
+Effect.ScopedQueue=Class.create();
+Object.extend(Object.extend(Effect.ScopedQueue.prototype,Enumerable),{
+initialize:function(){
+this.effects=[];
+this.interval=null;
+},
+_each:function(a38){
+this.effects._each(a38);
+},
+add:function(a39){
+var a40=new Date().getTime();
+var a41=(typeof a39.options.queue=='string')?
+a39.options.queue:a39.options.queue.position;
+switch(a41){
+case'front':
+this.effects.findAll(function(e){return e.state=='idle'}).each(function(e){
+e.startOn+=a39.finishOn;
+e.finishOn+=a39.finishOn;
+});
+break;
+case'end':
+a40=this.effects.pluck('finishOn').max()||a40;
+break;
+}
+a39.startOn+=a40;
+a39.finishOn+=a40;
+if(!a39.options.queue.limit||(this.effects.length<a39.options.queue.limit))
+this.effects.push(a39);
+if(!this.interval)
+this.interval=setInterval(this.loop.bind(this),40);
+},
+remove:function(a42){
+this.effects=this.effects.reject(function(e){return e==a42});
+if(this.effects.length==0){
+clearInterval(this.interval);
+this.interval=null;
+}
+},
+loop:function(){
+var a43=new Date().getTime();
+this.effects.invoke('loop',a43);
+}
+});
+Effect.Queues={
+instances:$H(),
+get:function(a44){
+if(typeof a44!='string')return a44;
+if(!this.instances[a44])
+this.instances[a44]=new Effect.ScopedQueue();
+return this.instances[a44];
+}
+}
+Effect.Queue=Effect.Queues.get('global');
+Effect.DefaultOptions={
+transition:Effect.Transitions.sinoidal,
+duration:1.0,
+fps:25.0,
+sync:false,
+from:0.0,
+to:1.0,
+delay:0.0,
+queue:'parallel'
+}
+Effect.Base=function(){};
+Effect.Base.prototype={
+position:null,
+start:function(a45){
+this.options=Object.extend(Object.extend({},Effect.DefaultOptions),a45||{});
+this.currentFrame=0;
+this.state='idle';
+this.startOn=this.options.delay*1000;
+this.finishOn=this.startOn+(this.options.duration*1000);
+this.event('beforeStart');
+if(!this.options.sync)
+Effect.Queues.get(typeof this.options.queue=='string'?
+'global':this.options.queue.scope).add(this);
+},
+loop:function(a46){
+if(a46>=this.startOn){
+if(a46>=this.finishOn){
+this.render(1.0);
+this.cancel();
+this.event('beforeFinish');
+if(this.finish)this.finish();
+this.event('afterFinish');
+return;
+}
+var a47=(a46-this.startOn)/(this.finishOn-this.startOn);
+var a48=Math.round(a47*this.options.fps*this.options.duration);
+if(a48>this.currentFrame){
+this.render(a47);
+this.currentFrame=a48;
+}
+}
+},
+render:function(a49){
+if(this.state=='idle'){
+this.state='running';
+this.event('beforeSetup');
+if(this.setup)this.setup();
+this.event('afterSetup');
+}
+if(this.state=='running'){
+if(this.options.transition)a49=this.options.transition(a49);
+a49*=(this.options.to-this.options.from);
+a49+=this.options.from;
+this.position=a49;
+this.event('beforeUpdate');
+if(this.update)this.update(a49);
+this.event('afterUpdate');
+}
+},
+cancel:function(){
+if(!this.options.sync)
+Effect.Queues.get(typeof this.options.queue=='string'?
+'global':this.options.queue.scope).remove(this);
+this.state='finished';
+},
+event:function(a50){
+if(this.options[a50+'Internal'])this.options[a50+'Internal'](this);
+if(this.options[a50])this.options[a50](this);
+},
+inspect:function(){
+return'#<Effect:'+$H(this).inspect()+',options:'+$H(this.options).inspect()+'>';
+}
+}
+Effect.Parallel=Class.create();
+Object.extend(Object.extend(Effect.Parallel.prototype,Effect.Base.prototype),{
+initialize:function(a51){
+this.effects=a51||[];
+this.start(arguments[1]);
+},
+update:function(a52){
+this.effects.invoke('render',a52);
+},
+finish:function(a53){
+this.effects.each(function(effect){
+effect.render(1.0);
+effect.cancel();
+effect.event('beforeFinish');
+if(effect.finish)effect.finish(a53);
+effect.event('afterFinish');
+});
+}
+});
+Effect.Opacity=Class.create();
+Object.extend(Object.extend(Effect.Opacity.prototype,Effect.Base.prototype),{
+initialize:function(a54){
+this.element=$(a54);
+if(!this.element)throw(Effect._elementDoesNotExistError);
+if(/MSIE/.test(navigator.userAgent)&&!window.opera&&(!this.element.currentStyle.hasLayout))
+this.element.setStyle({zoom:1});
+var a55=Object.extend({
+from:this.element.getOpacity()||0.0,
+to:1.0
+},arguments[1]||{});
+this.start(a55);
+},
+update:function(a56){
+this.element.setOpacity(a56);
+}
+});
+Effect.Move=Class.create();
+Object.extend(Object.extend(Effect.Move.prototype,Effect.Base.prototype),{
+initialize:function(a57){
+this.element=$(a57);
+if(!this.element)throw(Effect._elementDoesNotExistError);
+var a58=Object.extend({
+x:0,
+y:0,
+mode:'relative'
+},arguments[1]||{});
+this.start(a58);
+},
+setup:function(){
+this.element.makePositioned();
+this.originalLeft=parseFloat(this.element.getStyle('left')||'0');
+this.originalTop=parseFloat(this.element.getStyle('top')||'0');
+if(this.options.mode=='absolute'){
+this.options.x=this.options.x-this.originalLeft;
+this.options.y=this.options.y-this.originalTop;
+}
+},
+update:function(a59){
+this.element.setStyle({
+left:Math.round(this.options.x*a59+this.originalLeft)+'px',
+top:Math.round(this.options.y*a59+this.originalTop)+'px'
+});
+}
+});
+Effect.MoveBy=function(a60,a61,a62){
+return new Effect.Move(a60,
+Object.extend({x:a62,y:a61},arguments[3]||{}));
+};
+Effect.Scale=Class.create();
+Object.extend(Object.extend(Effect.Scale.prototype,Effect.Base.prototype),{
+initialize:function(a63,a64){
+this.element=$(a63);
+if(!this.element)throw(Effect._elementDoesNotExistError);
+var a65=Object.extend({
+scaleX:true,
+scaleY:true,
+scaleContent:true,
+scaleFromCenter:false,
+scaleMode:'box',
+scaleFrom:100.0,
+scaleTo:a64
+},arguments[2]||{});
+this.start(a65);
+},
+setup:function(){
+this.restoreAfterFinish=this.options.restoreAfterFinish||false;
+this.elementPositioning=this.element.getStyle('position');
+this.originalStyle={};
+['top','left','width','height','fontSize'].each(function(k){
+this.originalStyle[k]=this.element.style[k];
+}.bind(this));
+this.originalTop=this.element.offsetTop;
+this.originalLeft=this.element.offsetLeft;
+var a66=this.element.getStyle('font-size')||'100%';
+['em','px','%','pt'].each(function(fontSizeType){
+if(a66.indexOf(fontSizeType)>0){
+this.fontSize=parseFloat(a66);
+this.fontSizeType=fontSizeType;
+}
+}.bind(this));
+this.factor=(this.options.scaleTo-this.options.scaleFrom)/100;
+this.dims=null;
+if(this.options.scaleMode=='box')
+this.dims=[this.element.offsetHeight,this.element.offsetWidth];
+if(/^content/.test(this.options.scaleMode))
+this.dims=[this.element.scrollHeight,this.element.scrollWidth];
+if(!this.dims)
+this.dims=[this.options.scaleMode.originalHeight,
+this.options.scaleMode.originalWidth];
+},
+update:function(a67){
+var a68=(this.options.scaleFrom/100.0)+(this.factor*a67);
+if(this.options.scaleContent&&this.fontSize)
+this.element.setStyle({fontSize:this.fontSize*a68+this.fontSizeType});
+this.setDimensions(this.dims[0]*a68,this.dims[1]*a68);
+},
+finish:function(a69){
+if(this.restoreAfterFinish)this.element.setStyle(this.originalStyle);
+},
+setDimensions:function(a70,a71){
+var a72={};
+if(this.options.scaleX)a72.width=Math.round(a71)+'px';
+if(this.options.scaleY)a72.height=Math.round(a70)+'px';
+if(this.options.scaleFromCenter){
+var a73=(a70-this.dims[0])/2;
+var a74=(a71-this.dims[1])/2;
+if(this.elementPositioning=='absolute'){
+if(this.options.scaleY)a72.top=this.originalTop-a73+'px';
+if(this.options.scaleX)a72.left=this.originalLeft-a74+'px';
+}else{
+if(this.options.scaleY)a72.top=-a73+'px';
+if(this.options.scaleX)a72.left=-a74+'px';
+}
+}
+this.element.setStyle(a72);
+}
+});
+Effect.Highlight=Class.create();
+Object.extend(Object.extend(Effect.Highlight.prototype,Effect.Base.prototype),{
+initialize:function(a75){
+this.element=$(a75);
+if(!this.element)throw(Effect._elementDoesNotExistError);
+var a76=Object.extend({startcolor:'#ffff99'},arguments[1]||{});
+this.start(a76);
+},
+setup:function(){
+if(this.element.getStyle('display')=='none'){this.cancel();return;}
+this.oldStyle={
+backgroundImage:this.element.getStyle('background-image')};
+this.element.setStyle({backgroundImage:'none'});
+if(!this.options.endcolor)
+this.options.endcolor=this.element.getStyle('background-color').parseColor('#ffffff');
+if(!this.options.restorecolor)
+this.options.restorecolor=this.element.getStyle('background-color');
+this._base=$R(0,2).map(function(i){return parseInt(this.options.startcolor.slice(i*2+1,i*2+3),16)}.bind(this));
+this._delta=$R(0,2).map(function(i){return parseInt(this.options.endcolor.slice(i*2+1,i*2+3),16)-this._base[i]}.bind(this));
+},
+update:function(a77){
+this.element.setStyle({backgroundColor:$R(0,2).inject('#',function(m,v,i){
+return m+(Math.round(this._base[i]+(this._delta[i]*a77)).toColorPart());}.bind(this))});
+},
+finish:function(){
+this.element.setStyle(Object.extend(this.oldStyle,{
+backgroundColor:this.options.restorecolor
+}));
+}
+});
+Effect.ScrollTo=Class.create();
+Object.extend(Object.extend(Effect.ScrollTo.prototype,Effect.Base.prototype),{
+initialize:function(a78){
+this.element=$(a78);
+this.start(arguments[1]||{});
+},
+setup:function(){
+Position.prepare();
+var a79=Position.cumulativeOffset(this.element);
+if(this.options.offset)a79[1]+=this.options.offset;
+var a80=window.innerHeight?
+window.height-window.innerHeight:
+document.body.scrollHeight-
+(document.documentElement.clientHeight?
+document.documentElement.clientHeight:document.body.clientHeight);
+this.scrollStart=Position.deltaY;
+this.delta=(a79[1]>a80?a80:a79[1])-this.scrollStart;
+},
+update:function(a81){
+Position.prepare();
+window.scrollTo(Position.deltaX,
+this.scrollStart+(a81*this.delta));
+}
+});
+Effect.Fade=function(a82){
+a82=$(a82);
+var a83=a82.getInlineOpacity();
+var a84=Object.extend({
+from:a82.getOpacity()||1.0,
+to:0.0,
+afterFinishInternal:function(effect){
+if(effect.options.to!=0)return;
+effect.element.hide();
+effect.element.setStyle({opacity:a83});
+}},arguments[1]||{});
+return new Effect.Opacity(a82,a84);
+}
+Effect.Appear=function(a85){
+a85=$(a85);
+var a86=Object.extend({
+from:(a85.getStyle('display')=='none'?0.0:a85.getOpacity()||0.0),
+to:1.0,
+afterFinishInternal:function(effect){
+effect.element.forceRerendering();
+},
+beforeSetup:function(effect){
+effect.element.setOpacity(effect.options.from);
+effect.element.show();
+}},arguments[1]||{});
+return new Effect.Opacity(a85,a86);
+}
+Effect.Puff=function(a87){
+a87=$(a87);
+var a88={
+opacity:a87.getInlineOpacity(),
+position:a87.getStyle('position'),
+top:a87.style.top,
+left:a87.style.left,
+width:a87.style.width,
+height:a87.style.height
+};
+return new Effect.Parallel(
+[new Effect.Scale(a87,200,
+{sync:true,scaleFromCenter:true,scaleContent:true,restoreAfterFinish:true}),
+new Effect.Opacity(a87,{sync:true,to:0.0})],
+Object.extend({duration:1.0,
+beforeSetupInternal:function(effect){
+Position.absolutize(effect.effects[0].element)
+},
+afterFinishInternal:function(effect){
+effect.effects[0].element.hide();
+effect.effects[0].element.setStyle(a88);}
+},arguments[1]||{})
+);
+}
+Effect.BlindUp=function(a89){
+a89=$(a89);
+a89.makeClipping();
+return new Effect.Scale(a89,0,
+Object.extend({scaleContent:false,
+scaleX:false,
+restoreAfterFinish:true,
+afterFinishInternal:function(effect){
+effect.element.hide();
+effect.element.undoClipping();
+}
+},arguments[1]||{})
+);
+}
+Effect.BlindDown=function(a90){
+a90=$(a90);
+var a91=a90.getDimensions();
+return new Effect.Scale(a90,100,Object.extend({
+scaleContent:false,
+scaleX:false,
+scaleFrom:0,
+scaleMode:{originalHeight:a91.height,originalWidth:a91.width},
+restoreAfterFinish:true,
+afterSetup:function(effect){
+effect.element.makeClipping();
+effect.element.setStyle({height:'0px'});
+effect.element.show();
+},
+afterFinishInternal:function(effect){
+effect.element.undoClipping();
+}
+},arguments[1]||{}));
+}
+Effect.SwitchOff=function(a92){
+a92=$(a92);
+var a93=a92.getInlineOpacity();
+return new Effect.Appear(a92,Object.extend({
+duration:0.4,
+from:0,
+transition:Effect.Transitions.flicker,
+afterFinishInternal:function(effect){
+new Effect.Scale(effect.element,1,{
+duration:0.3,scaleFromCenter:true,
+scaleX:false,scaleContent:false,restoreAfterFinish:true,
+beforeSetup:function(effect){
+effect.element.makePositioned();
+effect.element.makeClipping();
+},
+afterFinishInternal:function(effect){
+effect.element.hide();
+effect.element.undoClipping();
+effect.element.undoPositioned();
+effect.element.setStyle({opacity:a93});
+}
+})
+}
+},arguments[1]||{}));
+}
+Effect.DropOut=function(a94){
+a94=$(a94);
+var a95={
+top:a94.getStyle('top'),
+left:a94.getStyle('left'),
+opacity:a94.getInlineOpacity()};
+return new Effect.Parallel(
+[new Effect.Move(a94,{x:0,y:100,sync:true}),
+new Effect.Opacity(a94,{sync:true,to:0.0})],
+Object.extend(
+{duration:0.5,
+beforeSetup:function(effect){
+effect.effects[0].element.makePositioned();
+},
+afterFinishInternal:function(effect){
+effect.effects[0].element.hide();
+effect.effects[0].element.undoPositioned();
+effect.effects[0].element.setStyle(a95);
+}
+},arguments[1]||{}));
+}
+Effect.Shake=function(a96){
+a96=$(a96);
+var a97={
+top:a96.getStyle('top'),
+left:a96.getStyle('left')};
+return new Effect.Move(a96,
+{x:20,y:0,duration:0.05,afterFinishInternal:function(effect){
+new Effect.Move(effect.element,
+{x:-40,y:0,duration:0.1,afterFinishInternal:function(effect){
+new Effect.Move(effect.element,
+{x:40,y:0,duration:0.1,afterFinishInternal:function(effect){
+new Effect.Move(effect.element,
+{x:-40,y:0,duration:0.1,afterFinishInternal:function(effect){
+new Effect.Move(effect.element,
+{x:40,y:0,duration:0.1,afterFinishInternal:function(effect){
+new Effect.Move(effect.element,
+{x:-20,y:0,duration:0.05,afterFinishInternal:function(effect){
+effect.element.undoPositioned();
+effect.element.setStyle(a97);
+}})}})}})}})}})}});
+}
+Effect.SlideDown=function(a98){
+a98=$(a98);
+a98.cleanWhitespace();
+var a99=$(a98.firstChild).getStyle('bottom');
+var a100=a98.getDimensions();
+return new Effect.Scale(a98,100,Object.extend({
+scaleContent:false,
+scaleX:false,
+scaleFrom:window.opera?0:1,
+scaleMode:{originalHeight:a100.height,originalWidth:a100.width},
+restoreAfterFinish:true,
+afterSetup:function(effect){
+effect.element.makePositioned();
+effect.element.firstChild.makePositioned();
+if(window.opera)effect.element.setStyle({top:''});
+effect.element.makeClipping();
+effect.element.setStyle({height:'0px'});
+effect.element.show();},
+afterUpdateInternal:function(effect){
+effect.element.firstChild.setStyle({bottom:
+(effect.dims[0]-effect.element.clientHeight)+'px'});
+},
+afterFinishInternal:function(effect){
+effect.element.undoClipping();
+if(/MSIE/.test(navigator.userAgent)&&!window.opera){
+effect.element.undoPositioned();
+effect.element.firstChild.undoPositioned();
+}else{
+effect.element.firstChild.undoPositioned();
+effect.element.undoPositioned();
+}
+effect.element.firstChild.setStyle({bottom:a99});}
+},arguments[1]||{})
+);
+}
+Effect.SlideUp=function(a101){
+a101=$(a101);
+a101.cleanWhitespace();
+var a102=$(a101.firstChild).getStyle('bottom');
+return new Effect.Scale(a101,window.opera?0:1,
+Object.extend({scaleContent:false,
+scaleX:false,
+scaleMode:'box',
+scaleFrom:100,
+restoreAfterFinish:true,
+beforeStartInternal:function(effect){
+effect.element.makePositioned();
+effect.element.firstChild.makePositioned();
+if(window.opera)effect.element.setStyle({top:''});
+effect.element.makeClipping();
+effect.element.show();},
+afterUpdateInternal:function(effect){
+effect.element.firstChild.setStyle({bottom:
+(effect.dims[0]-effect.element.clientHeight)+'px'});},
+afterFinishInternal:function(effect){
+effect.element.hide();
+effect.element.undoClipping();
+effect.element.firstChild.undoPositioned();
+effect.element.undoPositioned();
+effect.element.setStyle({bottom:a102});}
+},arguments[1]||{})
+);
+}
+Effect.Squish=function(a103){
+return new Effect.Scale(a103,window.opera?1:0,
+{restoreAfterFinish:true,
+beforeSetup:function(effect){
+effect.element.makeClipping(effect.element);},
+afterFinishInternal:function(effect){
+effect.element.hide(effect.element);
+effect.element.undoClipping(effect.element);}
+});
+}
+Effect.Grow=function(a104){
+a104=$(a104);
+var a105=Object.extend({
+direction:'center',
+moveTransition:Effect.Transitions.sinoidal,
+scaleTransition:Effect.Transitions.sinoidal,
+opacityTransition:Effect.Transitions.full
+},arguments[1]||{});
+var a106={
+top:a104.style.top,
+left:a104.style.left,
+height:a104.style.height,
+width:a104.style.width,
+opacity:a104.getInlineOpacity()};
+var a107=a104.getDimensions();
+var a108,initialMoveY;
+var a109,moveY;
+switch(a105.direction){
+case'top-left':
+a108=initialMoveY=a109=moveY=0;
+break;
+case'top-right':
+a108=a107.width;
+initialMoveY=moveY=0;
+a109=-a107.width;
+break;
+case'bottom-left':
+a108=a109=0;
+initialMoveY=a107.height;
+moveY=-a107.height;
+break;
+case'bottom-right':
+a108=a107.width;
+initialMoveY=a107.height;
+a109=-a107.width;
+moveY=-a107.height;
+break;
+case'center':
+a108=a107.width/2;
+initialMoveY=a107.height/2;
+a109=-a107.width/2;
+moveY=-a107.height/2;
+break;
+}
+return new Effect.Move(a104,{
+x:a108,
+y:initialMoveY,
+duration:0.01,
+beforeSetup:function(effect){
+effect.element.hide();
+effect.element.makeClipping();
+effect.element.makePositioned();
+},
+afterFinishInternal:function(effect){
+new Effect.Parallel(
+[new Effect.Opacity(effect.element,{sync:true,to:1.0,from:0.0,transition:a105.opacityTransition}),
+new Effect.Move(effect.element,{x:a109,y:moveY,sync:true,transition:a105.moveTransition}),
+new Effect.Scale(effect.element,100,{
+scaleMode:{originalHeight:a107.height,originalWidth:a107.width},
+sync:true,scaleFrom:window.opera?1:0,transition:a105.scaleTransition,restoreAfterFinish:true})
+],Object.extend({
+beforeSetup:function(effect){
+effect.effects[0].element.setStyle({height:'0px'});
+effect.effects[0].element.show();
+},
+afterFinishInternal:function(effect){
+effect.effects[0].element.undoClipping();
+effect.effects[0].element.undoPositioned();
+effect.effects[0].element.setStyle(a106);
+}
+},a105)
+)
+}
+});
+}
+Effect.Shrink=function(a110){
+a110=$(a110);
+var a111=Object.extend({
+direction:'center',
+moveTransition:Effect.Transitions.sinoidal,
+scaleTransition:Effect.Transitions.sinoidal,
+opacityTransition:Effect.Transitions.none
+},arguments[1]||{});
+var a112={
+top:a110.style.top,
+left:a110.style.left,
+height:a110.style.height,
+width:a110.style.width,
+opacity:a110.getInlineOpacity()};
+var a113=a110.getDimensions();
+var a114,moveY;
+switch(a111.direction){
+case'top-left':
+a114=moveY=0;
+break;
+case'top-right':
+a114=a113.width;
+moveY=0;
+break;
+case'bottom-left':
+a114=0;
+moveY=a113.height;
+break;
+case'bottom-right':
+a114=a113.width;
+moveY=a113.height;
+break;
+case'center':
+a114=a113.width/2;
+moveY=a113.height/2;
+break;
+}
+return new Effect.Parallel(
+[new Effect.Opacity(a110,{sync:true,to:0.0,from:1.0,transition:a111.opacityTransition}),
+new Effect.Scale(a110,window.opera?1:0,{sync:true,transition:a111.scaleTransition,restoreAfterFinish:true}),
+new Effect.Move(a110,{x:a114,y:moveY,sync:true,transition:a111.moveTransition})
+],Object.extend({
+beforeStartInternal:function(effect){
+effect.effects[0].element.makePositioned();
+effect.effects[0].element.makeClipping();},
+afterFinishInternal:function(effect){
+effect.effects[0].element.hide();
+effect.effects[0].element.undoClipping();
+effect.effects[0].element.undoPositioned();
+effect.effects[0].element.setStyle(a112);}
+},a111)
+);
+}
+Effect.Pulsate=function(a115){
+a115=$(a115);
+var a116=arguments[1]||{};
+var a117=a115.getInlineOpacity();
+var a118=a116.transition||Effect.Transitions.sinoidal;
+var a119=function(pos){return a118(1-Effect.Transitions.pulse(pos))};
+a119.bind(a118);
+return new Effect.Opacity(a115,
+Object.extend(Object.extend({duration:3.0,from:0,
+afterFinishInternal:function(effect){effect.element.setStyle({opacity:a117});}
+},a116),{a118:a119}));
+}
+Effect.Fold=function(a120){
+a120=$(a120);
+var a121={
+top:a120.style.top,
+left:a120.style.left,
+width:a120.style.width,
+height:a120.style.height};
+Element.makeClipping(a120);
+return new Effect.Scale(a120,5,Object.extend({
+scaleContent:false,
+scaleX:false,
+afterFinishInternal:function(effect){
+new Effect.Scale(a120,1,{
+scaleContent:false,
+scaleY:false,
+afterFinishInternal:function(effect){
+effect.element.hide();
+effect.element.undoClipping();
+effect.element.setStyle(a121);
+}});
+}},arguments[1]||{}));
+};
+['setOpacity','getOpacity','getInlineOpacity','forceRerendering','setContentZoom',
+'collectTextNodes','collectTextNodesIgnoreClass','childrenWithClassName'].each(
+function(a122){Element.Methods[a122]=Element[a122];}
+);
+Element.Methods.visualEffect=function(a123,a124,a125){
+s=a124.gsub(/_/,'-').camelize();
+effect_class=s.charAt(0).toUpperCase()+s.substring(1);
+new Effect[effect_class](a123,a125);
+return$(a123);
+};
+Element.addMethods();
@@ -0,0 +1,284 @@
+function popUp(a0){
+window.open(a0,"redRef","height=600,width=550,channelmode=0,dependent=0,directories=0,fullscreen=0,location=0,menubar=0,"+"resizable=0,scrollbars=1,status=1,toolbar=0");
+}
+function toggleHelp(a0,a1,a2){
+if(document.getElementById(a2).style.display=="none"){
+document.getElementById(a0).style.display="none";
+document.getElementById(a1).style.display="inline";
+new Effect.BlindDown(a2,{duration:0.4,
+afterFinish:function(){
+Element.undoClipping(a2);
+$(a2).style.width="auto";
+$(a2).style.height="auto";
+}})
+}else{
+document.getElementById(a0).style.display="inline";
+document.getElementById(a1).style.display="none";
+new Effect.BlindUp(a2,{duration:0.4,
+afterFinish:function(){
+Element.undoClipping(a2);
+Element.hide(a2);
+}})
+}
+}
+function newPage(a0){
+if(val=prompt("Enter the name of the page you would like to create:","")){
+document.location="/"+a0+"/page/new/"+encodeURIComponent(val);
+return false;
+}
+return false;
+}
+function newList(a0,a1){
+if(val=prompt("Enter the name of the task list you would like to create:","")){
+new Ajax.Request('/'+a0+'/tasks/create/'+a1+'?title='+encodeURIComponent(val),{asynchronous:true,evalScripts:true});
+return false;
+}
+return false;
+}
+function toggleTags(){
+var a0=document.getElementsByClassName('display_tag');
+for(var a1=0;a1<a0.length;a1++){
+if(a0[a1].style.display=="none"){
+a0[a1].style.display="block";
+}else{
+a0[a1].style.display="none";
+}
+}
+}
+function hideByClass(a0){
+var a1=document.getElementsByClassName(a0);
+for(var a2=0;a2<a1.length;a2++){
+a1[a2].style.display="none";
+}
+}
+function showByClass(a0){
+var a1=document.getElementsByClassName(a0);
+for(var a2=0;a2<a1.length;a2++){
+a1[a2].style.display="block";
+}
+}
+function toggleByClass(a0){
+var a1=document.getElementsByClassName(a0);
+for(var a2=0;a2<a1.length;a2++){
+if(a1[a2].style.display=="none"){
+new Effect.Appear(a1[a2]);
+}else{
+new Effect.Fade(a1[a2]);
+}
+}
+}
+function checkToggleSync(a0,a1){
+var a2=document.getElementsByClassName(a0);
+if(a2[0].style.display=="none"){
+new Effect.Fade(a1);
+}else{
+new Effect.Appear(a1);
+}
+}
+function reorder(a0,a1){
+if($('task_list_'+a0+'_reorder').style.display=='none'){
+Element.show('task_list_'+a0+'_reorder');
+Element.hide('task_list_'+a0+'_master_completed');
+Element.hide('master_add_item_'+a0);
+for(var a2=0;$('task_list_'+a0+'_items').childNodes[a2];a2++){
+Element.addClassName($('task_list_'+a0+'_items').childNodes[a2].id,'ReorderList');
+}
+Sortable.create('task_list_'+a0+'_items',{onUpdate:function(){new Ajax.Request(a1,{asynchronous:true,evalScripts:true,onComplete:function(request){new Effect.Highlight('task_list_'+a0+'_items',{});},parameters:Sortable.serialize('task_list_'+a0+'_items')})}})
+}else{
+Element.hide('task_list_'+a0+'_reorder');
+Element.show('task_list_'+a0+'_master_completed');
+Element.show('master_add_item_'+a0);
+for(var a2=0;$('task_list_'+a0+'_items').childNodes[a2];a2++){
+Element.removeClassName($('task_list_'+a0+'_items').childNodes[a2].id,'ReorderList');
+}
+Sortable.destroy('task_list_'+a0+'_items');
+}
+}
+var taskEditors={};
+function edit_tasks(a0,a1){
+if($('task_list_'+a0+'_edit').style.display=='none'){
+Element.show('task_list_'+a0+'_edit');
+Element.hide('task_list_'+a0+'_master_completed');
+Element.hide('master_add_item_'+a0);
+for(var a2=0;$('task_list_'+a0+'_items').childNodes[a2];a2++){
+if($('task_list_'+a0+'_items').childNodes[a2].id){
+taskEditors[a2]=new Ajax.InPlaceEditor($('task_list_'+a0+'_items').childNodes[a2].id+'_content','/'+a1+'/tasks/set_task_item_content/'+$('task_list_'+a0+'_items').childNodes[a2].id,{loadTextURL:'/'+a1+'/tasks/task_item_content_unformatted_text/'+$('task_list_'+a0+'_items').childNodes[a2].id})
+}
+}
+}else{
+Element.hide('task_list_'+a0+'_edit');
+Element.show('task_list_'+a0+'_master_completed');
+Element.show('master_add_item_'+a0);
+for(var a2=0;$('task_list_'+a0+'_items').childNodes[a2];a2++){
+if($('task_list_'+a0+'_items').childNodes[a2].id){
+taskEditors[a2].dispose();
+}
+}
+}
+}
+function toggleListDetail(){
+var a0=document.getElementsByClassName('CompletedByline');
+var a1=document.getElementsByClassName('AddedByline');
+var a2=new Date();
+a2.setTime(Date.parse('March, 15 2008 07:04:11'));
+if(a0.length!=0){
+if(a0[0].style.display=='none'){
+setCookie('show_list_detail','false',a2);
+}else{
+setCookie('show_list_detail','true',a2);
+}
+}else if(a1.length!=0){
+if(a1[0].style.display=='none'){
+setCookie('show_list_detail','false',a2);
+}else{
+setCookie('show_list_detail','true',a2);
+}
+}
+}
+function jumpto(a0){
+document.location.href=a0;
+}
+function toggleWikis(){
+if(document.getElementById("wikiList").style.display=="none"){
+document.getElementById("wikiList").style.display="block";
+document.getElementById("show_wiki_list").style.display="none";
+document.getElementById("hide_wiki_list").style.display="inline";
+}else{
+document.getElementById("wikiList").style.display="none";
+document.getElementById("show_wiki_list").style.display="inline";
+document.getElementById("hide_wiki_list").style.display="none";
+}
+}
+function showTrashIcon(a0){
+if(!Draggables.activeDraggable){
+Element.show(a0);
+}
+}
+function hideTrashIcon(a0){
+Element.hide(a0);
+}
+function showRestoreIcon(a0){
+Element.show('list_restore_icon_'+a0);
+}
+function hideRestoreIcon(a0){
+Element.hide('list_restore_icon_'+a0);
+}
+var trashHighlights=new Array();
+var listHighlights=new Array();
+var iconHighlights=new Array();
+function waitToHighlight(a0,a1){
+a0[a0.length]=a1;
+}
+function runHighlights(a0){
+if(a0.length==0){
+return;
+}
+for(var a1=0;a1<a0.length;a1++){
+new Effect.Highlight(a0[a1],{duration:5});
+}
+$A(a0).clear();
+}
+function countrySelect(a0){
+if(a0=='US'){
+}else if(a0=='CA'){
+Element.hide('account_state');
+Element.show('account_province');
+}else{
+Effect.Appear('IntlMessage');
+$('city_input_text').innerHTML='City / Municipality';
+}
+}
+function UpdateAmounts(a0,a1){
+if(a0=='Free'){
+var a2="0.00";
+}else if(a0=='Personal'){
+var a2="4.95";
+}else if(a0=='Power'){
+var a2="9.95";
+}else if(a0=='Team'){
+var a2="14.95";
+}else{
+var a2="NoWay";
+}
+switch(a1){
+case'Monthly':var a3="$"+a2+"/month";break
+case'HalfYear':var a3="$"+((a2*6)-a2).toFixed(2);a3+="/half-year";break
+case'Yearly':var a3="$"+((a2*12)-(a2*2)).toFixed(2);a3+="/yearly";break
+}
+$('to_amount').innerHTML=a3;
+new Effect.Shake('to_amount');
+}
+function show_dates_as_local_time(){
+var a0=document.getElementsByTagName('span');
+for(var a1=0;a1<a0.length;a1++){
+if(a0[a1].className.match(/\bstiki_date\b/i)){
+a0[a1].innerHTML=get_local_time_for_date(a0[a1].title);
+}
+}
+}
+function get_local_time_for_date(a0){
+system_date=new Date(a0);
+user_date=new Date();
+delta_minutes=Math.floor((user_date-system_date)/(60*1000));
+if(Math.abs(delta_minutes)<=(8*7*24*60)){
+distance=distance_of_time_in_words(delta_minutes);
+if(delta_minutes<0){
+return distance+' from now';
+}else{
+return distance+' ago';
+}
+}else{
+return'on '+system_date.toLocaleDateString();
+}
+}
+function distance_of_time_in_words(a0){
+if(a0.isNaN)return"";
+a0=Math.abs(a0);
+if(a0<1)return('less than a minute');
+if(a0<50)return(a0+' minute'+(a0==1?'':'s'));
+if(a0<90)return('about one hour');
+if(a0<1080)return(Math.round(a0/60)+' hours');
+if(a0<1440)return('one day');
+if(a0<2880)return('about one day');
+else return(Math.round(a0/1440)+' days')
+}
+function cleanAuthorName(){
+if(document.getElementById('authorName').value==""){
+document.getElementById('authorName').value='Anonymous';
+}
+}
+function createLink(a0,a1){
+var a2=document.createElement("a");
+a2.setAttribute("href",a0);
+a2.innerHTML=a1;
+return a2;
+}
+function generateTOC(a0){
+var a1=0,i3=0,i4=0;
+a0=a0.appendChild(document.createElement("ul"));
+for(var a2=0;a2<$('revision').childNodes.length;++a2){
+var a3=$('revision').childNodes[a2];
+var a4=a3.nodeName.toLowerCase();
+if(a4=="h4"){
+++i4;
+if(i4==1)a0.lastChild.lastChild.lastChild.appendChild(document.createElement("ul"));
+var a5=a1+"."+i3+"."+i4;
+a3.insertBefore(document.createTextNode(a5+". "),a3.firstChild);
+a3.id="section"+a5;
+a0.lastChild.lastChild.lastChild.lastChild.appendChild(document.createElement("li")).appendChild(createLink("#section"+a5,a3.innerHTML));
+}else if(a4=="h3"){
+++i3,i4=0;
+if(i3==1)a0.lastChild.appendChild(document.createElement("ul"));
+var a5=a1+"."+i3;
+a3.insertBefore(document.createTextNode(a5+". "),a3.firstChild);
+a3.id="section"+a5;
+a0.lastChild.lastChild.appendChild(document.createElement("li")).appendChild(createLink("#section"+a5,a3.innerHTML));
+}else if(a4=="h2"){
+++a1,i3=0,i4=0;
+var a5=a1;
+a3.insertBefore(document.createTextNode(a5+". "),a3.firstChild);
+a3.id="section"+a5;
+a0.appendChild(h2item=document.createElement("li")).appendChild(createLink("#section"+a5,a3.innerHTML));
+}
+}
+}
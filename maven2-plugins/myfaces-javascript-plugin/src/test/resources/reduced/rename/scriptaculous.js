@@ -0,0 +1,23 @@
+var Scriptaculous={
+Version:'1.7.0',
+require:function(a0){
+document.write('<script src="'+a0+'"></script>');
+},
+load:function(){
+if((typeof Prototype=='undefined')||
+(typeof Element=='undefined')||
+(typeof Element.Methods=='undefined')||
+parseFloat(Prototype.Version.split(".")[0]+"."+
+Prototype.Version.split(".")[1])<1.5)
+throw("script.aculo.us requires the Prototype JavaScript framework >= 1.5.0");
+$A(document.getElementsByTagName("script")).findAll(function(s){
+return(s.src&&s.src.match(/scriptaculous\.js(\?.*)?$/))
+}).each(function(s){
+var a1=s.src.replace(/scriptaculous\.js(\?.*)?$/,'');
+var a2=s.src.match(/\?.*load=([a-z,]*)/);
+(a2?a2[1]:'builder,effects,dragdrop,controls,slider').split(',').each(
+function(include){Scriptaculous.require(a1+include+'.js')});
+});
+}
+}
+Scriptaculous.load();
@@ -0,0 +1,235 @@
+if(!Control)var Control={};
+Control.Slider=Class.create();
+Control.Slider.prototype={
+initialize:function(a0,a1,a2){
+var a3=this;
+if(a0 instanceof Array){
+this.handles=a0.collect(function(e){return$(e)});
+}else{
+this.handles=[$(a0)];
+}
+this.track=$(a1);
+this.options=a2||{};
+this.axis=this.options.axis||'horizontal';
+this.increment=this.options.increment||1;
+this.step=parseInt(this.options.step||'1');
+this.range=this.options.range||$R(0,1);
+this.value=0;
+this.values=this.handles.map(function(){return 0});
+this.spans=this.options.spans?this.options.spans.map(function(s){return$(s)}):false;
+this.options.startSpan=$(this.options.startSpan||null);
+this.options.endSpan=$(this.options.endSpan||null);
+this.restricted=this.options.restricted||false;
+this.maximum=this.options.maximum||this.range.end;
+this.minimum=this.options.minimum||this.range.start;
+this.alignX=parseInt(this.options.alignX||'0');
+this.alignY=parseInt(this.options.alignY||'0');
+this.trackLength=this.maximumOffset()-this.minimumOffset();
+this.handleLength=this.isVertical()?
+(this.handles[0].offsetHeight!=0?
+this.handles[0].offsetHeight:this.handles[0].style.height.replace(/px$/,"")):
+(this.handles[0].offsetWidth!=0?this.handles[0].offsetWidth:
+this.handles[0].style.width.replace(/px$/,""));
+this.active=false;
+this.dragging=false;
+this.disabled=false;
+if(this.options.disabled)this.setDisabled();
+this.allowedValues=this.options.values?this.options.values.sortBy(Prototype.K):false;
+if(this.allowedValues){
+this.minimum=this.allowedValues.min();
+this.maximum=this.allowedValues.max();
+}
+this.eventMouseDown=this.startDrag.bindAsEventListener(this);
+this.eventMouseUp=this.endDrag.bindAsEventListener(this);
+this.eventMouseMove=this.update.bindAsEventListener(this);
+this.handles.each(function(h,i){
+i=a3.handles.length-1-i;
+a3.setValue(parseFloat(
+(a3.options.sliderValue instanceof Array?
+a3.options.sliderValue[i]:a3.options.sliderValue)||
+a3.range.start),i);
+Element.makePositioned(h);
+Event.observe(h,"mousedown",a3.eventMouseDown);
+});
+Event.observe(this.track,"mousedown",this.eventMouseDown);
+Event.observe(document,"mouseup",this.eventMouseUp);
+Event.observe(document,"mousemove",this.eventMouseMove);
+this.initialized=true;
+},
+dispose:function(){
+var a4=this;
+Event.stopObserving(this.track,"mousedown",this.eventMouseDown);
+Event.stopObserving(document,"mouseup",this.eventMouseUp);
+Event.stopObserving(document,"mousemove",this.eventMouseMove);
+this.handles.each(function(h){
+Event.stopObserving(h,"mousedown",a4.eventMouseDown);
+});
+},
+setDisabled:function(){
+this.disabled=true;
+},
+setEnabled:function(){
+this.disabled=false;
+},
+getNearestValue:function(a5){
+if(this.allowedValues){
+if(a5>=this.allowedValues.max())return(this.allowedValues.max());
+if(a5<=this.allowedValues.min())return(this.allowedValues.min());
+var a6=Math.abs(this.allowedValues[0]-a5);
+var a7=this.allowedValues[0];
+this.allowedValues.each(function(v){
+var a8=Math.abs(v-a5);
+if(a8<=a6){
+a7=v;
+a6=a8;
+}
+});
+return a7;
+}
+if(a5>this.range.end)return this.range.end;
+if(a5<this.range.start)return this.range.start;
+return a5;
+},
+setValue:function(a9,a10){
+if(!this.active){
+this.activeHandleIdx=a10||0;
+this.activeHandle=this.handles[this.activeHandleIdx];
+this.updateStyles();
+}
+a10=a10||this.activeHandleIdx||0;
+if(this.initialized&&this.restricted){
+if((a10>0)&&(a9<this.values[a10-1]))
+a9=this.values[a10-1];
+if((a10<(this.handles.length-1))&&(a9>this.values[a10+1]))
+a9=this.values[a10+1];
+}
+a9=this.getNearestValue(a9);
+this.values[a10]=a9;
+this.value=this.values[0];
+this.handles[a10].style[this.isVertical()?'top':'left']=
+this.translateToPx(a9);
+this.drawSpans();
+if(!this.dragging||!this.event)this.updateFinished();
+},
+setValueBy:function(a11,a12){
+this.setValue(this.values[a12||this.activeHandleIdx||0]+a11,
+a12||this.activeHandleIdx||0);
+},
+translateToPx:function(a13){
+return Math.round(
+((this.trackLength-this.handleLength)/(this.range.end-this.range.start))*
+(a13-this.range.start))+"px";
+},
+translateToValue:function(a14){
+return((a14/(this.trackLength-this.handleLength)*
+(this.range.end-this.range.start))+this.range.start);
+},
+getRange:function(a15){
+var a16=this.values.sortBy(Prototype.K);
+a15=a15||0;
+return$R(a16[a15],a16[a15+1]);
+},
+minimumOffset:function(){
+return(this.isVertical()?this.alignY:this.alignX);
+},
+maximumOffset:function(){
+return(this.isVertical()?
+(this.track.offsetHeight!=0?this.track.offsetHeight:
+this.track.style.height.replace(/px$/,""))-this.alignY:
+(this.track.offsetWidth!=0?this.track.offsetWidth:
+this.track.style.width.replace(/px$/,""))-this.alignY);
+},
+isVertical:function(){
+return(this.axis=='vertical');
+},
+drawSpans:function(){
+var a17=this;
+if(this.spans)
+$R(0,this.spans.length-1).each(function(r){a17.setSpan(a17.spans[r],a17.getRange(r))});
+if(this.options.startSpan)
+this.setSpan(this.options.startSpan,
+$R(0,this.values.length>1?this.getRange(0).min():this.value));
+if(this.options.endSpan)
+this.setSpan(this.options.endSpan,
+$R(this.values.length>1?this.getRange(this.spans.length-1).max():this.value,this.maximum));
+},
+setSpan:function(a18,a19){
+if(this.isVertical()){
+a18.style.top=this.translateToPx(a19.start);
+a18.style.height=this.translateToPx(a19.end-a19.start+this.range.start);
+}else{
+a18.style.left=this.translateToPx(a19.start);
+a18.style.width=this.translateToPx(a19.end-a19.start+this.range.start);
+}
+},
+updateStyles:function(){
+this.handles.each(function(h){Element.removeClassName(h,'selected')});
+Element.addClassName(this.activeHandle,'selected');
+},
+startDrag:function(a20){
+if(Event.isLeftClick(a20)){
+if(!this.disabled){
+this.active=true;
+var a21=Event.element(a20);
+var a22=[Event.pointerX(a20),Event.pointerY(a20)];
+var a23=a21;
+if(a23==this.track){
+var a24=Position.cumulativeOffset(this.track);
+this.event=a20;
+this.setValue(this.translateToValue(
+(this.isVertical()?a22[1]-a24[1]:a22[0]-a24[0])-(this.handleLength/2)
+));
+var a24=Position.cumulativeOffset(this.activeHandle);
+this.offsetX=(a22[0]-a24[0]);
+this.offsetY=(a22[1]-a24[1]);
+}else{
+while((this.handles.indexOf(a21)==-1)&&a21.parentNode)
+a21=a21.parentNode;
+this.activeHandle=a21;
+this.activeHandleIdx=this.handles.indexOf(this.activeHandle);
+this.updateStyles();
+var a24=Position.cumulativeOffset(this.activeHandle);
+this.offsetX=(a22[0]-a24[0]);
+this.offsetY=(a22[1]-a24[1]);
+}
+}
+Event.stop(a20);
+}
+},
+update:function(a25){
+if(this.active){
+if(!this.dragging)this.dragging=true;
+this.draw(a25);
+if(navigator.appVersion.indexOf('AppleWebKit')>0)window.scrollBy(0,0);
+Event.stop(a25);
+}
+},
+draw:function(a26){
+var a27=[Event.pointerX(a26),Event.pointerY(a26)];
+var a28=Position.cumulativeOffset(this.track);
+a27[0]-=this.offsetX+a28[0];
+a27[1]-=this.offsetY+a28[1];
+this.event=a26;
+this.setValue(this.translateToValue(this.isVertical()?a27[1]:a27[0]));
+if(this.initialized&&this.options.onSlide)
+this.options.onSlide(this.values.length>1?this.values:this.value,this);
+},
+endDrag:function(a29){
+if(this.active&&this.dragging){
+this.finishDrag(a29,true);
+Event.stop(a29);
+}
+this.active=false;
+this.dragging=false;
+},
+finishDrag:function(a30,a31){
+this.active=false;
+this.dragging=false;
+this.updateFinished();
+},
+updateFinished:function(){
+if(this.initialized&&this.options.onChange)
+this.options.onChange(this.values.length>1?this.values:this.value,this);
+this.event=null;
+}
+}
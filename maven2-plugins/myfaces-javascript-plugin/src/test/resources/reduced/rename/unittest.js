@@ -0,0 +1,522 @@
+Event.simulateMouse=function(a0,a1){
+var a2=Object.extend({
+pointerX:0,
+pointerY:0,
+buttons:0,
+ctrlKey:false,
+altKey:false,
+shiftKey:false,
+metaKey:false
+},arguments[2]||{});
+var a3=document.createEvent("MouseEvents");
+a3.initMouseEvent(a1,true,true,document.defaultView,
+a2.buttons,a2.pointerX,a2.pointerY,a2.pointerX,a2.pointerY,
+a2.ctrlKey,a2.altKey,a2.shiftKey,a2.metaKey,0,$(a0));
+if(this.mark)Element.remove(this.mark);
+this.mark=document.createElement('div');
+this.mark.appendChild(document.createTextNode(" "));
+document.body.appendChild(this.mark);
+this.mark.style.position='absolute';
+this.mark.style.top=a2.pointerY+"px";
+this.mark.style.left=a2.pointerX+"px";
+this.mark.style.width="5px";
+this.mark.style.height="5px;";
+this.mark.style.borderTop="1px solid red;"
+this.mark.style.borderLeft="1px solid red;"
+if(this.step)
+alert('['+new Date().getTime().toString()+'] '+a1+'/'+Test.Unit.inspect(a2));
+$(a0).dispatchEvent(a3);
+};
+Event.simulateKey=function(a4,a5){
+var a6=Object.extend({
+ctrlKey:false,
+altKey:false,
+shiftKey:false,
+metaKey:false,
+keyCode:0,
+charCode:0
+},arguments[2]||{});
+var a7=document.createEvent("KeyEvents");
+a7.initKeyEvent(a5,true,true,window,
+a6.ctrlKey,a6.altKey,a6.shiftKey,a6.metaKey,
+a6.keyCode,a6.charCode);
+$(a4).dispatchEvent(a7);
+};
+Event.simulateKeys=function(a8,a9){
+for(var a10=0;a10<a9.length;a10++){
+Event.simulateKey(a8,'keypress',{charCode:a9.charCodeAt(a10)});
+}
+};
+var Test={}
+Test.Unit={};
+Test.Unit.inspect=Object.inspect;
+Test.Unit.Logger=Class.create();
+Test.Unit.Logger.prototype={
+initialize:function(a11){
+this.log=$(a11);
+if(this.log){
+this._createLogTable();
+}
+},
+start:function(a12){
+if(!this.log)return;
+this.testName=a12;
+this.lastLogLine=document.createElement('tr');
+this.statusCell=document.createElement('td');
+this.nameCell=document.createElement('td');
+this.nameCell.className="nameCell";
+this.nameCell.appendChild(document.createTextNode(a12));
+this.messageCell=document.createElement('td');
+this.lastLogLine.appendChild(this.statusCell);
+this.lastLogLine.appendChild(this.nameCell);
+this.lastLogLine.appendChild(this.messageCell);
+this.loglines.appendChild(this.lastLogLine);
+},
+finish:function(a13,a14){
+if(!this.log)return;
+this.lastLogLine.className=a13;
+this.statusCell.innerHTML=a13;
+this.messageCell.innerHTML=this._toHTML(a14);
+this.addLinksToResults();
+},
+message:function(a15){
+if(!this.log)return;
+this.messageCell.innerHTML=this._toHTML(a15);
+},
+summary:function(a16){
+if(!this.log)return;
+this.logsummary.innerHTML=this._toHTML(a16);
+},
+_createLogTable:function(){
+this.log.innerHTML=
+'<div id="logsummary"></div>'+
+'<table id="logtable">'+
+'<thead><tr><th>Status</th><th>Test</th><th>Message</th></tr></thead>'+
+'<tbody id="loglines"></tbody>'+
+'</table>';
+this.logsummary=$('logsummary')
+this.loglines=$('loglines');
+},
+_toHTML:function(a17){
+return a17.escapeHTML().replace(/\n/g,"<br/>");
+},
+addLinksToResults:function(){
+$$("tr.failed .nameCell").each(function(td){
+td.title="Run only this test"
+Event.observe(td,'click',function(){window.location.search="?tests="+td.innerHTML;});
+});
+$$("tr.passed .nameCell").each(function(td){
+td.title="Run all tests"
+Event.observe(td,'click',function(){window.location.search="";});
+});
+}
+}
+Test.Unit.Runner=Class.create();
+Test.Unit.Runner.prototype={
+initialize:function(a18){
+this.options=Object.extend({
+testLog:'testlog'
+},arguments[1]||{});
+this.options.resultsURL=this.parseResultsURLQueryParameter();
+this.options.tests=this.parseTestsQueryParameter();
+if(this.options.testLog){
+this.options.testLog=$(this.options.testLog)||null;
+}
+if(this.options.tests){
+this.tests=[];
+for(var a19=0;a19<this.options.tests.length;a19++){
+if(/^test/.test(this.options.tests[a19])){
+this.tests.push(new Test.Unit.Testcase(this.options.tests[a19],a18[this.options.tests[a19]],a18["setup"],a18["teardown"]));
+}
+}
+}else{
+if(this.options.test){
+this.tests=[new Test.Unit.Testcase(this.options.test,a18[this.options.test],a18["setup"],a18["teardown"])];
+}else{
+this.tests=[];
+for(var a20 in a18){
+if(/^test/.test(a20)){
+this.tests.push(
+new Test.Unit.Testcase(
+this.options.context?' -> '+this.options.titles[a20]:a20,
+a18[a20],a18["setup"],a18["teardown"]
+));
+}
+}
+}
+}
+this.currentTest=0;
+this.logger=new Test.Unit.Logger(this.options.testLog);
+setTimeout(this.runTests.bind(this),1000);
+},
+parseResultsURLQueryParameter:function(){
+return window.location.search.parseQuery()["resultsURL"];
+},
+parseTestsQueryParameter:function(){
+if(window.location.search.parseQuery()["tests"]){
+return window.location.search.parseQuery()["tests"].split(',');
+};
+},
+getResult:function(){
+var a21=false;
+for(var a22=0;a22<this.tests.length;a22++){
+if(this.tests[a22].errors>0){
+return"ERROR";
+}
+if(this.tests[a22].failures>0){
+a21=true;
+}
+}
+if(a21){
+return"FAILURE";
+}else{
+return"SUCCESS";
+}
+},
+postResults:function(){
+if(this.options.resultsURL){
+new Ajax.Request(this.options.resultsURL,
+{method:'get',parameters:'result='+this.getResult(),asynchronous:false});
+}
+},
+runTests:function(){
+var a23=this.tests[this.currentTest];
+if(!a23){
+this.postResults();
+this.logger.summary(this.summary());
+return;
+}
+if(!a23.isWaiting){
+this.logger.start(a23.name);
+}
+a23.run();
+if(a23.isWaiting){
+this.logger.message("Waiting for "+a23.timeToWait+"ms");
+setTimeout(this.runTests.bind(this),a23.timeToWait||1000);
+}else{
+this.logger.finish(a23.status(),a23.summary());
+this.currentTest++;
+this.runTests();
+}
+},
+summary:function(){
+var a24=0;
+var a25=0;
+var a26=0;
+var a27=[];
+for(var a28=0;a28<this.tests.length;a28++){
+a24+=this.tests[a28].assertions;
+a25+=this.tests[a28].failures;
+a26+=this.tests[a28].errors;
+}
+return(
+(this.options.context?this.options.context+': ':'')+
+this.tests.length+" tests, "+
+a24+" assertions, "+
+a25+" failures, "+
+a26+" errors");
+}
+}
+Test.Unit.Assertions=Class.create();
+Test.Unit.Assertions.prototype={
+initialize:function(){
+this.assertions=0;
+this.failures=0;
+this.errors=0;
+this.messages=[];
+},
+summary:function(){
+return(
+this.assertions+" assertions, "+
+this.failures+" failures, "+
+this.errors+" errors"+"\n"+
+this.messages.join("\n"));
+},
+pass:function(){
+this.assertions++;
+},
+fail:function(a29){
+this.failures++;
+this.messages.push("Failure: "+a29);
+},
+info:function(a30){
+this.messages.push("Info: "+a30);
+},
+error:function(a31){
+this.errors++;
+this.messages.push(a31.name+": "+a31.message+"("+Test.Unit.inspect(a31)+")");
+},
+status:function(){
+if(this.failures>0)return'failed';
+if(this.errors>0)return'error';
+return'passed';
+},
+assert:function(a32){
+var a33=arguments[1]||'assert: got "'+Test.Unit.inspect(a32)+'"';
+try{a32?this.pass():
+this.fail(a33);}
+catch(e){this.error(e);}
+},
+assertEqual:function(a34,a35){
+var a36=arguments[2]||"assertEqual";
+try{(a34==a35)?this.pass():
+this.fail(a36+': expected "'+Test.Unit.inspect(a34)+
+'", actual "'+Test.Unit.inspect(a35)+'"');}
+catch(e){this.error(e);}
+},
+assertInspect:function(a37,a38){
+var a39=arguments[2]||"assertInspect";
+try{(a37==a38.inspect())?this.pass():
+this.fail(a39+': expected "'+Test.Unit.inspect(a37)+
+'", actual "'+Test.Unit.inspect(a38)+'"');}
+catch(e){this.error(e);}
+},
+assertEnumEqual:function(a40,a41){
+var a42=arguments[2]||"assertEnumEqual";
+try{$A(a40).length==$A(a41).length&&
+a40.zip(a41).all(function(pair){return pair[0]==pair[1]})?
+this.pass():this.fail(a42+': expected '+Test.Unit.inspect(a40)+
+', actual '+Test.Unit.inspect(a41));}
+catch(e){this.error(e);}
+},
+assertNotEqual:function(a43,a44){
+var a45=arguments[2]||"assertNotEqual";
+try{(a43!=a44)?this.pass():
+this.fail(a45+': got "'+Test.Unit.inspect(a44)+'"');}
+catch(e){this.error(e);}
+},
+assertIdentical:function(a46,a47){
+var a48=arguments[2]||"assertIdentical";
+try{(a46===a47)?this.pass():
+this.fail(a48+': expected "'+Test.Unit.inspect(a46)+
+'", actual "'+Test.Unit.inspect(a47)+'"');}
+catch(e){this.error(e);}
+},
+assertNotIdentical:function(a49,a50){
+var a51=arguments[2]||"assertNotIdentical";
+try{!(a49===a50)?this.pass():
+this.fail(a51+': expected "'+Test.Unit.inspect(a49)+
+'", actual "'+Test.Unit.inspect(a50)+'"');}
+catch(e){this.error(e);}
+},
+assertNull:function(a52){
+var a53=arguments[1]||'assertNull'
+try{(a52==null)?this.pass():
+this.fail(a53+': got "'+Test.Unit.inspect(a52)+'"');}
+catch(e){this.error(e);}
+},
+assertMatch:function(a54,a55){
+var a56=arguments[2]||'assertMatch';
+var a57=new RegExp(a54);
+try{(a57.exec(a55))?this.pass():
+this.fail(a56+' : regex: "'+Test.Unit.inspect(a54)+' did not match: '+Test.Unit.inspect(a55)+'"');}
+catch(e){this.error(e);}
+},
+assertHidden:function(a58){
+var a59=arguments[1]||'assertHidden';
+this.assertEqual("none",a58.style.display,a59);
+},
+assertNotNull:function(a60){
+var a61=arguments[1]||'assertNotNull';
+this.assert(a60!=null,a61);
+},
+assertType:function(a62,a63){
+var a64=arguments[2]||'assertType';
+try{
+(a63.constructor==a62)?this.pass():
+this.fail(a64+': expected "'+Test.Unit.inspect(a62)+
+'", actual "'+(a63.constructor)+'"');}
+catch(e){this.error(e);}
+},
+assertNotOfType:function(a65,a66){
+var a67=arguments[2]||'assertNotOfType';
+try{
+(a66.constructor!=a65)?this.pass():
+this.fail(a67+': expected "'+Test.Unit.inspect(a65)+
+'", actual "'+(a66.constructor)+'"');}
+catch(e){this.error(e);}
+},
+assertInstanceOf:function(a68,a69){
+var a70=arguments[2]||'assertInstanceOf';
+try{
+(a69 instanceof a68)?this.pass():
+this.fail(a70+": object was not an instance of the expected type");}
+catch(e){this.error(e);}
+},
+assertNotInstanceOf:function(a71,a72){
+var a73=arguments[2]||'assertNotInstanceOf';
+try{
+!(a72 instanceof a71)?this.pass():
+this.fail(a73+": object was an instance of the not expected type");}
+catch(e){this.error(e);}
+},
+assertRespondsTo:function(a74,a75){
+var a76=arguments[2]||'assertRespondsTo';
+try{
+(a75[a74]&&typeof a75[a74]=='function')?this.pass():
+this.fail(a76+": object doesn't respond to ["+a74+"]");}
+catch(e){this.error(e);}
+},
+assertReturnsTrue:function(a77,a78){
+var a79=arguments[2]||'assertReturnsTrue';
+try{
+var a80=a78[a77];
+if(!a80)a80=a78['is'+a77.charAt(0).toUpperCase()+a77.slice(1)];
+a80()?this.pass():
+this.fail(a79+": method returned false");}
+catch(e){this.error(e);}
+},
+assertReturnsFalse:function(a81,a82){
+var a83=arguments[2]||'assertReturnsFalse';
+try{
+var a84=a82[a81];
+if(!a84)a84=a82['is'+a81.charAt(0).toUpperCase()+a81.slice(1)];
+!a84()?this.pass():
+this.fail(a83+": method returned true");}
+catch(e){this.error(e);}
+},
+assertRaise:function(a85,a86){
+var a87=arguments[2]||'assertRaise';
+try{
+a86();
+this.fail(a87+": exception expected but none was raised");}
+catch(e){
+((a85==null)||(e.name==a85))?this.pass():this.error(e);
+}
+},
+assertElementsMatch:function(){
+var a88=$A(arguments),elements=$A(a88.shift());
+if(elements.length!=a88.length){
+this.fail('assertElementsMatch: size mismatch: '+elements.length+' elements, '+a88.length+' expressions');
+return false;
+}
+elements.zip(a88).all(function(pair,index){
+var a89=$(pair.first()),expression=pair.last();
+if(a89.match(expression))return true;
+this.fail('assertElementsMatch: (in index '+index+') expected '+expression.inspect()+' but got '+a89.inspect());
+}.bind(this))&&this.pass();
+},
+assertElementMatches:function(a90,a91){
+this.assertElementsMatch([a90],a91);
+},
+benchmark:function(a92,a93){
+var a94=new Date();
+(a93||1).times(a92);
+var a95=((new Date())-a94);
+this.info((arguments[2]||'Operation')+' finished '+
+a93+' iterations in '+(a95/1000)+'s');
+return a95;
+},
+_isVisible:function(a96){
+a96=$(a96);
+if(!a96.parentNode)return true;
+this.assertNotNull(a96);
+if(a96.style&&Element.getStyle(a96,'display')=='none')
+return false;
+return this._isVisible(a96.parentNode);
+},
+assertNotVisible:function(a97){
+this.assert(!this._isVisible(a97),Test.Unit.inspect(a97)+" was not hidden and didn't have a hidden parent either. "+(""||arguments[1]));
+},
+assertVisible:function(a98){
+this.assert(this._isVisible(a98),Test.Unit.inspect(a98)+" was not visible. "+(""||arguments[1]));
+},
+benchmark:function(a99,a100){
+var a101=new Date();
+(a100||1).times(a99);
+var a102=((new Date())-a101);
+this.info((arguments[2]||'Operation')+' finished '+
+a100+' iterations in '+(a102/1000)+'s');
+return a102;
+}
+}
+Test.Unit.Testcase=Class.create();
+Object.extend(Object.extend(Test.Unit.Testcase.prototype,Test.Unit.Assertions.prototype),{
+initialize:function(name,test,setup,teardown){
+Test.Unit.Assertions.prototype.initialize.bind(this)();
+this.name=name;
+if(typeof test=='string'){
+test=test.gsub(/(\.should[^\(]+\()/,'#{0}this,');
+test=test.gsub(/(\.should[^\(]+)\(this,\)/,'#{1}(this)');
+this.test=function(){
+eval('with(this){'+test+'}');
+}
+}else{
+this.test=test||function(){};
+}
+this.setup=setup||function(){};
+this.teardown=teardown||function(){};
+this.isWaiting=false;
+this.timeToWait=1000;
+},
+wait:function(a103,a104){
+this.isWaiting=true;
+this.test=a104;
+this.timeToWait=a103;
+},
+run:function(){
+try{
+try{
+if(!this.isWaiting)this.setup.bind(this)();
+this.isWaiting=false;
+this.test.bind(this)();
+}finally{
+if(!this.isWaiting){
+this.teardown.bind(this)();
+}
+}
+}
+catch(e){this.error(e);}
+}
+});
+Test.setupBDDExtensionMethods=function(){
+var METHODMAP={
+shouldEqual:'assertEqual',
+shouldNotEqual:'assertNotEqual',
+shouldEqualEnum:'assertEnumEqual',
+shouldBeA:'assertType',
+shouldNotBeA:'assertNotOfType',
+shouldBeAn:'assertType',
+shouldNotBeAn:'assertNotOfType',
+shouldBeNull:'assertNull',
+shouldNotBeNull:'assertNotNull',
+shouldBe:'assertReturnsTrue',
+shouldNotBe:'assertReturnsFalse',
+shouldRespondTo:'assertRespondsTo'
+};
+Test.BDDMethods={};
+for(m in METHODMAP){
+Test.BDDMethods[m]=eval(
+'function(){'+
+'var args = $A(arguments);'+
+'var scope = args.shift();'+
+'scope.'+METHODMAP[m]+'.apply(scope,(args || []).concat([this])); }');
+}
+[Array.prototype,String.prototype,Number.prototype].each(
+function(p){Object.extend(p,Test.BDDMethods)}
+);
+}
+Test.context=function(a105,a106,a107){
+Test.setupBDDExtensionMethods();
+var a108={};
+var a109={};
+for(specName in a106){
+switch(specName){
+case"setup":
+case"teardown":
+a108[specName]=a106[specName];
+break;
+default:
+var a110='test'+specName.gsub(/\s+/,'-').camelize();
+var a111=a106[specName].toString().split('\n').slice(1);
+if(/^\{/.test(a111[0]))a111=a111.slice(1);
+a111.pop();
+a111=a111.map(function(statement){
+return statement.strip()
+});
+a108[a110]=a111.join('\n');
+a109[a110]=specName;
+}
+}
+new Test.Unit.Runner(a108,{a109:a109,testLog:a107||'testlog',context:a105});
+};